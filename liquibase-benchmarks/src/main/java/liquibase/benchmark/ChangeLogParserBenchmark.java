@@ -0,0 +1,97 @@
+package liquibase.benchmark;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.parser.core.xml.XMLChangeLogSAXParser;
+import liquibase.resource.FileSystemResourceAccessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link XMLChangeLogSAXParser#parse} on a generated changelog file with the given number of changeSets.
+ * The changeSets cycle through createTable, addColumn, createIndex, insert and sql changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ChangeLogParserBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int changeSetCount;
+
+    private File directory;
+    private FileSystemResourceAccessor resourceAccessor;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = File.createTempFile("changelogbenchmark", "");
+        directory.delete();
+        directory.mkdirs();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(new File(directory, "changelog.xml")), "UTF-8"));
+        try {
+            writer.write("<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"\n" +
+                    "        xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
+                    "        xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.4.xsd\">\n");
+            for (int i = 0; i < changeSetCount; i++) {
+                writer.write(createChangeSet(i));
+            }
+            writer.write("</databaseChangeLog>\n");
+        } finally {
+            writer.close();
+        }
+        resourceAccessor = new FileSystemResourceAccessor(directory.getAbsolutePath());
+    }
+
+    @TearDown
+    public void tearDown() {
+        new File(directory, "changelog.xml").delete();
+        directory.delete();
+    }
+
+    @Benchmark
+    public DatabaseChangeLog parse() throws Exception {
+        return new XMLChangeLogSAXParser().parse("changelog.xml", new ChangeLogParameters(), resourceAccessor);
+    }
+
+    static String createChangeSet(int i) {
+        String table = "table_" + (i / 5);
+        StringBuilder changeSet = new StringBuilder();
+        changeSet.append("    <changeSet id=\"").append(i).append("\" author=\"benchmark\">\n");
+        switch (i % 5) {
+            case 0:
+                changeSet.append("        <createTable tableName=\"").append(table).append("\">\n")
+                        .append("            <column name=\"id\" type=\"int\"><constraints primaryKey=\"true\" nullable=\"false\"/></column>\n")
+                        .append("            <column name=\"name\" type=\"varchar(255)\"/>\n")
+                        .append("            <column name=\"created\" type=\"datetime\"/>\n")
+                        .append("        </createTable>\n");
+                break;
+            case 1:
+                changeSet.append("        <addColumn tableName=\"").append(table).append("\">\n")
+                        .append("            <column name=\"description\" type=\"varchar(2000)\"/>\n")
+                        .append("        </addColumn>\n");
+                break;
+            case 2:
+                changeSet.append("        <createIndex tableName=\"").append(table).append("\" indexName=\"idx_").append(i).append("\">\n")
+                        .append("            <column name=\"name\"/>\n")
+                        .append("        </createIndex>\n");
+                break;
+            case 3:
+                changeSet.append("        <insert tableName=\"").append(table).append("\">\n")
+                        .append("            <column name=\"id\" valueNumeric=\"").append(i).append("\"/>\n")
+                        .append("            <column name=\"name\" value=\"row ").append(i).append("\"/>\n")
+                        .append("        </insert>\n");
+                break;
+            default:
+                changeSet.append("        <sql>update ").append(table).append(" set description = 'changeSet ").append(i).append("'</sql>\n")
+                        .append("        <rollback>update ").append(table).append(" set description = null</rollback>\n");
+        }
+        changeSet.append("    </changeSet>\n");
+        return changeSet.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package liquibase.benchmark;
+
+import liquibase.change.AddColumnConfig;
+import liquibase.change.Change;
+import liquibase.change.CheckSum;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.change.core.*;
+import liquibase.changelog.ChangeSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ChangeSet#generateCheckSum()} for a changeSet with the given number of changes.
+ * computeCheckSum builds a new ChangeSet each time so the checksum is actually calculated, memoizedCheckSum reuses one ChangeSet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChangeSetCheckSumBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int changeCount;
+
+    private List<Change> changes;
+    private ChangeSet changeSet;
+
+    @Setup
+    public void setup() {
+        changes = new ArrayList<Change>();
+        for (int i = 0; i < changeCount; i++) {
+            changes.add(createChange(i));
+        }
+        changeSet = createChangeSet();
+    }
+
+    @Benchmark
+    public CheckSum computeCheckSum() {
+        return createChangeSet().generateCheckSum();
+    }
+
+    @Benchmark
+    public CheckSum memoizedCheckSum() {
+        return changeSet.generateCheckSum();
+    }
+
+    private ChangeSet createChangeSet() {
+        ChangeSet changeSet = new ChangeSet("1", "benchmark", false, false, "changelog.xml", null, null, null);
+        for (Change change : changes) {
+            changeSet.addChange(change);
+        }
+        return changeSet;
+    }
+
+    private Change createChange(int i) {
+        String table = "table_" + i;
+        switch (i % 4) {
+            case 0:
+                CreateTableChange createTable = new CreateTableChange();
+                createTable.setTableName(table);
+                createTable.addColumn(new ColumnConfig().setName("id").setType("int").setConstraints(new ConstraintsConfig().setPrimaryKey(true).setNullable(false)));
+                for (int c = 0; c < 10; c++) {
+                    createTable.addColumn(new ColumnConfig().setName("col_" + c).setType("varchar(255)"));
+                }
+                return createTable;
+            case 1:
+                AddColumnChange addColumn = new AddColumnChange();
+                addColumn.setTableName(table);
+                AddColumnConfig column = new AddColumnConfig();
+                column.setName("description");
+                column.setType("varchar(2000)");
+                addColumn.addColumn(column);
+                return addColumn;
+            case 2:
+                InsertDataChange insert = new InsertDataChange();
+                insert.setTableName(table);
+                insert.addColumn(new ColumnConfig().setName("id").setValueNumeric(i));
+                insert.addColumn(new ColumnConfig().setName("col_0").setValue("row " + i));
+                return insert;
+            default:
+                return new RawSQLChange("update " + table + " set description = 'changeSet " + i + "' where id > 100");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package liquibase.benchmark;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.structure.DatabaseObjectCollection;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.Index;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Table;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of looking up objects in a {@link DatabaseObjectCollection}, which backs both
+ * DatabaseSnapshot.include/get and StandardDiffGenerator.compareObjectType.
+ * The collection holds the given number of tables, each with {@link #COLUMNS_PER_TABLE} columns and one index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DatabaseObjectCollectionBenchmark {
+
+    private static final int COLUMNS_PER_TABLE = 20;
+
+    @Param({"100", "1000", "5000"})
+    public int tableCount;
+
+    private DatabaseObjectCollection collection;
+    private Column[] columnExamples;
+    private Index[] indexExamples;
+    private Table[] tableExamples;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Database database = new H2Database();
+        Schema schema = new Schema("LBCAT", "LBSCHEMA");
+        collection = new DatabaseObjectCollection(database);
+
+        tableExamples = new Table[tableCount];
+        columnExamples = new Column[tableCount];
+        indexExamples = new Index[tableCount];
+        for (int i = 0; i < tableCount; i++) {
+            Table table = (Table) new Table().setName("TABLE_" + i).setSchema(schema);
+            collection.add(table);
+            for (int c = 0; c < COLUMNS_PER_TABLE; c++) {
+                Column column = new Column().setName("COL_" + c).setRelation(table);
+                table.getColumns().add(column);
+                collection.add(column);
+            }
+            Index index = new Index().setName("IDX_" + i).setTable(table).addColumn(table.getColumns().get(0));
+            collection.add(index);
+
+            Table tableExample = (Table) new Table().setName("table_" + i).setSchema(schema);
+            tableExamples[i] = tableExample;
+            columnExamples[i] = new Column().setName("COL_" + (i % COLUMNS_PER_TABLE)).setRelation(tableExample);
+            indexExamples[i] = new Index().setName("IDX_" + i).setTable(tableExample).addColumn(new Column().setName("COL_0").setRelation(tableExample));
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % tableCount;
+        return next;
+    }
+
+    @Benchmark
+    public Object getTable() {
+        return collection.get(tableExamples[nextIndex()]);
+    }
+
+    @Benchmark
+    public Object getColumn() {
+        return collection.get(columnExamples[nextIndex()]);
+    }
+
+    @Benchmark
+    public Object getIndex() {
+        return collection.get(indexExamples[nextIndex()]);
+    }
+}
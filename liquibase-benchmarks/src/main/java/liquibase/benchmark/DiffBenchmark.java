@@ -0,0 +1,95 @@
+package liquibase.benchmark;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.diff.DiffResult;
+import liquibase.diff.compare.CompareControl;
+import liquibase.diff.core.StandardDiffGenerator;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link StandardDiffGenerator#compare} on snapshots of two in-memory H2 databases with the given number of tables.
+ * Each table has {@link #COLUMNS_PER_TABLE} columns, a primary key and an index. The comparison database is missing every tenth table,
+ * has a different column type in every seventh table and has one extra table, so the result contains missing, changed and unexpected objects.
+ * The snapshots are taken once during setup, so only the comparison is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DiffBenchmark {
+
+    private static final int COLUMNS_PER_TABLE = 10;
+
+    @Param({"100", "500"})
+    public int tableCount;
+
+    private Connection referenceConnection;
+    private Connection comparisonConnection;
+    private DatabaseSnapshot referenceSnapshot;
+    private DatabaseSnapshot comparisonSnapshot;
+
+    @Setup
+    public void setup() throws Exception {
+        referenceConnection = DriverManager.getConnection("jdbc:h2:mem:diffBenchmarkReference", "sa", "");
+        comparisonConnection = DriverManager.getConnection("jdbc:h2:mem:diffBenchmarkComparison", "sa", "");
+        createTables(referenceConnection, false);
+        createTables(comparisonConnection, true);
+
+        referenceSnapshot = createSnapshot(referenceConnection);
+        comparisonSnapshot = createSnapshot(comparisonConnection);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        referenceConnection.close();
+        comparisonConnection.close();
+    }
+
+    @Benchmark
+    public DiffResult compare() throws Exception {
+        return new StandardDiffGenerator().compare(referenceSnapshot, comparisonSnapshot, new CompareControl());
+    }
+
+    private DatabaseSnapshot createSnapshot(Connection connection) throws Exception {
+        Database database = new H2Database();
+        database.setConnection(new JdbcConnection(connection));
+        return SnapshotGeneratorFactory.getInstance().createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database));
+    }
+
+    private void createTables(Connection connection, boolean comparison) throws SQLException {
+        Statement statement = connection.createStatement();
+        try {
+            for (int i = 0; i < tableCount; i++) {
+                if (comparison && i % 10 == 0) {
+                    continue;
+                }
+                StringBuilder createTable = new StringBuilder("create table table_" + i + " (id int primary key");
+                for (int c = 0; c < COLUMNS_PER_TABLE; c++) {
+                    String type = comparison && i % 7 == 0 && c == 0 ? "varchar(100)" : "varchar(50)";
+                    createTable.append(", col_").append(c).append(" ").append(type);
+                }
+                createTable.append(")");
+                statement.execute(createTable.toString());
+                statement.execute("create index idx_" + i + " on table_" + i + " (col_0)");
+            }
+            if (comparison) {
+                statement.execute("create table unexpected_table (id int primary key, name varchar(50))");
+            }
+        } finally {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package liquibase.benchmark;
+
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.filter.ShouldRunChangeSetFilter;
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.jvm.JdbcConnection;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ShouldRunChangeSetFilter} against an in-memory H2 database whose DATABASECHANGELOG table holds the given number of rows.
+ * The changelog contains every ran changeSet and the same number of changeSets that have not ran yet.
+ * The ran changeSets are read from the database once during setup, so only building the filter and checking changeSets is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ShouldRunChangeSetFilterBenchmark {
+
+    @Param({"1000", "10000"})
+    public int ranChangeSetCount;
+
+    private Connection connection;
+    private Database database;
+    private ChangeSet[] changeSets;
+    private ShouldRunChangeSetFilter filter;
+
+    @Setup
+    public void setup() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:shouldRunChangeSetFilterBenchmark", "sa", "");
+        database = new H2Database();
+        database.setConnection(new JdbcConnection(connection));
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).init();
+
+        PreparedStatement insert = connection.prepareStatement("insert into DATABASECHANGELOG (ID, AUTHOR, FILENAME, DATEEXECUTED, ORDEREXECUTED, EXECTYPE) values (?, ?, ?, ?, ?, ?)");
+        try {
+            for (int i = 0; i < ranChangeSetCount; i++) {
+                insert.setString(1, String.valueOf(i));
+                insert.setString(2, "benchmark");
+                insert.setString(3, "com/example/changelog-" + (i % 20) + ".xml");
+                insert.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+                insert.setInt(5, i + 1);
+                insert.setString(6, "EXECUTED");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        } finally {
+            insert.close();
+        }
+        connection.commit();
+
+        changeSets = new ChangeSet[ranChangeSetCount * 2];
+        for (int i = 0; i < changeSets.length; i++) {
+            changeSets[i] = new ChangeSet(String.valueOf(i), "benchmark", false, false, "classpath:com/example/changelog-" + (i % 20) + ".xml", null, null, null);
+        }
+
+        database.getRanChangeSetList();
+        filter = new ShouldRunChangeSetFilter(database);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        ChangeLogHistoryServiceFactory.getInstance().resetAll();
+        connection.close();
+    }
+
+    @Benchmark
+    public ShouldRunChangeSetFilter createFilter() throws Exception {
+        return new ShouldRunChangeSetFilter(database);
+    }
+
+    @Benchmark
+    public int acceptChangeSets() {
+        int accepted = 0;
+        for (ChangeSet changeSet : changeSets) {
+            if (filter.accepts(changeSet).isAccepted()) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+}
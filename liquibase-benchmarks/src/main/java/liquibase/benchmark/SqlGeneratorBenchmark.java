@@ -0,0 +1,101 @@
+package liquibase.benchmark;
+
+import liquibase.change.AddColumnConfig;
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.change.core.*;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.DatabaseFunction;
+import liquibase.statement.SqlStatement;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SqlGeneratorFactory#generateSql(SqlStatement, Database)} for the statements of common changes.
+ * The databases have no connection, so only SQL generation is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SqlGeneratorBenchmark {
+
+    @Param({"h2", "postgresql", "oracle", "mysql", "mssql"})
+    public String databaseShortName;
+
+    private Database database;
+    private SqlStatement[] statements;
+
+    @Setup
+    public void setup() {
+        for (Database implementedDatabase : DatabaseFactory.getInstance().getImplementedDatabases()) {
+            if (implementedDatabase.getShortName().equals(databaseShortName)) {
+                database = implementedDatabase;
+            }
+        }
+        if (database == null) {
+            throw new IllegalArgumentException("Unknown database " + databaseShortName);
+        }
+
+        CreateTableChange createTable = new CreateTableChange();
+        createTable.setTableName("person");
+        createTable.addColumn(new ColumnConfig().setName("id").setType("int").setAutoIncrement(true).setConstraints(new ConstraintsConfig().setPrimaryKey(true).setNullable(false)));
+        createTable.addColumn(new ColumnConfig().setName("name").setType("varchar(255)").setConstraints(new ConstraintsConfig().setNullable(false)));
+        createTable.addColumn(new ColumnConfig().setName("created").setType("datetime").setDefaultValueComputed(new DatabaseFunction("CURRENT_TIMESTAMP")));
+        createTable.addColumn(new ColumnConfig().setName("address_id").setType("bigint"));
+
+        AddColumnChange addColumn = new AddColumnChange();
+        addColumn.setTableName("person");
+        AddColumnConfig column = new AddColumnConfig();
+        column.setName("description");
+        column.setType("clob");
+        addColumn.addColumn(column);
+
+        CreateIndexChange createIndex = new CreateIndexChange();
+        createIndex.setTableName("person");
+        createIndex.setIndexName("idx_person_name");
+        AddColumnConfig indexColumn = new AddColumnConfig();
+        indexColumn.setName("name");
+        createIndex.addColumn(indexColumn);
+
+        AddForeignKeyConstraintChange addForeignKey = new AddForeignKeyConstraintChange();
+        addForeignKey.setConstraintName("fk_person_address");
+        addForeignKey.setBaseTableName("person");
+        addForeignKey.setBaseColumnNames("address_id");
+        addForeignKey.setReferencedTableName("address");
+        addForeignKey.setReferencedColumnNames("id");
+
+        InsertDataChange insert = new InsertDataChange();
+        insert.setTableName("person");
+        insert.addColumn(new ColumnConfig().setName("id").setValueNumeric(1));
+        insert.addColumn(new ColumnConfig().setName("name").setValue("John O'Brien"));
+
+        UpdateDataChange update = new UpdateDataChange();
+        update.setTableName("person");
+        update.addColumn(new ColumnConfig().setName("name").setValue("Jane"));
+        update.setWhere("id = 1");
+
+        List<SqlStatement> statements = new ArrayList<SqlStatement>();
+        for (Change change : Arrays.asList(createTable, addColumn, createIndex, addForeignKey, insert, update)) {
+            statements.addAll(Arrays.asList(change.generateStatements(database)));
+        }
+        this.statements = statements.toArray(new SqlStatement[statements.size()]);
+    }
+
+    @Benchmark
+    public void generateSql(Blackhole blackhole) {
+        for (SqlStatement statement : statements) {
+            blackhole.consume(SqlGeneratorFactory.getInstance().generateSql(statement, database));
+        }
+    }
+}
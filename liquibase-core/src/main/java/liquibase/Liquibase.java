@@ -198,6 +198,7 @@ public class Liquibase {
         changeLogParameters.setContexts(contexts);
         changeLogParameters.setLabels(labelExpression);
 
+        SnapshotGeneratorFactory.getInstance().startMetadataCache(database);
         try {
             DatabaseChangeLog changeLog = getDatabaseChangeLog();
             
@@ -212,7 +213,9 @@ public class Liquibase {
             ChangeLogIterator changeLogIterator = getStandardChangelogIterator(contexts, labelExpression, changeLog);
 
             changeLogIterator.run(createUpdateVisitor(), new RuntimeEnvironment(database, contexts, labelExpression));
+            ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).flushExecTypes();
         } finally {
+            SnapshotGeneratorFactory.getInstance().stopMetadataCache(database);
             database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
             try {
                 lockService.releaseLock();
@@ -295,6 +298,7 @@ public class Liquibase {
         LockService lockService = LockServiceFactory.getInstance().getLockService(database);
         lockService.waitForLock();
 
+        SnapshotGeneratorFactory.getInstance().startMetadataCache(database);
         try {
 
             DatabaseChangeLog changeLog = getDatabaseChangeLog();
@@ -312,7 +316,9 @@ public class Liquibase {
                     new CountChangeSetFilter(changesToApply));
 
             logIterator.run(createUpdateVisitor(), new RuntimeEnvironment(database, contexts, labelExpression));
+            ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).flushExecTypes();
         } finally {
+            SnapshotGeneratorFactory.getInstance().stopMetadataCache(database);
             lockService.releaseLock();
             resetServices();
         }
@@ -337,6 +343,7 @@ public class Liquibase {
         LockService lockService = LockServiceFactory.getInstance().getLockService(database);
         lockService.waitForLock();
 
+        SnapshotGeneratorFactory.getInstance().startMetadataCache(database);
         try {
 
             DatabaseChangeLog changeLog = getDatabaseChangeLog();
@@ -353,7 +360,9 @@ public class Liquibase {
                     new UpToTagChangeSetFilter(tag, ranChangeSetList));
 
             logIterator.run(createUpdateVisitor(), new RuntimeEnvironment(database, contexts, labelExpression));
+            ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).flushExecTypes();
         } finally {
+            SnapshotGeneratorFactory.getInstance().stopMetadataCache(database);
             lockService.releaseLock();
             resetServices();
         }
@@ -805,6 +814,7 @@ public class Liquibase {
                     new DbmsChangeSetFilter(database));
 
             logIterator.run(new ChangeLogSyncVisitor(database, changeLogSyncListener), new RuntimeEnvironment(database, contexts, labelExpression));
+            ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).flushExecTypes();
         } finally {
             lockService.releaseLock();
             resetServices();
@@ -864,6 +874,7 @@ public class Liquibase {
                     new CountChangeSetFilter(1));
 
             logIterator.run(new ChangeLogSyncVisitor(database), new RuntimeEnvironment(database, contexts, labelExpression));
+            ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).flushExecTypes();
         } finally {
             lockService.releaseLock();
             resetServices();
@@ -1001,10 +1012,17 @@ public class Liquibase {
 
     }
 
+    /**
+     * Resets the lock service, history service and executor of this instance's database.
+     * The services of other databases are left alone, so other Liquibase instances can run at the same time.
+     */
     protected void resetServices() {
-        LockServiceFactory.getInstance().resetAll();
-        ChangeLogHistoryServiceFactory.getInstance().resetAll();
-        ExecutorService.getInstance().reset();
+        if (database != null) {
+            LockServiceFactory.getInstance().resetLockService(database);
+            ChangeLogHistoryServiceFactory.getInstance().resetChangeLogService(database);
+            ExecutorService.getInstance().clearExecutor(database);
+        }
+        CheckSumCache.getInstance().save();
     }
 
     /**
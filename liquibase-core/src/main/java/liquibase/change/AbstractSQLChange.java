@@ -6,6 +6,7 @@ import liquibase.exception.*;
 import liquibase.logging.LogFactory;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.RawSqlStatement;
+import liquibase.util.SqlStatementSplitter;
 import liquibase.util.StringUtils;
 
 import java.io.*;
@@ -17,7 +18,7 @@ import java.util.*;
  * Implements the necessary logic to choose how the SQL string should be parsed to generate the statements.
  *
  */
-public abstract class AbstractSQLChange extends AbstractChange implements DbmsTargetedChange {
+public abstract class AbstractSQLChange extends AbstractChange implements DbmsTargetedChange, StreamingChange {
 
     private boolean stripComments;
     private boolean splitStatements;
@@ -161,11 +162,12 @@ public abstract class AbstractSQLChange extends AbstractChange implements DbmsTa
     public CheckSum generateCheckSum() {
         InputStream stream = null;
         try {
-            stream = openSqlStream();
-
             String sql = this.sql;
-            if (stream == null && sql == null) {
-                sql = "";
+            if (sql == null) {
+                stream = openSqlStream();
+                if (stream == null) {
+                    sql = "";
+                }
             }
 
             if (sql != null) {
@@ -199,30 +201,48 @@ public abstract class AbstractSQLChange extends AbstractChange implements DbmsTa
 
         List<SqlStatement> returnStatements = new ArrayList<SqlStatement>();
 
-        String sql = StringUtils.trimToNull(getSql());
-        if (sql == null) {
-            return new SqlStatement[0];
+        StatementIterator statements = (StatementIterator) generateStatementIterator(database);
+        try {
+            while (statements.hasNext()) {
+                returnStatements.add(statements.next());
+            }
+        } finally {
+            statements.close();
         }
 
-        String processedSQL = normalizeLineEndings(sql);
-        for (String statement : StringUtils.processMutliLineSQL(processedSQL, isStripComments(), isSplitStatements(), getEndDelimiter())) {
-            if (database instanceof MSSQLDatabase) {
-                 statement = statement.replaceAll("\\n", "\r\n");
-             }
+        return returnStatements.toArray(new SqlStatement[returnStatements.size()]);
+    }
 
-            String escapedStatement = statement;
-            try {
-                if (database.getConnection() != null) {
-                    escapedStatement = database.getConnection().nativeSQL(statement);
-                }
-            } catch (DatabaseException e) {
-				escapedStatement = statement;
-			}
+    /**
+     * Splits the SQL from {@link #openSqlReader()} into statements while they are read, so only the statement being executed is held in memory.
+     */
+    @Override
+    public Iterator<SqlStatement> generateStatementIterator(Database database) {
+        Reader reader;
+        try {
+            reader = openSqlReader();
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        return new StatementIterator(reader, database);
+    }
 
-            returnStatements.add(new RawSqlStatement(escapedStatement, getEndDelimiter()));
+    /**
+     * Returns a reader over the SQL to split into statements, or null if there is no SQL. By default, reads the SQL from {@link #getSql()}.
+     */
+    protected Reader openSqlReader() throws IOException {
+        String sql = StringUtils.trimToNull(getSql());
+        if (sql == null) {
+            return null;
         }
+        return new StringReader(sql);
+    }
 
-        return returnStatements.toArray(new SqlStatement[returnStatements.size()]);
+    /**
+     * Called for each statement split from {@link #openSqlReader()} before its line endings are normalized. Returns the statement unchanged by default.
+     */
+    protected String expandStatement(String statement) {
+        return statement;
     }
 
     @Override
@@ -240,8 +260,11 @@ public abstract class AbstractSQLChange extends AbstractChange implements DbmsTa
         return new ChangeStatus().unknown("Cannot check raw sql status");
     }
 
+    /**
+     * Turns the Windows (\r\n) and old Mac (\r) line endings of the SQL into \n. Called on the SQL before it is split, and again on each statement after {@link #expandStatement(String)}.
+     */
     protected String normalizeLineEndings(String string) {
-        return string.replace("\r", "");
+        return string.replace("\r\n", "\n").replace('\r', '\n');
     }
 
 //    @Override
@@ -259,6 +282,156 @@ public abstract class AbstractSQLChange extends AbstractChange implements DbmsTa
 //        }
 //    }
 
+    private class StatementIterator implements Iterator<SqlStatement>, Closeable {
+        private final SqlStatementSplitter splitter;
+        private final Database database;
+        private SqlStatement next;
+
+        private StatementIterator(Reader reader, Database database) {
+            this.splitter = reader == null ? null : new SqlStatementSplitter(new LineEndingNormalizingReader(reader), isStripComments(), isSplitStatements(), getEndDelimiter());
+            this.database = database;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && splitter != null && splitter.hasNext()) {
+                String statement = StringUtils.trimToNull(normalizeLineEndings(expandStatement(splitter.next())));
+                if (statement == null) {
+                    continue;
+                }
+                if (database instanceof MSSQLDatabase) {
+                    statement = statement.replaceAll("\\n", "\r\n");
+                }
+
+                String escapedStatement = statement;
+                try {
+                    if (database.getConnection() != null) {
+                        escapedStatement = database.getConnection().nativeSQL(statement);
+                    }
+                } catch (DatabaseException e) {
+                    escapedStatement = statement;
+                }
+
+                next = new RawSqlStatement(escapedStatement, getEndDelimiter());
+            }
+            return next != null;
+        }
+
+        @Override
+        public SqlStatement next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            SqlStatement returnStatement = next;
+            next = null;
+            return returnStatement;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            if (splitter != null) {
+                try {
+                    splitter.close();
+                } catch (IOException e) {
+                    LogFactory.getLogger().debug("Error closing stream", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes the SQL through {@link #normalizeLineEndings(String)} one buffer at a time, so delimiters like "go" that must start a line are found whatever the line endings of the file.
+     * A \r at the end of a buffer is held back until the next buffer is read, so a \r\n is never split.
+     */
+    private class LineEndingNormalizingReader extends FilterReader {
+        private final char[] buffer = new char[8192];
+        private String normalized = "";
+        private int position = 0;
+        private boolean carriageReturn = false;
+        private boolean endOfInput = false;
+
+        private LineEndingNormalizingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            char[] next = new char[1];
+            if (read(next, 0, 1) < 0) {
+                return -1;
+            }
+            return next[0];
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            while (position >= normalized.length()) {
+                if (endOfInput) {
+                    return -1;
+                }
+                fill();
+            }
+            int read = Math.min(len, normalized.length() - position);
+            normalized.getChars(position, position + read, cbuf, off);
+            position += read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            while (skipped < n && read() >= 0) {
+                skipped++;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean ready() throws IOException {
+            return position < normalized.length() || in.ready();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void mark(int readAheadLimit) throws IOException {
+            throw new IOException("mark() not supported");
+        }
+
+        @Override
+        public void reset() throws IOException {
+            throw new IOException("reset() not supported");
+        }
+
+        private void fill() throws IOException {
+            StringBuilder chunk = new StringBuilder();
+            if (carriageReturn) {
+                chunk.append('\r');
+                carriageReturn = false;
+            }
+            int read = in.read(buffer, 0, buffer.length);
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                chunk.append(buffer, 0, read);
+                if (chunk.length() > 0 && chunk.charAt(chunk.length() - 1) == '\r') {
+                    chunk.setLength(chunk.length() - 1);
+                    carriageReturn = true;
+                }
+            }
+            normalized = normalizeLineEndings(chunk.toString());
+            position = 0;
+        }
+    }
+
     public static class NormalizingStream extends InputStream {
         private ByteArrayInputStream headerStream;
         private PushbackInputStream stream;
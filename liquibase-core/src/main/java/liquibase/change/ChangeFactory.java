@@ -7,6 +7,7 @@ import liquibase.servicelocator.ServiceLocator;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Factory class for constructing the correct liquibase.change.Change implementation based on a command name.
@@ -20,7 +21,7 @@ public class ChangeFactory {
     private static ChangeFactory instance;
 
     private Map<String, SortedSet<Class<? extends Change>>> registry = new ConcurrentHashMap<String, SortedSet<Class<? extends Change>>>();
-    private Map<Class<? extends Change>, ChangeMetaData> metaDataByClass = new ConcurrentHashMap<Class<? extends Change>, ChangeMetaData>();
+    private ConcurrentMap<Class<? extends Change>, ChangeMetaData> metaDataByClass = new ConcurrentHashMap<Class<? extends Change>, ChangeMetaData>();
 
     private Logger log;
 
@@ -97,10 +98,15 @@ public class ChangeFactory {
     }
 
     public ChangeMetaData getChangeMetaData(Change change) {
-        if (!metaDataByClass.containsKey(change.getClass())) {
-            metaDataByClass.put(change.getClass(), change.createChangeMetaData());
+        ChangeMetaData metaData = metaDataByClass.get(change.getClass());
+        if (metaData == null) {
+            metaData = change.createChangeMetaData();
+            ChangeMetaData existingMetaData = metaDataByClass.putIfAbsent(change.getClass(), metaData);
+            if (existingMetaData != null) {
+                metaData = existingMetaData;
+            }
         }
-        return metaDataByClass.get(change.getClass());
+        return metaData;
     }
 
     /**
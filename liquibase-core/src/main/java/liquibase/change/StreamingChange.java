@@ -0,0 +1,20 @@
+package liquibase.change;
+
+import liquibase.database.Database;
+import liquibase.statement.SqlStatement;
+
+import java.util.Iterator;
+
+/**
+ * Marks a Change class as able to generate its statements one at a time while they are executed or written out,
+ * so that changes with very many statements, like loading a large data file, do not need to hold them all in memory.
+ * Execution uses {@link #generateStatementIterator(Database)} instead of {@link Change#generateStatements(Database)} for these changes.
+ */
+public interface StreamingChange extends Change {
+
+    /**
+     * Return an iterator over statements that generate the same SQL as the ones {@link Change#generateStatements(Database)} returns, creating each statement only when it is requested.
+     * If the returned iterator is {@link java.io.Closeable}, it is closed once the statements were used, even if not all of them were read.
+     */
+    public Iterator<SqlStatement> generateStatementIterator(Database database);
+}
@@ -8,18 +8,25 @@ import liquibase.change.CheckSum;
 import liquibase.change.ColumnConfig;
 import liquibase.change.DatabaseChange;
 import liquibase.change.DatabaseChangeProperty;
+import liquibase.change.StreamingChange;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.AbstractJdbcDatabase;
 import liquibase.database.Database;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.MySQLDatabase;
 import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.exception.Warnings;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
 import liquibase.io.EmptyLineAndCommentSkippingInputStream;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.resource.ResourceAccessor;
 import liquibase.resource.UtfBomAwareReader;
+import liquibase.statement.BatchedInsertExecutablePreparedStatement;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.InsertOrUpdateStatement;
 import liquibase.statement.core.InsertSetStatement;
@@ -28,12 +35,17 @@ import liquibase.statement.core.InsertStatement;
 import liquibase.structure.core.Column;
 import liquibase.util.BooleanParser;
 import liquibase.util.StreamUtil;
+import liquibase.util.JdbcUtils;
 import liquibase.util.StringUtils;
 import liquibase.util.csv.CSVReader;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
 import java.util.*;
 
 
@@ -49,7 +61,7 @@ import java.util.*;
                 "Once the date format string is set, Liquibase will then call the SimpleDateFormat.parse() method attempting to parse the input string so that it can return a Date/Time. If problems occur, then a ParseException is thrown and the input string is treated as a String for the INSERT command to be generated.",
         priority = ChangeMetaData.PRIORITY_DEFAULT, appliesTo = "table",
         since = "1.7")
-public class LoadDataChange extends AbstractChange implements ChangeWithColumns<LoadDataColumnConfig> {
+public class LoadDataChange extends AbstractChange implements ChangeWithColumns<LoadDataColumnConfig>, StreamingChange {
 
     /**
      * CSV Lines starting with that sign(s) will be treated as comments by default
@@ -185,164 +197,26 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
     }
 
     @Override
-    public SqlStatement[] generateStatements(Database database) {
-        CSVReader reader = null;
-        try {
-            reader = getCSVReader();
-
-            if (reader == null) {
-                throw new UnexpectedLiquibaseException("Unable to read file " + this.getFile());
-            }
+    public SqlStatement[] generateStatements(final Database database) {
+        SqlStatement batchStatement = createBatchStatement(database);
+        if (batchStatement != null) {
+            return new SqlStatement[]{batchStatement};
+        }
 
-            String[] headers = reader.readNext();
-            if (headers == null) {
-                throw new UnexpectedLiquibaseException("Data file " + getFile() + " was empty");
-            }
+        CSVRowIterator rows = null;
+        try {
+            rows = new CSVRowIterator(database);
 
             List<SqlStatement> statements = new ArrayList<SqlStatement>();
 
             boolean anyPreparedStatements = false;
 
-            String[] line;
-            int lineNumber = 1; // Start at '1' to take into account the header (already processed)
-
-            boolean isCommentingEnabled = StringUtils.isNotEmpty(commentLineStartsWith);
-            while ((line = reader.readNext()) != null) {
-                lineNumber++;
-                if (line.length == 0 || (line.length == 1 && StringUtils.trimToNull(line[0]) == null)
-                        || (isCommentingEnabled && isLineCommented(line))) {
-                    continue; //nothing on this line
-                }
-
-                // Ensure eaech line has the same number of columns defined as does the header.
-                // (Failure could indicate unquoted strings with commas, for example).
-                if (line.length != headers.length) {
-                    throw new UnexpectedLiquibaseException("CSV file " + getFile() + " Line " + lineNumber + " has " + line.length + " values defined, Header has " + headers.length + ". Numbers MUST be equal (check for unquoted string with embedded commas)");
-                }
-
-                boolean needsPreparedStatement = false;
-
-                List<ColumnConfig> columns = new ArrayList<ColumnConfig>();
-                for (int i = 0; i < headers.length; i++) {
-                    Object value = line[i].trim();
-                    String columnName = headers[i].trim();
-
-                    ColumnConfig valueConfig = new ColumnConfig();
-
-                    ColumnConfig columnConfig = getColumnConfig(i, headers[i].trim());
-                    if (columnConfig != null) {
-                        if ("skip".equalsIgnoreCase(columnConfig.getType())) {
-                            continue;
-                        }
-
-                        // don't overwrite header name unless there is actually a value to override it with
-                        if (columnConfig.getName() != null) {
-                            columnName = columnConfig.getName();
-                        }
-
-                        valueConfig.setName(columnName);
-
-                        if (columnConfig.getType() != null) {
-                            if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
-                                if (value.toString().equalsIgnoreCase("NULL")) {
-                                    valueConfig.setValue(null);
-                                } else {
-                                    valueConfig.setValueBoolean(BooleanParser.parseBoolean(value.toString().toLowerCase()));
-                                }
-                            } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
-                                if (value.toString().equalsIgnoreCase("NULL")) {
-                                    valueConfig.setValue(null);
-                                } else {
-                                    valueConfig.setValueNumeric(value.toString());
-                                }
-                            } else if (columnConfig.getType().toLowerCase().contains("date") || columnConfig.getType().toLowerCase().contains("time")) {
-                                if (value.toString().equalsIgnoreCase("NULL")) {
-                                    valueConfig.setValue(null);
-                                } else {
-                                    valueConfig.setValueDate(value.toString());
-                                }
-                            } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
-                                if (value.toString().equalsIgnoreCase("NULL")) {
-                                    valueConfig.setValue(null);
-                                } else {
-                                    valueConfig.setValue(value.toString());
-                                }
-                            } else if (columnConfig.getType().equalsIgnoreCase("COMPUTED")) {
-                                if (value.toString().equalsIgnoreCase("NULL")) {
-                                    valueConfig.setValue(null);
-                                } else {
-                                    liquibase.statement.DatabaseFunction function = new liquibase.statement.DatabaseFunction(value.toString());
-                                    valueConfig.setValueComputed(function);
-                                }
-                            } else if (columnConfig.getType().equalsIgnoreCase("SEQUENCE")) {
-                                String sequenceName;
-                                if (value.toString().equalsIgnoreCase("NULL")) {
-                                    sequenceName = columnConfig.getDefaultValue();
-                                    if (sequenceName == null) {
-                                        throw new UnexpectedLiquibaseException("Must set a sequence name in the loadData column defaultValue attribute");
-                                    }
-                                } else {
-                                    sequenceName = value.toString();
-                                }
-                                liquibase.statement.SequenceNextValueFunction function = new liquibase.statement.SequenceNextValueFunction(sequenceName);
-                                valueConfig.setValueComputed(function);
-
-                            } else if (columnConfig.getType().equalsIgnoreCase("BLOB")) {
-                                if (value.toString().equalsIgnoreCase("NULL")) {
-                                    valueConfig.setValue(null);
-                                } else {
-                                    valueConfig.setValueBlobFile(value.toString());
-                                    needsPreparedStatement = true;
-                                }
-                            } else if (columnConfig.getType().equalsIgnoreCase("CLOB")) {
-                                if (value.toString().equalsIgnoreCase("NULL")) {
-                                    valueConfig.setValue(null);
-                                } else {
-                                    valueConfig.setValueClobFile(value.toString());
-                                    needsPreparedStatement = true;
-                                }
-                            } else {
-                                throw new UnexpectedLiquibaseException("loadData type of " + columnConfig.getType() + " is not supported.  Please use BOOLEAN, NUMERIC, DATE, STRING, COMPUTED, SEQUENCE or SKIP");
-                            }
-                        }
-                    } else {
-                        if (columnName.contains("(") || columnName.contains(")") && database instanceof AbstractJdbcDatabase) {
-                            columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
-                        }
-
-                        valueConfig.setName(columnName);
-
-                        if (value == null || value.toString().equalsIgnoreCase("NULL")) {
-                            // value is always going to be a string unless overridden by ColumnConfig
-                            valueConfig.setValue((String) value);
-                        } else {
-                            valueConfig.setValue(value.toString());
-                        }
-                    }
-                    columns.add(valueConfig);
-                }
-
-                if (needsPreparedStatement) {
+            while (rows.hasNext()) {
+                SqlStatement statement = createRowStatement(rows.next(), database);
+                if (statement instanceof InsertExecutablePreparedStatement) {
                     anyPreparedStatements = true;
-
-                    statements.add(new InsertExecutablePreparedStatement(database, getCatalogName(), getSchemaName(), getTableName(), columns,
-                            getChangeSet(), getResourceAccessor()));
-                } else {
-                    InsertStatement insertStatement = this.createStatement(getCatalogName(), getSchemaName(), getTableName());
-
-                    for (ColumnConfig column : columns) {
-                        String columnName = column.getName();
-                        Object value = column.getValueObject();
-
-                        if (value == null) {
-                            value = "NULL";
-                        }
-
-                        insertStatement.addColumnValue(columnName, value);
-                    }
-
-                    statements.add(insertStatement);
                 }
+                statements.add(statement);
             }
 
             if (anyPreparedStatements) {
@@ -353,7 +227,7 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
                     statementSet.addInsertStatement((InsertStatement) stmt);
                 }
 
-                if (database instanceof MSSQLDatabase || database instanceof MySQLDatabase || database instanceof PostgresDatabase) {
+                if (groupsRows(database)) {
                     List<InsertStatement> innerStatements = statementSet.getStatements();
                     if (innerStatements != null && innerStatements.size() > 0 && innerStatements.get(0) instanceof InsertOrUpdateStatement) {
                         //cannot do insert or update in a single statement
@@ -368,7 +242,7 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
         } catch (IOException e) {
             throw new RuntimeException(e);
         } catch (UnexpectedLiquibaseException ule) {
-            if (getChangeSet() != null && getChangeSet().getFailOnError() != null && !getChangeSet().getFailOnError()) {
+            if (ignoresErrors()) {
                 Logger log = LogFactory.getLogger();
                 log.info("Change set " + getChangeSet().toString(false) + " failed, but failOnError was false.  Error: " + ule.getMessage());
                 return new SqlStatement[0];
@@ -376,7 +250,105 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
                 throw ule;
             }
         } finally {
-            if (null != reader) {
+            if (rows != null) {
+                rows.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the statements of {@link #generateStatements(Database)}, reading the CSV file as the statements are requested.
+     * Consecutive rows that can be inserted together are grouped into {@link InsertSetStatement}s of one generated insert statement each,
+     * so the output only differs from {@link #generateStatements(Database)} if the file also contains rows that need a prepared statement.
+     */
+    @Override
+    public Iterator<SqlStatement> generateStatementIterator(Database database) {
+        SqlStatement batchStatement = createBatchStatement(database);
+        if (batchStatement != null) {
+            return Collections.singletonList(batchStatement).iterator();
+        }
+        try {
+            return new StatementIterator(database);
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        } catch (UnexpectedLiquibaseException ule) {
+            if (ignoresErrors()) {
+                LogFactory.getLogger().info("Change set " + getChangeSet().toString(false) + " failed, but failOnError was false.  Error: " + ule.getMessage());
+                return Collections.<SqlStatement>emptyList().iterator();
+            }
+            throw ule;
+        }
+    }
+
+    /**
+     * Returns a statement streaming every row of the CSV file into the table through JDBC batches, or null if the rows should be
+     * inserted one statement at a time. Rows are validated while they are inserted, so a bad row fails the change set which then rolls back.
+     */
+    private SqlStatement createBatchStatement(final Database database) {
+        if (!shouldBatchInsert(database)) {
+            return null;
+        }
+        Map<String, Integer> columnTypes = getBatchColumnTypes(database);
+        if (columnTypes == null) {
+            return null;
+        }
+        GlobalConfiguration configuration = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class);
+        Iterable<List<ColumnConfig>> rows = new Iterable<List<ColumnConfig>>() {
+            @Override
+            public Iterator<List<ColumnConfig>> iterator() {
+                try {
+                    return new CSVRowIterator(database);
+                } catch (IOException e) {
+                    throw new UnexpectedLiquibaseException(e);
+                }
+            }
+        };
+        return new BatchedInsertExecutablePreparedStatement(database, getCatalogName(), getSchemaName(), getTableName(), rows, columnTypes,
+                configuration.getLoadDataBatchSize(), configuration.getLoadDataCommitInterval(), getChangeSet(), getResourceAccessor());
+    }
+
+    /**
+     * Returns the JDBC type of every column the CSV file inserts into, keyed by column name, or null if any of them is unknown
+     * or the file cannot be read, in which case the rows are not batched.
+     */
+    private Map<String, Integer> getBatchColumnTypes(Database database) {
+        Map<String, Integer> tableColumnTypes = readTableColumnTypes(database);
+        if (tableColumnTypes == null) {
+            return null;
+        }
+        CSVReader reader = null;
+        try {
+            reader = getCSVReader();
+            if (reader == null) {
+                return null;
+            }
+            String[] headers = reader.readNext();
+            if (headers == null) {
+                return null;
+            }
+            Map<String, Integer> columnTypes = new TreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < headers.length; i++) {
+                String columnName = headers[i].trim();
+                ColumnConfig columnConfig = getColumnConfig(i, columnName);
+                if (columnConfig != null) {
+                    if ("skip".equalsIgnoreCase(columnConfig.getType())) {
+                        continue;
+                    }
+                    if (columnConfig.getName() != null) {
+                        columnName = columnConfig.getName();
+                    }
+                }
+                Integer type = tableColumnTypes.get(columnName);
+                if (type == null) {
+                    return null;
+                }
+                columnTypes.put(columnName, type);
+            }
+            return columnTypes;
+        } catch (IOException e) {
+            return null;
+        } finally {
+            if (reader != null) {
                 try {
                     reader.close();
                 } catch (IOException e) {
@@ -386,6 +358,191 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
         }
     }
 
+    /**
+     * Reads the JDBC types of the table's columns from the metadata of a query returning no rows. Returns null if the table cannot be queried.
+     */
+    private Map<String, Integer> readTableColumnTypes(Database database) {
+        Statement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = ((JdbcConnection) database.getConnection()).createStatement();
+            resultSet = statement.executeQuery("SELECT * FROM " + database.escapeTableName(getCatalogName(), getSchemaName(), getTableName()) + " WHERE 1 = 0");
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            Map<String, Integer> columnTypes = new TreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columnTypes.put(metaData.getColumnName(i), metaData.getColumnType(i));
+            }
+            return columnTypes;
+        } catch (Exception e) {
+            LogFactory.getLogger().debug("Cannot read the column types of " + getTableName() + ", rows will not be batched: " + e.getMessage());
+            return null;
+        } finally {
+            JdbcUtils.close(resultSet, statement);
+        }
+    }
+
+    private boolean ignoresErrors() {
+        return getChangeSet() != null && getChangeSet().getFailOnError() != null && !getChangeSet().getFailOnError();
+    }
+
+    /**
+     * Creates the statement inserting one row of the CSV file. Rows with values read from blob or clob files need a prepared statement.
+     */
+    private SqlStatement createRowStatement(List<ColumnConfig> columns, Database database) {
+        for (ColumnConfig column : columns) {
+            if (column.getValueBlobFile() != null || column.getValueClobFile() != null) {
+                return new InsertExecutablePreparedStatement(database, getCatalogName(), getSchemaName(), getTableName(), columns,
+                        getChangeSet(), getResourceAccessor());
+            }
+        }
+
+        InsertStatement insertStatement = this.createStatement(getCatalogName(), getSchemaName(), getTableName());
+        for (ColumnConfig column : columns) {
+            String columnName = column.getName();
+            Object value = column.getValueObject();
+
+            if (value == null) {
+                value = "NULL";
+            }
+
+            insertStatement.addColumnValue(columnName, value);
+        }
+        return insertStatement;
+    }
+
+    private boolean groupsRows(Database database) {
+        return database instanceof MSSQLDatabase || database instanceof MySQLDatabase || database instanceof PostgresDatabase;
+    }
+
+    /**
+     * Returns true if rows should be streamed from the CSV file and inserted through JDBC batches instead of being read into memory.
+     * Batching is used only when {@link GlobalConfiguration#LOAD_DATA_BATCH_SIZE} is set, statements are executed against a live connection,
+     * and every column value can be bound as a prepared statement parameter.
+     */
+    protected boolean shouldBatchInsert(Database database) {
+        Integer batchSize = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getLoadDataBatchSize();
+        if (batchSize == null || batchSize <= 0) {
+            return false;
+        }
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            return false;
+        }
+        if (ExecutorService.getInstance().getExecutor(database) instanceof LoggingExecutor) {
+            return false;
+        }
+        for (LoadDataColumnConfig column : columns) {
+            if ("COMPUTED".equalsIgnoreCase(column.getType()) || "SEQUENCE".equalsIgnoreCase(column.getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts a line of the CSV file into the column values to insert, applying the configured column types.
+     * Columns with a type of "skip" are not included.
+     */
+    protected List<ColumnConfig> createColumnValues(String[] headers, String[] line, Database database) {
+        List<ColumnConfig> columns = new ArrayList<ColumnConfig>();
+        for (int i = 0; i < headers.length; i++) {
+            Object value = line[i].trim();
+            String columnName = headers[i].trim();
+
+            ColumnConfig valueConfig = new ColumnConfig();
+
+            ColumnConfig columnConfig = getColumnConfig(i, headers[i].trim());
+            if (columnConfig != null) {
+                if ("skip".equalsIgnoreCase(columnConfig.getType())) {
+                    continue;
+                }
+
+                // don't overwrite header name unless there is actually a value to override it with
+                if (columnConfig.getName() != null) {
+                    columnName = columnConfig.getName();
+                }
+
+                valueConfig.setName(columnName);
+
+                if (columnConfig.getType() != null) {
+                    if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
+                        if (value.toString().equalsIgnoreCase("NULL")) {
+                            valueConfig.setValue(null);
+                        } else {
+                            valueConfig.setValueBoolean(BooleanParser.parseBoolean(value.toString().toLowerCase()));
+                        }
+                    } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
+                        if (value.toString().equalsIgnoreCase("NULL")) {
+                            valueConfig.setValue(null);
+                        } else {
+                            valueConfig.setValueNumeric(value.toString());
+                        }
+                    } else if (columnConfig.getType().toLowerCase().contains("date") || columnConfig.getType().toLowerCase().contains("time")) {
+                        if (value.toString().equalsIgnoreCase("NULL")) {
+                            valueConfig.setValue(null);
+                        } else {
+                            valueConfig.setValueDate(value.toString());
+                        }
+                    } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
+                        if (value.toString().equalsIgnoreCase("NULL")) {
+                            valueConfig.setValue(null);
+                        } else {
+                            valueConfig.setValue(value.toString());
+                        }
+                    } else if (columnConfig.getType().equalsIgnoreCase("COMPUTED")) {
+                        if (value.toString().equalsIgnoreCase("NULL")) {
+                            valueConfig.setValue(null);
+                        } else {
+                            liquibase.statement.DatabaseFunction function = new liquibase.statement.DatabaseFunction(value.toString());
+                            valueConfig.setValueComputed(function);
+                        }
+                    } else if (columnConfig.getType().equalsIgnoreCase("SEQUENCE")) {
+                        String sequenceName;
+                        if (value.toString().equalsIgnoreCase("NULL")) {
+                            sequenceName = columnConfig.getDefaultValue();
+                            if (sequenceName == null) {
+                                throw new UnexpectedLiquibaseException("Must set a sequence name in the loadData column defaultValue attribute");
+                            }
+                        } else {
+                            sequenceName = value.toString();
+                        }
+                        liquibase.statement.SequenceNextValueFunction function = new liquibase.statement.SequenceNextValueFunction(sequenceName);
+                        valueConfig.setValueComputed(function);
+
+                    } else if (columnConfig.getType().equalsIgnoreCase("BLOB")) {
+                        if (value.toString().equalsIgnoreCase("NULL")) {
+                            valueConfig.setValue(null);
+                        } else {
+                            valueConfig.setValueBlobFile(value.toString());
+                            }
+                    } else if (columnConfig.getType().equalsIgnoreCase("CLOB")) {
+                        if (value.toString().equalsIgnoreCase("NULL")) {
+                            valueConfig.setValue(null);
+                        } else {
+                            valueConfig.setValueClobFile(value.toString());
+                            }
+                    } else {
+                        throw new UnexpectedLiquibaseException("loadData type of " + columnConfig.getType() + " is not supported.  Please use BOOLEAN, NUMERIC, DATE, STRING, COMPUTED, SEQUENCE or SKIP");
+                    }
+                }
+            } else {
+                if (columnName.contains("(") || columnName.contains(")") && database instanceof AbstractJdbcDatabase) {
+                    columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
+                }
+
+                valueConfig.setName(columnName);
+
+                if (value == null || value.toString().equalsIgnoreCase("NULL")) {
+                    // value is always going to be a string unless overridden by ColumnConfig
+                    valueConfig.setValue(null);
+                } else {
+                    valueConfig.setValue(value.toString());
+                }
+            }
+            columns.add(valueConfig);
+        }
+        return columns;
+    }
+
     private boolean isLineCommented(String[] line) {
         return StringUtils.startsWith(line[0], commentLineStartsWith);
     }
@@ -426,6 +583,153 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
         return new CSVReader(streamReader, separator.charAt(0), quotchar);
     }
 
+    /**
+     * Reads the CSV file one line at a time, skipping empty and commented lines, and converts each line with {@link #createColumnValues(String[], String[], Database)}.
+     */
+    private class CSVRowIterator implements Iterator<List<ColumnConfig>>, Closeable {
+
+        private final Database database;
+        private CSVReader reader;
+        private String[] headers;
+        private List<ColumnConfig> nextRow;
+        private int lineNumber = 1; // Start at '1' to take into account the header (already processed)
+
+        private CSVRowIterator(Database database) throws IOException {
+            this.database = database;
+            this.reader = getCSVReader();
+
+            if (reader == null) {
+                throw new UnexpectedLiquibaseException("Unable to read file " + getFile());
+            }
+
+            headers = reader.readNext();
+            if (headers == null) {
+                close();
+                throw new UnexpectedLiquibaseException("Data file " + getFile() + " was empty");
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextRow == null && reader != null) {
+                try {
+                    nextRow = readRow();
+                } catch (IOException e) {
+                    close();
+                    throw new UnexpectedLiquibaseException(e);
+                }
+                if (nextRow == null) {
+                    close();
+                }
+            }
+            return nextRow != null;
+        }
+
+        @Override
+        public List<ColumnConfig> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<ColumnConfig> row = nextRow;
+            nextRow = null;
+            return row;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private List<ColumnConfig> readRow() throws IOException {
+            boolean isCommentingEnabled = StringUtils.isNotEmpty(commentLineStartsWith);
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                lineNumber++;
+                if (line.length == 0 || (line.length == 1 && StringUtils.trimToNull(line[0]) == null)
+                        || (isCommentingEnabled && isLineCommented(line))) {
+                    continue; //nothing on this line
+                }
+
+                // Ensure eaech line has the same number of columns defined as does the header.
+                // (Failure could indicate unquoted strings with commas, for example).
+                if (line.length != headers.length) {
+                    throw new UnexpectedLiquibaseException("CSV file " + getFile() + " Line " + lineNumber + " has " + line.length + " values defined, Header has " + headers.length + ". Numbers MUST be equal (check for unquoted string with embedded commas)");
+                }
+
+                return createColumnValues(headers, line, database);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    ;
+                }
+                reader = null;
+            }
+        }
+    }
+
+    /**
+     * Creates the statements for the rows of the CSV file while it is read, see {@link #generateStatementIterator(Database)}.
+     */
+    private class StatementIterator implements Iterator<SqlStatement>, Closeable {
+
+        private final Database database;
+        private final CSVRowIterator rows;
+        private final boolean groupRows;
+        private SqlStatement nextStatement;
+
+        private StatementIterator(Database database) throws IOException {
+            this.database = database;
+            this.rows = new CSVRowIterator(database);
+            this.groupRows = groupsRows(database);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextStatement != null || rows.hasNext();
+        }
+
+        @Override
+        public SqlStatement next() {
+            SqlStatement statement = nextStatement;
+            nextStatement = null;
+            if (statement == null) {
+                statement = createRowStatement(rows.next(), database);
+            }
+            if (!groupRows || !(statement instanceof InsertStatement) || statement instanceof InsertOrUpdateStatement) {
+                return statement;
+            }
+
+            InsertSetStatement statementSet = createStatementSet(getCatalogName(), getSchemaName(), getTableName());
+            statementSet.addInsertStatement((InsertStatement) statement);
+            while (statementSet.getStatements().size() <= statementSet.getBatchThreshold() && rows.hasNext()) { //InsertSetGenerator starts a new statement after batchThreshold + 1 rows
+                statement = createRowStatement(rows.next(), database);
+                if (!(statement instanceof InsertStatement)) {
+                    nextStatement = statement;
+                    break;
+                }
+                statementSet.addInsertStatement((InsertStatement) statement);
+            }
+            return statementSet;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            rows.close();
+        }
+    }
+
     protected InsertStatement createStatement(String catalogName, String schemaName, String tableName) {
         return new InsertStatement(catalogName, schemaName, tableName);
     }
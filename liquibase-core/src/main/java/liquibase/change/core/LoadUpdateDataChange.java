@@ -52,6 +52,14 @@ public class LoadUpdateDataChange extends LoadDataChange {
 		this.onlyUpdate = (onlyUpdate == null ? Boolean.FALSE : onlyUpdate) ;
 	}
 
+    /**
+     * Rows are never batched because each row needs an insert-or-update statement.
+     */
+    @Override
+    protected boolean shouldBatchInsert(Database database) {
+        return false;
+    }
+
 	@Override
     protected InsertStatement createStatement(String catalogName, String schemaName, String tableName) {
         return new InsertOrUpdateStatement(catalogName, schemaName, tableName, this.primaryKey, this.getOnlyUpdate());
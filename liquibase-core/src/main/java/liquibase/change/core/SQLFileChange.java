@@ -2,6 +2,7 @@ package liquibase.change.core;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 
 import liquibase.change.*;
 import liquibase.changelog.ChangeLogParameters;
@@ -114,6 +115,36 @@ public class SQLFileChange extends AbstractSQLChange {
         return inputStream;
     }
 
+    /**
+     * Reads the file while its statements are split instead of loading it into memory with {@link #getSql()}.
+     * Changelog parameters in the file are expanded in each statement by {@link #expandStatement(String)}.
+     */
+    @Override
+    protected Reader openSqlReader() throws IOException {
+        if (super.getSql() != null) {
+            return super.openSqlReader();
+        }
+        InputStream sqlStream = openSqlStream();
+        if (sqlStream == null) {
+            return null;
+        }
+        return StreamUtil.openReader(sqlStream, encoding);
+    }
+
+    @Override
+    protected String expandStatement(String statement) {
+        if (super.getSql() != null) {
+            return statement; //already expanded in setSql
+        }
+        if (getChangeSet() != null) {
+            ChangeLogParameters parameters = getChangeSet().getChangeLogParameters();
+            if (parameters != null) {
+                return parameters.expandExpressions(statement, getChangeSet().getChangeLog());
+            }
+        }
+        return statement;
+    }
+
     @Override
     public ValidationErrors validate(Database database) {
         ValidationErrors validationErrors = new ValidationErrors();
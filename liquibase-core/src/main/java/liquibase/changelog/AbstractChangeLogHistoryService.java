@@ -30,6 +30,16 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
 
     }
 
+    @Override
+    public void queueExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
+        setExecType(changeSet, execType);
+    }
+
+    @Override
+    public void flushExecTypes() throws DatabaseException {
+
+    }
+
     public ChangeSet.RunStatus getRunStatus(final ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException {
         RanChangeSet foundRan = getRanChangeSet(changeSet);
 
@@ -42,6 +42,17 @@ public interface ChangeLogHistoryService extends PrioritizedService {
 
     void setExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException;
 
+    /**
+     * Same as {@link #setExecType(ChangeSet, ChangeSet.ExecType)}, but the history may be written later together with other changeSets.
+     * Queued history is written by {@link #flushExecTypes()} and before the stored history is read or changed in any other way.
+     */
+    void queueExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException;
+
+    /**
+     * Writes history queued by {@link #queueExecType(ChangeSet, ChangeSet.ExecType)}.
+     */
+    void flushExecTypes() throws DatabaseException;
+
     void removeFromHistory(ChangeSet changeSet) throws DatabaseException;
 
     int getNextSequenceValue() throws LiquibaseException;
@@ -6,14 +6,16 @@ import liquibase.servicelocator.ServiceLocator;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ChangeLogHistoryServiceFactory {
 
     private static ChangeLogHistoryServiceFactory instance;
 
-    private List<ChangeLogHistoryService> registry = new ArrayList<ChangeLogHistoryService>();
+    private List<ChangeLogHistoryService> registry = new CopyOnWriteArrayList<ChangeLogHistoryService>();
 
-    private Map<Database, ChangeLogHistoryService> services = new ConcurrentHashMap<Database, ChangeLogHistoryService>();
+    private ConcurrentMap<Database, ChangeLogHistoryService> services = new ConcurrentHashMap<Database, ChangeLogHistoryService>();
 
     public static synchronized ChangeLogHistoryServiceFactory getInstance() {
         if (instance == null) {
@@ -53,8 +55,9 @@ public class ChangeLogHistoryServiceFactory {
     }
 
     public ChangeLogHistoryService getChangeLogService(Database database) {
-            if (services.containsKey(database)) {
-                return services.get(database);
+            ChangeLogHistoryService existingService = services.get(database);
+            if (existingService != null) {
+                return existingService;
             }
             SortedSet<ChangeLogHistoryService> foundServices = new TreeSet<ChangeLogHistoryService>(new Comparator<ChangeLogHistoryService>() {
                 @Override
@@ -86,13 +89,26 @@ public class ChangeLogHistoryServiceFactory {
                     service = exampleService;
                 }
 
-                services.put(database, service);
+                existingService = services.putIfAbsent(database, service);
+                if (existingService != null) {
+                    return existingService;
+                }
                 return service;
             } catch (Exception e) {
                 throw new UnexpectedLiquibaseException(e);
             }
     }
 
+    /**
+     * Resets and forgets the service created for the given database, leaving the services of other databases untouched.
+     */
+    public void resetChangeLogService(Database database) {
+        ChangeLogHistoryService service = services.remove(database);
+        if (service != null) {
+            service.reset();
+        }
+    }
+
     public synchronized void resetAll() {
         for (ChangeLogHistoryService changeLogHistoryService : registry) {
             changeLogHistoryService.reset();
@@ -22,6 +22,7 @@ public class ChangeLogParameters {
     private Database currentDatabase;
     private Contexts currentContexts;
     private LabelExpression currentLabelExpression;
+    private final Map<DatabaseChangeLog, Set<String>> expandedParameterNames = new IdentityHashMap<DatabaseChangeLog, Set<String>>();
 
     public ChangeLogParameters() {
         this(null);
@@ -157,6 +158,33 @@ public class ChangeLogParameters {
         return expressionExpander.expandExpressions(string, changeLog);
     }
 
+    /**
+     * Returns the names of the parameters looked up while expanding expressions for the given changelog, in the order they were first used.
+     */
+    public Set<String> getExpandedParameterNames(DatabaseChangeLog changeLog) {
+        synchronized (expandedParameterNames) {
+            Set<String> names = expandedParameterNames.get(changeLog);
+            if (names == null) {
+                return Collections.emptySet();
+            }
+            return new LinkedHashSet<String>(names);
+        }
+    }
+
+    private void expandedParameter(String key, DatabaseChangeLog changeLog) {
+        if (changeLog == null) {
+            return;
+        }
+        synchronized (expandedParameterNames) {
+            Set<String> names = expandedParameterNames.get(changeLog);
+            if (names == null) {
+                names = new LinkedHashSet<String>();
+                expandedParameterNames.put(changeLog, names);
+            }
+            names.add(key);
+        }
+    }
+
     public void setLabels(LabelExpression labels) {
         this.currentLabelExpression = labels;
     }
@@ -266,9 +294,11 @@ public class ChangeLogParameters {
                 String expressionString = originalText.substring(matcher.start(), matcher.end());
                 String valueTolookup = expressionString.replaceFirst("\\$\\{", "").replaceFirst("\\}$", "");
 
-                Object value = enableEscaping && valueTolookup.startsWith(":") 
-                		? null 
-                		: changeLogParameters.getValue(valueTolookup, changeLog);
+                Object value = null;
+                if (!enableEscaping || !valueTolookup.startsWith(":")) {
+                    changeLogParameters.expandedParameter(valueTolookup, changeLog);
+                    value = changeLogParameters.getValue(valueTolookup, changeLog);
+                }
 
                 if (value != null) {
                     text = text.replace(expressionString, value.toString());
@@ -24,6 +24,8 @@ import liquibase.precondition.ErrorPrecondition;
 import liquibase.precondition.FailedPrecondition;
 import liquibase.precondition.core.PreconditionContainer;
 import liquibase.resource.ResourceAccessor;
+import liquibase.snapshot.MetadataCache;
+import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.sql.visitor.SqlVisitor;
 import liquibase.sql.visitor.SqlVisitorFactory;
 import liquibase.statement.SqlStatement;
@@ -182,6 +184,15 @@ public class ChangeSet implements Conditional, ChangeLogChild {
      */
     private String runOrder;
 
+    /**
+     * Checksum computed by {@link #generateCheckSum()}, along with the number of changes and sqlVisitors it was computed from.
+     */
+    private CheckSum checkSum;
+    private int checkSumChangeCount;
+    private int checkSumSqlVisitorCount;
+
+    private ResourceAccessor resourceAccessor;
+
     public boolean shouldAlwaysRun() {
         return alwaysRun;
     }
@@ -236,7 +247,29 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         return filePath;
     }
 
+    /**
+     * Returns the checksum of this changeSet's changes and sqlVisitors.
+     * The checksum is computed once and reused until changes or sqlVisitors are added. It may also come from the {@link CheckSumCache}.
+     */
     public CheckSum generateCheckSum() {
+        if (checkSum != null && checkSumChangeCount == changes.size() && checkSumSqlVisitorCount == sqlVisitors.size()) {
+            return checkSum;
+        }
+        int changeCount = changes.size();
+        int sqlVisitorCount = sqlVisitors.size();
+
+        CheckSum checkSum = CheckSumCache.getInstance().getCheckSum(this);
+
+        this.checkSum = checkSum;
+        this.checkSumChangeCount = changeCount;
+        this.checkSumSqlVisitorCount = sqlVisitorCount;
+        return checkSum;
+    }
+
+    /**
+     * Computes the checksum from the serialized changes and sqlVisitors. Use {@link #generateCheckSum()} to get the checksum.
+     */
+    protected CheckSum computeCheckSum() {
         StringBuffer stringToMD5 = new StringBuffer();
         for (Change change : getChanges()) {
             stringToMD5.append(change.generateCheckSum()).append(":");
@@ -252,6 +285,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
 
     @Override
     public void load(ParsedNode node, ResourceAccessor resourceAccessor) throws ParsedNodeException {
+        this.resourceAccessor = resourceAccessor;
         this.id = node.getChildValue(null, "id", String.class);
         this.author = node.getChildValue(null, "author", String.class);
         this.alwaysRun  = node.getChildValue(null, "runAlways", node.getChildValue(null, "alwaysRun", false));
@@ -563,7 +597,14 @@ public class ChangeSet implements Conditional, ChangeLogChild {
                         }
 
 
-                        database.executeStatements(change, databaseChangeLog, sqlVisitors);
+                        try {
+                            database.executeStatements(change, databaseChangeLog, sqlVisitors);
+                        } finally {
+                            MetadataCache metadataCache = SnapshotGeneratorFactory.getInstance().getMetadataCache(database);
+                            if (metadataCache != null) {
+                                metadataCache.invalidate(change);
+                            }
+                        }
                         log.info(change.getConfirmationMessage());
                         if (listener != null) {
                             listener.ran(change, this, changeLog, database);
@@ -585,6 +626,10 @@ public class ChangeSet implements Conditional, ChangeLogChild {
             }
 
         } catch (Exception e) {
+            MetadataCache metadataCache = SnapshotGeneratorFactory.getInstance().getMetadataCache(database);
+            if (metadataCache != null) { //rollback may undo changes the cache already reflects
+                metadataCache.clear();
+            }
             try {
                 database.rollback();
             } catch (Exception e1) {
@@ -904,6 +949,13 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         return sqlVisitors;
     }
 
+    /**
+     * Returns the ResourceAccessor this changeSet was loaded with, or null if it was not loaded from a changelog file.
+     */
+    ResourceAccessor getResourceAccessor() {
+        return resourceAccessor;
+    }
+
     public ChangeLogParameters getChangeLogParameters() {
         return changeLogParameters;
     }
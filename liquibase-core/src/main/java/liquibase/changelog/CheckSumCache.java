@@ -0,0 +1,292 @@
+package liquibase.changelog;
+
+import liquibase.change.Change;
+import liquibase.change.CheckSum;
+import liquibase.change.core.CreateProcedureChange;
+import liquibase.change.core.LoadDataChange;
+import liquibase.change.core.SQLFileChange;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.logging.LogFactory;
+import liquibase.resource.CompositeResourceAccessor;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.LiquibaseUtil;
+import liquibase.util.MD5Util;
+import liquibase.util.StreamUtil;
+import liquibase.util.StringUtils;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.*;
+
+/**
+ * Caches changeSet checksums in the file configured with {@link GlobalConfiguration#getCheckSumCacheFile()} so they are not recomputed on every run.
+ * An entry is only used if the changelog file containing the changeSet, the files referenced by its changes, and the changelog parameters it uses
+ * are unchanged. Files are compared by modification time and size, so they do not need to be read.
+ * ChangeSets whose files cannot be found on the file system are never cached.
+ */
+public class CheckSumCache {
+
+    private static CheckSumCache instance;
+
+    private File cacheFile;
+    private Properties entries;
+    private boolean modified;
+
+    /**
+     * Marks a resource that exists but cannot be checked for changes without reading it.
+     */
+    private static final File UNKNOWN_FILE = new File("");
+
+    public static synchronized CheckSumCache getInstance() {
+        if (instance == null) {
+            instance = new CheckSumCache();
+        }
+        return instance;
+    }
+
+    public static synchronized void reset() {
+        instance = new CheckSumCache();
+    }
+
+    /**
+     * Returns the checksum for the given changeSet, using the cached value if its files are unchanged. Otherwise the checksum is computed and added to the cache.
+     */
+    public CheckSum getCheckSum(ChangeSet changeSet) {
+        if (!loadCache()) {
+            return changeSet.computeCheckSum();
+        }
+
+        String fingerprint = null;
+        try {
+            fingerprint = createFingerprint(changeSet);
+        } catch (IOException e) {
+            LogFactory.getInstance().getLog().debug("Not caching checksum for " + changeSet.toString(false) + ": " + e.getMessage());
+        }
+        if (fingerprint == null) {
+            return changeSet.computeCheckSum();
+        }
+
+        String key = changeSet.toString(false);
+        synchronized (this) {
+            String cached = entries.getProperty(key);
+            if (cached != null && cached.startsWith(fingerprint + " ")) {
+                return CheckSum.parse(cached.substring(fingerprint.length() + 1));
+            }
+        }
+
+        CheckSum checkSum = changeSet.computeCheckSum();
+        synchronized (this) {
+            entries.setProperty(key, fingerprint + " " + checkSum.toString());
+            modified = true;
+        }
+        return checkSum;
+    }
+
+    /**
+     * Writes new entries to the cache file, if any were added since it was read.
+     */
+    public synchronized void save() {
+        if (!modified || cacheFile == null) {
+            return;
+        }
+        File tempFile = new File(cacheFile.getPath() + ".tmp");
+        OutputStream outputStream = null;
+        try {
+            File parent = cacheFile.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            outputStream = new FileOutputStream(tempFile);
+            entries.store(outputStream, "Liquibase changeSet checksum cache");
+            outputStream.close();
+            outputStream = null;
+
+            if (!tempFile.renameTo(cacheFile)) {
+                cacheFile.delete();
+                if (!tempFile.renameTo(cacheFile)) {
+                    throw new IOException("Cannot rename " + tempFile + " to " + cacheFile);
+                }
+            }
+            modified = false;
+        } catch (IOException e) {
+            LogFactory.getInstance().getLog().warning("Cannot write checksum cache " + cacheFile.getAbsolutePath() + ": " + e.getMessage());
+        } finally {
+            if (outputStream != null) {
+                StreamUtil.closeQuietly(outputStream);
+            }
+        }
+    }
+
+    /**
+     * Reads the configured cache file if it was not read yet. Returns false if no cache file is configured.
+     */
+    protected synchronized boolean loadCache() {
+        String path = StringUtils.trimToNull(LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getCheckSumCacheFile());
+        if (path == null) {
+            return false;
+        }
+        File file = new File(path);
+        if (entries != null && file.equals(cacheFile)) {
+            return true;
+        }
+
+        save();
+        cacheFile = file;
+        entries = new Properties();
+        modified = false;
+        if (file.exists()) {
+            InputStream inputStream = null;
+            try {
+                inputStream = new FileInputStream(file);
+                entries.load(inputStream);
+            } catch (IOException e) {
+                LogFactory.getInstance().getLog().warning("Cannot read checksum cache " + file.getAbsolutePath() + ", ignoring it: " + e.getMessage());
+                entries.clear();
+            } finally {
+                if (inputStream != null) {
+                    StreamUtil.closeQuietly(inputStream);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Describes everything the checksum of the changeSet depends on, without reading any files.
+     * Returns null if a file cannot be located on the file system.
+     */
+    protected String createFingerprint(ChangeSet changeSet) throws IOException {
+        ResourceAccessor resourceAccessor = changeSet.getResourceAccessor();
+        DatabaseChangeLog changeLog = changeSet.getChangeLog();
+        if (resourceAccessor == null || changeLog == null || changeLog.getPhysicalFilePath() == null) {
+            return null;
+        }
+
+        StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(LiquibaseUtil.getBuildVersion()).append(":").append(CheckSum.getCurrentVersion());
+
+        String changeLogFile = describeFile(changeLog.getPhysicalFilePath(), resourceAccessor);
+        if (changeLogFile == null) {
+            return null;
+        }
+        fingerprint.append("|").append(changeLogFile);
+
+        for (Change change : changeSet.getChanges()) {
+            String path = null;
+            Boolean relativeToChangelogFile = null;
+            if (change instanceof SQLFileChange) {
+                path = ((SQLFileChange) change).getPath();
+                relativeToChangelogFile = ((SQLFileChange) change).isRelativeToChangelogFile();
+            } else if (change instanceof CreateProcedureChange) {
+                path = ((CreateProcedureChange) change).getPath();
+                relativeToChangelogFile = ((CreateProcedureChange) change).isRelativeToChangelogFile();
+            } else if (change instanceof LoadDataChange) {
+                path = ((LoadDataChange) change).getFile();
+                relativeToChangelogFile = ((LoadDataChange) change).isRelativeToChangelogFile();
+            }
+            if (path != null) {
+                if (relativeToChangelogFile != null && relativeToChangelogFile) {
+                    String base = changeLog.getPhysicalFilePath().replaceAll("\\\\", "/");
+                    if (!base.contains("/")) {
+                        base = ".";
+                    }
+                    path = base.replaceFirst("/[^/]*$", "") + "/" + path;
+                }
+                String file = describeFile(path, resourceAccessor);
+                if (file == null) {
+                    return null;
+                }
+                fingerprint.append("|").append(file);
+            }
+        }
+
+        ChangeLogParameters changeLogParameters = changeSet.getChangeLogParameters();
+        if (changeLogParameters == null) {
+            changeLogParameters = changeLog.getChangeLogParameters();
+        }
+        if (changeLogParameters != null) {
+            for (String name : changeLogParameters.getExpandedParameterNames(changeLog)) {
+                fingerprint.append("|").append(name).append("=").append(changeLogParameters.getValue(name, changeLog));
+            }
+        }
+
+        return MD5Util.computeMD5(fingerprint.toString());
+    }
+
+    /**
+     * Returns the path, modification time and size of the file the resourceAccessor would read for the given path, or null if it is not a single file.
+     */
+    protected String describeFile(String path, ResourceAccessor resourceAccessor) throws IOException {
+        File file = findFile(path, resourceAccessor);
+        if (file == null || file == UNKNOWN_FILE) {
+            return null;
+        }
+        return file.getAbsolutePath() + ":" + file.lastModified() + ":" + file.length();
+    }
+
+    /**
+     * Finds the file the resourceAccessor reads for the given path, following the lookup order of the standard ResourceAccessors.
+     * Returns null if the resourceAccessor does not contain the path and {@link #UNKNOWN_FILE} if it does but it is not a single file on the file system.
+     */
+    private File findFile(String path, ResourceAccessor resourceAccessor) throws IOException {
+        if (resourceAccessor instanceof CompositeResourceAccessor) {
+            for (ResourceAccessor accessor : ((CompositeResourceAccessor) resourceAccessor).getResourceAccessors()) {
+                File file = findFile(path, accessor);
+                if (file != null) {
+                    return file;
+                }
+            }
+            return null;
+        }
+
+        if (resourceAccessor instanceof FileSystemResourceAccessor) {
+            File absoluteFile = new File(path);
+            if (absoluteFile.isAbsolute() && absoluteFile.isFile()) {
+                return absoluteFile;
+            }
+            File baseDirectory = ((FileSystemResourceAccessor) resourceAccessor).getBaseDirectory();
+            File relativeFile = baseDirectory == null ? new File(path) : new File(baseDirectory, path);
+            if (relativeFile.isFile()) {
+                return relativeFile;
+            }
+            return relativeFile.exists() ? UNKNOWN_FILE : null;
+        }
+
+        ClassLoader classLoader = resourceAccessor.toClassLoader();
+        if (classLoader == null) {
+            return UNKNOWN_FILE;
+        }
+        Enumeration<URL> resources = classLoader.getResources(path);
+        Set<String> found = new HashSet<String>();
+        URL url = null;
+        while (resources != null && resources.hasMoreElements()) {
+            url = resources.nextElement();
+            found.add(url.toExternalForm());
+        }
+        if (found.isEmpty()) {
+            return null;
+        }
+        if (found.size() > 1) {
+            return UNKNOWN_FILE;
+        }
+
+        String location = url.toExternalForm();
+        if (location.startsWith("jar:") && location.contains("!/")) { //a changed entry always changes the jar itself
+            location = location.substring("jar:".length(), location.indexOf("!/"));
+        }
+        if (!location.startsWith("file:")) {
+            return UNKNOWN_FILE;
+        }
+        try {
+            File file = new File(new URL(location).toURI());
+            return file.isFile() ? file : UNKNOWN_FILE;
+        } catch (URISyntaxException e) {
+            return UNKNOWN_FILE;
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN_FILE;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import liquibase.changelog.filter.ContextChangeSetFilter;
 import liquibase.changelog.filter.DbmsChangeSetFilter;
 import liquibase.changelog.filter.LabelChangeSetFilter;
 import liquibase.changelog.visitor.ValidatingVisitor;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.ObjectQuotingStrategy;
 import liquibase.exception.LiquibaseException;
@@ -18,9 +19,11 @@ import liquibase.exception.ValidationFailedException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ChangeLogParserCofiguration;
 import liquibase.parser.ChangeLogParserFactory;
 import liquibase.parser.core.ParsedNode;
 import liquibase.parser.core.ParsedNodeException;
+import liquibase.parser.core.xml.AbstractChangeLogParser;
 import liquibase.precondition.Conditional;
 import liquibase.precondition.core.PreconditionContainer;
 import liquibase.resource.ResourceAccessor;
@@ -32,6 +35,10 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Encapsulates the information stored in the change log XML file.
@@ -41,11 +48,14 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
     private static final ThreadLocal<DatabaseChangeLog> PARENT_CHANGE_LOG = new ThreadLocal<DatabaseChangeLog>();
 
     private PreconditionContainer preconditionContainer = new PreconditionContainer();
+    private final Map<String, ParsedNode> readAheadNodes = new HashMap<String, ParsedNode>();
     private String physicalFilePath;
     private String logicalFilePath;
     private ObjectQuotingStrategy objectQuotingStrategy;
 
     private List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+    private Map<String, List<ChangeSet>> changeSetsByKey;
+    private int indexedChangeSetCount;
     private ChangeLogParameters changeLogParameters;
 
     private RuntimeEnvironment runtimeEnvironment;
@@ -167,15 +177,16 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
 
 
     public ChangeSet getChangeSet(String path, String author, String id) {
-        for (ChangeSet changeSet : changeSets) {
-            if (normalizePath(changeSet.getFilePath()).equalsIgnoreCase(normalizePath(path))
-                    && changeSet.getAuthor().equalsIgnoreCase(author)
-                    && changeSet.getId().equalsIgnoreCase(id)
-                    && (changeSet.getDbmsSet() == null
+        List<ChangeSet> candidates = getChangeSetIndex().get(createChangeSetKey(path, author, id));
+        if (candidates == null) {
+            return null;
+        }
+        for (ChangeSet changeSet : candidates) {
+            if (changeSet.getDbmsSet() == null
                     || changeLogParameters == null
                     || changeLogParameters.getValue("database.typeName", this) == null
                     || changeSet.getDbmsSet().isEmpty()
-                    || changeSet.getDbmsSet().contains(changeLogParameters.getValue("database.typeName", this).toString()))) {
+                    || changeSet.getDbmsSet().contains(changeLogParameters.getValue("database.typeName", this).toString())) {
                 return changeSet;
             }
         }
@@ -183,6 +194,39 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         return null;
     }
 
+    /**
+     * Returns the changeSets grouped by normalized path/author/id, in changelog order.
+     * The index is rebuilt lazily whenever changeSets have been added since it was last built.
+     */
+    protected Map<String, List<ChangeSet>> getChangeSetIndex() {
+        if (changeSetsByKey == null || indexedChangeSetCount != changeSets.size()) {
+            Map<String, List<ChangeSet>> index = new HashMap<String, List<ChangeSet>>();
+            for (ChangeSet changeSet : changeSets) {
+                String key = createChangeSetKey(changeSet.getFilePath(), changeSet.getAuthor(), changeSet.getId());
+                List<ChangeSet> list = index.get(key);
+                if (list == null) {
+                    list = new ArrayList<ChangeSet>(1);
+                    index.put(key, list);
+                }
+                list.add(changeSet);
+            }
+            changeSetsByKey = index;
+            indexedChangeSetCount = changeSets.size();
+        }
+        return changeSetsByKey;
+    }
+
+    private String createChangeSetKey(String path, String author, String id) {
+        return lowerCase(normalizePath(path)) + "::" + lowerCase(author) + "::" + lowerCase(id);
+    }
+
+    private String lowerCase(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.toLowerCase(Locale.ENGLISH);
+    }
+
     public List<ChangeSet> getChangeSets() {
         return changeSets;
     }
@@ -220,6 +264,7 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         } else {
             throw new UnexpectedLiquibaseException("Unknown runOrder: "+changeSet.getRunOrder());
         }
+        changeSetsByKey = null;
     }
 
     @Override
@@ -277,8 +322,88 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         if (objectQuotingStrategy != null) {
             setObjectQuotingStrategy(ObjectQuotingStrategy.valueOf(objectQuotingStrategy));
         }
+        readIncludedFiles(getIncludePaths(parsedNode), resourceAccessor);
+        try {
+            for (ParsedNode childNode : parsedNode.getChildren()) {
+                handleChildNode(childNode, resourceAccessor);
+            }
+        } finally {
+            readAheadNodes.clear();
+        }
+    }
+
+    /**
+     * Returns the paths of the files included with include tags, as far as they can be known before the changelog is loaded.
+     * Paths using changelog parameters are left out, since the parameters may be set by the changelog itself.
+     */
+    protected List<String> getIncludePaths(ParsedNode parsedNode) throws ParsedNodeException {
+        List<String> paths = new ArrayList<String>();
         for (ParsedNode childNode : parsedNode.getChildren()) {
-            handleChildNode(childNode, resourceAccessor);
+            if (childNode.getName().equals("include")) {
+                String path = childNode.getChildValue(null, "file", String.class);
+                if (path != null && !path.contains("${")) {
+                    paths.add(resolveIncludePath(path.replace('\\', '/'), childNode.getChildValue(null, "relativeToChangelogFile", false)));
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Reads the given included files concurrently if {@link ChangeLogParserCofiguration#getIncludeParseThreads()} is greater than one.
+     * Only reading the files into {@link ParsedNode} trees is done concurrently. The trees are loaded by {@link #include(String, boolean, ResourceAccessor, ContextExpression)}
+     * in changelog order, so changelog parameters and changeSet order are the same as when reading the files one after another.
+     * Files that fail to be read are read again by include(), which reports the error.
+     */
+    protected void readIncludedFiles(Collection<String> paths, final ResourceAccessor resourceAccessor) {
+        int threads = LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).getIncludeParseThreads();
+        if (threads < 2 || paths.size() < 2) {
+            return;
+        }
+
+        Map<String, AbstractChangeLogParser> parsers = new LinkedHashMap<String, AbstractChangeLogParser>();
+        for (String path : paths) {
+            if (readAheadNodes.containsKey(path) || path.equalsIgnoreCase(".svn") || path.equalsIgnoreCase("cvs")) {
+                continue;
+            }
+            try {
+                ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(path, resourceAccessor);
+                if (parser instanceof AbstractChangeLogParser) {
+                    parsers.put(path, (AbstractChangeLogParser) parser);
+                }
+            } catch (LiquibaseException e) {
+                //include() handles unknown file types
+            }
+        }
+        if (parsers.size() < 2) {
+            return;
+        }
+
+        java.util.concurrent.ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, parsers.size()));
+        try {
+            Map<String, Future<ParsedNode>> futures = new LinkedHashMap<String, Future<ParsedNode>>();
+            for (final Map.Entry<String, AbstractChangeLogParser> entry : parsers.entrySet()) {
+                futures.put(entry.getKey(), executor.submit(new Callable<ParsedNode>() {
+                    @Override
+                    public ParsedNode call() throws Exception {
+                        return entry.getValue().readParsedNode(entry.getKey(), resourceAccessor);
+                    }
+                }));
+            }
+            for (Map.Entry<String, Future<ParsedNode>> entry : futures.entrySet()) {
+                try {
+                    ParsedNode node = entry.getValue().get();
+                    if (node != null) {
+                        readAheadNodes.put(entry.getKey(), node);
+                    }
+                } catch (ExecutionException e) {
+                    LogFactory.getInstance().getLog().debug("Cannot read " + entry.getKey() + " ahead of time: " + e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
         }
     }
 
@@ -437,6 +562,7 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
                 throw new SetupException("Could not find directory or directory was empty for includeAll '" + pathName + "'");
             }
 
+            readIncludedFiles(resources, resourceAccessor);
             for (String path : resources) {
                 include(path, false, resourceAccessor, includeContexts);
             }
@@ -452,15 +578,7 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         }
 
         String relativeBaseFileName = this.getPhysicalFilePath();
-        if (isRelativePath) {
-            // workaround for FilenameUtils.normalize() returning null for relative paths like ../conf/liquibase.xml
-            String tempFile = FilenameUtils.concat(FilenameUtils.getFullPath(relativeBaseFileName), fileName);
-            if (tempFile != null && new File(tempFile).exists() == true) {
-                fileName = tempFile;
-            } else {
-                fileName = FilenameUtils.getFullPath(relativeBaseFileName) + fileName;
-            }
-        }
+        fileName = resolveIncludePath(fileName, isRelativePath);
         DatabaseChangeLog changeLog;
         try {
             DatabaseChangeLog rootChangeLog = ROOT_CHANGE_LOG.get();
@@ -471,7 +589,12 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
             PARENT_CHANGE_LOG.set(this);
             try {
                 ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(fileName, resourceAccessor);
-                changeLog = parser.parse(fileName, changeLogParameters, resourceAccessor);
+                ParsedNode readAheadNode = readAheadNodes.remove(fileName);
+                if (readAheadNode != null && parser instanceof AbstractChangeLogParser) {
+                    changeLog = ((AbstractChangeLogParser) parser).parse(fileName, readAheadNode, changeLogParameters, resourceAccessor);
+                } else {
+                    changeLog = parser.parse(fileName, changeLogParameters, resourceAccessor);
+                }
                 changeLog.setIncludeContexts(includeContexts);
             } finally {
                 if (rootChangeLog == null) {
@@ -501,6 +624,20 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         return true;
     }
 
+    protected String resolveIncludePath(String fileName, boolean isRelativePath) {
+        if (!isRelativePath) {
+            return fileName;
+        }
+        String relativeBaseFileName = this.getPhysicalFilePath();
+        // workaround for FilenameUtils.normalize() returning null for relative paths like ../conf/liquibase.xml
+        String tempFile = FilenameUtils.concat(FilenameUtils.getFullPath(relativeBaseFileName), fileName);
+        if (tempFile != null && new File(tempFile).exists() == true) {
+            return tempFile;
+        } else {
+            return FilenameUtils.getFullPath(relativeBaseFileName) + fileName;
+        }
+    }
+
     protected ChangeSet createChangeSet(ParsedNode node, ResourceAccessor resourceAccessor) throws ParsedNodeException, SetupException {
         ChangeSet changeSet = new ChangeSet(this);
         changeSet.setChangeLogParameters(this.getChangeLogParameters());
@@ -521,6 +658,7 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
 
     public void setIgnoreClasspathPrefix(boolean ignoreClasspathPrefix) {
         this.ignoreClasspathPrefix = ignoreClasspathPrefix;
+        this.changeSetsByKey = null;
     }
 
     public boolean ignoreClasspathPrefix() {
@@ -528,6 +666,9 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
     }
 
     protected String normalizePath(String filePath) {
+        if (filePath == null) {
+            return null;
+        }
         if (ignoreClasspathPrefix) {
             return filePath.replaceFirst("^classpath:", "");
         }
@@ -6,10 +6,13 @@ import liquibase.LabelExpression;
 import liquibase.Labels;
 import liquibase.change.CheckSum;
 import liquibase.change.ColumnConfig;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.DB2Database;
 import liquibase.database.core.SQLiteDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.datatype.core.VarcharType;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.DatabaseHistoryException;
@@ -17,17 +20,25 @@ import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
+import liquibase.executor.jvm.RowCallbackHandler;
 import liquibase.logging.LogFactory;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.sql.Sql;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.*;
 import liquibase.structure.core.Column;
 import liquibase.structure.core.DataType;
 import liquibase.structure.core.Table;
+import liquibase.util.JdbcUtils;
 
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -35,11 +46,19 @@ import java.util.*;
 
 public class StandardChangeLogHistoryService extends AbstractChangeLogHistoryService {
 
+    private static final String[] RAN_CHANGE_SET_COLUMNS = new String[] {"FILENAME", "AUTHOR", "ID", "MD5SUM", "DESCRIPTION", "COMMENTS", "DATEEXECUTED",
+            "ORDEREXECUTED", "TAG", "EXECTYPE", "CONTEXTS", "LABELS", "DEPLOYMENT_ID"};
+
     private List<RanChangeSet> ranChangeSetList;
+    private Map<String, RanChangeSet> ranChangeSetsByKey;
+    private Integer lastReadOrderExecuted;
+    private Date lastReadDateExecuted;
     private boolean serviceInitialized = false;
     private Boolean hasDatabaseChangeLogTable = null;
     private boolean databaseChecksumsCompatible = true;
     private Integer lastChangeSetSequenceValue;
+    private List<String> queuedExecTypeSql = new ArrayList<String>();
+    private Boolean supportsBatchUpdates;
 
     @Override
     public int getPriority() {
@@ -68,7 +87,15 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
     }
 
     public void reset() {
+        if (!queuedExecTypeSql.isEmpty()) {
+            try {
+                flushExecTypes();
+            } catch (DatabaseException e) {
+                LogFactory.getLogger().severe("Could not write queued " + getDatabaseChangeLogTableName() + " rows", e);
+            }
+        }
         this.ranChangeSetList = null;
+        this.ranChangeSetsByKey = null;
         this.serviceInitialized = false;
         this.hasDatabaseChangeLogTable = null;
     }
@@ -91,8 +118,12 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         return "varchar";
     }
 
+    /**
+     * If the service was already initialized, only reads the ran changeSets that were added or re-run since they were read with {@link #refreshRanChangeSets()}.
+     */
     public void init() throws DatabaseException {
         if (serviceInitialized) {
+            refreshRanChangeSets();
             return;
         }
         Database database = getDatabase();
@@ -264,65 +295,224 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
      */
     public List<RanChangeSet> getRanChangeSets() throws DatabaseException {
         if (this.ranChangeSetList == null) {
-            Database database = getDatabase();
+            flushExecTypes();
             String databaseChangeLogTableName = getDatabase().escapeTableName(getLiquibaseCatalogName(), getLiquibaseSchemaName(), getDatabaseChangeLogTableName());
             List<RanChangeSet> ranChangeSetList = new ArrayList<RanChangeSet>();
+            Map<String, RanChangeSet> ranChangeSetsByKey = new HashMap<String, RanChangeSet>();
+            lastReadOrderExecuted = null;
+            lastReadDateExecuted = null;
             if (hasDatabaseChangeLogTable()) {
                 LogFactory.getLogger().info("Reading from " + databaseChangeLogTableName);
-                List<Map<String, ?>> results = queryDatabaseChangeLogTable(database);
-                for (Map rs : results) {
-                    String fileName = rs.get("FILENAME").toString();
-                    String author = rs.get("AUTHOR").toString();
-                    String id = rs.get("ID").toString();
-                    String md5sum = rs.get("MD5SUM") == null || !databaseChecksumsCompatible ? null : rs.get("MD5SUM").toString();
-                    String description = rs.get("DESCRIPTION") == null ? null : rs.get("DESCRIPTION").toString();
-                    String comments = rs.get("COMMENTS") == null ? null : rs.get("COMMENTS").toString();
-                    Object tmpDateExecuted = rs.get("DATEEXECUTED");
-                    Date dateExecuted = null;
-                    if (tmpDateExecuted instanceof Date) {
-                        dateExecuted = (Date) tmpDateExecuted;
-                    } else {
-                        DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                        try {
-                            dateExecuted = df.parse((String) tmpDateExecuted);
-                        } catch (ParseException e) {
-                        }
-                    }
-                    String tmpOrderExecuted = rs.get("ORDEREXECUTED").toString();
-                    Integer orderExecuted = (tmpOrderExecuted == null ? null : Integer.valueOf(tmpOrderExecuted));
-                    String tag = rs.get("TAG") == null ? null : rs.get("TAG").toString();
-                    String execType = rs.get("EXECTYPE") == null ? null : rs.get("EXECTYPE").toString();
-                    ContextExpression contexts = new ContextExpression((String) rs.get("CONTEXTS"));
-                    Labels labels = new Labels((String) rs.get("LABELS"));
-                    String deploymentId = (String) rs.get("DEPLOYMENT_ID");
-
-                    try {
-                        RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, CheckSum.parse(md5sum), dateExecuted, tag, ChangeSet.ExecType.valueOf(execType), description, comments, contexts, labels, deploymentId);
-                        ranChangeSet.setOrderExecuted(orderExecuted);
-                        ranChangeSetList.add(ranChangeSet);
-                    } catch (IllegalArgumentException e) {
-                        LogFactory.getLogger().severe("Unknown EXECTYPE from database: " + execType);
-                        throw e;
+                for (RanChangeSet ranChangeSet : readRanChangeSets(createSelectDatabaseChangeLogStatement())) {
+                    ranChangeSetList.add(ranChangeSet);
+                    String key = getKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor());
+                    if (!ranChangeSetsByKey.containsKey(key)) {
+                        ranChangeSetsByKey.put(key, ranChangeSet);
                     }
                 }
             }
 
             this.ranChangeSetList = ranChangeSetList;
+            this.ranChangeSetsByKey = ranChangeSetsByKey;
         }
         return Collections.unmodifiableList(ranChangeSetList);
     }
 
+    /**
+     * Brings the ran changeSets read by {@link #getRanChangeSets()} up to date by reading only the rows with an ORDEREXECUTED or DATEEXECUTED
+     * past the last ones read, e.g. rows another process added or re-ran since. Rows removed by another process are only noticed after {@link #reset()}.
+     * Does nothing if the ran changeSets were not read yet.
+     */
+    public void refreshRanChangeSets() throws DatabaseException {
+        if (this.ranChangeSetList == null) {
+            return;
+        }
+        flushExecTypes();
+        if (!hasDatabaseChangeLogTable()) {
+            return;
+        }
+
+        SelectFromDatabaseChangeLogStatement select = new SelectFromDatabaseChangeLogStatement(new SelectFromDatabaseChangeLogStatement.ByExecutedAfter(lastReadOrderExecuted, lastReadDateExecuted),
+                new ColumnConfig().setName("*").setComputed(true)).setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
+        List<RanChangeSet> readRanChangeSets = readRanChangeSets(select);
+        LogFactory.getLogger().debug("Read " + readRanChangeSets.size() + " new or changed rows from " + getDatabaseChangeLogTableName());
+        for (RanChangeSet ranChangeSet : readRanChangeSets) {
+            addRanChangeSet(ranChangeSet);
+        }
+        if (lastChangeSetSequenceValue != null && lastReadOrderExecuted != null && lastReadOrderExecuted > lastChangeSetSequenceValue) {
+            lastChangeSetSequenceValue = lastReadOrderExecuted;
+        }
+    }
+
+    /**
+     * Reads the ran changeSets selected by the given statement and moves the watermarks used by {@link #refreshRanChangeSets()} past them.
+     */
+    private List<RanChangeSet> readRanChangeSets(SqlStatement select) throws DatabaseException {
+        Database database = getDatabase();
+        List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+        if (executor instanceof JdbcExecutor) {
+            ((JdbcExecutor) executor).query(select, new RanChangeSetRowHandler(ranChangeSets));
+        } else {
+            DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            for (Map<String, ?> row : executor.queryForList(select)) {
+                Object[] values = new Object[RAN_CHANGE_SET_COLUMNS.length];
+                for (int i = 0; i < RAN_CHANGE_SET_COLUMNS.length; i++) {
+                    values[i] = row.get(RAN_CHANGE_SET_COLUMNS[i]);
+                }
+                ranChangeSets.add(createRanChangeSet(values, dateFormat));
+            }
+        }
+
+        for (RanChangeSet ranChangeSet : ranChangeSets) {
+            Integer orderExecuted = ranChangeSet.getOrderExecuted();
+            if (orderExecuted != null && (lastReadOrderExecuted == null || orderExecuted > lastReadOrderExecuted)) {
+                lastReadOrderExecuted = orderExecuted;
+            }
+            Date dateExecuted = ranChangeSet.getDateExecuted();
+            if (dateExecuted != null && (lastReadDateExecuted == null || dateExecuted.after(lastReadDateExecuted))) {
+                lastReadDateExecuted = dateExecuted;
+            }
+        }
+        return ranChangeSets;
+    }
+
+    /**
+     * Adds the ran changeSet to the ran changeSets read so far, if they were read. A ran changeSet for the same changeSet is replaced,
+     * the new one is moved to the end since it was the last one executed.
+     */
+    private void addRanChangeSet(RanChangeSet ranChangeSet) {
+        if (this.ranChangeSetList == null) {
+            return;
+        }
+        RanChangeSet existing = ranChangeSetsByKey.put(getKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor()), ranChangeSet);
+        if (existing != null) {
+            ranChangeSetList.remove(existing);
+        }
+        ranChangeSetList.add(ranChangeSet);
+    }
+
+    private RanChangeSet findRanChangeSet(ChangeSet changeSet) {
+        if (changeSet.getFilePath() == null || changeSet.getId() == null || changeSet.getAuthor() == null) {
+            for (RanChangeSet ranChangeSet : ranChangeSetList) {
+                if (ranChangeSet.isSameAs(changeSet)) {
+                    return ranChangeSet;
+                }
+            }
+            return null;
+        }
+        return ranChangeSetsByKey.get(getKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()));
+    }
+
+    /**
+     * Returns a key that is equal for ran changeSets that {@link RanChangeSet#isSameAs(ChangeSet)} considers the same.
+     */
+    private String getKey(String changeLog, String id, String author) {
+        String path = changeLog.replace('\\', '/');
+        if (path.startsWith("classpath:")) {
+            path = path.substring("classpath:".length());
+        }
+        return path.toLowerCase() + "::" + id.toLowerCase() + "::" + author.toLowerCase();
+    }
+
     public List<Map<String, ?>> queryDatabaseChangeLogTable(Database database) throws DatabaseException {
-        SelectFromDatabaseChangeLogStatement select = new SelectFromDatabaseChangeLogStatement(new ColumnConfig().setName("*").setComputed(true)).setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
-        return ExecutorService.getInstance().getExecutor(database).queryForList(select);
+        return ExecutorService.getInstance().getExecutor(database).queryForList(createSelectDatabaseChangeLogStatement());
+    }
+
+    protected SqlStatement createSelectDatabaseChangeLogStatement() {
+        return new SelectFromDatabaseChangeLogStatement(new ColumnConfig().setName("*").setComputed(true)).setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
+    }
+
+    /**
+     * Creates a RanChangeSet from the values of {@link #RAN_CHANGE_SET_COLUMNS}, in that order.
+     */
+    private RanChangeSet createRanChangeSet(Object[] values, DateFormat dateFormat) {
+        String fileName = values[0].toString();
+        String author = values[1].toString();
+        String id = values[2].toString();
+        String md5sum = values[3] == null || !databaseChecksumsCompatible ? null : values[3].toString();
+        String description = values[4] == null ? null : values[4].toString();
+        String comments = values[5] == null ? null : values[5].toString();
+        Object tmpDateExecuted = values[6];
+        Date dateExecuted = null;
+        if (tmpDateExecuted instanceof Date) {
+            dateExecuted = (Date) tmpDateExecuted;
+        } else if (tmpDateExecuted != null) {
+            try {
+                dateExecuted = dateFormat.parse(tmpDateExecuted.toString());
+            } catch (ParseException e) {
+            }
+        }
+        Integer orderExecuted = values[7] == null ? null : Integer.valueOf(values[7].toString());
+        String tag = values[8] == null ? null : values[8].toString();
+        String execType = values[9] == null ? null : values[9].toString();
+        ContextExpression contexts = new ContextExpression((String) values[10]);
+        Labels labels = new Labels((String) values[11]);
+        String deploymentId = (String) values[12];
+
+        try {
+            RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, CheckSum.parse(md5sum), dateExecuted, tag, ChangeSet.ExecType.valueOf(execType), description, comments, contexts, labels, deploymentId);
+            ranChangeSet.setOrderExecuted(orderExecuted);
+            return ranChangeSet;
+        } catch (IllegalArgumentException e) {
+            LogFactory.getLogger().severe("Unknown EXECTYPE from database: " + execType);
+            throw e;
+        }
     }
 
+    /**
+     * Builds the RanChangeSets while the DATABASECHANGELOG rows are read. The position of each column is looked up once from the first row,
+     * so the rows are not copied into maps first.
+     */
+    private class RanChangeSetRowHandler implements RowCallbackHandler {
+        private final List<RanChangeSet> ranChangeSets;
+        private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        private int[] columnIndexes;
+
+        private RanChangeSetRowHandler(List<RanChangeSet> ranChangeSets) {
+            this.ranChangeSets = ranChangeSets;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (columnIndexes == null) {
+                Map<String, Integer> indexesByName = new HashMap<String, Integer>();
+                ResultSetMetaData metaData = rs.getMetaData();
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    indexesByName.put(metaData.getColumnLabel(i).toUpperCase(), i);
+                }
+                columnIndexes = new int[RAN_CHANGE_SET_COLUMNS.length];
+                for (int i = 0; i < RAN_CHANGE_SET_COLUMNS.length; i++) {
+                    Integer index = indexesByName.get(RAN_CHANGE_SET_COLUMNS[i]);
+                    columnIndexes[i] = index == null ? -1 : index;
+                }
+            }
+
+            Object[] values = new Object[columnIndexes.length];
+            for (int i = 0; i < columnIndexes.length; i++) {
+                if (columnIndexes[i] > 0) {
+                    values[i] = JdbcUtils.getResultSetValue(rs, columnIndexes[i]);
+                }
+            }
+            ranChangeSets.add(createRanChangeSet(values, dateFormat));
+        }
+    }
+
+    /**
+     * Updates the checksum of the ran changeSet that was already read instead of reading all ran changeSets again.
+     */
     @Override
     protected void replaceChecksum(ChangeSet changeSet) throws DatabaseException {
+        flushExecTypes();
         ExecutorService.getInstance().getExecutor(getDatabase()).execute(new UpdateChangeSetChecksumStatement(changeSet));
 
         getDatabase().commit();
-        reset();
+        if (this.ranChangeSetList != null) {
+            RanChangeSet ranChangeSet = findRanChangeSet(changeSet);
+            if (ranChangeSet != null) {
+                ranChangeSet.setLastCheckSum(changeSet.generateCheckSum());
+            }
+        }
     }
 
     @Override
@@ -331,29 +521,102 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             return null;
         }
 
-        return super.getRanChangeSet(changeSet);
+        getRanChangeSets();
+        return findRanChangeSet(changeSet);
     }
 
     @Override
     public void setExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
+        flushExecTypes();
         Database database = getDatabase();
 
         ExecutorService.getInstance().getExecutor(database).execute(new MarkChangeSetRanStatement(changeSet, execType));
         getDatabase().commit();
-        if (this.ranChangeSetList != null) {
-            this.ranChangeSetList.add(new RanChangeSet(changeSet, execType, null, null));
+        addRanChangeSet(new RanChangeSet(changeSet, execType, null, null));
+
+    }
+
+    /**
+     * Queues the history row if {@link GlobalConfiguration#getChangeLogHistoryBatchSize()} is greater than one and the statements are sent to a JDBC connection
+     * that supports batch updates. Otherwise the row is written right away. The SQL is generated when the row is queued, so ORDEREXECUTED keeps the queue order.
+     */
+    @Override
+    public void queueExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
+        int batchSize = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getChangeLogHistoryBatchSize();
+        if (batchSize < 2 || !supportsBatchUpdates()) {
+            setExecType(changeSet, execType);
+            return;
+        }
+
+        for (Sql sql : SqlGeneratorFactory.getInstance().generateSql(new MarkChangeSetRanStatement(changeSet, execType), getDatabase())) {
+            queuedExecTypeSql.add(sql.toSql());
+        }
+        addRanChangeSet(new RanChangeSet(changeSet, execType, null, null));
+        if (queuedExecTypeSql.size() >= batchSize) {
+            flushExecTypes();
+        }
+    }
+
+    @Override
+    public void flushExecTypes() throws DatabaseException {
+        if (queuedExecTypeSql.isEmpty()) {
+            return;
+        }
+        List<String> sqlToExecute = queuedExecTypeSql;
+        queuedExecTypeSql = new ArrayList<String>();
+
+        Database database = getDatabase();
+        Statement statement = null;
+        try {
+            statement = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement();
+            for (String sql : sqlToExecute) {
+                LogFactory.getLogger().debug("Adding to batch: " + sql);
+                statement.addBatch(sql);
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new DatabaseException("Error writing " + sqlToExecute.size() + " rows to " + getDatabaseChangeLogTableName() + ": " + e.getMessage(), e);
+        } finally {
+            JdbcUtils.closeStatement(statement);
         }
+        database.commit();
+    }
 
+    protected boolean supportsBatchUpdates() throws DatabaseException {
+        Database database = getDatabase();
+        if (!(database.getConnection() instanceof JdbcConnection) || !(ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor)) {
+            return false; //e.g. when the SQL is written to a file instead
+        }
+        if (supportsBatchUpdates == null) {
+            try {
+                supportsBatchUpdates = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().getMetaData().supportsBatchUpdates();
+            } catch (SQLException e) {
+                supportsBatchUpdates = false;
+            }
+        }
+        return supportsBatchUpdates;
     }
 
     @Override
     public void removeFromHistory(final ChangeSet changeSet) throws DatabaseException {
+        flushExecTypes();
         Database database = getDatabase();
         ExecutorService.getInstance().getExecutor(database).execute(new RemoveChangeSetRanStatusStatement(changeSet));
         getDatabase().commit();
 
         if (this.ranChangeSetList != null) {
-            this.ranChangeSetList.remove(new RanChangeSet(changeSet));
+            RanChangeSet ranChangeSet = findRanChangeSet(changeSet);
+            if (ranChangeSet != null) {
+                ranChangeSetList.remove(ranChangeSet);
+                String key = getKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor());
+                ranChangeSetsByKey.remove(key);
+                for (RanChangeSet duplicate : ranChangeSetList) {
+                    if (getKey(duplicate.getChangeLog(), duplicate.getId(), duplicate.getAuthor()).equals(key)) {
+                        ranChangeSetsByKey.put(key, duplicate);
+                        break;
+                    }
+                }
+            }
         }
     }
 
@@ -375,6 +638,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
      */
     @Override
     public void tag(final String tagString) throws DatabaseException {
+        flushExecTypes();
         Database database = getDatabase();
         Executor executor = ExecutorService.getInstance().getExecutor(database);
         try {
@@ -398,12 +662,14 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
 
     @Override
     public boolean tagExists(final String tag) throws DatabaseException {
+        flushExecTypes();
         int count = ExecutorService.getInstance().getExecutor(getDatabase()).queryForInt(new SelectFromDatabaseChangeLogStatement(new SelectFromDatabaseChangeLogStatement.ByTag(tag), new ColumnConfig().setName("COUNT(*)", true)));
         return count > 0;
     }
 
     @Override
     public void clearAllCheckSums() throws LiquibaseException {
+        flushExecTypes();
         Database database = getDatabase();
         UpdateStatement updateStatement = new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName());
         updateStatement.addNewColumnValue("MD5SUM", null);
@@ -413,6 +679,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
 
     @Override
     public void destroy() throws DatabaseException {
+        flushExecTypes();
         Database database = getDatabase();
         try {
             if (SnapshotGeneratorFactory.getInstance().has(new Table().setName(database.getDatabaseChangeLogTableName()).setSchema(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName()), database)) {
@@ -10,6 +10,7 @@ import java.util.*;
 public class ShouldRunChangeSetFilter implements ChangeSetFilter {
 
     private final Map<String, RanChangeSet> ranChangeSets;
+    private final Map<String, RanChangeSet> ranChangeSetsByKey;
     private final boolean ignoreClasspathPrefix;
 
     public ShouldRunChangeSetFilter(Database database, boolean ignoreClasspathPrefix) throws DatabaseException {
@@ -43,6 +44,15 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
                 this.ranChangeSets.put(ranChangeSet.toString(), ranChangeSet);
             }
         }
+
+        //index by normalized id/author/path so accepts() does not need to scan every ran changeset
+        this.ranChangeSetsByKey = new HashMap<String, RanChangeSet>();
+        for (RanChangeSet ranChangeSet : this.ranChangeSets.values()) {
+            String key = createKey(ranChangeSet.getId(), ranChangeSet.getAuthor(), getPath(ranChangeSet));
+            if (!ranChangeSetsByKey.containsKey(key)) {
+                ranChangeSetsByKey.put(key, ranChangeSet);
+            }
+        }
     }
 
     public ShouldRunChangeSetFilter(Database database) throws DatabaseException {
@@ -52,18 +62,42 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
     @Override
     @SuppressWarnings({"RedundantIfStatement"})
     public ChangeSetFilterResult accepts(ChangeSet changeSet) {
+        RanChangeSet ranChangeSet = findRanChangeSet(changeSet);
+        if (ranChangeSet != null) {
+            if (changeSet.shouldAlwaysRun()) {
+                return new ChangeSetFilterResult(true, "Change set always runs", this.getClass());
+            }
+            if (changeSet.shouldRunOnChange() && checksumChanged(changeSet, ranChangeSet)) {
+                return new ChangeSetFilterResult(true, "Change set checksum changed", this.getClass());
+            }
+            return new ChangeSetFilterResult(false, "Change set already ran", this.getClass());
+        }
+        return new ChangeSetFilterResult(true, "Change set has not ran yet", this.getClass());
+    }
+
+    /**
+     * Returns true if ran changesets can be found by their exact id, author and case-insensitive path instead of asking {@link #changeSetsMatch(ChangeSet, RanChangeSet)} for each of them.
+     * Subclasses that override {@link #changeSetsMatch(ChangeSet, RanChangeSet)}, {@link #idsAreEqual(ChangeSet, RanChangeSet)} or {@link #authorsAreEqual(ChangeSet, RanChangeSet)}
+     * to match changesets that differ in id, author or path must return false.
+     */
+    protected boolean supportsKeyLookup() {
+        return true;
+    }
+
+    private RanChangeSet findRanChangeSet(ChangeSet changeSet) {
+        if (supportsKeyLookup()) {
+            RanChangeSet ranChangeSet = ranChangeSetsByKey.get(createKey(changeSet.getId(), changeSet.getAuthor(), getPath(changeSet)));
+            if (ranChangeSet != null && changeSetsMatch(changeSet, ranChangeSet)) {
+                return ranChangeSet;
+            }
+            return null;
+        }
         for (RanChangeSet ranChangeSet : this.ranChangeSets.values()) {
             if (changeSetsMatch(changeSet, ranChangeSet)) {
-                if (changeSet.shouldAlwaysRun()) {
-                    return new ChangeSetFilterResult(true, "Change set always runs", this.getClass());
-                }
-                if (changeSet.shouldRunOnChange() && checksumChanged(changeSet, ranChangeSet)) {
-                    return new ChangeSetFilterResult(true, "Change set checksum changed", this.getClass());
-                }
-                return new ChangeSetFilterResult(false, "Change set already ran", this.getClass());
+                return ranChangeSet;
             }
         }
-        return new ChangeSetFilterResult(true, "Change set has not ran yet", this.getClass());
+        return null;
     }
 
     protected boolean changeSetsMatch(ChangeSet changeSet, RanChangeSet ranChangeSet) {
@@ -95,6 +129,14 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
     }
 
 
+    /**
+     * Returns the lookup key for the given id, author and normalized path.
+     * Ids and authors are compared case-sensitively and paths case-insensitively, the same as {@link #changeSetsMatch(ChangeSet, RanChangeSet)}.
+     */
+    private String createKey(String id, String author, String normalizedPath) {
+        return id + "::" + author + "::" + (normalizedPath == null ? null : normalizedPath.toLowerCase(Locale.ENGLISH));
+    }
+
     private String getPath(RanChangeSet ranChangeSet) {
         return normalizePath(ranChangeSet.getChangeLog());
     }
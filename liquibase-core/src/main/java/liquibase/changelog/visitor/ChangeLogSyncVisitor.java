@@ -1,8 +1,11 @@
 package liquibase.changelog.visitor;
 
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.filter.ChangeSetFilterResult;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.exception.LiquibaseException;
 
@@ -29,7 +32,11 @@ public class ChangeLogSyncVisitor implements ChangeSetVisitor {
 
     @Override
     public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Set<ChangeSetFilterResult> filterResults) throws LiquibaseException {
-        this.database.markChangeSetExecStatus(changeSet, ChangeSet.ExecType.EXECUTED);
+        if (LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getChangeLogHistoryBatchSize() > 1) {
+            ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(this.database).queueExecType(changeSet, ChangeSet.ExecType.EXECUTED);
+        } else {
+            this.database.markChangeSetExecStatus(changeSet, ChangeSet.ExecType.EXECUTED);
+        }
         if(listener != null) {
             listener.markedRan(changeSet, databaseChangeLog, database);
         }
@@ -1,10 +1,16 @@
 package liquibase.changelog.visitor;
 
+import liquibase.change.Change;
+import liquibase.change.core.TagDatabaseChange;
+import liquibase.changelog.ChangeLogHistoryService;
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.ChangeSet.ExecType;
 import liquibase.changelog.ChangeSet.RunStatus;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.filter.ChangeSetFilterResult;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.ObjectQuotingStrategy;
 import liquibase.exception.LiquibaseException;
@@ -47,9 +53,19 @@ public class UpdateVisitor implements ChangeSetVisitor {
         fireWillRun(changeSet, databaseChangeLog, database, runStatus);
         ExecType execType = null;
         ObjectQuotingStrategy previousStr = this.database.getObjectQuotingStrategy();
+        ChangeLogHistoryService historyService = null;
+        if (LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getChangeLogHistoryBatchSize() > 1) {
+            historyService = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(this.database);
+            if (readsHistory(changeSet)) {
+                historyService.flushExecTypes();
+            }
+        }
         try {
             execType = changeSet.execute(databaseChangeLog, execListener, this.database);
         } catch (MigrationFailedException e) {
+            if (historyService != null) {
+                historyService.flushExecTypes();
+            }
             fireRunFailed(changeSet, databaseChangeLog, database, e);
             throw e;
         }
@@ -59,9 +75,33 @@ public class UpdateVisitor implements ChangeSetVisitor {
         fireRan(changeSet, databaseChangeLog, database, execType);
         // reset object quoting strategy after running changeset
         this.database.setObjectQuotingStrategy(previousStr);
-        this.database.markChangeSetExecStatus(changeSet, execType);
+        if (historyService != null && canQueueExecType(changeSet, execType)) {
+            historyService.queueExecType(changeSet, execType);
+        } else {
+            this.database.markChangeSetExecStatus(changeSet, execType);
+
+            this.database.commit();
+        }
+    }
 
-        this.database.commit();
+    /**
+     * Returns true if the history of the changeSet does not have to be written in the same transaction as its changes.
+     * That is the case if the changeSet does not run in a transaction, or if nothing was executed.
+     */
+    protected boolean canQueueExecType(ChangeSet changeSet, ExecType execType) {
+        return !changeSet.isRunInTransaction() || execType == ExecType.MARK_RAN || execType == ExecType.SKIPPED;
+    }
+
+    /**
+     * Returns true if the changeSet depends on the stored history being complete, so queued history has to be written before it runs.
+     */
+    protected boolean readsHistory(ChangeSet changeSet) {
+        for (Change change : changeSet.getChanges()) {
+            if (change instanceof TagDatabaseChange) {
+                return true;
+            }
+        }
+        return false;
     }
 
     protected void fireRunFailed(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, MigrationFailedException e) {
@@ -15,6 +15,7 @@ public class SnapshotCommand extends AbstractCommand {
     private CatalogAndSchema[] schemas;
     private String serializerFormat;
     private SnapshotListener snapshotListener;
+    private DatabaseSnapshot previousSnapshot;
 
     @Override
     public String getName() {
@@ -71,6 +72,18 @@ public class SnapshotCommand extends AbstractCommand {
         this.snapshotListener = snapshotListener;
     }
 
+    public DatabaseSnapshot getPreviousSnapshot() {
+        return previousSnapshot;
+    }
+
+    /**
+     * If set, only the tables and views changed since this snapshot was taken are read again. See {@link IncrementalSnapshot}.
+     */
+    public SnapshotCommand setPreviousSnapshot(DatabaseSnapshot previousSnapshot) {
+        this.previousSnapshot = previousSnapshot;
+        return this;
+    }
+
     @Override
     protected Object run() throws Exception {
         SnapshotControl snapshotControl = new SnapshotControl(database);
@@ -80,7 +93,12 @@ public class SnapshotCommand extends AbstractCommand {
         if (schemas == null) {
             schemas = new CatalogAndSchema[]{database.getDefaultSchema()};
         }
-        DatabaseSnapshot snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(schemas, database, snapshotControl);
+        DatabaseSnapshot snapshot;
+        if (previousSnapshot == null) {
+            snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(schemas, database, snapshotControl);
+        } else {
+            snapshot = new IncrementalSnapshot(previousSnapshot).createSnapshot(schemas, database, snapshotControl);
+        }
 
         String format = getSerializerFormat();
         if (format == null) {
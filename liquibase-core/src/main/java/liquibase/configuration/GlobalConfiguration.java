@@ -18,6 +18,10 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
     public static final String CONVERT_DATA_TYPES = "convertDataTypes";
     public static final String GENERATE_CHANGESET_CREATED_VALUES = "generateChangeSetCreatedValues";
     public static final String AUTO_REORG = "autoReorg";
+    public static final String LOAD_DATA_BATCH_SIZE = "loadDataBatchSize";
+    public static final String LOAD_DATA_COMMIT_INTERVAL = "loadDataCommitInterval";
+    public static final String CHECKSUM_CACHE_FILE = "checkSumCacheFile";
+    public static final String CHANGELOG_HISTORY_BATCH_SIZE = "changeLogHistoryBatchSize";
 
     public GlobalConfiguration() {
         super("liquibase");
@@ -72,6 +76,21 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
         getContainer().addProperty(AUTO_REORG, Boolean.class)
                 .setDescription("Should Liquibase automatically include REORG TABLE commands when needed?")
                 .setDefaultValue(true);
+
+        getContainer().addProperty(LOAD_DATA_BATCH_SIZE, Integer.class)
+                .setDescription("Number of rows loadData sends per JDBC batch when updating a database directly. If 0, rows are read into memory and inserted as individual statements")
+                .setDefaultValue(0);
+
+        getContainer().addProperty(LOAD_DATA_COMMIT_INTERVAL, Integer.class)
+                .setDescription("Number of rows after which a batched loadData commits. If 0, rows are committed with the changeSet")
+                .setDefaultValue(0);
+
+        getContainer().addProperty(CHECKSUM_CACHE_FILE, String.class)
+                .setDescription("File used to cache changeSet checksums between runs, keyed by the modification time and size of the changelog files. If not set, checksums are not cached between runs");
+
+        getContainer().addProperty(CHANGELOG_HISTORY_BATCH_SIZE, Integer.class)
+                .setDescription("Number of DATABASECHANGELOG rows written per JDBC batch by changeLogSync, markNextChangeSetRan and by update for changeSets that do not run in a transaction. 1 writes each row as soon as its changeSet is done")
+                .setDefaultValue(1);
     }
 
     /**
@@ -193,4 +212,49 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
         getContainer().setValue(OUTPUT_ENCODING, name);
         return this;
     }
+
+    /**
+     * Number of rows loadData should send per JDBC batch. Zero disables batched loading.
+     */
+    public Integer getLoadDataBatchSize() {
+        return getContainer().getValue(LOAD_DATA_BATCH_SIZE, Integer.class);
+    }
+
+    public GlobalConfiguration setLoadDataBatchSize(Integer batchSize) {
+        getContainer().setValue(LOAD_DATA_BATCH_SIZE, batchSize);
+        return this;
+    }
+
+    /**
+     * Number of rows after which a batched loadData commits. Zero means rows are only committed with the changeSet.
+     */
+    public Integer getLoadDataCommitInterval() {
+        return getContainer().getValue(LOAD_DATA_COMMIT_INTERVAL, Integer.class);
+    }
+
+    public GlobalConfiguration setLoadDataCommitInterval(Integer commitInterval) {
+        getContainer().setValue(LOAD_DATA_COMMIT_INTERVAL, commitInterval);
+        return this;
+    }
+
+    /**
+     * File used to cache changeSet checksums between runs. Null disables the cache.
+     */
+    public String getCheckSumCacheFile() {
+        return getContainer().getValue(CHECKSUM_CACHE_FILE, String.class);
+    }
+
+    public GlobalConfiguration setCheckSumCacheFile(String checkSumCacheFile) {
+        getContainer().setValue(CHECKSUM_CACHE_FILE, checkSumCacheFile);
+        return this;
+    }
+
+    public int getChangeLogHistoryBatchSize() {
+        return getContainer().getValue(CHANGELOG_HISTORY_BATCH_SIZE, Integer.class);
+    }
+
+    public GlobalConfiguration setChangeLogHistoryBatchSize(int changeLogHistoryBatchSize) {
+        getContainer().setValue(CHANGELOG_HISTORY_BATCH_SIZE, changeLogHistoryBatchSize);
+        return this;
+    }
 }
@@ -2,6 +2,7 @@ package liquibase.database;
 
 import liquibase.CatalogAndSchema;
 import liquibase.change.Change;
+import liquibase.change.StreamingChange;
 import liquibase.change.core.DropTableChange;
 import liquibase.changelog.*;
 import liquibase.configuration.ConfigurationProperty;
@@ -37,6 +38,7 @@ import liquibase.util.ISODateFormat;
 import liquibase.util.StreamUtil;
 import liquibase.util.StringUtils;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.Writer;
 import java.math.BigInteger;
@@ -695,7 +697,7 @@ public abstract class AbstractJdbcDatabase implements Database {
     	if (caseSensitive == null) {
             if (connection != null && connection instanceof JdbcConnection) {
                 try {
-                	caseSensitive = ((JdbcConnection) connection).getUnderlyingConnection().getMetaData().supportsMixedCaseIdentifiers();
+                	caseSensitive = ((JdbcConnection) connection).getServerInfo().supportsMixedCaseIdentifiers();
                 } catch (SQLException e) {
                     LogFactory.getLogger().warning("Cannot determine case sensitivity from JDBC driver", e);
                 }
@@ -1250,11 +1252,33 @@ public abstract class AbstractJdbcDatabase implements Database {
 
     @Override
     public void executeStatements(final Change change, final DatabaseChangeLog changeLog, final List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        if (change instanceof StreamingChange) {
+            Iterator<SqlStatement> statements = ((StreamingChange) change).generateStatementIterator(this);
+            try {
+                while (statements.hasNext()) {
+                    execute(new SqlStatement[]{statements.next()}, sqlVisitors);
+                }
+            } finally {
+                closeStatementIterator(statements);
+            }
+            return;
+        }
+
         SqlStatement[] statements = change.generateStatements(this);
 
         execute(statements, sqlVisitors);
     }
 
+    private void closeStatementIterator(Iterator<SqlStatement> statements) {
+        if (statements instanceof Closeable) {
+            try {
+                ((Closeable) statements).close();
+            } catch (IOException e) {
+                LogFactory.getLogger().debug("Error closing statement iterator: " + e.getMessage());
+            }
+        }
+    }
+
     /*
      * Executes the statements passed
      *
@@ -1284,11 +1308,20 @@ public abstract class AbstractJdbcDatabase implements Database {
 
     @Override
     public void saveStatements(final Change change, final List<SqlVisitor> sqlVisitors, final Writer writer) throws IOException, StatementNotSupportedOnDatabaseException, LiquibaseException {
-        SqlStatement[] statements = change.generateStatements(this);
-        for (SqlStatement statement : statements) {
-            for (Sql sql : SqlGeneratorFactory.getInstance().generateSql(statement, this)) {
-                writer.append(sql.toSql()).append(sql.getEndDelimiter()).append(StreamUtil.getLineSeparator()).append(StreamUtil.getLineSeparator());
+        Iterator<SqlStatement> statements;
+        if (change instanceof StreamingChange) {
+            statements = ((StreamingChange) change).generateStatementIterator(this);
+        } else {
+            statements = Arrays.asList(change.generateStatements(this)).iterator();
+        }
+        try {
+            while (statements.hasNext()) {
+                for (Sql sql : SqlGeneratorFactory.getInstance().generateSql(statements.next(), this)) {
+                    writer.append(sql.toSql()).append(sql.getEndDelimiter()).append(StreamUtil.getLineSeparator()).append(StreamUtil.getLineSeparator());
+                }
             }
+        } finally {
+            closeStatementIterator(statements);
         }
     }
 
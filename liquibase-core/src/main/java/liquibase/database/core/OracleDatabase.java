@@ -81,7 +81,7 @@ public class OracleDatabase extends AbstractJdbcDatabase {
 
             if (sqlConn != null) {
                 try {
-                    reservedWords.addAll(Arrays.asList(sqlConn.getMetaData().getSQLKeywords().toUpperCase().split(",\\s*")));
+                    reservedWords.addAll(((JdbcConnection) conn).getServerInfo().getSqlKeywords());
                 } catch (SQLException e) {
                     LogFactory.getLogger().info("Could get sql keywords on OracleDatabase: " + e.getMessage());
                     //can not get keywords. Continue on
@@ -7,7 +7,6 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
 
 import java.sql.*;
-import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -18,6 +17,7 @@ import java.util.Map;
  */
 public class JdbcConnection implements DatabaseConnection {
     private java.sql.Connection con;
+    private volatile JdbcServerInfo serverInfo;
 
     public JdbcConnection(java.sql.Connection connection) {
         this.con = connection;
@@ -27,7 +27,7 @@ public class JdbcConnection implements DatabaseConnection {
     @Override
     public void attached(Database database) {
         try {
-            database.addReservedWords(Arrays.asList(this.getWrappedConnection().getMetaData().getSQLKeywords().toUpperCase().split(",\\s*")));
+            database.addReservedWords(getServerInfo().getSqlKeywords());
         } catch (SQLException e) {
             LogFactory.getLogger().info("Error fetching reserved words list from JDBC driver", e);
         }
@@ -38,7 +38,7 @@ public class JdbcConnection implements DatabaseConnection {
     @Override
     public String getDatabaseProductName() throws DatabaseException {
         try {
-            return con.getMetaData().getDatabaseProductName();
+            return getServerInfo().getDatabaseProductName();
         } catch (SQLException e) {
             throw new DatabaseException(e);
         }
@@ -47,7 +47,7 @@ public class JdbcConnection implements DatabaseConnection {
     @Override
     public String getDatabaseProductVersion() throws DatabaseException {
         try {
-            return con.getMetaData().getDatabaseProductVersion();
+            return getServerInfo().getDatabaseProductVersion();
         } catch (SQLException e) {
             throw new DatabaseException(e);
         }
@@ -56,7 +56,7 @@ public class JdbcConnection implements DatabaseConnection {
     @Override
     public int getDatabaseMajorVersion() throws DatabaseException {
         try {
-            return con.getMetaData().getDatabaseMajorVersion();
+            return getServerInfo().getDatabaseMajorVersion();
         } catch (SQLException e) {
             throw new DatabaseException(e);
         }
@@ -65,7 +65,7 @@ public class JdbcConnection implements DatabaseConnection {
     @Override
     public int getDatabaseMinorVersion() throws DatabaseException {
         try {
-            return con.getMetaData().getDatabaseMinorVersion();
+            return getServerInfo().getDatabaseMinorVersion();
         } catch (SQLException e) {
             throw new DatabaseException(e);
         }
@@ -74,7 +74,7 @@ public class JdbcConnection implements DatabaseConnection {
     @Override
     public String getURL() {
         try {
-            return con.getMetaData().getURL();
+            return getServerInfo().getURL();
         } catch (SQLException e) {
             throw new UnexpectedLiquibaseException(e);
         }
@@ -83,12 +83,23 @@ public class JdbcConnection implements DatabaseConnection {
     @Override
     public String getConnectionUserName() {
         try {
-            return con.getMetaData().getUserName();
+            return getServerInfo().getUserName();
         } catch (SQLException e) {
             throw new UnexpectedLiquibaseException(e);
         }
     }
 
+    /**
+     * Returns what the driver reports about the database server. It is read once per connection, so use it rather than {@link #getMetaData()}
+     * for the product, version, catalog and identifier information it holds.
+     */
+    public JdbcServerInfo getServerInfo() {
+        if (serverInfo == null) {
+            serverInfo = new JdbcServerInfo(con);
+        }
+        return serverInfo;
+    }
+
     /**
      * Returns the connection that this Delegate is using.
      *
@@ -167,7 +178,7 @@ public class JdbcConnection implements DatabaseConnection {
     @Override
     public String getCatalog() throws DatabaseException {
         try {
-            return con.getCatalog();
+            return getServerInfo().getCatalog();
         } catch (SQLException e) {
             throw new DatabaseException(e);
         }
@@ -368,6 +379,7 @@ public class JdbcConnection implements DatabaseConnection {
     public void setCatalog(String catalog) throws DatabaseException {
         try {
             con.setCatalog(catalog);
+            serverInfo = null;
         } catch (SQLException e) {
             throw new DatabaseException(e);
         }
@@ -0,0 +1,196 @@
+package liquibase.database.jvm;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What the JDBC driver reports about the database server behind a connection: product name and version, URL and user, default catalog,
+ * identifier casing and SQL keywords. It is read from {@link DatabaseMetaData} once, because some drivers go to the server for every call.
+ * <p>
+ * Each value is read on its own the first time it is asked for, so a driver that cannot return one value does not keep the others from being used.
+ */
+public class JdbcServerInfo {
+
+    private final Value<String> databaseProductName;
+    private final Value<String> databaseProductVersion;
+    private final Value<Integer> databaseMajorVersion;
+    private final Value<Integer> databaseMinorVersion;
+    private final Value<String> url;
+    private final Value<String> userName;
+    private final Value<String> catalog;
+    private final Value<List<String>> sqlKeywords;
+    private final Value<Boolean> supportsMixedCaseIdentifiers;
+    private final Value<Boolean> storesUpperCaseIdentifiers;
+    private final Value<Boolean> storesLowerCaseIdentifiers;
+
+    public JdbcServerInfo(final Connection connection) {
+        final Value<DatabaseMetaData> metaData = new Value<DatabaseMetaData>() {
+            @Override
+            protected DatabaseMetaData read() throws SQLException {
+                return connection.getMetaData();
+            }
+        };
+
+        this.databaseProductName = new Value<String>() {
+            @Override
+            protected String read() throws SQLException {
+                return metaData.get().getDatabaseProductName();
+            }
+        };
+        this.databaseProductVersion = new Value<String>() {
+            @Override
+            protected String read() throws SQLException {
+                return metaData.get().getDatabaseProductVersion();
+            }
+        };
+        this.databaseMajorVersion = new Value<Integer>() {
+            @Override
+            protected Integer read() throws SQLException {
+                return metaData.get().getDatabaseMajorVersion();
+            }
+        };
+        this.databaseMinorVersion = new Value<Integer>() {
+            @Override
+            protected Integer read() throws SQLException {
+                return metaData.get().getDatabaseMinorVersion();
+            }
+        };
+        this.url = new Value<String>() {
+            @Override
+            protected String read() throws SQLException {
+                return metaData.get().getURL();
+            }
+        };
+        this.userName = new Value<String>() {
+            @Override
+            protected String read() throws SQLException {
+                return metaData.get().getUserName();
+            }
+        };
+        this.catalog = new Value<String>() {
+            @Override
+            protected String read() throws SQLException {
+                return connection.getCatalog();
+            }
+        };
+        this.sqlKeywords = new Value<List<String>>() {
+            @Override
+            protected List<String> read() throws SQLException {
+                String keywords = metaData.get().getSQLKeywords();
+                if (keywords == null) {
+                    return Collections.emptyList();
+                }
+                return Collections.unmodifiableList(new ArrayList<String>(Arrays.asList(keywords.toUpperCase().split(",\\s*"))));
+            }
+        };
+        this.supportsMixedCaseIdentifiers = new Value<Boolean>() {
+            @Override
+            protected Boolean read() throws SQLException {
+                return metaData.get().supportsMixedCaseIdentifiers();
+            }
+        };
+        this.storesUpperCaseIdentifiers = new Value<Boolean>() {
+            @Override
+            protected Boolean read() throws SQLException {
+                return metaData.get().storesUpperCaseIdentifiers();
+            }
+        };
+        this.storesLowerCaseIdentifiers = new Value<Boolean>() {
+            @Override
+            protected Boolean read() throws SQLException {
+                return metaData.get().storesLowerCaseIdentifiers();
+            }
+        };
+    }
+
+    public String getDatabaseProductName() throws SQLException {
+        return databaseProductName.get();
+    }
+
+    public String getDatabaseProductVersion() throws SQLException {
+        return databaseProductVersion.get();
+    }
+
+    public int getDatabaseMajorVersion() throws SQLException {
+        return databaseMajorVersion.get();
+    }
+
+    public int getDatabaseMinorVersion() throws SQLException {
+        return databaseMinorVersion.get();
+    }
+
+    public String getURL() throws SQLException {
+        return url.get();
+    }
+
+    public String getUserName() throws SQLException {
+        return userName.get();
+    }
+
+    /**
+     * The catalog of the connection at the time this info was read.
+     */
+    public String getCatalog() throws SQLException {
+        return catalog.get();
+    }
+
+    /**
+     * The SQL keywords of the database that are not SQL:2003 keywords, upper cased.
+     */
+    public List<String> getSqlKeywords() throws SQLException {
+        return sqlKeywords.get();
+    }
+
+    public boolean supportsMixedCaseIdentifiers() throws SQLException {
+        return supportsMixedCaseIdentifiers.get();
+    }
+
+    public boolean storesUpperCaseIdentifiers() throws SQLException {
+        return storesUpperCaseIdentifiers.get();
+    }
+
+    public boolean storesLowerCaseIdentifiers() throws SQLException {
+        return storesLowerCaseIdentifiers.get();
+    }
+
+    /**
+     * A value read from the driver the first time it is needed, so drivers that do not support a call only fail the callers that need it.
+     * Unsupported calls keep failing with what the driver threw. A SQLException is not kept, the value is read again the next time.
+     */
+    private static abstract class Value<T> {
+        private volatile boolean read;
+        private T value;
+        private Throwable error;
+
+        protected abstract T read() throws SQLException;
+
+        public T get() throws SQLException {
+            if (!read) {
+                synchronized (this) {
+                    if (!read) {
+                        try {
+                            value = read();
+                        } catch (RuntimeException e) {
+                            error = e;
+                        } catch (AbstractMethodError e) { //drivers older than the JDBC version of the call
+                            error = e;
+                        }
+                        read = true;
+                    }
+                }
+            }
+
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            } else if (error instanceof AbstractMethodError) {
+                throw (AbstractMethodError) error;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package liquibase.diff;
+
+import liquibase.diff.compare.CompareControl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rows that differ between the data of a table in the reference and comparison databases, as found by {@link liquibase.diff.core.DataComparison}.
+ * Rows are maps of column name to value, and are identified by the values of the key columns.
+ * The counts are also added as differences, so the changed {@link liquibase.structure.core.Data} shows up in reports.
+ */
+public class DataDifferences extends ObjectDifferences {
+
+    private List<String> keyColumnNames;
+    private List<Map<String, Object>> missingRows = new ArrayList<Map<String, Object>>();
+    private List<Map<String, Object>> unexpectedRows = new ArrayList<Map<String, Object>>();
+    private List<ChangedRow> changedRows = new ArrayList<ChangedRow>();
+
+    public DataDifferences(CompareControl compareControl, List<String> keyColumnNames) {
+        super(compareControl);
+        this.keyColumnNames = keyColumnNames;
+    }
+
+    public List<String> getKeyColumnNames() {
+        return Collections.unmodifiableList(keyColumnNames);
+    }
+
+    /**
+     * Rows that are only in the reference database.
+     */
+    public List<Map<String, Object>> getMissingRows() {
+        return Collections.unmodifiableList(missingRows);
+    }
+
+    public DataDifferences addMissingRow(Map<String, Object> row) {
+        missingRows.add(row);
+        addDifference(missingRows.size() + " missing row(s)", "missingRows", missingRows.size(), 0);
+        return this;
+    }
+
+    /**
+     * Rows that are only in the comparison database.
+     */
+    public List<Map<String, Object>> getUnexpectedRows() {
+        return Collections.unmodifiableList(unexpectedRows);
+    }
+
+    public DataDifferences addUnexpectedRow(Map<String, Object> row) {
+        unexpectedRows.add(row);
+        addDifference(unexpectedRows.size() + " unexpected row(s)", "unexpectedRows", 0, unexpectedRows.size());
+        return this;
+    }
+
+    /**
+     * Rows that are in both databases with different values.
+     */
+    public List<ChangedRow> getChangedRows() {
+        return Collections.unmodifiableList(changedRows);
+    }
+
+    public DataDifferences addChangedRow(ChangedRow row) {
+        changedRows.add(row);
+        addDifference(changedRows.size() + " changed row(s)", "changedRows", changedRows.size(), changedRows.size());
+        return this;
+    }
+
+    public static class ChangedRow {
+        private Map<String, Object> key;
+        private Map<String, Object> referenceValues;
+        private Map<String, Object> comparisonValues;
+
+        /**
+         * The values maps contain only the columns that are different.
+         */
+        public ChangedRow(Map<String, Object> key, Map<String, Object> referenceValues, Map<String, Object> comparisonValues) {
+            this.key = key;
+            this.referenceValues = referenceValues;
+            this.comparisonValues = comparisonValues;
+        }
+
+        public Map<String, Object> getKey() {
+            return key;
+        }
+
+        public Map<String, Object> getReferenceValues() {
+            return referenceValues;
+        }
+
+        public Map<String, Object> getComparisonValues() {
+            return comparisonValues;
+        }
+    }
+}
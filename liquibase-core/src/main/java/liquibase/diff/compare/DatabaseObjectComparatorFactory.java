@@ -8,18 +8,20 @@ import liquibase.structure.AbstractDatabaseObject;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Catalog;
 import liquibase.structure.core.Schema;
+import liquibase.util.DispatchTable;
 import liquibase.util.StringUtils;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class DatabaseObjectComparatorFactory {
 
     private static DatabaseObjectComparatorFactory instance;
 
-    private List<DatabaseObjectComparator> comparators = new ArrayList<DatabaseObjectComparator>();
+    private List<DatabaseObjectComparator> comparators = new CopyOnWriteArrayList<DatabaseObjectComparator>();
 
-    private Map<String, List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = new HashMap<String, List<DatabaseObjectComparator>>();
-    private Map<String, DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = new HashMap<String, DatabaseObjectComparatorChain>();
+    private final DispatchTable<List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = new DispatchTable<List<DatabaseObjectComparator>>();
+    private final DispatchTable<DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = new DispatchTable<DatabaseObjectComparatorChain>();
 
     private DatabaseObjectComparatorFactory() {
         Class[] classes;
@@ -53,10 +55,17 @@ public class DatabaseObjectComparatorFactory {
 
     public void register(DatabaseObjectComparator generator) {
         comparators.add(generator);
+        clearCaches();
     }
 
     public void unregister(DatabaseObjectComparator generator) {
         comparators.remove(generator);
+        clearCaches();
+    }
+
+    private void clearCaches() {
+        validComparatorsByClassAndDatabase.clear();
+        comparatorChainsByClassAndDatabase.clear();
     }
 
     public void unregister(Class generatorClass) {
@@ -71,9 +80,9 @@ public class DatabaseObjectComparatorFactory {
     }
 
     protected List<DatabaseObjectComparator> getComparators(Class<? extends DatabaseObject> comparatorClass, Database database) {
-        String key = comparatorClass.getName()+":"+database.getShortName();
-        if (validComparatorsByClassAndDatabase.containsKey(key)) {
-            return validComparatorsByClassAndDatabase.get(key);
+        List<DatabaseObjectComparator> existingComparators = validComparatorsByClassAndDatabase.get(comparatorClass, database);
+        if (existingComparators != null) {
+            return existingComparators;
         }
 
         List<DatabaseObjectComparator> validComparators = new ArrayList<DatabaseObjectComparator>();
@@ -86,9 +95,7 @@ public class DatabaseObjectComparatorFactory {
 
         Collections.sort(validComparators, new DatabaseObjectComparatorComparator(comparatorClass, database));
 
-        validComparatorsByClassAndDatabase.put(key, validComparators);
-
-        return validComparators;
+        return validComparatorsByClassAndDatabase.put(comparatorClass, database, Collections.unmodifiableList(validComparators));
     }
 
 
@@ -173,10 +180,9 @@ public class DatabaseObjectComparatorFactory {
     }
 
     private DatabaseObjectComparatorChain createComparatorChain(Class<? extends DatabaseObject> databaseObjectType, Database database) {
-        String key = databaseObjectType.getName()+":"+database.getShortName();
-
-        if (comparatorChainsByClassAndDatabase.containsKey(key)) {
-            return comparatorChainsByClassAndDatabase.get(key).copy();
+        DatabaseObjectComparatorChain existingChain = comparatorChainsByClassAndDatabase.get(databaseObjectType, database);
+        if (existingChain != null) {
+            return existingChain.copy();
         }
 
         List<DatabaseObjectComparator> comparators = DatabaseObjectComparatorFactory.getInstance().getComparators(databaseObjectType, database);
@@ -184,10 +190,9 @@ public class DatabaseObjectComparatorFactory {
             return null;
         }
 
-        DatabaseObjectComparatorChain chain = new DatabaseObjectComparatorChain(comparators);
-        comparatorChainsByClassAndDatabase.put(key, chain);
+        DatabaseObjectComparatorChain chain = comparatorChainsByClassAndDatabase.put(databaseObjectType, database, new DatabaseObjectComparatorChain(comparators));
         //noinspection unchecked
-        return chain;
+        return chain.copy();
     }
 
 }
@@ -0,0 +1,688 @@
+package liquibase.diff.core;
+
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.diff.DataDifferences;
+import liquibase.diff.compare.CompareControl;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.logging.LogFactory;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.core.TableChecksumStatement;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.DataType;
+import liquibase.structure.core.Table;
+import liquibase.util.JdbcUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compares the rows of a table in the reference and comparison databases, identified by the primary key.
+ * <p>
+ * Checksums are computed by the databases when both are of the same type and there is a generator for the statement
+ * that supports all column types. Tables with a single integer primary key are then split into ranges of the key.
+ * The number of rows and a checksum of each range are computed with a {@link TableChecksumStatement} on both sides,
+ * and only ranges that differ are split further, until a range has no more than {@link #setRowsPerChunk(long)} rows.
+ * Only the rows of those ranges are read and compared. Other tables are compared with one checksum for the whole table.
+ * <p>
+ * Rows are compared by reading both sides ordered by the key and merging them, so they are not held in memory.
+ * Without database checksums, all rows are compared this way in one pass.
+ */
+public class DataComparison {
+
+    private static final String NULL_VALUE = "<NULL>";
+
+    private final Database referenceDatabase;
+    private final Database comparisonDatabase;
+    private final CompareControl compareControl;
+
+    private long rowsPerChunk = 1000;
+    private int chunksPerRange = 10;
+    private int fetchSize = 1000;
+
+    public DataComparison(Database referenceDatabase, Database comparisonDatabase, CompareControl compareControl) {
+        this.referenceDatabase = referenceDatabase;
+        this.comparisonDatabase = comparisonDatabase;
+        this.compareControl = compareControl;
+    }
+
+    public long getRowsPerChunk() {
+        return rowsPerChunk;
+    }
+
+    /**
+     * Differing key ranges with up to this many rows are compared row by row, larger ones are split further.
+     */
+    public DataComparison setRowsPerChunk(long rowsPerChunk) {
+        this.rowsPerChunk = rowsPerChunk;
+        return this;
+    }
+
+    public int getChunksPerRange() {
+        return chunksPerRange;
+    }
+
+    /**
+     * How many chunks a key range is split into at each level.
+     */
+    public DataComparison setChunksPerRange(int chunksPerRange) {
+        this.chunksPerRange = chunksPerRange;
+        return this;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public DataComparison setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Returns the rows that differ between the tables, or null if the data cannot be compared because there is no
+     * primary key on both tables or a database has no JDBC connection.
+     */
+    public DataDifferences compare(Table referenceTable, Table comparisonTable) throws DatabaseException {
+        if (!(referenceDatabase.getConnection() instanceof JdbcConnection) || !(comparisonDatabase.getConnection() instanceof JdbcConnection)) {
+            return null;
+        }
+        if (referenceTable.getPrimaryKey() == null || comparisonTable.getPrimaryKey() == null) {
+            LogFactory.getLogger().info("Not comparing data of " + referenceTable.getName() + ", it needs a primary key on both sides");
+            return null;
+        }
+
+        List<String> keyColumnNames = new ArrayList<String>();
+        List<String> comparisonKeyColumnNames = new ArrayList<String>();
+        for (Column column : referenceTable.getPrimaryKey().getColumns()) {
+            keyColumnNames.add(column.getName());
+        }
+        for (Column column : comparisonTable.getPrimaryKey().getColumns()) {
+            comparisonKeyColumnNames.add(column.getName());
+        }
+
+        List<String> columnNames = new ArrayList<String>();
+        List<String> comparisonColumnNames = new ArrayList<String>();
+        for (Column column : referenceTable.getColumns()) {
+            if (column.getComputed() != null && column.getComputed()) {
+                continue;
+            }
+            Column comparisonColumn = findColumn(comparisonTable, column.getName());
+            if (comparisonColumn != null) {
+                columnNames.add(column.getName());
+                comparisonColumnNames.add(comparisonColumn.getName());
+            }
+        }
+
+        if (keyColumnNames.size() != comparisonKeyColumnNames.size() || !columnNames.containsAll(keyColumnNames)) {
+            LogFactory.getLogger().info("Not comparing data of " + referenceTable.getName() + ", the primary keys do not match");
+            return null;
+        }
+        List<String> mappedKeyColumnNames = new ArrayList<String>();
+        for (String keyColumnName : keyColumnNames) {
+            mappedKeyColumnNames.add(comparisonColumnNames.get(columnNames.indexOf(keyColumnName)));
+        }
+        for (String keyColumnName : mappedKeyColumnNames) {
+            if (!containsIgnoreCase(comparisonKeyColumnNames, keyColumnName)) {
+                LogFactory.getLogger().info("Not comparing data of " + referenceTable.getName() + ", the primary keys do not match");
+                return null;
+            }
+        }
+
+        boolean useDatabaseChecksums = referenceDatabase.getClass().equals(comparisonDatabase.getClass());
+        TableData reference = new TableData(referenceDatabase, referenceTable, columnNames, keyColumnNames, columnNames);
+        TableData comparison = new TableData(comparisonDatabase, comparisonTable, comparisonColumnNames, mappedKeyColumnNames, columnNames);
+        if (useDatabaseChecksums) {
+            useDatabaseChecksums = reference.supportsChecksumStatement() && comparison.supportsChecksumStatement();
+        }
+
+        DataDifferences differences = new DataDifferences(compareControl, keyColumnNames);
+        if (!useDatabaseChecksums) {
+            compareRows(reference, comparison, null, null, differences);
+            return differences;
+        }
+
+        if (keyColumnNames.size() == 1) {
+            Object[] referenceRange = reference.readKeyRange();
+            Object[] comparisonRange = comparison.readKeyRange();
+            if (referenceRange[0] == null && comparisonRange[0] == null) {
+                return differences;
+            }
+
+            Long start = null;
+            Long end = null;
+            boolean integerKey = true;
+            for (Object[] range : new Object[][]{referenceRange, comparisonRange}) {
+                if (range[0] == null) {
+                    continue;
+                }
+                Long min = toLong(range[0]);
+                Long max = toLong(range[1]);
+                if (min == null || max == null) {
+                    integerKey = false;
+                    break;
+                }
+                if (start == null || min < start) {
+                    start = min;
+                }
+                if (end == null || max > end) {
+                    end = max;
+                }
+            }
+
+            if (integerKey) {
+                compareRange(reference, comparison, start, end, differences);
+                return differences;
+            }
+        }
+
+        ChunkChecksum referenceChecksum = reference.readChecksums(null, null, 0).get(0L);
+        ChunkChecksum comparisonChecksum = comparison.readChecksums(null, null, 0).get(0L);
+        if (!ChunkChecksum.matches(referenceChecksum, comparisonChecksum)) {
+            compareRows(reference, comparison, null, null, differences);
+        }
+        return differences;
+    }
+
+    protected void compareRange(TableData reference, TableData comparison, long start, long end, DataDifferences differences) throws DatabaseException {
+        BigInteger keyCount = BigInteger.valueOf(end).subtract(BigInteger.valueOf(start)).add(BigInteger.ONE);
+        long chunkSize = keyCount.add(BigInteger.valueOf(chunksPerRange - 1)).divide(BigInteger.valueOf(chunksPerRange)).max(BigInteger.ONE).longValue();
+
+        Map<Long, ChunkChecksum> referenceChecksums = reference.readChecksums(start, end, chunkSize);
+        Map<Long, ChunkChecksum> comparisonChecksums = comparison.readChecksums(start, end, chunkSize);
+
+        Set<Long> chunks = new TreeSet<Long>(referenceChecksums.keySet());
+        chunks.addAll(comparisonChecksums.keySet());
+        for (Long chunk : chunks) {
+            ChunkChecksum referenceChecksum = referenceChecksums.get(chunk);
+            ChunkChecksum comparisonChecksum = comparisonChecksums.get(chunk);
+            if (ChunkChecksum.matches(referenceChecksum, comparisonChecksum)) {
+                continue;
+            }
+
+            long chunkStart = start + chunk * chunkSize;
+            long chunkEnd = end;
+            if (chunkSize - 1 < end - chunkStart) {
+                chunkEnd = chunkStart + chunkSize - 1;
+            }
+
+            long rowCount = Math.max(ChunkChecksum.getRowCount(referenceChecksum), ChunkChecksum.getRowCount(comparisonChecksum));
+            if (rowCount <= rowsPerChunk || chunkSize == 1) {
+                compareRows(reference, comparison, chunkStart, chunkEnd, differences);
+            } else {
+                compareRange(reference, comparison, chunkStart, chunkEnd, differences);
+            }
+        }
+    }
+
+    /**
+     * Compares the rows in the key range, or of the whole table with a null start. Both sides are read ordered by the key and merged.
+     * If a side does not return the keys in the order they are compared in here, for example because of a case-insensitive collation,
+     * the rows are read into memory and matched by key instead.
+     */
+    protected void compareRows(TableData reference, TableData comparison, Long start, Long end, DataDifferences differences) throws DatabaseException {
+        List<String> keyColumnNames = reference.rowKeyColumnNames();
+        DataDifferences rowDifferences = new DataDifferences(compareControl, keyColumnNames);
+        try {
+            mergeRows(reference, comparison, start, end, rowDifferences);
+        } catch (KeyOrderException e) {
+            LogFactory.getLogger().info("Comparing rows of " + reference.tableName + " in memory: " + e.getMessage());
+            rowDifferences = new DataDifferences(compareControl, keyColumnNames);
+            matchRows(reference, comparison, start, end, rowDifferences);
+        }
+
+        for (Map<String, Object> row : rowDifferences.getMissingRows()) {
+            differences.addMissingRow(row);
+        }
+        for (DataDifferences.ChangedRow row : rowDifferences.getChangedRows()) {
+            differences.addChangedRow(row);
+        }
+        for (Map<String, Object> row : rowDifferences.getUnexpectedRows()) {
+            differences.addUnexpectedRow(row);
+        }
+    }
+
+    private void mergeRows(TableData reference, TableData comparison, Long start, Long end, DataDifferences differences) throws DatabaseException, KeyOrderException {
+        List<String> keyColumnNames = reference.rowKeyColumnNames();
+        OrderedRows referenceRows = reference.openRows(start, end);
+        OrderedRows comparisonRows = null;
+        try {
+            comparisonRows = comparison.openRows(start, end);
+            Map<String, Object> referenceRow = referenceRows.next();
+            Map<String, Object> comparisonRow = comparisonRows.next();
+            while (referenceRow != null || comparisonRow != null) {
+                int order;
+                if (referenceRow == null) {
+                    order = 1;
+                } else if (comparisonRow == null) {
+                    order = -1;
+                } else {
+                    order = compareKeys(referenceRow, comparisonRow, keyColumnNames);
+                }
+
+                if (order < 0) {
+                    differences.addMissingRow(referenceRow);
+                    referenceRow = referenceRows.next();
+                } else if (order > 0) {
+                    differences.addUnexpectedRow(comparisonRow);
+                    comparisonRow = comparisonRows.next();
+                } else {
+                    compareValues(referenceRow, comparisonRow, keyColumnNames, differences);
+                    referenceRow = referenceRows.next();
+                    comparisonRow = comparisonRows.next();
+                }
+            }
+        } finally {
+            referenceRows.close();
+            if (comparisonRows != null) {
+                comparisonRows.close();
+            }
+        }
+    }
+
+    private void matchRows(TableData reference, TableData comparison, Long start, Long end, DataDifferences differences) throws DatabaseException {
+        Map<List<String>, Map<String, Object>> referenceRows = reference.readRows(start, end);
+        Map<List<String>, Map<String, Object>> comparisonRows = comparison.readRows(start, end);
+
+        for (Map.Entry<List<String>, Map<String, Object>> entry : referenceRows.entrySet()) {
+            Map<String, Object> comparisonRow = comparisonRows.remove(entry.getKey());
+            if (comparisonRow == null) {
+                differences.addMissingRow(entry.getValue());
+            } else {
+                compareValues(entry.getValue(), comparisonRow, reference.rowKeyColumnNames(), differences);
+            }
+        }
+
+        for (Map<String, Object> comparisonRow : comparisonRows.values()) {
+            differences.addUnexpectedRow(comparisonRow);
+        }
+    }
+
+    private void compareValues(Map<String, Object> referenceRow, Map<String, Object> comparisonRow, List<String> keyColumnNames, DataDifferences differences) {
+        Map<String, Object> referenceValues = new LinkedHashMap<String, Object>();
+        Map<String, Object> comparisonValues = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, Object> value : referenceRow.entrySet()) {
+            Object comparisonValue = comparisonRow.get(value.getKey());
+            if (!valuesEqual(value.getValue(), comparisonValue)) {
+                referenceValues.put(value.getKey(), value.getValue());
+                comparisonValues.put(value.getKey(), comparisonValue);
+            }
+        }
+        if (!referenceValues.isEmpty()) {
+            Map<String, Object> key = new LinkedHashMap<String, Object>();
+            for (String keyColumnName : keyColumnNames) {
+                key.put(keyColumnName, referenceRow.get(keyColumnName));
+            }
+            differences.addChangedRow(new DataDifferences.ChangedRow(key, referenceValues, comparisonValues));
+        }
+    }
+
+    /**
+     * Orders rows by their key values. Keys that are equal here are also equal by {@link #normalize(Object)}.
+     */
+    protected int compareKeys(Map<String, Object> row1, Map<String, Object> row2, List<String> keyColumnNames) {
+        for (String keyColumnName : keyColumnNames) {
+            int order = compareValues(row1.get(keyColumnName), row2.get(keyColumnName));
+            if (order != 0) {
+                return order;
+            }
+        }
+        return 0;
+    }
+
+    private int compareValues(Object value1, Object value2) {
+        if (value1 == null || value2 == null) {
+            return value1 == null ? (value2 == null ? 0 : -1) : 1;
+        }
+        if (value1 instanceof Number && value2 instanceof Number) {
+            return new BigDecimal(value1.toString()).compareTo(new BigDecimal(value2.toString()));
+        }
+        if (value1 instanceof Date && value2 instanceof Date) {
+            return Long.valueOf(((Date) value1).getTime()).compareTo(((Date) value2).getTime());
+        }
+        if (value1 instanceof byte[] && value2 instanceof byte[]) {
+            byte[] bytes1 = (byte[]) value1;
+            byte[] bytes2 = (byte[]) value2;
+            for (int i = 0; i < bytes1.length && i < bytes2.length; i++) {
+                int order = (bytes1[i] & 0xff) - (bytes2[i] & 0xff);
+                if (order != 0) {
+                    return order;
+                }
+            }
+            return bytes1.length - bytes2.length;
+        }
+        return normalize(value1).compareTo(normalize(value2));
+    }
+
+    protected boolean valuesEqual(Object referenceValue, Object comparisonValue) {
+        if (referenceValue == null || comparisonValue == null) {
+            return referenceValue == comparisonValue;
+        }
+        if (referenceValue instanceof byte[] && comparisonValue instanceof byte[]) {
+            return Arrays.equals((byte[]) referenceValue, (byte[]) comparisonValue);
+        }
+        return normalize(referenceValue).equals(normalize(comparisonValue));
+    }
+
+    /**
+     * Returns a string for the value that is the same for equal values returned as different types, like numbers with different scales.
+     */
+    protected String normalize(Object value) {
+        if (value == null) {
+            return NULL_VALUE;
+        } else if (value instanceof Number) {
+            BigDecimal number = new BigDecimal(value.toString());
+            if (number.signum() == 0) {
+                return "0";
+            }
+            return number.stripTrailingZeros().toPlainString();
+        } else if (value instanceof Date) {
+            return String.valueOf(((Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            return new BigInteger(1, (byte[]) value).toString(16) + "/" + ((byte[]) value).length;
+        }
+        return value.toString();
+    }
+
+    private Long toLong(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigInteger && ((BigInteger) value).bitLength() < 63) {
+            return ((BigInteger) value).longValue();
+        }
+        if (value instanceof BigDecimal) {
+            try {
+                return ((BigDecimal) value).longValueExact();
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private Column findColumn(Table table, String name) {
+        for (Column column : table.getColumns()) {
+            if (column.getName().equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private boolean containsIgnoreCase(List<String> names, String name) {
+        for (String existing : names) {
+            if (existing.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the data of the table on one side. Rows are returned with the column names of the reference table, so both sides can be matched up.
+     */
+    protected class TableData {
+        private final Database database;
+        private final String catalogName;
+        private final String schemaName;
+        private final String tableName;
+        private final List<String> columnNames;
+        private final List<DataType> columnTypes;
+        private final List<String> keyColumnNames;
+        private final List<String> rowColumnNames;
+
+        protected TableData(Database database, Table table, List<String> columnNames, List<String> keyColumnNames, List<String> rowColumnNames) {
+            this.database = database;
+            this.catalogName = table.getSchema().getCatalogName();
+            this.schemaName = table.getSchema().getName();
+            this.tableName = table.getName();
+            this.columnNames = columnNames;
+            this.columnTypes = new ArrayList<DataType>();
+            for (String columnName : columnNames) {
+                columnTypes.add(findColumn(table, columnName).getType());
+            }
+            this.keyColumnNames = keyColumnNames;
+            this.rowColumnNames = rowColumnNames;
+        }
+
+        protected boolean supportsChecksumStatement() {
+            return SqlGeneratorFactory.getInstance().supports(new TableChecksumStatement(catalogName, schemaName, tableName, columnNames).setColumnTypes(columnTypes), database);
+        }
+
+        /**
+         * Returns the smallest and largest value of the single key column, which are null if the table is empty.
+         */
+        protected Object[] readKeyRange() throws DatabaseException {
+            String key = escapeColumnName(keyColumnNames.get(0));
+            final Object[] range = new Object[2];
+            query("SELECT MIN(" + key + "), MAX(" + key + ") FROM " + escapeTableName(), new RowCallback() {
+                @Override
+                public void processRow(ResultSet rs) throws SQLException {
+                    range[0] = JdbcUtils.getResultSetValue(rs, 1);
+                    range[1] = JdbcUtils.getResultSetValue(rs, 2);
+                }
+            });
+            return range;
+        }
+
+        /**
+         * Returns the checksum of each chunk of the range that has rows, computed by the database. With a null start, the whole table is returned as chunk 0.
+         */
+        protected Map<Long, ChunkChecksum> readChecksums(Long start, Long end, long chunkSize) throws DatabaseException {
+            TableChecksumStatement statement;
+            if (start == null) {
+                statement = new TableChecksumStatement(catalogName, schemaName, tableName, columnNames);
+            } else {
+                statement = new TableChecksumStatement(catalogName, schemaName, tableName, columnNames, keyColumnNames.get(0), start, end, chunkSize);
+            }
+            statement.setColumnTypes(columnTypes);
+
+            Map<Long, ChunkChecksum> checksums = new HashMap<Long, ChunkChecksum>();
+            for (Map<String, ?> row : ExecutorService.getInstance().getExecutor(database).queryForList(statement)) {
+                long rowCount = ((Number) row.get("ROW_COUNT")).longValue();
+                if (rowCount == 0) {
+                    continue;
+                }
+                Object checksum = row.get("ROW_CHECKSUM");
+                checksums.put(((Number) row.get("CHUNK")).longValue(), new ChunkChecksum(rowCount, checksum == null ? BigDecimal.ZERO : new BigDecimal(checksum.toString())));
+            }
+            return checksums;
+        }
+
+        /**
+         * Returns the rows in the key range, or of the whole table with a null start, by their normalized key values.
+         */
+        protected Map<List<String>, Map<String, Object>> readRows(Long start, Long end) throws DatabaseException {
+            final Map<List<String>, Map<String, Object>> rows = new LinkedHashMap<List<String>, Map<String, Object>>();
+            final List<String> rowKeyColumnNames = rowKeyColumnNames();
+            query(selectRows(start, end), new RowCallback() {
+                @Override
+                public void processRow(ResultSet rs) throws SQLException {
+                    Map<String, Object> row = readRow(rs);
+                    List<String> key = new ArrayList<String>();
+                    for (String keyColumnName : rowKeyColumnNames) {
+                        key.add(normalize(row.get(keyColumnName)));
+                    }
+                    rows.put(key, row);
+                }
+            });
+            return rows;
+        }
+
+        /**
+         * Opens a cursor over the rows in the key range, or of the whole table with a null start, ordered by the key.
+         */
+        protected OrderedRows openRows(Long start, Long end) throws DatabaseException {
+            Statement stmt = null;
+            try {
+                stmt = ((JdbcConnection) database.getConnection()).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                stmt.setFetchSize(fetchSize);
+                return new OrderedRows(this, stmt, stmt.executeQuery(selectRows(start, end)));
+            } catch (SQLException e) {
+                JdbcUtils.closeStatement(stmt);
+                throw new DatabaseException("Error comparing data of " + tableName + ": " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * The key column names as they are in the rows, which are those of the reference table.
+         */
+        protected List<String> rowKeyColumnNames() {
+            List<String> names = new ArrayList<String>();
+            for (String keyColumnName : keyColumnNames) {
+                names.add(rowColumnNames.get(columnNames.indexOf(keyColumnName)));
+            }
+            return names;
+        }
+
+        private Map<String, Object> readRow(ResultSet rs) throws SQLException {
+            Map<String, Object> row = new LinkedHashMap<String, Object>();
+            for (int i = 0; i < columnNames.size(); i++) {
+                row.put(rowColumnNames.get(i), JdbcUtils.getResultSetValue(rs, i + 1));
+            }
+            return row;
+        }
+
+        private String selectRows(Long start, Long end) {
+            StringBuilder sql = new StringBuilder("SELECT ");
+            for (int i = 0; i < columnNames.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(escapeColumnName(columnNames.get(i)));
+            }
+            sql.append(" FROM ").append(escapeTableName());
+            if (start != null) {
+                String key = escapeColumnName(keyColumnNames.get(0));
+                sql.append(" WHERE ").append(key).append(" >= ").append(start).append(" AND ").append(key).append(" <= ").append(end);
+            }
+            sql.append(" ORDER BY ");
+            for (int i = 0; i < keyColumnNames.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(escapeColumnName(keyColumnNames.get(i)));
+            }
+            return sql.toString();
+        }
+
+        private String escapeTableName() {
+            return database.escapeTableName(catalogName, schemaName, tableName);
+        }
+
+        private String escapeColumnName(String columnName) {
+            return database.escapeColumnName(catalogName, schemaName, tableName, columnName);
+        }
+
+        private void query(String sql, RowCallback callback) throws DatabaseException {
+            Statement stmt = null;
+            ResultSet rs = null;
+            try {
+                stmt = ((JdbcConnection) database.getConnection()).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                stmt.setFetchSize(fetchSize);
+                rs = stmt.executeQuery(sql);
+                while (rs.next()) {
+                    callback.processRow(rs);
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("Error comparing data of " + tableName + ": " + e.getMessage(), e);
+            } finally {
+                JdbcUtils.close(rs, stmt);
+            }
+        }
+    }
+
+    private interface RowCallback {
+        void processRow(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * The rows of one side, read one at a time in key order.
+     */
+    protected class OrderedRows {
+        private final TableData tableData;
+        private final Statement statement;
+        private final ResultSet resultSet;
+        private final List<String> keyColumnNames;
+        private Map<String, Object> previousRow;
+
+        private OrderedRows(TableData tableData, Statement statement, ResultSet resultSet) {
+            this.tableData = tableData;
+            this.statement = statement;
+            this.resultSet = resultSet;
+            this.keyColumnNames = tableData.rowKeyColumnNames();
+        }
+
+        /**
+         * Returns the next row, or null after the last one.
+         *
+         * @throws KeyOrderException if the key of the row is not greater than that of the previous row
+         */
+        protected Map<String, Object> next() throws DatabaseException, KeyOrderException {
+            try {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                Map<String, Object> row = tableData.readRow(resultSet);
+                if (previousRow != null && compareKeys(previousRow, row, keyColumnNames) >= 0) {
+                    throw new KeyOrderException("the database returned the key values " + row.values() + " after " + previousRow.values());
+                }
+                previousRow = row;
+                return row;
+            } catch (SQLException e) {
+                throw new DatabaseException("Error comparing data of " + tableData.tableName + ": " + e.getMessage(), e);
+            }
+        }
+
+        protected void close() {
+            JdbcUtils.close(resultSet, statement);
+        }
+    }
+
+    private static class KeyOrderException extends Exception {
+        private KeyOrderException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * The number of rows and sum of the row checksums of a chunk.
+     */
+    protected static class ChunkChecksum {
+        private long rowCount;
+        private BigDecimal checksum;
+
+        protected ChunkChecksum(long rowCount, BigDecimal checksum) {
+            this.rowCount = rowCount;
+            this.checksum = checksum;
+        }
+
+        private static long getRowCount(ChunkChecksum checksum) {
+            if (checksum == null) {
+                return 0;
+            }
+            return checksum.rowCount;
+        }
+
+        private static boolean matches(ChunkChecksum checksum1, ChunkChecksum checksum2) {
+            if (checksum1 == null || checksum2 == null) {
+                return getRowCount(checksum1) == 0 && getRowCount(checksum2) == 0;
+            }
+            return checksum1.rowCount == checksum2.rowCount && checksum1.checksum.compareTo(checksum2.checksum) == 0;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import liquibase.snapshot.JdbcDatabaseSnapshot;
 import liquibase.structure.DatabaseObject;
 import liquibase.diff.compare.DatabaseObjectComparatorFactory;
 import liquibase.structure.core.Catalog;
+import liquibase.structure.core.Data;
 import liquibase.structure.core.Schema;
 import liquibase.util.StringUtils;
 
@@ -94,6 +95,9 @@ public class StandardDiffGenerator implements DiffGenerator {
                         diffResult.addMissingObject(referenceObject);
                     } else {
                         ObjectDifferences differences = DatabaseObjectComparatorFactory.getInstance().findDifferences(referenceObject, comparisonObject, comparisonDatabase, diffResult.getCompareControl());
+                        if (referenceObject instanceof Data) {
+                            differences = compareData((Data) referenceObject, (Data) comparisonObject, differences, referenceDatabase, comparisonDatabase, diffResult.getCompareControl());
+                        }
                         if (differences.hasDifferences()) {
                             diffResult.addChangedObject(referenceObject, differences);
                         }
@@ -206,4 +210,32 @@ public class StandardDiffGenerator implements DiffGenerator {
 //        uniqueConstraints.removeAll( constraintsToRemove );
 //    }
     }
+
+    /**
+     * Compares the rows of the tables of the data with a {@link DataComparison}. Returns the passed differences if the rows cannot be compared.
+     */
+    protected ObjectDifferences compareData(Data referenceData, Data comparisonData, ObjectDifferences differences, Database referenceDatabase, Database comparisonDatabase, CompareControl compareControl) {
+        if (referenceData.getTable() == null || comparisonData.getTable() == null) {
+            return differences;
+        }
+
+        DataDifferences dataDifferences;
+        try {
+            dataDifferences = createDataComparison(referenceDatabase, comparisonDatabase, compareControl).compare(referenceData.getTable(), comparisonData.getTable());
+        } catch (DatabaseException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        if (dataDifferences == null) {
+            return differences;
+        }
+
+        for (Difference difference : differences.getDifferences()) {
+            dataDifferences.addDifference(difference.getMessage(), difference.getField(), difference.getReferenceValue(), difference.getComparedValue());
+        }
+        return dataDifferences;
+    }
+
+    protected DataComparison createDataComparison(Database referenceDatabase, Database comparisonDatabase, CompareControl compareControl) {
+        return new DataComparison(referenceDatabase, comparisonDatabase, compareControl);
+    }
 }
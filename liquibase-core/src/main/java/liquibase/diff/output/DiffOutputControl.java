@@ -8,6 +8,7 @@ import liquibase.database.InternalDatabase;
 import liquibase.database.ObjectQuotingStrategy;
 import liquibase.database.core.H2Database;
 import liquibase.diff.output.changelog.ChangeGeneratorFactory;
+import liquibase.diff.output.changelog.core.DataExporter;
 import liquibase.diff.output.changelog.core.MissingDataExternalFileChangeGenerator;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.DatabaseObjectCollection;
@@ -34,6 +35,8 @@ public class DiffOutputControl {
 
     private ObjectChangeFilter objectChangeFilter;
 
+    private DataExporter dataExporter;
+
     public DiffOutputControl() {
         includeSchema = true;
         includeCatalog = true;
@@ -169,6 +172,18 @@ public class DiffOutputControl {
         return this;
     }
 
+    public DataExporter getDataExporter() {
+        return dataExporter;
+    }
+
+    /**
+     * Exporter used to write table data to the files in the data dir. If not set, the data of each table is exported serially as the change for it is generated.
+     */
+    public DiffOutputControl setDataExporter(DataExporter dataExporter) {
+        this.dataExporter = dataExporter;
+        return this;
+    }
+
     private static class DatabaseForHash extends H2Database implements InternalDatabase {
         @Override
         public boolean isCaseSensitive() {
@@ -10,13 +10,16 @@ import liquibase.snapshot.SnapshotGenerator;
 import liquibase.snapshot.SnapshotGeneratorChain;
 import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.structure.DatabaseObject;
+import liquibase.util.DispatchTable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ChangeGeneratorFactory {
     private static ChangeGeneratorFactory instance;
 
     private List<ChangeGenerator> generators = new ArrayList<ChangeGenerator>();
+    private final ConcurrentHashMap<Class<? extends ChangeGenerator>, DispatchTable<SortedSet<ChangeGenerator>>> generatorsByType = new ConcurrentHashMap<Class<? extends ChangeGenerator>, DispatchTable<SortedSet<ChangeGenerator>>>();
 
     private ChangeGeneratorFactory() {
         Class[] classes;
@@ -50,10 +53,12 @@ public class ChangeGeneratorFactory {
 
     public void register(ChangeGenerator generator) {
         generators.add(generator);
+        generatorsByType.clear();
     }
 
     public void unregister(ChangeGenerator generator) {
         generators.remove(generator);
+        generatorsByType.clear();
     }
 
     public void unregister(Class generatorClass) {
@@ -67,7 +72,20 @@ public class ChangeGeneratorFactory {
         unregister(toRemove);
     }
 
+    /**
+     * Returns the generators of the generator type for the object type on the database, sorted by priority. The returned set is cached and cannot be modified.
+     */
     protected SortedSet<ChangeGenerator> getGenerators(Class<? extends ChangeGenerator> generatorType, Class<? extends DatabaseObject> objectType, Database database) {
+        DispatchTable<SortedSet<ChangeGenerator>> generatorsByObjectType = generatorsByType.get(generatorType);
+        if (generatorsByObjectType == null) {
+            generatorsByType.putIfAbsent(generatorType, new DispatchTable<SortedSet<ChangeGenerator>>());
+            generatorsByObjectType = generatorsByType.get(generatorType);
+        }
+        SortedSet<ChangeGenerator> cachedGenerators = generatorsByObjectType.get(objectType, database);
+        if (cachedGenerators != null) {
+            return cachedGenerators;
+        }
+
         SortedSet<ChangeGenerator> validGenerators = new TreeSet<ChangeGenerator>(new ChangeGeneratorComparator(objectType, database));
 
         for (ChangeGenerator generator : generators) {
@@ -75,7 +93,7 @@ public class ChangeGeneratorFactory {
                 validGenerators.add(generator);
             }
         }
-        return validGenerators;
+        return generatorsByObjectType.put(objectType, database, Collections.unmodifiableSortedSet(validGenerators));
     }
 
     private ChangeGeneratorChain createGeneratorChain(Class<? extends ChangeGenerator> generatorType, Class<? extends DatabaseObject> objectType, Database database) {
@@ -1,6 +1,7 @@
 package liquibase.diff.output.changelog;
 
 import liquibase.change.Change;
+import liquibase.changelog.ChangeLogChild;
 import liquibase.changelog.ChangeSet;
 import liquibase.configuration.GlobalConfiguration;
 import liquibase.configuration.LiquibaseConfiguration;
@@ -14,6 +15,8 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
 import liquibase.serializer.ChangeLogSerializer;
 import liquibase.serializer.ChangeLogSerializerFactory;
+import liquibase.serializer.ChangeLogWriter;
+import liquibase.serializer.StreamingChangeLogSerializer;
 import liquibase.serializer.core.xml.XMLChangeLogSerializer;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.DatabaseObjectComparator;
@@ -73,6 +76,18 @@ public class DiffToChangeLog {
             FileOutputStream stream = new FileOutputStream(file);
             print(new PrintStream(stream), changeLogSerializer);
             stream.close();
+        } else if (changeLogSerializer instanceof StreamingChangeLogSerializer) {
+            LogFactory.getLogger().info(file + " exists, appending");
+            ChangeLogWriter writer = ((StreamingChangeLogSerializer) changeLogSerializer).appendTo(file);
+            int changeSetCount;
+            try {
+                changeSetCount = generateChangeSets(writer);
+            } finally {
+                writer.close();
+            }
+            if (changeSetCount == 0) {
+                LogFactory.getLogger().info("No changes found, nothing to do");
+            }
         } else {
             LogFactory.getLogger().info(file + " exists, appending");
             ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -128,14 +143,48 @@ public class DiffToChangeLog {
      */
     public void print(PrintStream out, ChangeLogSerializer changeLogSerializer) throws ParserConfigurationException, IOException, DatabaseException {
 
-        List<ChangeSet> changeSets = generateChangeSets();
+        if (changeLogSerializer instanceof StreamingChangeLogSerializer) {
+            ChangeLogWriter writer = ((StreamingChangeLogSerializer) changeLogSerializer).createWriter(out);
+            try {
+                generateChangeSets(writer);
+            } finally {
+                writer.close();
+            }
+        } else {
+            List<ChangeSet> changeSets = generateChangeSets();
 
-        changeLogSerializer.write(changeSets, out);
+            changeLogSerializer.write(changeSets, out);
+        }
 
         out.flush();
     }
 
     public List<ChangeSet> generateChangeSets() {
+        final List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        try {
+            generateChangeSets(new ChangeLogWriter() {
+                @Override
+                public void write(ChangeLogChild child) {
+                    changeSets.add((ChangeSet) child);
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        return changeSets;
+    }
+
+    /**
+     * Passes each changeSet to the writer as soon as it is generated instead of collecting them, so they do not all need to be held in memory.
+     * The writer is not closed.
+     *
+     * @return the number of changeSets written
+     */
+    public int generateChangeSets(ChangeLogWriter writer) throws IOException {
         final ChangeGeneratorFactory changeGeneratorFactory = ChangeGeneratorFactory.getInstance();
         DatabaseObjectComparator comparator = new DatabaseObjectComparator();
 
@@ -144,7 +193,7 @@ public class DiffToChangeLog {
             created = new SimpleDateFormat("yyyy-MM-dd HH:mmZ").format(new Date());
         }
 
-        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        int changeSetCount = 0;
         List<Class<? extends DatabaseObject>> types = getOrderedOutputTypes(MissingObjectChangeGenerator.class);
         for (Class<? extends DatabaseObject> type : types) {
             ObjectQuotingStrategy quotingStrategy = ObjectQuotingStrategy.QUOTE_ALL_OBJECTS;
@@ -166,7 +215,7 @@ public class DiffToChangeLog {
                 }
                 if (!diffResult.getReferenceSnapshot().getDatabase().isLiquibaseObject(object) && !diffResult.getReferenceSnapshot().getDatabase().isSystemObject(object)) {
                     Change[] changes = changeGeneratorFactory.fixMissing(object, diffOutputControl, diffResult.getReferenceSnapshot().getDatabase(), diffResult.getComparisonSnapshot().getDatabase());
-                    addToChangeSets(changes, changeSets, quotingStrategy, created);
+                    changeSetCount += addToChangeSets(changes, writer, quotingStrategy, created);
                 }
             }
         }
@@ -177,7 +226,7 @@ public class DiffToChangeLog {
             for (DatabaseObject object : diffResult.getUnexpectedObjects(type, comparator)) {
                 if (!diffResult.getComparisonSnapshot().getDatabase().isLiquibaseObject(object) && !diffResult.getComparisonSnapshot().getDatabase().isSystemObject(object)) {
                     Change[] changes = changeGeneratorFactory.fixUnexpected(object, diffOutputControl, diffResult.getReferenceSnapshot().getDatabase(), diffResult.getComparisonSnapshot().getDatabase());
-                    addToChangeSets(changes, changeSets, quotingStrategy, created);
+                    changeSetCount += addToChangeSets(changes, writer, quotingStrategy, created);
                 }
             }
         }
@@ -188,11 +237,19 @@ public class DiffToChangeLog {
             for (Map.Entry<? extends DatabaseObject, ObjectDifferences> entry : diffResult.getChangedObjects(type, comparator).entrySet()) {
                 if (!diffResult.getReferenceSnapshot().getDatabase().isLiquibaseObject(entry.getKey()) && !diffResult.getReferenceSnapshot().getDatabase().isSystemObject(entry.getKey())) {
                     Change[] changes = changeGeneratorFactory.fixChanged(entry.getKey(), entry.getValue(), diffOutputControl, diffResult.getReferenceSnapshot().getDatabase(), diffResult.getComparisonSnapshot().getDatabase());
-                    addToChangeSets(changes, changeSets, quotingStrategy, created);
+                    changeSetCount += addToChangeSets(changes, writer, quotingStrategy, created);
                 }
             }
         }
-        return changeSets;
+
+        if (diffOutputControl != null && diffOutputControl.getDataExporter() != null) {
+            try {
+                diffOutputControl.getDataExporter().awaitExports();
+            } catch (DatabaseException e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+        }
+        return changeSetCount;
     }
 
     protected List<Class<? extends DatabaseObject>> getOrderedOutputTypes(Class<? extends ChangeGenerator> generatorType) {
@@ -216,7 +273,7 @@ public class DiffToChangeLog {
         return types;
     }
 
-    private void addToChangeSets(Change[] changes, List<ChangeSet> changeSets, ObjectQuotingStrategy quotingStrategy, String created) {
+    private int addToChangeSets(Change[] changes, ChangeLogWriter writer, ObjectQuotingStrategy quotingStrategy, String created) throws IOException {
         if (changes != null) {
             String changeSetContext = this.changeSetContext;
             if (diffOutputControl.getContext() != null) {
@@ -231,8 +288,10 @@ public class DiffToChangeLog {
             for (Change change : changes) {
                 changeSet.addChange(change);
             }
-            changeSets.add(changeSet);
+            writer.write(changeSet);
+            return 1;
         }
+        return 0;
     }
 
     protected String getChangeSetAuthor() {
@@ -0,0 +1,125 @@
+package liquibase.diff.output.changelog.core;
+
+import liquibase.change.Change;
+import liquibase.change.core.AbstractModifyDataChange;
+import liquibase.change.core.DeleteDataChange;
+import liquibase.change.core.InsertDataChange;
+import liquibase.change.core.UpdateDataChange;
+import liquibase.database.Database;
+import liquibase.datatype.DataTypeFactory;
+import liquibase.diff.DataDifferences;
+import liquibase.diff.ObjectDifferences;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.diff.output.changelog.ChangeGeneratorChain;
+import liquibase.diff.output.changelog.ChangedObjectChangeGenerator;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates the delete, update and insert changes that make the rows of the comparison database match the reference database,
+ * for the row differences found by {@link liquibase.diff.core.DataComparison}.
+ */
+public class ChangedDataChangeGenerator implements ChangedObjectChangeGenerator {
+
+    @Override
+    public int getPriority(Class<? extends DatabaseObject> objectType, Database database) {
+        if (Data.class.isAssignableFrom(objectType)) {
+            return PRIORITY_DEFAULT;
+        }
+        return PRIORITY_NONE;
+    }
+
+    @Override
+    public Class<? extends DatabaseObject>[] runAfterTypes() {
+        return new Class[]{
+                Table.class
+        };
+    }
+
+    @Override
+    public Class<? extends DatabaseObject>[] runBeforeTypes() {
+        return new Class[]{
+                PrimaryKey.class, ForeignKey.class, Index.class
+        };
+    }
+
+    @Override
+    public Change[] fixChanged(DatabaseObject changedObject, ObjectDifferences differences, DiffOutputControl control, Database referenceDatabase, Database comparisonDatabase, ChangeGeneratorChain chain) {
+        if (!(differences instanceof DataDifferences)) {
+            return null;
+        }
+        DataDifferences dataDifferences = (DataDifferences) differences;
+        Table table = ((Data) changedObject).getTable();
+        if (referenceDatabase.isLiquibaseObject(table)) {
+            return null;
+        }
+
+        List<Change> changes = new ArrayList<Change>();
+        for (Map<String, Object> row : dataDifferences.getUnexpectedRows()) {
+            DeleteDataChange change = new DeleteDataChange();
+            setTable(change, table, control);
+            change.setWhere(getWhere(row, dataDifferences.getKeyColumnNames(), comparisonDatabase));
+            changes.add(change);
+        }
+
+        for (DataDifferences.ChangedRow row : dataDifferences.getChangedRows()) {
+            UpdateDataChange change = new UpdateDataChange();
+            setTable(change, table, control);
+            for (Map.Entry<String, Object> value : row.getReferenceValues().entrySet()) {
+                change.addColumn(MissingDataChangeGenerator.createColumnConfig(value.getKey(), value.getValue(), referenceDatabase));
+            }
+            change.setWhere(getWhere(row.getKey(), dataDifferences.getKeyColumnNames(), comparisonDatabase));
+            changes.add(change);
+        }
+
+        for (Map<String, Object> row : dataDifferences.getMissingRows()) {
+            InsertDataChange change = new InsertDataChange();
+            if (control.getIncludeCatalog()) {
+                change.setCatalogName(table.getSchema().getCatalogName());
+            }
+            if (control.getIncludeSchema()) {
+                change.setSchemaName(table.getSchema().getName());
+            }
+            change.setTableName(table.getName());
+            for (Map.Entry<String, Object> value : row.entrySet()) {
+                change.addColumn(MissingDataChangeGenerator.createColumnConfig(value.getKey(), value.getValue(), referenceDatabase));
+            }
+            changes.add(change);
+        }
+
+        if (changes.isEmpty()) {
+            return null;
+        }
+        return changes.toArray(new Change[changes.size()]);
+    }
+
+    private void setTable(AbstractModifyDataChange change, Table table, DiffOutputControl control) {
+        if (control.getIncludeCatalog()) {
+            change.setCatalogName(table.getSchema().getCatalogName());
+        }
+        if (control.getIncludeSchema()) {
+            change.setSchemaName(table.getSchema().getName());
+        }
+        change.setTableName(table.getName());
+    }
+
+    /**
+     * Returns the condition that selects the row by its key values, as SQL for the database the changes are run against.
+     */
+    protected String getWhere(Map<String, Object> row, List<String> keyColumnNames, Database database) {
+        StringBuilder where = new StringBuilder();
+        for (String keyColumnName : keyColumnNames) {
+            if (where.length() > 0) {
+                where.append(" AND ");
+            }
+            Object value = row.get(keyColumnName);
+            where.append(database.escapeObjectName(keyColumnName, Column.class)).append(" = ")
+                    .append(DataTypeFactory.getInstance().fromObject(value, database).objectToSql(value, database));
+        }
+        return where.toString();
+    }
+}
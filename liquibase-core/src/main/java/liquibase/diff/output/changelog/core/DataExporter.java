@@ -0,0 +1,548 @@
+package liquibase.diff.output.changelog.core;
+
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.PrimaryKey;
+import liquibase.structure.core.Table;
+import liquibase.util.ISODateFormat;
+import liquibase.util.JdbcUtils;
+import liquibase.util.csv.CSVWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports the rows of tables to CSV files for {@link MissingDataExternalFileChangeGenerator}.
+ * <p>
+ * Without worker databases each table is exported on the calling thread when {@link #export(Table, File)} is called.
+ * With worker databases the exports run in the background, one table per worker thread, each thread using one of the worker databases.
+ * {@link #awaitExports()} waits until all files are written and then stops the worker threads, which are started again by the next export.
+ * <p>
+ * How to read each column is worked out once per table from the result set metadata, not for every value.
+ * Tables with a single integer primary key can also be split into key ranges of about {@link #setRowsPerRange(long)} rows that are exported by separate workers
+ * and then joined into one file.
+ */
+public class DataExporter {
+
+    private final Database database;
+    private final BlockingQueue<Database> availableDatabases;
+    private final int workerCount;
+    private java.util.concurrent.ExecutorService executor;
+    private final List<Future<?>> pendingExports = new ArrayList<Future<?>>();
+    private final List<SplitExport> pendingSplitExports = new ArrayList<SplitExport>();
+
+    private int fetchSize = 100;
+    private long rowsPerRange = 0;
+    private boolean gzip = false;
+    private int bufferSize = 64 * 1024;
+
+    public DataExporter(Database database) {
+        this(database, null);
+    }
+
+    /**
+     * The workerDatabases must be open connections to the same database as the passed database. They are not closed.
+     * With fewer than two worker databases, tables are exported one after another on the calling thread using the passed database.
+     */
+    public DataExporter(Database database, List<Database> workerDatabases) {
+        this.database = database;
+        if (workerDatabases == null || workerDatabases.size() < 2) {
+            this.availableDatabases = null;
+            this.workerCount = 0;
+        } else {
+            this.availableDatabases = new LinkedBlockingQueue<Database>(workerDatabases);
+            this.workerCount = workerDatabases.size();
+        }
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public DataExporter setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    public long getRowsPerRange() {
+        return rowsPerRange;
+    }
+
+    /**
+     * When exporting with worker databases, tables with more rows than this and a single integer primary key are split into ranges of the key
+     * with about this many rows each, which are exported concurrently. The ranges are computed from the smallest and largest key,
+     * so splitting works best for keys without large gaps. 0, the default, does not split tables.
+     */
+    public DataExporter setRowsPerRange(long rowsPerRange) {
+        this.rowsPerRange = rowsPerRange;
+        return this;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    /**
+     * Compress the exported files with gzip. {@link liquibase.resource.FileSystemResourceAccessor} reads them back transparently.
+     */
+    public DataExporter setGzip(boolean gzip) {
+        this.gzip = gzip;
+        return this;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public DataExporter setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    public String getFileExtension() {
+        if (gzip) {
+            return ".csv.gz";
+        }
+        return ".csv";
+    }
+
+    /**
+     * Exports all rows of the table to the file, or schedules the export when using worker databases.
+     * Returns the columns that are in the file, in order.
+     */
+    public List<ExportedColumn> export(final Table table, final File file) throws DatabaseException {
+        final String selectSql = "SELECT * FROM " + escapeTableName(table);
+
+        if (availableDatabases == null) {
+            try {
+                return exportRows(database, selectSql, file, true);
+            } catch (Exception e) {
+                throw new DatabaseException("Error exporting data from " + table.getName() + ": " + e.getMessage(), e);
+            }
+        }
+
+        List<ExportedColumn> columns;
+        try {
+            columns = readColumns(database, selectSql + " WHERE 1=0");
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+
+        List<String> keyRanges = getKeyRanges(table);
+        if (keyRanges == null) {
+            pendingExports.add(submit(selectSql, file, true));
+        } else {
+            SplitExport splitExport = new SplitExport(file);
+            for (int i = 0; i < keyRanges.size(); i++) {
+                File partFile = new File(file.getPath() + ".part" + i);
+                splitExport.partFiles.add(partFile);
+                pendingExports.add(submit(selectSql + " WHERE " + keyRanges.get(i), partFile, i == 0));
+            }
+            pendingSplitExports.add(splitExport);
+        }
+        return columns;
+    }
+
+    /**
+     * Waits until all scheduled exports are written, stops the worker threads and joins the files of split tables.
+     * Throws the first error an export failed with, after all exports have finished.
+     */
+    public void awaitExports() throws DatabaseException {
+        Throwable failure = null;
+        try {
+            for (Future<?> export : pendingExports) {
+                try {
+                    export.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DatabaseException(e);
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+        } finally {
+            pendingExports.clear();
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+
+        try {
+            if (failure == null) {
+                for (SplitExport splitExport : pendingSplitExports) {
+                    splitExport.join();
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            for (SplitExport splitExport : pendingSplitExports) {
+                splitExport.deleteParts();
+            }
+            pendingSplitExports.clear();
+        }
+
+        if (failure instanceof DatabaseException) {
+            throw (DatabaseException) failure;
+        } else if (failure != null) {
+            throw new DatabaseException(failure);
+        }
+    }
+
+    /**
+     * Waits for all exports and stops the worker threads. The worker databases are not closed.
+     */
+    public void close() throws DatabaseException {
+        awaitExports();
+    }
+
+    private Future<?> submit(final String sql, final File file, final boolean writeHeader) {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(workerCount);
+        }
+        return executor.submit(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                Database workerDatabase = availableDatabases.take();
+                try {
+                    exportRows(workerDatabase, sql, file, writeHeader);
+                    return null;
+                } finally {
+                    availableDatabases.put(workerDatabase);
+                }
+            }
+        });
+    }
+
+    private String escapeTableName(Table table) {
+        return database.escapeTableName(table.getSchema().getCatalogName(), table.getSchema().getName(), table.getName());
+    }
+
+    /**
+     * Returns conditions that split the table into ranges of its primary key, or null if the table should be exported in one piece.
+     */
+    private List<String> getKeyRanges(Table table) throws DatabaseException {
+        if (rowsPerRange <= 0) {
+            return null;
+        }
+        PrimaryKey primaryKey = table.getPrimaryKey();
+        if (primaryKey == null || primaryKey.getColumns().size() != 1) {
+            return null;
+        }
+
+        Column keyColumn = primaryKey.getColumns().get(0);
+        String keyName = database.escapeColumnName(table.getSchema().getCatalogName(), table.getSchema().getName(), table.getName(), keyColumn.getName());
+
+        long min;
+        long max;
+        long rowCount;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = ((JdbcConnection) database.getConnection()).createStatement();
+            rs = stmt.executeQuery("SELECT MIN(" + keyName + "), MAX(" + keyName + "), COUNT(*) FROM " + escapeTableName(table));
+            if (!rs.next()) {
+                return null;
+            }
+            Long minValue = toLong(rs.getObject(1));
+            Long maxValue = toLong(rs.getObject(2));
+            if (minValue == null || maxValue == null) {
+                return null;
+            }
+            min = minValue;
+            max = maxValue;
+            rowCount = rs.getLong(3);
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        } finally {
+            JdbcUtils.close(rs, stmt);
+        }
+
+        if (rowCount <= rowsPerRange) {
+            return null;
+        }
+        long rangeCount = (rowCount + rowsPerRange - 1) / rowsPerRange;
+        BigInteger keyCount = BigInteger.valueOf(max).subtract(BigInteger.valueOf(min)).add(BigInteger.ONE);
+        long rangeSize = keyCount.add(BigInteger.valueOf(rangeCount - 1)).divide(BigInteger.valueOf(rangeCount)).longValue();
+
+        List<String> ranges = new ArrayList<String>();
+        long rangeStart = min;
+        for (int i = 0; i < rangeCount; i++) {
+            if (i == 0) {
+                ranges.add(keyName + " < " + (rangeStart + rangeSize));
+            } else if (i == rangeCount - 1) {
+                ranges.add(keyName + " >= " + rangeStart);
+            } else {
+                ranges.add(keyName + " >= " + rangeStart + " AND " + keyName + " < " + (rangeStart + rangeSize));
+            }
+            rangeStart += rangeSize;
+        }
+        LogFactory.getLogger().debug("Exporting data from " + table.getName() + " in " + ranges.size() + " key ranges");
+        return ranges;
+    }
+
+    private Long toLong(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigInteger && ((BigInteger) value).bitLength() < 63) {
+            return ((BigInteger) value).longValue();
+        }
+        if (value instanceof BigDecimal) {
+            try {
+                return ((BigDecimal) value).longValueExact();
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private List<ExportedColumn> readColumns(Database database, String sql) throws SQLException, DatabaseException {
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = ((JdbcConnection) database.getConnection()).createStatement();
+            rs = stmt.executeQuery(sql);
+            return readColumns(rs.getMetaData());
+        } finally {
+            JdbcUtils.close(rs, stmt);
+        }
+    }
+
+    private List<ExportedColumn> readColumns(ResultSetMetaData metaData) throws SQLException {
+        List<ExportedColumn> columns = new ArrayList<ExportedColumn>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(new ExportedColumn(metaData.getColumnName(i), getLoadDataType(metaData.getColumnType(i))));
+        }
+        return columns;
+    }
+
+    private String getLoadDataType(int sqlType) {
+        if (sqlType == Types.BIT || sqlType == Types.BOOLEAN) {
+            return "BOOLEAN";
+        } else if (JdbcUtils.isNumeric(sqlType)) {
+            return "NUMERIC";
+        } else if (sqlType == Types.DATE || sqlType == Types.TIME || sqlType == Types.TIMESTAMP) {
+            return "DATE";
+        } else {
+            return "STRING";
+        }
+    }
+
+    private List<ExportedColumn> exportRows(Database database, String sql, File file, boolean writeHeader) throws SQLException, IOException, DatabaseException {
+        Statement stmt = null;
+        ResultSet rs = null;
+        CSVWriter outputFile = null;
+        try {
+            stmt = ((JdbcConnection) database.getConnection()).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(fetchSize);
+            rs = stmt.executeQuery(sql);
+
+            ResultSetMetaData metaData = rs.getMetaData();
+            List<ExportedColumn> columns = readColumns(metaData);
+            ColumnReader[] readers = new ColumnReader[columns.size()];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = createReader(metaData, i + 1);
+            }
+
+            outputFile = new CSVWriter(new OutputStreamWriter(openOutputStream(file), "UTF-8"));
+            String[] line = new String[columns.size()];
+            if (writeHeader) {
+                for (int i = 0; i < columns.size(); i++) {
+                    line[i] = columns.get(i).getName();
+                }
+                outputFile.writeNext(line);
+            }
+
+            while (rs.next()) {
+                for (int i = 0; i < readers.length; i++) {
+                    String value = readers[i].read(rs, i + 1);
+                    if (value == null) {
+                        line[i] = "NULL";
+                    } else {
+                        line[i] = value;
+                    }
+                }
+                outputFile.writeNext(line);
+            }
+            return columns;
+        } finally {
+            if (outputFile != null) {
+                outputFile.close();
+            }
+            JdbcUtils.close(rs, stmt);
+        }
+    }
+
+    private OutputStream openOutputStream(File file) throws IOException {
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(new FileOutputStream(file).getChannel()), bufferSize);
+        if (gzip) {
+            out = new GZIPOutputStream(out, bufferSize);
+        }
+        return out;
+    }
+
+    private ColumnReader createReader(ResultSetMetaData metaData, int index) throws SQLException {
+        int sqlType = metaData.getColumnType(index);
+        String className = metaData.getColumnClassName(index);
+
+        if (sqlType == Types.TIMESTAMP || "java.sql.Timestamp".equals(className) || "oracle.sql.TIMESTAMP".equals(className)) {
+            return new ColumnReader() {
+                @Override
+                public String read(ResultSet rs, int index) throws SQLException {
+                    java.sql.Timestamp value = rs.getTimestamp(index);
+                    return value == null ? null : dateFormat.format(value);
+                }
+            };
+        } else if (sqlType == Types.DATE) {
+            return new ColumnReader() {
+                @Override
+                public String read(ResultSet rs, int index) throws SQLException {
+                    java.sql.Date value = rs.getDate(index);
+                    return value == null ? null : dateFormat.format(value);
+                }
+            };
+        } else if (sqlType == Types.TIME) {
+            return new ColumnReader() {
+                @Override
+                public String read(ResultSet rs, int index) throws SQLException {
+                    java.sql.Time value = rs.getTime(index);
+                    return value == null ? null : dateFormat.format(value);
+                }
+            };
+        } else if ((sqlType == Types.INTEGER || sqlType == Types.SMALLINT || sqlType == Types.TINYINT || sqlType == Types.BIGINT)
+                && ("java.lang.Integer".equals(className) || "java.lang.Long".equals(className) || "java.lang.Short".equals(className) || "java.lang.Byte".equals(className))) {
+            return new ColumnReader() {
+                @Override
+                public String read(ResultSet rs, int index) throws SQLException {
+                    long value = rs.getLong(index);
+                    return rs.wasNull() ? null : String.valueOf(value);
+                }
+            };
+        } else if (sqlType == Types.CHAR || sqlType == Types.VARCHAR || sqlType == Types.LONGVARCHAR || sqlType == Types.CLOB
+                || sqlType == Types.NCHAR || sqlType == Types.NVARCHAR || sqlType == Types.LONGNVARCHAR || sqlType == Types.NCLOB) {
+            return new ColumnReader() {
+                @Override
+                public String read(ResultSet rs, int index) throws SQLException {
+                    return rs.getString(index);
+                }
+            };
+        } else {
+            return new ColumnReader() {
+                @Override
+                public String read(ResultSet rs, int index) throws SQLException {
+                    Object value = JdbcUtils.getResultSetValue(rs, index);
+                    if (value == null) {
+                        return null;
+                    } else if (value instanceof Date) {
+                        return dateFormat.format((Date) value);
+                    }
+                    return value.toString();
+                }
+            };
+        }
+    }
+
+    /**
+     * A column of an exported file, with the loadData column type that matches its values.
+     */
+    public static class ExportedColumn {
+        private final String name;
+        private final String type;
+
+        public ExportedColumn(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getType() {
+            return type;
+        }
+    }
+
+    /**
+     * Reads the value of a column as it is written to the file, or null for NULL. Each reader is only used by one export, so it can keep its own date format.
+     */
+    private static abstract class ColumnReader {
+        protected final ISODateFormat dateFormat = new ISODateFormat();
+
+        public abstract String read(ResultSet rs, int index) throws SQLException;
+    }
+
+    /**
+     * The files the key ranges of a split table are exported to, which are joined in order once all of them are written.
+     * Gzip files can be joined the same way, since a gzip file may hold several compressed members.
+     */
+    private static class SplitExport {
+        private final File file;
+        private final List<File> partFiles = new ArrayList<File>();
+
+        private SplitExport(File file) {
+            this.file = file;
+        }
+
+        private void join() throws IOException {
+            FileChannel out = new FileOutputStream(file).getChannel();
+            try {
+                for (File partFile : partFiles) {
+                    FileChannel in = new FileInputStream(partFile).getChannel();
+                    try {
+                        long position = 0;
+                        long size = in.size();
+                        while (position < size) {
+                            position += in.transferTo(position, size - position, out);
+                        }
+                    } finally {
+                        in.close();
+                    }
+                }
+            } finally {
+                out.close();
+            }
+        }
+
+        private void deleteParts() {
+            for (File partFile : partFiles) {
+                if (partFile.exists() && !partFile.delete()) {
+                    LogFactory.getLogger().warning("Cannot delete " + partFile.getAbsolutePath());
+                }
+            }
+        }
+    }
+}
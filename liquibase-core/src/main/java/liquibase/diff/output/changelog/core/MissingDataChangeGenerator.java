@@ -80,27 +80,7 @@ public class MissingDataChangeGenerator implements MissingObjectChangeGenerator
 
                 // loop over all columns for this row
                 for (int i = 0; i < columnNames.size(); i++) {
-                    ColumnConfig column = new ColumnConfig();
-                    column.setName(columnNames.get(i));
-
-                    Object value = JdbcUtils.getResultSetValue(rs, i + 1);
-                    if (value == null) {
-                        column.setValue(null);
-                    } else if (value instanceof Number) {
-                        column.setValueNumeric((Number) value);
-                    } else if (value instanceof Boolean) {
-                        column.setValueBoolean((Boolean) value);
-                    } else if (value instanceof Date) {
-                        column.setValueDate((Date) value);
-                    } else if (value instanceof byte[]) {
-                        if (referenceDatabase instanceof InformixDatabase) {
-                            column.setValue(new String((byte[]) value));
-                        }
-                        column.setValueComputed(new DatabaseFunction("UNSUPPORTED FOR DIFF: BINARY DATA"));
-                    } else { // fall back to simple string
-                        column.setValue(value.toString().replace("\\", "\\\\"));
-                    }
-
+                    ColumnConfig column = createColumnConfig(columnNames.get(i), JdbcUtils.getResultSetValue(rs, i + 1), referenceDatabase);
                     change.addColumn(column);
 
                 }
@@ -128,4 +108,30 @@ public class MissingDataChangeGenerator implements MissingObjectChangeGenerator
             }
         }
     }
+
+    /**
+     * Returns the column config for a value read from the reference database, typed by the class of the value.
+     */
+    protected static ColumnConfig createColumnConfig(String columnName, Object value, Database referenceDatabase) {
+        ColumnConfig column = new ColumnConfig();
+        column.setName(columnName);
+
+        if (value == null) {
+            column.setValue(null);
+        } else if (value instanceof Number) {
+            column.setValueNumeric((Number) value);
+        } else if (value instanceof Boolean) {
+            column.setValueBoolean((Boolean) value);
+        } else if (value instanceof Date) {
+            column.setValueDate((Date) value);
+        } else if (value instanceof byte[]) {
+            if (referenceDatabase instanceof InformixDatabase) {
+                column.setValue(new String((byte[]) value));
+            }
+            column.setValueComputed(new DatabaseFunction("UNSUPPORTED FOR DIFF: BINARY DATA"));
+        } else { // fall back to simple string
+            column.setValue(value.toString().replace("\\", "\\\\"));
+        }
+        return column;
+    }
 }
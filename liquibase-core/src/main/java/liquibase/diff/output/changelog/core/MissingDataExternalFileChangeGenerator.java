@@ -4,10 +4,6 @@ import liquibase.change.Change;
 import liquibase.change.core.LoadDataChange;
 import liquibase.change.core.LoadDataColumnConfig;
 import liquibase.database.Database;
-import liquibase.database.core.MSSQLDatabase;
-import liquibase.database.core.OracleDatabase;
-import liquibase.database.core.PostgresDatabase;
-import liquibase.database.jvm.JdbcConnection;
 import liquibase.diff.output.DiffOutputControl;
 import liquibase.diff.output.changelog.ChangeGeneratorChain;
 import liquibase.exception.UnexpectedLiquibaseException;
@@ -15,18 +11,8 @@ import liquibase.servicelocator.LiquibaseService;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Data;
 import liquibase.structure.core.Table;
-import liquibase.util.ISODateFormat;
-import liquibase.util.JdbcUtils;
-import liquibase.util.csv.CSVWriter;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 @LiquibaseService(skip = true)
@@ -48,8 +34,6 @@ public class MissingDataExternalFileChangeGenerator extends MissingDataChangeGen
 
     @Override
     public Change[] fixMissing(DatabaseObject missingObject, DiffOutputControl outputControl, Database referenceDatabase, Database comparisionDatabase, ChangeGeneratorChain chain) {
-        Statement stmt = null;
-        ResultSet rs = null;
         try {
             Data data = (Data) missingObject;
 
@@ -58,18 +42,12 @@ public class MissingDataExternalFileChangeGenerator extends MissingDataChangeGen
                 return null;
             }
 
-            String sql = "SELECT * FROM " + referenceDatabase.escapeTableName(table.getSchema().getCatalogName(), table.getSchema().getName(), table.getName());
-
-            stmt = ((JdbcConnection) referenceDatabase.getConnection()).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-            stmt.setFetchSize(100);
-            rs = stmt.executeQuery(sql);
-
-            List<String> columnNames = new ArrayList<String>();
-            for (int i=0; i< rs.getMetaData().getColumnCount(); i++) {
-                columnNames.add(rs.getMetaData().getColumnName(i+1));
+            DataExporter dataExporter = outputControl.getDataExporter();
+            if (dataExporter == null) {
+                dataExporter = new DataExporter(referenceDatabase);
             }
 
-            String fileName = table.getName().toLowerCase() + ".csv";
+            String fileName = table.getName().toLowerCase() + dataExporter.getFileExtension();
             if (dataDir != null) {
                 fileName = dataDir + "/" + fileName;
             }
@@ -83,49 +61,7 @@ public class MissingDataExternalFileChangeGenerator extends MissingDataChangeGen
                         + " is not a directory");
             }
 
-            CSVWriter outputFile = new CSVWriter(new BufferedWriter(new FileWriter(fileName)));
-            String[] dataTypes = new String[columnNames.size()];
-            String[] line = new String[columnNames.size()];
-            for (int i = 0; i < columnNames.size(); i++) {
-                line[i] = columnNames.get(i);
-            }
-            outputFile.writeNext(line);
-
-            int rowNum = 0;
-            while (rs.next()) {
-                line = new String[columnNames.size()];
-
-                for (int i = 0; i < columnNames.size(); i++) {
-                    Object value = JdbcUtils.getResultSetValue(rs, i + 1);
-                    if (dataTypes[i] == null && value != null) {
-                        if (value instanceof Number) {
-                            dataTypes[i] = "NUMERIC";
-                        } else if (value instanceof Boolean) {
-                            dataTypes[i] = "BOOLEAN";
-                        } else if (value instanceof Date) {
-                            dataTypes[i] = "DATE";
-                        } else {
-                            dataTypes[i] = "STRING";
-                        }
-                    }
-                    if (value == null) {
-                        line[i] = "NULL";
-                    } else {
-                        if (value instanceof Date) {
-                            line[i] = new ISODateFormat().format(((Date) value));
-                        } else {
-                            line[i] = value.toString();
-                        }
-                    }
-                }
-                outputFile.writeNext(line);
-                rowNum++;
-                if (rowNum % 5000 == 0) {
-                    outputFile.flush();
-                }
-            }
-            outputFile.flush();
-            outputFile.close();
+            List<DataExporter.ExportedColumn> columns = dataExporter.export(table, new File(fileName));
 
             LoadDataChange change = new LoadDataChange();
             change.setFile(fileName);
@@ -138,12 +74,11 @@ public class MissingDataExternalFileChangeGenerator extends MissingDataChangeGen
             }
             change.setTableName(table.getName());
 
-            for (int i = 0; i < columnNames.size(); i++) {
-                String colName = columnNames.get(i);
+            for (DataExporter.ExportedColumn column : columns) {
                 LoadDataColumnConfig columnConfig = new LoadDataColumnConfig();
-                columnConfig.setHeader(colName);
-                columnConfig.setName(colName);
-                columnConfig.setType(dataTypes[i]);
+                columnConfig.setHeader(column.getName());
+                columnConfig.setName(column.getName());
+                columnConfig.setType(column.getType());
 
                 change.addColumn(columnConfig);
             }
@@ -153,17 +88,6 @@ public class MissingDataExternalFileChangeGenerator extends MissingDataChangeGen
             };
         } catch (Exception e) {
             throw new UnexpectedLiquibaseException(e);
-        } finally {
-            if (rs != null) {
-                try {
-                    rs.close();
-                } catch (SQLException ignore) { }
-            }
-            if (stmt != null) {
-                try {
-                    stmt.close();
-                } catch (SQLException ignore) { }
-            }
         }
     }
 }
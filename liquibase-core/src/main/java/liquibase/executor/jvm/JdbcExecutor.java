@@ -120,6 +120,24 @@ public class JdbcExecutor extends AbstractExecutor {
         return execute(new QueryStatementCallback(sql, rse, sqlVisitors), sqlVisitors);
     }
 
+    public void query(SqlStatement sql, RowCallbackHandler rch) throws DatabaseException {
+        query(sql, rch, new ArrayList<SqlVisitor>());
+    }
+
+    /**
+     * Passes each row to the handler while the result is read, instead of collecting all rows in memory first.
+     * The statement uses the {@link Database#getFetchSize()} of the database, so drivers that read the whole result by default fetch it in chunks.
+     */
+    public void query(SqlStatement sql, RowCallbackHandler rch, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        ResultSetExtractor rse = new RowCallbackHandlerResultSetExtractor(rch);
+        if (sql instanceof CallableSqlStatement) {
+            execute(new QueryCallableStatementCallback(sql, rse), sqlVisitors);
+            return;
+        }
+
+        execute(new QueryStatementCallback(sql, rse, sqlVisitors, database.getFetchSize()), sqlVisitors);
+    }
+
     public List query(SqlStatement sql, RowMapper rowMapper) throws DatabaseException {
         return query(sql, rowMapper, new ArrayList());
     }
@@ -315,11 +333,17 @@ public class JdbcExecutor extends AbstractExecutor {
         private final SqlStatement sql;
         private final List<SqlVisitor> sqlVisitors;
         private final ResultSetExtractor rse;
+        private final Integer fetchSize;
 
         private QueryStatementCallback(SqlStatement sql, ResultSetExtractor rse, List<SqlVisitor> sqlVisitors) {
+            this(sql, rse, sqlVisitors, null);
+        }
+
+        private QueryStatementCallback(SqlStatement sql, ResultSetExtractor rse, List<SqlVisitor> sqlVisitors, Integer fetchSize) {
             this.sql = sql;
             this.rse = rse;
             this.sqlVisitors = sqlVisitors;
+            this.fetchSize = fetchSize;
         }
 
 
@@ -334,6 +358,9 @@ public class JdbcExecutor extends AbstractExecutor {
                 }
                 log.debug("Executing QUERY database command: "+sqlToExecute[0]);
 
+                if (fetchSize != null) {
+                    stmt.setFetchSize(fetchSize);
+                }
                 rs = stmt.executeQuery(sqlToExecute[0]);
                 ResultSet rsToUse = rs;
                 return rse.extractData(rsToUse);
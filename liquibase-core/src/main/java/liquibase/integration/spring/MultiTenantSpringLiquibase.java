@@ -3,10 +3,23 @@
  */
 package liquibase.integration.spring;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.naming.Context;
 import javax.naming.InitialContext;
@@ -15,9 +28,14 @@ import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 import javax.sql.DataSource;
 
+import liquibase.Liquibase;
+import liquibase.database.Database;
 import liquibase.exception.LiquibaseException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.StreamUtil;
+import liquibase.util.StringUtils;
 
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ResourceLoaderAware;
@@ -42,6 +60,11 @@ import org.springframework.core.io.ResourceLoader;
  * &lt;/bean&gt;
  * </pre>
  * 
+ * By default the tenants are migrated one after another. Setting {@link #setThreads(int) threads} to more than one migrates
+ * up to that many tenants at the same time. In that mode the changelog files are read once, and every tenant is attempted even if others fail.
+ * Each tenant parses its own copy of the changelog from the files in memory, because a parsed changelog keeps state of the run it is used in.
+ * The failed tenants are reported together once all tenants have finished.
+ * 
  * @see SpringLiquibase
  * 
  * @author ladislav.gazo
@@ -74,6 +97,11 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
     private boolean shouldRun = true;
 
     private File rollbackFile;
+
+    private int threads = 1;
+
+    /** Reads the changelog files for all tenants in concurrent mode. */
+    private ResourceAccessor sharedResourceAccessor;
 	
 
 	@Override
@@ -125,6 +153,14 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
 	}
 
 	private void runOnAllDataSources() throws LiquibaseException {
+		if (threads > 1) {
+			List<Tenant> tenants = new ArrayList<Tenant>();
+			for (DataSource aDataSource : dataSources) {
+				tenants.add(new Tenant("data source " + aDataSource, new TenantSpringLiquibase(aDataSource)));
+			}
+			runConcurrently(tenants);
+			return;
+		}
 		for(DataSource aDataSource : dataSources) {
 			log.info("Initializing Liquibase for data source " + aDataSource);
 			SpringLiquibase liquibase = getSpringLiquibase(aDataSource);
@@ -134,6 +170,19 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
 	}
 	
 	private void runOnAllSchemas() throws LiquibaseException {
+		if (threads > 1) {
+			List<Tenant> tenants = new ArrayList<Tenant>();
+			for (String schema : schemas) {
+				if (schema.equals("default")) {
+					schema = null;
+				}
+				SpringLiquibase liquibase = new TenantSpringLiquibase(dataSource);
+				liquibase.setDefaultSchema(schema);
+				tenants.add(new Tenant("schema " + schema, liquibase));
+			}
+			runConcurrently(tenants);
+			return;
+		}
 		for(String schema : schemas) {
 			if(schema.equals("default")) {
 				schema = null;
@@ -146,8 +195,55 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
 		}
 	}
 
+	private void runConcurrently(List<Tenant> tenants) throws LiquibaseException {
+		sharedResourceAccessor = new CachingResourceAccessor(getSpringLiquibase(dataSource).createResourceOpener());
+		java.util.concurrent.ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tenants.size()));
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (final Tenant tenant : tenants) {
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						log.info("Initializing Liquibase for " + tenant.name);
+						tenant.liquibase.afterPropertiesSet();
+						log.info("Liquibase ran for " + tenant.name);
+						return null;
+					}
+				}));
+			}
+
+			List<String> failedTenants = new ArrayList<String>();
+			Throwable firstFailure = null;
+			for (int i = 0; i < tenants.size(); i++) {
+				try {
+					futures.get(i).get();
+				} catch (ExecutionException e) {
+					log.severe("Liquibase failed for " + tenants.get(i).name, e.getCause());
+					failedTenants.add(tenants.get(i).name);
+					if (firstFailure == null) {
+						firstFailure = e.getCause();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new LiquibaseException("Interrupted while waiting for tenants to be migrated", e);
+				}
+			}
+			if (!failedTenants.isEmpty()) {
+				throw new LiquibaseException("Liquibase failed for " + failedTenants.size() + " of " + tenants.size() + " tenants: " + StringUtils.join(failedTenants, ", "), firstFailure);
+			}
+		} finally {
+			executor.shutdown();
+			sharedResourceAccessor = null;
+		}
+	}
+
 	private SpringLiquibase getSpringLiquibase(DataSource dataSource) {
 		SpringLiquibase liquibase = new SpringLiquibase();
+		configure(liquibase, dataSource);
+		return liquibase;
+	}
+
+	private void configure(SpringLiquibase liquibase, DataSource dataSource) {
 		liquibase.setChangeLog(changeLog);
 		liquibase.setChangeLogParameters(parameters);
 		liquibase.setContexts(contexts);
@@ -158,7 +254,6 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
 		liquibase.setResourceLoader(resourceLoader);
 		liquibase.setDataSource(dataSource);
 		liquibase.setDefaultSchema(defaultSchema);
-		return liquibase;
 	}
 
 	
@@ -247,6 +342,17 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
 		this.schemas = schemas;
 	}
 
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets how many tenants are migrated at the same time. Defaults to 1, which migrates the tenants one after another.
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
 	public DataSource getDataSource() {
 		return dataSource;
 	}
@@ -254,5 +360,101 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
 		this.dataSource = dataSource;
 	}
 
-	
+	private static class Tenant {
+		private final String name;
+		private final SpringLiquibase liquibase;
+
+		private Tenant(String name, SpringLiquibase liquibase) {
+			this.name = name;
+			this.liquibase = liquibase;
+		}
+	}
+
+	/**
+	 * SpringLiquibase used for a tenant in concurrent mode.
+	 */
+	private class TenantSpringLiquibase extends SpringLiquibase {
+		private TenantSpringLiquibase(DataSource dataSource) {
+			configure(this, dataSource);
+		}
+
+		@Override
+		protected Liquibase createLiquibase(String changeLogFile, ResourceAccessor resourceAccessor, Database database) throws LiquibaseException {
+			return super.createLiquibase(changeLogFile, sharedResourceAccessor, database);
+		}
+	}
+
+	/**
+	 * Keeps the contents of the changelog documents read through it, so they are read once for all tenants.
+	 * Other resources, like loadData files and sqlFile scripts, are read from the delegate each time so they can still be streamed.
+	 */
+	private static class CachingResourceAccessor implements ResourceAccessor {
+		private static final List<String> CHANGELOG_EXTENSIONS = Arrays.asList(".xml", ".yaml", ".yml", ".json");
+
+		private final ResourceAccessor resourceAccessor;
+		private final Map<String, List<byte[]>> resources = new HashMap<String, List<byte[]>>();
+
+		private CachingResourceAccessor(ResourceAccessor resourceAccessor) {
+			this.resourceAccessor = resourceAccessor;
+		}
+
+		@Override
+		public Set<InputStream> getResourcesAsStream(String path) throws IOException {
+			if (!isChangeLog(path)) {
+				return resourceAccessor.getResourcesAsStream(path);
+			}
+
+			List<byte[]> contents;
+			synchronized (resources) {
+				contents = resources.get(path);
+				if (contents == null && !resources.containsKey(path)) {
+					Set<InputStream> streams = resourceAccessor.getResourcesAsStream(path);
+					if (streams != null) {
+						contents = new ArrayList<byte[]>();
+						for (InputStream stream : streams) {
+							try {
+								ByteArrayOutputStream content = new ByteArrayOutputStream();
+								StreamUtil.copy(stream, content);
+								contents.add(content.toByteArray());
+							} finally {
+								stream.close();
+							}
+						}
+					}
+					resources.put(path, contents);
+				}
+			}
+			if (contents == null) {
+				return null;
+			}
+
+			Set<InputStream> streams = new LinkedHashSet<InputStream>();
+			for (byte[] content : contents) {
+				streams.add(new ByteArrayInputStream(content));
+			}
+			return streams;
+		}
+
+		private boolean isChangeLog(String path) {
+			String lowerCasePath = path.toLowerCase(Locale.ENGLISH);
+			for (String extension : CHANGELOG_EXTENSIONS) {
+				if (lowerCasePath.endsWith(extension)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Set<String> list(String relativeTo, String path, boolean includeFiles, boolean includeDirectories, boolean recursive) throws IOException {
+			synchronized (resources) {
+				return resourceAccessor.list(relativeTo, path, includeFiles, includeDirectories, recursive);
+			}
+		}
+
+		@Override
+		public ClassLoader toClassLoader() {
+			return resourceAccessor.toClassLoader();
+		}
+	}
 }
@@ -437,7 +437,7 @@ public class SpringLiquibase implements InitializingBean, BeanNameAware, Resourc
 
 	protected Liquibase createLiquibase(Connection c) throws LiquibaseException {
 		SpringResourceOpener resourceAccessor = createResourceOpener();
-		Liquibase liquibase = new Liquibase(getChangeLog(), resourceAccessor, createDatabase(c, resourceAccessor));
+		Liquibase liquibase = createLiquibase(getChangeLog(), resourceAccessor, createDatabase(c, resourceAccessor));
         liquibase.setIgnoreClasspathPrefix(isIgnoreClasspathPrefix());
 		if (parameters != null) {
 			for (Map.Entry<String, String> entry : parameters.entrySet()) {
@@ -452,6 +452,13 @@ public class SpringLiquibase implements InitializingBean, BeanNameAware, Resourc
 		return liquibase;
 	}
 
+	/**
+	 * Subclasses may override this method to return a customized {@link Liquibase} instance.
+	 */
+	protected Liquibase createLiquibase(String changeLogFile, ResourceAccessor resourceAccessor, Database database) throws LiquibaseException {
+		return new Liquibase(changeLogFile, resourceAccessor, database);
+	}
+
 	/**
 	 * Subclasses may override this method add change some database settings such as
 	 * default schema before returning the database object.
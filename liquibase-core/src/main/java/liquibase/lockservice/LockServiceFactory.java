@@ -1,12 +1,12 @@
 package liquibase.lockservice;
 
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import liquibase.database.Database;
 import liquibase.exception.UnexpectedLiquibaseException;
@@ -19,9 +19,9 @@ public class LockServiceFactory {
 
 	private static LockServiceFactory instance;
 
-	private List<LockService> registry = new ArrayList<LockService>();
+	private List<LockService> registry = new CopyOnWriteArrayList<LockService>();
 
-	private Map<Database, LockService> openLockServices = new ConcurrentHashMap<Database, LockService>();
+	private ConcurrentMap<Database, LockService> openLockServices = new ConcurrentHashMap<Database, LockService>();
 
 	public static synchronized LockServiceFactory getInstance() {
 		if (instance == null) {
@@ -61,7 +61,8 @@ public class LockServiceFactory {
 	}
 
 	public LockService getLockService(Database database) {
-		if (!openLockServices.containsKey(database)) {
+		LockService openLockService = openLockServices.get(database);
+		if (openLockService == null) {
 			SortedSet<LockService> foundServices = new TreeSet<LockService>(new Comparator<LockService>() {
 				@Override
                 public int compare(LockService o1, LockService o2) {
@@ -82,13 +83,26 @@ public class LockServiceFactory {
 			try {
 				LockService lockService = foundServices.iterator().next().getClass().newInstance();
 				lockService.setDatabase(database);
-				openLockServices.put(database, lockService);
+				openLockService = openLockServices.putIfAbsent(database, lockService);
+				if (openLockService == null) {
+					openLockService = lockService;
+				}
 			} catch (Exception e) {
 				throw new UnexpectedLiquibaseException(e);
 			}
 		}
-		return openLockServices.get(database);
+		return openLockService;
+
+	}
 
+	/**
+	 * Resets and forgets the lock service opened for the given database, leaving the lock services of other databases untouched.
+	 */
+	public void resetLockService(Database database) {
+		LockService lockService = openLockServices.remove(database);
+		if (lockService != null) {
+			lockService.reset();
+		}
 	}
 
 	public synchronized void resetAll() {
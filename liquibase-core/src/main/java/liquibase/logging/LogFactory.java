@@ -4,11 +4,11 @@ import liquibase.exception.ServiceNotFoundException;
 import liquibase.logging.core.DefaultLogger;
 import liquibase.servicelocator.ServiceLocator;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class LogFactory {
-    private final Map<String, Logger> loggers = new HashMap<String, Logger>();
+    private final ConcurrentMap<String, Logger> loggers = new ConcurrentHashMap<String, Logger>();
     private static String defaultLoggingLevel = null;
     private static DefaultLogger defaultLogger = new DefaultLogger();
 
@@ -40,7 +40,8 @@ public class LogFactory {
     }
 
     public Logger getLog(String name) {
-        if (!loggers.containsKey(name)) {
+        Logger logger = loggers.get(name);
+        if (logger == null) {
             Logger value;
             try {
                 ServiceLocator serviceLocator = ServiceLocator.getInstance();
@@ -55,10 +56,13 @@ public class LogFactory {
             if (defaultLoggingLevel != null) {
                 value.setLogLevel(defaultLoggingLevel);
             }
-            loggers.put(name, value);
+            logger = loggers.putIfAbsent(name, value);
+            if (logger == null) {
+                logger = value;
+            }
         }
 
-        return loggers.get(name);
+        return logger;
     }
 
    /**
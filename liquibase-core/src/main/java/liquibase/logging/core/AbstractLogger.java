@@ -8,8 +8,9 @@ import liquibase.logging.Logger;
 
 public abstract class AbstractLogger implements Logger {
     private LogLevel logLevel;
-    private DatabaseChangeLog databaseChangeLog;
-    private ChangeSet changeSet;
+    // loggers are shared by every Liquibase run in the JVM, so the changelog and changeSet being executed are tracked per thread
+    private final ThreadLocal<DatabaseChangeLog> databaseChangeLog = new ThreadLocal<DatabaseChangeLog>();
+    private final ThreadLocal<ChangeSet> changeSet = new ThreadLocal<ChangeSet>();
 
     @Override
     public LogLevel getLogLevel() {
@@ -39,6 +40,8 @@ public abstract class AbstractLogger implements Logger {
 
     protected String buildMessage(String message) {
         StringBuilder msg = new StringBuilder();
+        DatabaseChangeLog databaseChangeLog = this.databaseChangeLog.get();
+        ChangeSet changeSet = this.changeSet.get();
         if(databaseChangeLog != null) {
             msg.append(databaseChangeLog.getFilePath()).append(": ");
         }
@@ -57,11 +60,11 @@ public abstract class AbstractLogger implements Logger {
 
     @Override
     public void setChangeLog(DatabaseChangeLog databaseChangeLog) {
-        this.databaseChangeLog = databaseChangeLog;
+        this.databaseChangeLog.set(databaseChangeLog);
     }
 
     @Override
     public void setChangeSet(ChangeSet changeSet) {
-        this.changeSet = changeSet;
+        this.changeSet.set(changeSet);
     }
 }
@@ -9,6 +9,8 @@ public class ChangeLogParserCofiguration extends AbstractConfigurationContainer
 
     public static final String SUPPORT_PROPERTY_ESCAPING = "supportPropertyEscaping";
     public static final String USE_PROCEDURE_SCHEMA = "useProcedureSchema";
+    public static final String PARSED_CHANGELOG_CACHE_DIRECTORY = "parsedChangeLogCacheDirectory";
+    public static final String INCLUDE_PARSE_THREADS = "includeParseThreads";
 
     public ChangeLogParserCofiguration() {
         super("liquibase");
@@ -21,6 +23,13 @@ public class ChangeLogParserCofiguration extends AbstractConfigurationContainer
         getContainer().addProperty(USE_PROCEDURE_SCHEMA, Boolean.class)
                 .setDescription("If set to true (default value), createProcedure tags with a set schemaName will modify the procedure body with the given schema name.")
                 .setDefaultValue(true);
+
+        getContainer().addProperty(PARSED_CHANGELOG_CACHE_DIRECTORY, String.class)
+                .setDescription("Directory used to cache parsed XML changelog files, so unchanged files are not parsed and validated again. If not set, changelog files are always parsed");
+
+        getContainer().addProperty(INCLUDE_PARSE_THREADS, Integer.class)
+                .setDescription("Number of threads used to read the files of include and includeAll tags concurrently. The changeSets are still added in changelog order. If 1, files are read one after another")
+                .setDefaultValue(1);
     }
 
     public boolean getSupportPropertyEscaping() {
@@ -41,5 +50,28 @@ public class ChangeLogParserCofiguration extends AbstractConfigurationContainer
         return this;
     }
 
+    /**
+     * Directory used to cache parsed changelog files. Null disables the cache.
+     */
+    public String getParsedChangeLogCacheDirectory() {
+        return getContainer().getValue(PARSED_CHANGELOG_CACHE_DIRECTORY, String.class);
+    }
+
+    public ChangeLogParserCofiguration setParsedChangeLogCacheDirectory(String directory) {
+        getContainer().setValue(PARSED_CHANGELOG_CACHE_DIRECTORY, directory);
+        return this;
+    }
+
+    /**
+     * Number of threads used to read included changelog files concurrently. 1 or less reads them one after another.
+     */
+    public int getIncludeParseThreads() {
+        Integer threads = getContainer().getValue(INCLUDE_PARSE_THREADS, Integer.class);
+        return threads == null ? 1 : threads;
+    }
 
+    public ChangeLogParserCofiguration setIncludeParseThreads(int threads) {
+        getContainer().setValue(INCLUDE_PARSE_THREADS, threads);
+        return this;
+    }
 }
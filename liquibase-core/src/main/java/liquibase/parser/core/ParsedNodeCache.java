@@ -0,0 +1,165 @@
+package liquibase.parser.core;
+
+import liquibase.logging.LogFactory;
+import liquibase.util.LiquibaseUtil;
+import liquibase.util.MD5Util;
+import liquibase.util.StreamUtil;
+
+import java.io.*;
+
+/**
+ * Stores {@link ParsedNode} trees in a compact binary form so an unchanged changelog file does not need to be parsed again.
+ * Entries are files in the cache directory named after a hash of the parsed file's content and the parser that read it,
+ * so a changed file is simply a new entry and entries never need to be invalidated.
+ * Only trees whose values are all strings are cached.
+ */
+public class ParsedNodeCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final byte NULL_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+
+    private final File directory;
+
+    public ParsedNodeCache(File directory) {
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the key of the tree the given parser creates from the given content.
+     */
+    public String createKey(String parserName, byte[] content) {
+        byte[] prefix;
+        try {
+            prefix = (LiquibaseUtil.getBuildVersion() + ":" + FORMAT_VERSION + ":" + parserName + ":").getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        return MD5Util.computeMD5(new SequenceInputStream(new ByteArrayInputStream(prefix), new ByteArrayInputStream(content)));
+    }
+
+    /**
+     * Returns the tree stored for the given key, or null if there is none or it cannot be read.
+     */
+    public ParsedNode get(String key) {
+        File file = new File(directory, key + ".bin");
+        if (!file.exists()) {
+            return null;
+        }
+        DataInputStream input = null;
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (input.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            return readNode(input);
+        } catch (Exception e) {
+            LogFactory.getInstance().getLog().debug("Cannot read cached changelog " + file.getAbsolutePath() + ": " + e.getMessage());
+            return null;
+        } finally {
+            if (input != null) {
+                StreamUtil.closeQuietly(input);
+            }
+        }
+    }
+
+    /**
+     * Stores the tree under the given key. Failures are logged and otherwise ignored, since the cache is only an optimization.
+     * Must be called before the tree is modified, for example by expanding changelog parameters.
+     */
+    public void put(String key, ParsedNode node) {
+        if (!isCacheable(node)) {
+            return;
+        }
+        File file = new File(directory, key + ".bin");
+        File tempFile = null;
+        DataOutputStream output = null;
+        try {
+            if (!directory.exists()) {
+                directory.mkdirs();
+            }
+            tempFile = File.createTempFile(key, ".tmp", directory);
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            output.writeInt(FORMAT_VERSION);
+            writeNode(node, output);
+            output.close();
+            output = null;
+
+            if (!tempFile.renameTo(file) && !file.exists()) {
+                throw new IOException("Cannot rename " + tempFile + " to " + file);
+            }
+        } catch (IOException e) {
+            LogFactory.getInstance().getLog().debug("Cannot cache parsed changelog as " + file.getAbsolutePath() + ": " + e.getMessage());
+        } finally {
+            if (output != null) {
+                StreamUtil.closeQuietly(output);
+            }
+            if (tempFile != null && tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    protected boolean isCacheable(ParsedNode node) {
+        if (node.getValue() != null && !(node.getValue() instanceof String)) {
+            return false;
+        }
+        for (ParsedNode child : node.getChildren()) {
+            if (!isCacheable(child)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected void writeNode(ParsedNode node, DataOutputStream output) throws IOException {
+        writeString(node.getNamespace(), output);
+        writeString(node.getName(), output);
+        writeString((String) node.getValue(), output);
+        output.writeInt(node.getChildren().size());
+        for (ParsedNode child : node.getChildren()) {
+            writeNode(child, output);
+        }
+    }
+
+    protected ParsedNode readNode(DataInputStream input) throws IOException, ParsedNodeException {
+        ParsedNode node = new ParsedNode(readString(input), readString(input));
+        String value = readString(input);
+        if (value != null) {
+            node.setValue(value);
+        }
+        int children = input.readInt();
+        for (int i = 0; i < children; i++) {
+            node.addChild(readNode(input));
+        }
+        return node;
+    }
+
+    private void writeString(String value, DataOutputStream output) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL_VALUE);
+            return;
+        }
+        output.writeByte(STRING_VALUE);
+        byte[] bytes = value.getBytes("UTF-8");
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private String readString(DataInputStream input) throws IOException {
+        byte type = input.readByte();
+        if (type == NULL_VALUE) {
+            return null;
+        }
+        if (type != STRING_VALUE) {
+            throw new IOException("Unexpected value type " + type);
+        }
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+}
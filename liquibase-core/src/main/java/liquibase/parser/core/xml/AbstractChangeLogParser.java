@@ -14,7 +14,21 @@ public abstract class AbstractChangeLogParser implements ChangeLogParser {
 
     @Override
     public DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
-        ParsedNode parsedNode = parseToNode(physicalChangeLogLocation, changeLogParameters, resourceAccessor);
+        return parse(physicalChangeLogLocation, parseToNode(physicalChangeLogLocation, changeLogParameters, resourceAccessor), changeLogParameters, resourceAccessor);
+    }
+
+    /**
+     * Reads the given file into a {@link ParsedNode} tree without creating a {@link DatabaseChangeLog} from it.
+     * Reading does not use or change the changelog parameters, so files may be read concurrently and passed to {@link #parse(String, ParsedNode, ChangeLogParameters, ResourceAccessor)} later.
+     */
+    public ParsedNode readParsedNode(String physicalChangeLogLocation, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        return parseToNode(physicalChangeLogLocation, null, resourceAccessor);
+    }
+
+    /**
+     * Creates the DatabaseChangeLog for a tree returned by {@link #readParsedNode(String, ResourceAccessor)}.
+     */
+    public DatabaseChangeLog parse(String physicalChangeLogLocation, ParsedNode parsedNode, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
         if (parsedNode == null) {
             return null;
         }
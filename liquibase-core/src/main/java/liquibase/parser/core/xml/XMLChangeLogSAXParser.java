@@ -1,5 +1,8 @@
 package liquibase.parser.core.xml;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -9,12 +12,16 @@ import javax.xml.transform.Source;
 import javax.xml.validation.SchemaFactory;
 
 import liquibase.changelog.ChangeLogParameters;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.exception.ChangeLogParseException;
 import liquibase.logging.LogFactory;
+import liquibase.parser.ChangeLogParserCofiguration;
 import liquibase.parser.core.ParsedNode;
+import liquibase.parser.core.ParsedNodeCache;
 import liquibase.resource.UtfBomStripperInputStream;
 import liquibase.resource.ResourceAccessor;
 import liquibase.util.StreamUtil;
+import liquibase.util.StringUtils;
 import liquibase.util.file.FilenameUtils;
 
 import org.xml.sax.ErrorHandler;
@@ -53,11 +60,51 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
         return saxParserFactory;
     }
 
+    /**
+     * Returns the cache of parsed changelog files configured with {@link ChangeLogParserCofiguration#getParsedChangeLogCacheDirectory()}, or null if it is not enabled.
+     */
+    protected ParsedNodeCache getParsedNodeCache() {
+        String directory = StringUtils.trimToNull(LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).getParsedChangeLogCacheDirectory());
+        if (directory == null) {
+            return null;
+        }
+        return new ParsedNodeCache(new File(directory));
+    }
+
     @Override
     protected ParsedNode parseToNode(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
         InputStream inputStream = null;
         try {
-            SAXParser parser = saxParserFactory.newSAXParser();
+            inputStream = StreamUtil.singleInputStream(physicalChangeLogLocation, resourceAccessor);
+            if (inputStream == null) {
+                if (physicalChangeLogLocation.startsWith("WEB-INF/classes/")) {
+                    physicalChangeLogLocation = physicalChangeLogLocation.replaceFirst("WEB-INF/classes/", "");
+                    inputStream = StreamUtil.singleInputStream(physicalChangeLogLocation, resourceAccessor);
+                }
+                if (inputStream == null) {
+                    throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
+                }
+            }
+
+            ParsedNodeCache cache = getParsedNodeCache();
+            String cacheKey = null;
+            if (cache != null) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                StreamUtil.copy(inputStream, content);
+                cacheKey = cache.createKey(getClass().getName(), content.toByteArray());
+                ParsedNode cachedNode = cache.get(cacheKey);
+                if (cachedNode != null) {
+                    LogFactory.getLogger().debug("Using cached parse of " + physicalChangeLogLocation);
+                    return cachedNode;
+                }
+                inputStream.close();
+                inputStream = new ByteArrayInputStream(content.toByteArray());
+            }
+
+            SAXParser parser;
+            synchronized (saxParserFactory) { //factories are not guaranteed to be thread safe, and included files may be read concurrently
+                parser = saxParserFactory.newSAXParser();
+            }
             try {
                 parser.setProperty("http://java.sun.com/xml/jaxp/properties/schemaLanguage", "http://www.w3.org/2001/XMLSchema");
             } catch (SAXNotRecognizedException e) {
@@ -89,23 +136,16 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
                     throw exception;
                 }
             });
-        	
-            inputStream = StreamUtil.singleInputStream(physicalChangeLogLocation, resourceAccessor);
-            if (inputStream == null) {
-                if (physicalChangeLogLocation.startsWith("WEB-INF/classes/")) {
-                    physicalChangeLogLocation = physicalChangeLogLocation.replaceFirst("WEB-INF/classes/", "");
-                    inputStream = StreamUtil.singleInputStream(physicalChangeLogLocation, resourceAccessor);
-                }
-                if (inputStream == null) {
-                    throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
-                }
-            }
 
             XMLChangeLogSAXHandler contentHandler = new XMLChangeLogSAXHandler(physicalChangeLogLocation, resourceAccessor, changeLogParameters);
             xmlReader.setContentHandler(contentHandler);
             xmlReader.parse(new InputSource(new UtfBomStripperInputStream(inputStream)));
 
-            return contentHandler.getDatabaseChangeLogTree();
+            ParsedNode parsedNode = contentHandler.getDatabaseChangeLogTree();
+            if (cache != null && parsedNode != null) {
+                cache.put(cacheKey, parsedNode);
+            }
+            return parsedNode;
         } catch (ChangeLogParseException e) {
             throw e;
         } catch (IOException e) {
@@ -22,6 +22,10 @@ public class CompositeResourceAccessor implements ResourceAccessor {
         this.resourceAccessors = Arrays.asList(resourceAccessors);
     }
 
+    public List<ResourceAccessor> getResourceAccessors() {
+        return Collections.unmodifiableList(resourceAccessors);
+    }
+
     @Override
     public Set<InputStream> getResourcesAsStream(String path) throws IOException {
         for (ResourceAccessor accessor : resourceAccessors) {
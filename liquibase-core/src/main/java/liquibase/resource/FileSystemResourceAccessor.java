@@ -31,6 +31,13 @@ public class FileSystemResourceAccessor extends AbstractResourceAccessor {
         }
     }
 
+    /**
+     * Returns the directory relative paths are resolved against, or null if they are resolved against the working directory.
+     */
+    public File getBaseDirectory() {
+        return baseDirectory;
+    }
+
     @Override
     public Set<InputStream> getResourcesAsStream(String path) throws IOException {
         File absoluteFile = new File(path);
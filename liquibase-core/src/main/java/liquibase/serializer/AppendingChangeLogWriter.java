@@ -0,0 +1,62 @@
+package liquibase.serializer;
+
+import liquibase.changelog.ChangeLogChild;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+
+/**
+ * The writer returned by {@link StreamingChangeLogSerializer#appendTo(File)}. The end of the changelog is only cut off the file
+ * when the first child is written, so the file is left as it was if generating the children fails before or no children are written.
+ * For a new or empty file, a changelog without children is written on close.
+ */
+public abstract class AppendingChangeLogWriter implements ChangeLogWriter {
+
+    private final File file;
+    private final long length;
+    private ChangeLogWriter writer;
+
+    /**
+     * @param length the length the file is cut to before the children are appended, which is 0 for a new or empty file
+     */
+    protected AppendingChangeLogWriter(File file, long length) {
+        this.file = file;
+        this.length = length;
+    }
+
+    /**
+     * Returns the writer for the children, which writes to the end of the file after it was cut to the length.
+     */
+    protected abstract ChangeLogWriter createWriter(OutputStream out) throws IOException;
+
+    @Override
+    public void write(ChangeLogChild child) throws IOException {
+        open().write(child);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer == null && length == 0) {
+            open();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private ChangeLogWriter open() throws IOException {
+        if (writer == null) {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            try {
+                randomAccessFile.setLength(length);
+            } finally {
+                randomAccessFile.close();
+            }
+            writer = createWriter(new FileOutputStream(file, true));
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,18 @@
+package liquibase.serializer;
+
+import liquibase.changelog.ChangeLogChild;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes a changelog one child at a time, as created by a {@link StreamingChangeLogSerializer}.
+ * Each child is serialized and written out when it is passed in, so only the child being written is held in memory.
+ * <p>
+ * {@link #close()} writes the end of the changelog and flushes it. It only closes the underlying stream if the writer opened it.
+ */
+public interface ChangeLogWriter extends Closeable {
+
+    void write(ChangeLogChild child) throws IOException;
+
+}
@@ -0,0 +1,23 @@
+package liquibase.serializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A {@link ChangeLogSerializer} that can write a changelog one child at a time instead of needing all of them in a list,
+ * so changelogs generated for large databases can be written without holding them in memory.
+ */
+public interface StreamingChangeLogSerializer extends ChangeLogSerializer {
+
+    /**
+     * Writes the start of a new changelog to the stream and returns the writer for its children.
+     */
+    ChangeLogWriter createWriter(OutputStream out) throws IOException;
+
+    /**
+     * Returns a writer that adds children to the end of an existing changelog file.
+     * Only the end of the file is read and rewritten, no matter how large the file is.
+     */
+    ChangeLogWriter appendTo(File changeLogFile) throws IOException;
+}
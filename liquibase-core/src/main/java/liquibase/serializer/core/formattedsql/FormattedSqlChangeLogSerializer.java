@@ -8,8 +8,10 @@ import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.DatabaseFactory;
 import liquibase.exception.UnexpectedLiquibaseException;
-import liquibase.serializer.ChangeLogSerializer;
+import liquibase.serializer.AppendingChangeLogWriter;
+import liquibase.serializer.ChangeLogWriter;
 import liquibase.serializer.LiquibaseSerializable;
+import liquibase.serializer.StreamingChangeLogSerializer;
 import liquibase.sql.Sql;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
 
@@ -17,7 +19,7 @@ import java.io.*;
 import java.util.*;
 import java.util.regex.*;
 
-public class FormattedSqlChangeLogSerializer  implements ChangeLogSerializer {
+public class FormattedSqlChangeLogSerializer  implements StreamingChangeLogSerializer {
 
     private static Pattern fileNamePatter = Pattern.compile(".*\\.(\\w+)\\.sql");
 
@@ -89,11 +91,61 @@ public class FormattedSqlChangeLogSerializer  implements ChangeLogSerializer {
 
     }
 
+    @Override
+    public ChangeLogWriter createWriter(OutputStream out) throws IOException {
+        return new FormattedSqlChangeLogWriter(out, false, false);
+    }
+
+    /**
+     * Formatted SQL changelogs end with their last changeSet, so the children are written to the end of the file.
+     */
+    @Override
+    public ChangeLogWriter appendTo(File changeLogFile) throws IOException {
+        final boolean appending = changeLogFile.length() > 0;
+        return new AppendingChangeLogWriter(changeLogFile, changeLogFile.length()) {
+            @Override
+            protected ChangeLogWriter createWriter(OutputStream out) throws IOException {
+                return new FormattedSqlChangeLogWriter(out, appending, true);
+            }
+        };
+    }
+
     @Override
     public void append(ChangeSet changeSet, File changeLogFile) throws IOException {
 
     }
 
+    private class FormattedSqlChangeLogWriter implements ChangeLogWriter {
+        private final OutputStream out;
+        private final Writer writer;
+        private final boolean closeStream;
+
+        private FormattedSqlChangeLogWriter(OutputStream out, boolean appending, boolean closeStream) throws IOException {
+            this.out = out;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getOutputEncoding()));
+            this.closeStream = closeStream;
+            if (appending) {
+                writer.write("\n");
+            } else {
+                writer.write("--liquibase formatted sql\n\n");
+            }
+        }
+
+        @Override
+        public void write(ChangeLogChild child) throws IOException {
+            writer.write(serialize(child, true));
+            writer.write("\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+            if (closeStream) {
+                out.close();
+            }
+        }
+    }
+
     @Override
     public int getPriority() {
         return PRIORITY_DEFAULT;
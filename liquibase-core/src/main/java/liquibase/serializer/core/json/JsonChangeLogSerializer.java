@@ -1,7 +1,10 @@
 package liquibase.serializer.core.json;
 
 import liquibase.changelog.ChangeLogChild;
+import liquibase.serializer.AppendingChangeLogWriter;
+import liquibase.serializer.ChangeLogWriter;
 import liquibase.serializer.core.yaml.YamlChangeLogSerializer;
+import liquibase.util.FileUtil;
 import liquibase.util.StringUtils;
 
 import java.io.*;
@@ -26,6 +29,59 @@ public class JsonChangeLogSerializer extends YamlChangeLogSerializer {
         writer.flush();
     }
 
+    @Override
+    public ChangeLogWriter createWriter(OutputStream out) throws IOException {
+        return new JsonChangeLogWriter(out, false, false, false);
+    }
+
+    /**
+     * Adds the children in front of the end of the databaseChangeLog list, which is found by reading the file backwards from the end.
+     * A new or empty file gets a new changelog. A file without a list is not changed, an IOException is thrown instead.
+     */
+    @Override
+    public ChangeLogWriter appendTo(File changeLogFile) throws IOException {
+        if (changeLogFile.length() == 0) {
+            return new AppendingChangeLogWriter(changeLogFile, 0) {
+                @Override
+                protected ChangeLogWriter createWriter(OutputStream out) throws IOException {
+                    return new JsonChangeLogWriter(out, false, false, true);
+                }
+            };
+        }
+
+        long lastItemEnd;
+        boolean listIsEmpty = false;
+        RandomAccessFile file = new RandomAccessFile(changeLogFile, "r");
+        try {
+            long listEnd = FileUtil.lastIndexOf(file, "]");
+            if (listEnd < 0) {
+                throw new IOException("Cannot append to " + changeLogFile.getAbsolutePath() + ", it has no databaseChangeLog list");
+            }
+            lastItemEnd = listEnd;
+            while (lastItemEnd > 0) {
+                file.seek(lastItemEnd - 1);
+                if (!Character.isWhitespace(file.read())) {
+                    break;
+                }
+                lastItemEnd--;
+            }
+            if (lastItemEnd > 0) {
+                file.seek(lastItemEnd - 1);
+                listIsEmpty = file.read() == '[';
+            }
+        } finally {
+            file.close();
+        }
+
+        final boolean appendingToEmptyList = listIsEmpty;
+        return new AppendingChangeLogWriter(changeLogFile, lastItemEnd) {
+            @Override
+            protected ChangeLogWriter createWriter(OutputStream out) throws IOException {
+                return new JsonChangeLogWriter(out, true, appendingToEmptyList, true);
+            }
+        };
+    }
+
     @Override
     public String[] getValidFileExtensions() {
         return new String[]{
@@ -33,4 +89,39 @@ public class JsonChangeLogSerializer extends YamlChangeLogSerializer {
         };
     }
 
+    private class JsonChangeLogWriter implements ChangeLogWriter {
+        private final OutputStream out;
+        private final Writer writer;
+        private final boolean closeStream;
+        private boolean firstChild;
+
+        private JsonChangeLogWriter(OutputStream out, boolean appending, boolean listIsEmpty, boolean closeStream) throws IOException {
+            this.out = out;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out));
+            this.closeStream = closeStream;
+            this.firstChild = !appending || listIsEmpty;
+            if (!appending) {
+                writer.write("{ \"databaseChangeLog\": [");
+            }
+        }
+
+        @Override
+        public void write(ChangeLogChild child) throws IOException {
+            if (!firstChild) {
+                writer.write(",");
+            }
+            writer.write("\n");
+            writer.write(StringUtils.indent(serialize(child, true).replaceFirst("\\s+$", ""), 2));
+            firstChild = false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.write("\n]}");
+            writer.flush();
+            if (closeStream) {
+                out.close();
+            }
+        }
+    }
 }
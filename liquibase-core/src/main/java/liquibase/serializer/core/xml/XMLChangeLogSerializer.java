@@ -8,8 +8,13 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.parser.NamespaceDetails;
 import liquibase.parser.NamespaceDetailsFactory;
 import liquibase.parser.core.xml.LiquibaseEntityResolver;
-import liquibase.serializer.ChangeLogSerializer;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.serializer.AppendingChangeLogWriter;
+import liquibase.serializer.ChangeLogWriter;
+import liquibase.serializer.StreamingChangeLogSerializer;
 import liquibase.serializer.LiquibaseSerializable;
+import liquibase.util.FileUtil;
 import liquibase.util.ISODateFormat;
 import liquibase.util.StreamUtil;
 import liquibase.util.StringUtils;
@@ -21,11 +26,14 @@ import org.w3c.dom.*;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import java.io.*;
 import java.util.*;
 
-public class XMLChangeLogSerializer implements ChangeLogSerializer {
+public class XMLChangeLogSerializer implements StreamingChangeLogSerializer {
 
     private Document currentChangeLogFileDOM;
 
@@ -85,6 +93,24 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
         changeLogElement.setAttribute("xmlns", LiquibaseSerializable.STANDARD_CHANGELOG_NAMESPACE);
         changeLogElement.setAttribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance");
 
+        for (Map.Entry<String, String> attribute : getChangeLogNamespaceAttributes().entrySet()) {
+            changeLogElement.setAttribute(attribute.getKey(), attribute.getValue());
+        }
+
+        doc.appendChild(changeLogElement);
+        setCurrentChangeLogFileDOM(doc);
+
+        for (T child : children) {
+            doc.getDocumentElement().appendChild(createNode(child));
+        }
+
+        new DefaultXmlWriter().write(doc, out);
+    }
+
+    /**
+     * Returns the namespace declarations and schema locations of the databaseChangeLog element, besides the standard xmlns and xmlns:xsi ones.
+     */
+    protected Map<String, String> getChangeLogNamespaceAttributes() {
         Map<String, String> shortNameByNamespace = new HashMap<String, String>();
         Map<String, String> urlByNamespace = new HashMap<String, String>();
 
@@ -101,9 +127,10 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
             }
         }
 
+        Map<String, String> attributes = new LinkedHashMap<String, String>();
         for (Map.Entry<String, String> entry : shortNameByNamespace.entrySet()) {
             if (!entry.getValue().equals("")) {
-                changeLogElement.setAttribute("xmlns:"+entry.getValue(), entry.getKey());
+                attributes.put("xmlns:"+entry.getValue(), entry.getKey());
             }
         }
 
@@ -115,16 +142,60 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
             }
         }
 
-        changeLogElement.setAttribute("xsi:schemaLocation", schemaLocationAttribute.trim());
+        attributes.put("xsi:schemaLocation", schemaLocationAttribute.trim());
+        return attributes;
+    }
 
-        doc.appendChild(changeLogElement);
-        setCurrentChangeLogFileDOM(doc);
+    @Override
+    public ChangeLogWriter createWriter(OutputStream out) throws IOException {
+        return new XmlChangeLogWriter(out, false, true, false);
+    }
 
-        for (T child : children) {
-            doc.getDocumentElement().appendChild(createNode(child));
+    /**
+     * Adds the children in front of the closing databaseChangeLog tag, which is found by reading the file backwards from the end.
+     * A new or empty file gets a new changelog. A file without a closing tag is not changed, an IOException is thrown instead.
+     */
+    @Override
+    public ChangeLogWriter appendTo(File changeLogFile) throws IOException {
+        if (changeLogFile.length() == 0) {
+            return new AppendingChangeLogWriter(changeLogFile, 0) {
+                @Override
+                protected ChangeLogWriter createWriter(OutputStream out) throws IOException {
+                    return new XmlChangeLogWriter(out, false, true, true);
+                }
+            };
         }
 
-        new DefaultXmlWriter().write(doc, out);
+        long length;
+        boolean startsOnNewLine = true;
+        RandomAccessFile file = new RandomAccessFile(changeLogFile, "r");
+        try {
+            long endTag = FileUtil.lastIndexOf(file, "</databaseChangeLog>");
+            if (endTag < 0) {
+                throw new IOException("Cannot append to " + changeLogFile.getAbsolutePath() + ", it has no closing </databaseChangeLog> tag");
+            }
+            long lineStart = endTag;
+            while (lineStart > 0) {
+                file.seek(lineStart - 1);
+                int previous = file.read();
+                if (previous != ' ' && previous != '\t') {
+                    startsOnNewLine = previous == '\n';
+                    break;
+                }
+                lineStart--;
+            }
+            length = startsOnNewLine ? lineStart : endTag;
+        } finally {
+            file.close();
+        }
+
+        final boolean childrenStartOnNewLine = startsOnNewLine;
+        return new AppendingChangeLogWriter(changeLogFile, length) {
+            @Override
+            protected ChangeLogWriter createWriter(OutputStream out) throws IOException {
+                return new XmlChangeLogWriter(out, true, childrenStartOnNewLine, true);
+            }
+        };
     }
 
     @Override
@@ -404,4 +475,99 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
     public int getPriority() {
         return PRIORITY_DEFAULT;
     }
+
+    /**
+     * Writes each child with a {@link XMLStreamWriter} from the element {@link #createNode(LiquibaseSerializable)} creates for it.
+     * The elements are not added to a document, so they can be collected as soon as they are written.
+     */
+    private class XmlChangeLogWriter implements ChangeLogWriter {
+        private final OutputStream out;
+        private final Writer writer;
+        private final XMLStreamWriter xmlWriter;
+        private final boolean closeStream;
+        private final String lineSeparator = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getOutputLineSeparator();
+
+        private XmlChangeLogWriter(OutputStream out, boolean appending, boolean startsOnNewLine, boolean closeStream) throws IOException {
+            this.out = out;
+            this.closeStream = closeStream;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+            try {
+                this.xmlWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+            } catch (XMLStreamException e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+
+            if (!appending) {
+                writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>" + lineSeparator);
+                writer.write("<databaseChangeLog xmlns=\"" + LiquibaseSerializable.STANDARD_CHANGELOG_NAMESPACE + "\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"");
+                for (Map.Entry<String, String> attribute : getChangeLogNamespaceAttributes().entrySet()) {
+                    writer.write(" " + attribute.getKey() + "=\"" + attribute.getValue() + "\"");
+                }
+                writer.write(">" + lineSeparator);
+            } else if (!startsOnNewLine) {
+                writer.write(lineSeparator);
+            }
+        }
+
+        @Override
+        public void write(ChangeLogChild child) throws IOException {
+            try {
+                writer.write("    ");
+                writeElement(createNode(child), 4);
+                xmlWriter.flush();
+                writer.write(lineSeparator);
+            } catch (XMLStreamException e) {
+                throw new IOException(e.getMessage());
+            }
+        }
+
+        private void writeElement(Element element, int indent) throws XMLStreamException {
+            NodeList childNodes = element.getChildNodes();
+            if (childNodes.getLength() == 0) {
+                xmlWriter.writeEmptyElement(element.getNodeName());
+            } else {
+                xmlWriter.writeStartElement(element.getNodeName());
+            }
+
+            if (element.getPrefix() == null && element.getNamespaceURI() != null && !element.getNamespaceURI().equals(LiquibaseSerializable.STANDARD_CHANGELOG_NAMESPACE)) {
+                xmlWriter.writeDefaultNamespace(element.getNamespaceURI());
+            }
+            NamedNodeMap attributes = element.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                Node attribute = attributes.item(i);
+                xmlWriter.writeAttribute(attribute.getNodeName(), attribute.getNodeValue());
+            }
+
+            if (childNodes.getLength() == 0) {
+                return;
+            }
+
+            boolean sawChildren = false;
+            for (int i = 0; i < childNodes.getLength(); i++) {
+                Node childNode = childNodes.item(i);
+                if (childNode instanceof Element) {
+                    xmlWriter.writeCharacters(lineSeparator + StringUtils.repeat(" ", indent + 4));
+                    writeElement((Element) childNode, indent + 4);
+                    sawChildren = true;
+                } else if (childNode instanceof CDATASection) {
+                    xmlWriter.writeCData(childNode.getNodeValue());
+                } else if (childNode instanceof Text) {
+                    xmlWriter.writeCharacters(childNode.getNodeValue());
+                }
+            }
+            if (sawChildren) {
+                xmlWriter.writeCharacters(lineSeparator + StringUtils.repeat(" ", indent));
+            }
+            xmlWriter.writeEndElement();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.write("</databaseChangeLog>" + lineSeparator);
+            writer.flush();
+            if (closeStream) {
+                out.close();
+            }
+        }
+    }
 }
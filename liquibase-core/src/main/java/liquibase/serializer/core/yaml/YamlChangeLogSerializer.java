@@ -2,13 +2,18 @@ package liquibase.serializer.core.yaml;
 
 import liquibase.changelog.ChangeLogChild;
 import liquibase.changelog.ChangeSet;
-import liquibase.serializer.ChangeLogSerializer;
+import liquibase.serializer.AppendingChangeLogWriter;
+import liquibase.serializer.ChangeLogWriter;
 import liquibase.serializer.LiquibaseSerializable;
+import liquibase.serializer.StreamingChangeLogSerializer;
+import liquibase.util.FileUtil;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.nodes.Tag;
 
 import java.io.*;
 import java.util.*;
 
-public class YamlChangeLogSerializer extends YamlSerializer implements ChangeLogSerializer {
+public class YamlChangeLogSerializer extends YamlSerializer implements StreamingChangeLogSerializer {
 
     protected Comparator<String> getComparator(LiquibaseSerializable object) {
         if (object instanceof ChangeSet) {
@@ -34,11 +39,99 @@ public class YamlChangeLogSerializer extends YamlSerializer implements ChangeLog
     }
 
 
+    @Override
+    public ChangeLogWriter createWriter(OutputStream out) throws IOException {
+        return new YamlChangeLogWriter(out, false, false);
+    }
+
+    /**
+     * Adds the children to the end of the databaseChangeLog list, which is the end of the file.
+     * An empty list is replaced by a list with the children, and a new or empty file gets a new changelog.
+     * A file without a list is not changed, an IOException is thrown instead.
+     */
+    @Override
+    public ChangeLogWriter appendTo(File changeLogFile) throws IOException {
+        long length = 0;
+        boolean hasChangeLog = false;
+        boolean endsWithNewLine = true;
+        if (changeLogFile.length() > 0) {
+            RandomAccessFile file = new RandomAccessFile(changeLogFile, "r");
+            try {
+                long changeLogKey = FileUtil.lastIndexOf(file, "databaseChangeLog:");
+                if (changeLogKey < 0) {
+                    throw new IOException("Cannot append to " + changeLogFile.getAbsolutePath() + ", it has no databaseChangeLog list");
+                }
+                byte[] rest = new byte[(int) Math.min(file.length() - changeLogKey, 64)];
+                file.seek(changeLogKey);
+                file.readFully(rest);
+                hasChangeLog = !new String(rest, "US-ASCII").matches("databaseChangeLog:\\s*(\\[\\s*\\]\\s*)?");
+                if (hasChangeLog) {
+                    length = file.length();
+                    file.seek(length - 1);
+                    endsWithNewLine = file.read() == '\n';
+                } else {
+                    length = changeLogKey;
+                }
+            } finally {
+                file.close();
+            }
+        }
+
+        final boolean appending = hasChangeLog;
+        final boolean startOnNewLine = !endsWithNewLine;
+        return new AppendingChangeLogWriter(changeLogFile, length) {
+            @Override
+            protected ChangeLogWriter createWriter(OutputStream out) throws IOException {
+                if (startOnNewLine) {
+                    out.write('\n');
+                }
+                return new YamlChangeLogWriter(out, appending, true);
+            }
+        };
+    }
+
     @Override
     public void append(ChangeSet changeSet, File changeLogFile) throws IOException {
         //To change body of implemented methods use File | Settings | File Templates.
     }
 
+    /**
+     * Writes each child as a one item list, which is the same as the item in the databaseChangeLog list {@link #write(List, OutputStream)} writes.
+     */
+    private class YamlChangeLogWriter implements ChangeLogWriter {
+        private final OutputStream out;
+        private final Writer writer;
+        private final boolean closeStream;
+        private boolean startedList;
+
+        private YamlChangeLogWriter(OutputStream out, boolean appending, boolean closeStream) {
+            this.out = out;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out));
+            this.startedList = appending;
+            this.closeStream = closeStream;
+        }
+
+        @Override
+        public void write(ChangeLogChild child) throws IOException {
+            if (!startedList) {
+                writer.write("databaseChangeLog:\n");
+                startedList = true;
+            }
+            writer.write(yaml.dumpAs(Collections.singletonList(toMap(child)), Tag.SEQ, DumperOptions.FlowStyle.BLOCK));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!startedList) {
+                writer.write("databaseChangeLog: []\n");
+            }
+            writer.flush();
+            if (closeStream) {
+                out.close();
+            }
+        }
+    }
+
 
 
     private static class ChangeSetComparator implements Comparator<String> {
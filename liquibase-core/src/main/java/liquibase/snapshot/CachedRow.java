@@ -1,37 +1,56 @@
 package liquibase.snapshot;
 
-import liquibase.executor.jvm.ColumnMapRowMapper;
-
+import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * One row of a metadata query. Rows read from the same result set share their {@link Columns},
+ * so each row only holds an array of values instead of a map of its own.
+ */
 public class CachedRow {
-    private Map row;
+    private Columns columns;
+    private Object[] values;
 
     public CachedRow(Map row) {
-        this.row = row;
+        this.columns = new Columns((String[]) row.keySet().toArray(new String[row.size()]));
+        this.values = row.values().toArray();
     }
 
-
+    CachedRow(Columns columns, Object[] values) {
+        this.columns = columns;
+        this.values = values;
+    }
 
     public Object get(String columnName) {
-        return row.get(columnName);
+        int index = columns.indexOf(columnName);
+        if (index < 0) {
+            return null;
+        }
+        return values[index];
     }
 
     public void set(String columnName, Object value) {
-        row.put(columnName, value);
+        int index = columns.indexOf(columnName);
+        if (index < 0) {
+            columns = columns.add(columnName); //copy so other rows of the result set keep the shared columns
+            Object[] newValues = new Object[values.length + 1];
+            System.arraycopy(values, 0, newValues, 0, values.length);
+            values = newValues;
+            index = values.length - 1;
+        }
+        values[index] = value;
     }
 
-
     public boolean containsColumn(String columnName) {
-        return row.containsKey(columnName);
+        return columns.indexOf(columnName) >= 0;
     }
 
     public String getString(String columnName) {
-        return (String) row.get(columnName);
+        return (String) get(columnName);
     }
 
     public Integer getInt(String columnName) {
-        Object o = row.get(columnName);
+        Object o = get(columnName);
         if (o instanceof Number) {
             return ((Number) o).intValue();
         } else if (o instanceof String) {
@@ -41,7 +60,7 @@ public class CachedRow {
     }
 
     public Short getShort(String columnName) {
-        Object o = row.get(columnName);
+        Object o = get(columnName);
         if (o instanceof Number) {
             return ((Number) o).shortValue();
         } else if (o instanceof String) {
@@ -51,7 +70,7 @@ public class CachedRow {
     }
 
     public Boolean getBoolean(String columnName) {
-        Object o = row.get(columnName);
+        Object o = get(columnName);
         if (o instanceof Number) {
             if (((Number) o).longValue() == 0) {
                 return false;
@@ -64,4 +83,39 @@ public class CachedRow {
         }
         return (Boolean) o;
     }
+
+    /**
+     * The column names of a result set, with the position of each name in the values of its rows.
+     */
+    static class Columns {
+        private final String[] names;
+        private final Map<String, Integer> indexes;
+
+        Columns(String[] names) {
+            this.names = names;
+            this.indexes = new HashMap<String, Integer>(names.length * 2);
+            for (int i = 0; i < names.length; i++) {
+                indexes.put(names[i], i);
+            }
+        }
+
+        int size() {
+            return names.length;
+        }
+
+        int indexOf(String columnName) {
+            Integer index = indexes.get(columnName);
+            if (index == null) {
+                return -1;
+            }
+            return index;
+        }
+
+        Columns add(String columnName) {
+            String[] newNames = new String[names.length + 1];
+            System.arraycopy(names, 0, newNames, 0, names.length);
+            newNames[names.length] = columnName;
+            return new Columns(newNames);
+        }
+    }
 }
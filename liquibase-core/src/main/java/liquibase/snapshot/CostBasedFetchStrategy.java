@@ -0,0 +1,67 @@
+package liquibase.snapshot;
+
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Catalog;
+import liquibase.structure.core.Schema;
+
+/**
+ * Compares the number of objects the snapshot asks for with the size of the schema.
+ * A fast query costs one round trip per object. A bulk query costs one round trip plus reading the rows of every table,
+ * where reading the rows of {@link #getTablesPerQuery()} tables is assumed to cost as much as one round trip.
+ * <br><br>
+ * Snapshots of a whole schema or catalog always bulk fetch. For other snapshots the number of requested objects is the number of example objects,
+ * or the number of fast queries already sent if that is higher. The schema size is the number of tables returned by the bulk getTables query of the same snapshot,
+ * so the first getTables lookup of a schema always reads the whole table list.
+ * Until the size is known, the schema is bulk fetched once as many fast queries as requested objects, and at least {@link #getSingleQueryLimit()}, were sent.
+ */
+public class CostBasedFetchStrategy implements ResultSetFetchStrategy {
+
+    private final int tablesPerQuery;
+    private final int singleQueryLimit;
+
+    public CostBasedFetchStrategy() {
+        this(50, 3);
+    }
+
+    public CostBasedFetchStrategy(int tablesPerQuery, int singleQueryLimit) {
+        this.tablesPerQuery = tablesPerQuery;
+        this.singleQueryLimit = singleQueryLimit;
+    }
+
+    public int getTablesPerQuery() {
+        return tablesPerQuery;
+    }
+
+    public int getSingleQueryLimit() {
+        return singleQueryLimit;
+    }
+
+    @Override
+    public boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
+        DatabaseSnapshot snapshot = resultSetCache.getSnapshot();
+        int timesSingleQueried = resultSetCache.getTimesSingleQueried(schemaKey);
+        if (snapshot == null) {
+            return timesSingleQueried >= singleQueryLimit;
+        }
+
+        int requestedObjects = 0;
+        if (snapshot.getOriginalExamples() != null) {
+            for (DatabaseObject example : snapshot.getOriginalExamples()) {
+                if (example instanceof Schema || example instanceof Catalog) {
+                    return true;
+                }
+                requestedObjects++;
+            }
+        }
+        requestedObjects = Math.max(requestedObjects, timesSingleQueried + 1);
+
+        Integer tableCount = snapshot.getResultSetCache("getTables").getBulkRowCount(schemaKey);
+        if (tableCount == null) {
+            if ("getTables".equals(resultSetCache.getName())) {
+                return true; //reading the table list once is cheap and sizes the schema for the other queries
+            }
+            return timesSingleQueried >= Math.max(requestedObjects, singleQueryLimit);
+        }
+        return requestedObjects >= 1 + ((double) tableCount / tablesPerQuery);
+    }
+}
@@ -30,6 +30,7 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
     private Database database;
     private DatabaseObjectCollection allFound;
     private DatabaseObjectCollection referencedObjects;
+    private Date created = new Date();
     private Map<Class<? extends DatabaseObject>, Set<DatabaseObject>> knownNull = new HashMap<Class<? extends DatabaseObject>, Set<DatabaseObject>>();
 
     private Map<String, Object> snapshotScratchPad = new HashMap<String, Object>();
@@ -37,6 +38,14 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
     private Map<String, ResultSetCache> resultSetCaches = new HashMap<String, ResultSetCache>();
 
     DatabaseSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
+        this(examples, database, snapshotControl, true);
+    }
+
+    /**
+     * If includeExamples is false, nothing is read from the database and the snapshot starts out empty, to be filled by {@link #merge(List)}.
+     * It still reports the examples as {@link #getOriginalExamples()}.
+     */
+    DatabaseSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl, boolean includeExamples) throws DatabaseException, InvalidExampleException {
         this.database = database;
         allFound = new DatabaseObjectCollection(database);
         referencedObjects = new DatabaseObjectCollection(database);
@@ -44,7 +53,13 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
 
         this.originalExamples = examples;
 
-        init(examples);
+        if (includeExamples) {
+            init(examples);
+        }
+
+        for (ResultSetCache resultSetCache : resultSetCaches.values()) {
+            LogFactory.getLogger().debug("Snapshot metadata cache " + resultSetCache);
+        }
 
         this.serializableFields = new HashSet<String>();
         this.serializableFields.add("snapshotControl");
@@ -117,10 +132,32 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
         }
     }
 
+    /**
+     * Returns the objects this snapshot was created for.
+     */
+    public DatabaseObject[] getOriginalExamples() {
+        return originalExamples;
+    }
+
+    /**
+     * Returns when this snapshot started reading the database. For a snapshot loaded from a file, this is the time stored in the file.
+     */
+    public Date getCreated() {
+        return created;
+    }
+
+    void setCreated(Date created) {
+        this.created = created;
+    }
+
     public SnapshotControl getSnapshotControl() {
         return snapshotControl;
     }
 
+    void setSnapshotControl(SnapshotControl snapshotControl) {
+        this.snapshotControl = snapshotControl;
+    }
+
     @Override
     public String getSerializedObjectName() {
         return "snapshot";
@@ -151,7 +188,7 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
         } else if (field.equals("referencedObjects")) {
             return referencedObjects;
         } else if (field.equals("created")) {
-            return new ISODateFormat().format(new Timestamp(new Date().getTime()));
+            return new ISODateFormat().format(new Timestamp(created.getTime()));
         } else if (field.equals("database")) {
             Map<String, Object> map = new HashMap<String, Object>();
             map.put("shortName", database.getShortName());
@@ -190,7 +227,7 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
 
     public ResultSetCache getResultSetCache(String key) {
         if (!resultSetCaches.containsKey(key)) {
-            resultSetCaches.put(key, new ResultSetCache());
+            resultSetCaches.put(key, new ResultSetCache(key, this));
         }
         return resultSetCaches.get(key);
     }
@@ -397,6 +434,216 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
         return true;
     }
 
+    /**
+     * Adds the objects found by other snapshots of the same database to this snapshot, in the order given.
+     * If an object is already in this snapshot the existing instance is kept.
+     * Afterwards, attributes that point to a skipped duplicate, or to a referenced object that one of the merged snapshots contains in full, are changed to point to the kept instance.
+     * The creation time becomes the earliest creation time of all merged snapshots.
+     */
+    protected void merge(List<DatabaseSnapshot> snapshots) {
+        Map<DatabaseObject, DatabaseObject> replacements = new IdentityHashMap<DatabaseObject, DatabaseObject>();
+        for (DatabaseSnapshot snapshot : snapshots) {
+            if (snapshot.created.before(created)) {
+                created = snapshot.created;
+            }
+            for (Set<? extends DatabaseObject> objects : snapshot.allFound.toMap().values()) {
+                for (DatabaseObject object : objects) {
+                    DatabaseObject existing = allFound.get(object);
+                    if (existing == null) {
+                        allFound.add(object);
+                    } else if (existing != object) {
+                        replacements.put(object, existing);
+                    }
+                }
+            }
+        }
+
+        for (DatabaseSnapshot snapshot : snapshots) {
+            for (Set<? extends DatabaseObject> objects : snapshot.referencedObjects.toMap().values()) {
+                for (DatabaseObject object : objects) {
+                    DatabaseObject found = allFound.get(object);
+                    if (found != null) {
+                        replacements.put(object, found);
+                    } else {
+                        DatabaseObject existing = referencedObjects.get(object);
+                        if (existing == null) {
+                            referencedObjects.add(object);
+                        } else if (existing != object) {
+                            replacements.put(object, existing);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (replacements.isEmpty()) {
+            return;
+        }
+        for (DatabaseObjectCollection collection : new DatabaseObjectCollection[] {allFound, referencedObjects}) {
+            for (Set<? extends DatabaseObject> objects : collection.toMap().values()) {
+                for (DatabaseObject object : objects) {
+                    replaceReferences(object, replacements);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds copies of objects read by an earlier snapshot of the same database as if this snapshot had found them, and copies of the objects of other schemas they refer to.
+     * Objects this snapshot already contains are not added. The earlier snapshot is not changed.
+     * Afterwards, attributes that point to an object equal to one this snapshot contains, such as an earlier instance or an unsnapshotted example schema,
+     * are changed to point to this snapshot's instance.
+     */
+    void addEarlierObjects(Collection<? extends DatabaseObject> objects, Collection<? extends DatabaseObject> referenced) {
+        Map<DatabaseObject, DatabaseObject> copies = new IdentityHashMap<DatabaseObject, DatabaseObject>();
+        for (DatabaseObject object : objects) {
+            if (allFound.get(object) == null) {
+                copies.put(object, copy(object));
+            }
+        }
+        for (DatabaseObject object : referenced) {
+            if (allFound.get(object) == null && referencedObjects.get(object) == null) {
+                copies.put(object, copy(object));
+            }
+        }
+        for (DatabaseObject copy : copies.values()) {
+            replaceReferences(copy, copies);
+        }
+        for (DatabaseObject object : objects) {
+            DatabaseObject copy = copies.get(object);
+            if (copy != null) {
+                allFound.add(copy);
+            }
+        }
+        for (DatabaseObject object : referenced) {
+            DatabaseObject copy = copies.get(object);
+            if (copy != null) {
+                referencedObjects.add(copy);
+            }
+        }
+
+        Map<DatabaseObject, DatabaseObject> replacements = new IdentityHashMap<DatabaseObject, DatabaseObject>();
+        for (DatabaseObjectCollection collection : new DatabaseObjectCollection[] {allFound, referencedObjects}) {
+            for (Set<? extends DatabaseObject> found : collection.toMap().values()) {
+                for (DatabaseObject object : found) {
+                    for (String attribute : object.getAttributes()) {
+                        Object value = object.getAttribute(attribute, Object.class);
+                        if (value instanceof DatabaseObject) {
+                            addReplacement((DatabaseObject) value, replacements);
+                        } else if (value instanceof List) {
+                            for (Object element : (List) value) {
+                                if (element instanceof DatabaseObject) {
+                                    addReplacement((DatabaseObject) element, replacements);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (replacements.isEmpty()) {
+            return;
+        }
+        for (DatabaseObjectCollection collection : new DatabaseObjectCollection[] {allFound, referencedObjects}) {
+            for (Set<? extends DatabaseObject> found : collection.toMap().values()) {
+                for (DatabaseObject object : found) {
+                    replaceReferences(object, replacements);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a new instance of the object's type with the same name and attributes. Lists, sets and maps are copied so changing the references of the copy leaves the original alone,
+     * but the elements are the same.
+     */
+    private DatabaseObject copy(DatabaseObject object) {
+        DatabaseObject copy;
+        try {
+            copy = object.getClass().newInstance();
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException("Cannot copy " + object.getClass().getName() + " " + object.getName(), e);
+        }
+        for (String attribute : object.getAttributes()) {
+            copy.setAttribute(attribute, copyValue(object.getAttribute(attribute, Object.class)));
+        }
+        copy.setName(object.getName());
+        if (object instanceof Column) {
+            ((Column) copy).setComputed(((Column) object).getComputed());
+            ((Column) copy).setDescending(((Column) object).getDescending());
+        } else if (object instanceof View) {
+            ((View) copy).setContainsFullDefinition(((View) object).getContainsFullDefinition());
+        }
+        if (object.getSnapshotId() != null) {
+            copy.setSnapshotId(object.getSnapshotId());
+        }
+        return copy;
+    }
+
+    private Object copyValue(Object value) {
+        if (value instanceof List) {
+            return new ArrayList<Object>((List) value);
+        } else if (value instanceof Set) {
+            return new HashSet<Object>((Set) value);
+        } else if (value instanceof Map) {
+            Map<Object, Object> copy = new HashMap<Object, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                copy.put(entry.getKey(), copyValue(entry.getValue()));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    private void addReplacement(DatabaseObject value, Map<DatabaseObject, DatabaseObject> replacements) {
+        if (replacements.containsKey(value)) {
+            return;
+        }
+        DatabaseObject found = allFound.get(value);
+        if (found == null) {
+            found = referencedObjects.get(value);
+        }
+        if (found != null && found != value) {
+            replacements.put(value, found);
+        }
+    }
+
+    /**
+     * Returns the objects from other schemas that objects of this snapshot refer to.
+     */
+    List<DatabaseObject> getReferencedObjects() {
+        List<DatabaseObject> returnList = new ArrayList<DatabaseObject>();
+        for (Set<? extends DatabaseObject> objects : referencedObjects.toMap().values()) {
+            returnList.addAll(objects);
+        }
+        return returnList;
+    }
+
+    private void replaceReferences(DatabaseObject object, Map<DatabaseObject, DatabaseObject> replacements) {
+        for (String attribute : new ArrayList<String>(object.getAttributes())) {
+            Object value = object.getAttribute(attribute, Object.class);
+            if (value instanceof DatabaseObject) {
+                DatabaseObject replacement = replacements.get(value);
+                if (replacement != null) {
+                    object.setAttribute(attribute, replacement);
+                }
+            } else if (value instanceof List) {
+                List list = (List) value;
+                try {
+                    for (int i = 0; i < list.size(); i++) {
+                        DatabaseObject replacement = replacements.get(list.get(i));
+                        if (replacement != null) {
+                            //noinspection unchecked
+                            list.set(i, replacement);
+                        }
+                    }
+                } catch (UnsupportedOperationException e) {
+                    //unmodifiable list, leave the original references
+                }
+            }
+        }
+    }
+
     /**
      * Returns the object described by the passed example if it is already included in this snapshot.
      */
@@ -449,6 +696,13 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
                 ((OfflineConnection) connection).setConnectionUserName(databaseNode.getChildValue(null, "user", String.class));
             }
 
+            Object created = parsedNode.getChildValue(null, "created");
+            if (created instanceof Date) {
+                this.created = (Date) created;
+            } else if (created instanceof String) {
+                this.created = new ISODateFormat().parse((String) created);
+            }
+
             loadObjects(referencedObjects, allObjects, parsedNode.getChild(null, "referencedObjects"), resourceAccessor);
             loadObjects(objects, allObjects, parsedNode.getChild(null, "objects"), resourceAccessor);
 
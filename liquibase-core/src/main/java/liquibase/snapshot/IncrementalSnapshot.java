@@ -0,0 +1,193 @@
+package liquibase.snapshot;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.AbstractJdbcDatabase;
+import liquibase.database.Database;
+import liquibase.database.OfflineConnection;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.diff.compare.DatabaseObjectComparatorFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.logging.LogFactory;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.*;
+
+import java.util.*;
+
+/**
+ * Creates a snapshot by bringing a previous snapshot of the same schemas up to date, e.g. one loaded with {@link liquibase.parser.SnapshotParserFactory}.
+ * Only tables and views whose definition changed after the previous snapshot was created are read again, based on the last DDL time the database keeps for them.
+ * The columns, keys, indexes, unique constraints and data of unchanged tables and views are taken from the previous snapshot, all other types are always read again.
+ * <p>
+ * DDL times are available for Oracle (<code>LAST_DDL_TIME</code>) and MSSQL 2005+ (<code>modify_date</code>); other databases get a full snapshot.
+ * The DDL times are compared with the creation time of the previous snapshot, which comes from the local clock, so it must agree with the clock of the database server.
+ */
+public class IncrementalSnapshot {
+
+    private static final List<Class<? extends DatabaseObject>> RELATION_TYPES = Arrays.<Class<? extends DatabaseObject>>asList(Table.class, View.class, Column.class, PrimaryKey.class, Index.class, UniqueConstraint.class, ForeignKey.class, Data.class);
+
+    private final DatabaseSnapshot previousSnapshot;
+
+    public IncrementalSnapshot(DatabaseSnapshot previousSnapshot) {
+        this.previousSnapshot = previousSnapshot;
+    }
+
+    public DatabaseSnapshot getPreviousSnapshot() {
+        return previousSnapshot;
+    }
+
+    public DatabaseSnapshot createSnapshot(CatalogAndSchema[] examples, Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
+        Set<Class<? extends DatabaseObject>> relationTypes = new HashSet<Class<? extends DatabaseObject>>(snapshotControl.getTypesToInclude());
+        relationTypes.retainAll(RELATION_TYPES);
+        if (previousSnapshot == null || database.getConnection() instanceof OfflineConnection || !(relationTypes.contains(Table.class) || relationTypes.contains(View.class))) {
+            return SnapshotGeneratorFactory.getInstance().createSnapshot(examples, database, snapshotControl);
+        }
+
+        Date started = new Date();
+        Schema[] schemas = new Schema[examples.length];
+        for (int i = 0; i < examples.length; i++) {
+            CatalogAndSchema catalogAndSchema = examples[i].customize(database);
+            schemas[i] = new Schema(catalogAndSchema.getCatalogName(), catalogAndSchema.getSchemaName());
+        }
+
+        List<Relation> changedRelations = new ArrayList<Relation>();
+        Map<DatabaseObject, Boolean> keptRelations = new IdentityHashMap<DatabaseObject, Boolean>();
+        Map<DatabaseObject, Boolean> droppedRelations = new IdentityHashMap<DatabaseObject, Boolean>();
+        for (Schema schema : schemas) {
+            for (Class<? extends Relation> type : Arrays.<Class<? extends Relation>>asList(Table.class, View.class)) {
+                if (!relationTypes.contains(type)) {
+                    continue;
+                }
+                Map<String, Date> lastDdlTimes = getLastDdlTimes(schema, type, database);
+                if (lastDdlTimes == null) {
+                    LogFactory.getInstance().getLog().info("Cannot determine changed objects on " + database.getShortName() + ", creating a full snapshot");
+                    return SnapshotGeneratorFactory.getInstance().createSnapshot(examples, database, snapshotControl);
+                }
+
+                Map<String, Relation> previousRelations = new HashMap<String, Relation>();
+                for (Relation relation : previousSnapshot.get(type)) {
+                    if (DatabaseObjectComparatorFactory.getInstance().isSameObject(relation.getSchema(), schema, database)) {
+                        previousRelations.put(relation.getName(), relation);
+                    }
+                }
+
+                for (Map.Entry<String, Date> entry : lastDdlTimes.entrySet()) {
+                    Relation previousRelation = previousRelations.remove(entry.getKey());
+                    if (previousRelation != null && entry.getValue() != null && entry.getValue().before(previousSnapshot.getCreated())) {
+                        keptRelations.put(previousRelation, true);
+                    } else {
+                        Relation relation = type.equals(Table.class) ? new Table() : new View();
+                        relation.setName(entry.getKey());
+                        relation.setSchema(schema);
+                        changedRelations.add(relation);
+                    }
+                }
+                for (Relation droppedRelation : previousRelations.values()) {
+                    droppedRelations.put(droppedRelation, true);
+                }
+            }
+        }
+        LogFactory.getInstance().getLog().info("Incremental snapshot: " + changedRelations.size() + " tables and views changed, "
+                + droppedRelations.size() + " dropped and " + keptRelations.size() + " unchanged since " + previousSnapshot.getCreated());
+
+        Set<Class<? extends DatabaseObject>> otherTypes = new HashSet<Class<? extends DatabaseObject>>(snapshotControl.getTypesToInclude());
+        otherTypes.removeAll(RELATION_TYPES);
+        otherTypes.add(Catalog.class);
+        otherTypes.add(Schema.class);
+        SnapshotControl otherControl = new SnapshotControl(database, false, otherTypes.toArray(new Class[otherTypes.size()]));
+        otherControl.setSnapshotListener(snapshotControl.getSnapshotListener());
+        otherControl.setFetchStrategy(snapshotControl.getFetchStrategy());
+        DatabaseSnapshot snapshot = new JdbcDatabaseSnapshot(schemas, database, otherControl);
+        snapshot.setCreated(started);
+
+        if (changedRelations.size() > 0) {
+            for (Relation relation : changedRelations) {
+                Schema schema = snapshot.get(relation.getSchema());
+                if (schema != null) {
+                    relation.setSchema(schema);
+                }
+            }
+            SnapshotControl relationControl = new SnapshotControl(database, false, relationTypes.toArray(new Class[relationTypes.size()]));
+            relationControl.setSnapshotListener(snapshotControl.getSnapshotListener());
+            relationControl.setFetchStrategy(snapshotControl.getFetchStrategy());
+            snapshot.merge(Collections.singletonList((DatabaseSnapshot) new JdbcDatabaseSnapshot(changedRelations.toArray(new DatabaseObject[changedRelations.size()]), database, relationControl)));
+            snapshot.setCreated(started);
+        }
+
+        List<DatabaseObject> keptObjects = new ArrayList<DatabaseObject>();
+        for (Class<? extends DatabaseObject> type : relationTypes) {
+            for (DatabaseObject object : previousSnapshot.get(type)) {
+                if (keptRelations.containsKey(getRelation(object))
+                        && !(object instanceof ForeignKey && droppedRelations.containsKey(((ForeignKey) object).getPrimaryKeyTable()))) {
+                    keptObjects.add(object);
+                }
+            }
+        }
+        snapshot.addEarlierObjects(keptObjects, previousSnapshot.getReferencedObjects());
+        snapshot.setSnapshotControl(snapshotControl);
+
+        for (Schema schema : snapshot.get(Schema.class)) {
+            for (Class<? extends Relation> type : Arrays.<Class<? extends Relation>>asList(Table.class, View.class)) {
+                for (Relation relation : snapshot.get(type)) {
+                    if (relation.getSchema() == schema) {
+                        schema.addDatabaseObject(relation);
+                    }
+                }
+            }
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Returns the time of the last DDL change of each table or view of the given type in the schema, by name, or null if the database does not keep DDL times.
+     * Objects with a null time are always read again.
+     */
+    protected Map<String, Date> getLastDdlTimes(Schema schema, Class<? extends Relation> type, Database database) throws DatabaseException {
+        String sql;
+        if (database instanceof OracleDatabase) {
+            String owner = ((AbstractJdbcDatabase) database).getJdbcSchemaName(schema);
+            sql = "SELECT o.OBJECT_NAME, GREATEST(o.LAST_DDL_TIME, NVL((SELECT MAX(i.LAST_DDL_TIME) FROM ALL_INDEXES x JOIN ALL_OBJECTS i ON i.OWNER = x.OWNER AND i.OBJECT_NAME = x.INDEX_NAME AND i.OBJECT_TYPE = 'INDEX' "
+                    + "WHERE x.TABLE_OWNER = o.OWNER AND x.TABLE_NAME = o.OBJECT_NAME), o.LAST_DDL_TIME)) AS LAST_DDL_TIME "
+                    + "FROM ALL_OBJECTS o WHERE o.OWNER = '" + database.escapeStringForDatabase(owner) + "' "
+                    + "AND o.OBJECT_TYPE = '" + (type.equals(Table.class) ? "TABLE" : "VIEW") + "' AND o.OBJECT_NAME NOT LIKE 'BIN$%'";
+        } else if (database instanceof MSSQLDatabase && database.getDatabaseMajorVersion() >= 9) {
+            String catalogName = ((AbstractJdbcDatabase) database).getJdbcCatalogName(schema);
+            String schemaName = ((AbstractJdbcDatabase) database).getJdbcSchemaName(schema);
+            String catalogPrefix = catalogName == null ? "" : database.escapeObjectName(catalogName, Catalog.class) + ".";
+            sql = "SELECT o.name AS OBJECT_NAME, (SELECT MAX(c.modify_date) FROM " + catalogPrefix + "sys.objects c WHERE c.object_id = o.object_id OR c.parent_object_id = o.object_id) AS LAST_DDL_TIME "
+                    + "FROM " + catalogPrefix + "sys.objects o JOIN " + catalogPrefix + "sys.schemas s ON s.schema_id = o.schema_id "
+                    + "WHERE s.name = N'" + database.escapeStringForDatabase(schemaName) + "' AND o.type = '" + (type.equals(Table.class) ? "U" : "V") + "'";
+        } else {
+            return null;
+        }
+
+        Map<String, Date> lastDdlTimes = new HashMap<String, Date>();
+        for (Map<String, ?> row : ExecutorService.getInstance().getExecutor(database).queryForList(new RawSqlStatement(sql))) {
+            Object lastDdlTime = row.get("LAST_DDL_TIME");
+            lastDdlTimes.put((String) row.get("OBJECT_NAME"), lastDdlTime instanceof Date ? (Date) lastDdlTime : null);
+        }
+        return lastDdlTimes;
+    }
+
+    private DatabaseObject getRelation(DatabaseObject object) {
+        if (object instanceof Relation) {
+            return object;
+        } else if (object instanceof Column) {
+            return ((Column) object).getRelation();
+        } else if (object instanceof PrimaryKey) {
+            return ((PrimaryKey) object).getTable();
+        } else if (object instanceof Index) {
+            return ((Index) object).getTable();
+        } else if (object instanceof UniqueConstraint) {
+            return ((UniqueConstraint) object).getTable();
+        } else if (object instanceof ForeignKey) {
+            return ((ForeignKey) object).getForeignKeyTable();
+        } else if (object instanceof Data) {
+            return ((Data) object).getTable();
+        }
+        return null;
+    }
+}
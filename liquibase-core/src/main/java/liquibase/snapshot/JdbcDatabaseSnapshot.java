@@ -32,6 +32,10 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         super(examples, database);
     }
 
+    JdbcDatabaseSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl, boolean includeExamples) throws DatabaseException, InvalidExampleException {
+        super(examples, database, snapshotControl, includeExamples);
+    }
+
     public CachingDatabaseMetaData getMetaData() throws SQLException {
         if (cachingDatabaseMetaData == null) {
             DatabaseMetaData databaseMetaData = null;
@@ -431,6 +435,181 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
             });
         }
 
+        /**
+         * Returns TABLE_NAME, COLUMN_NAME and IS_AUTOINCREMENT rows for drivers that do not include IS_AUTOINCREMENT in {@link #getColumns}.
+         * MSSQL reads the identity flag from the system tables for the whole schema at once.
+         * Other databases have no such query and read the result set metadata of a <code>select column ... where 0=1</code> for the requested column only.
+         */
+        public List<CachedRow> getAutoIncrementColumns(final String catalogName, final String schemaName, final String tableName, final String columnName) throws SQLException, DatabaseException {
+            return getResultSetCache("getAutoIncrementColumns").get(new ResultSetCache.SingleResultSetExtractor(database) {
+
+                @Override
+                public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
+                    return new ResultSetCache.RowData(catalogName, schemaName, database, row.getString("TABLE_NAME"), row.getString("COLUMN_NAME"));
+                }
+
+                @Override
+                public ResultSetCache.RowData wantedKeyParameters() {
+                    return new ResultSetCache.RowData(catalogName, schemaName, database, tableName, columnName);
+                }
+
+                @Override
+                boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
+                    if (tableName.equalsIgnoreCase(database.getDatabaseChangeLogTableName()) || tableName.equalsIgnoreCase(database.getDatabaseChangeLogLockTableName())) {
+                        return false;
+                    }
+                    return database instanceof MSSQLDatabase;
+                }
+
+                @Override
+                public List<CachedRow> fastFetchQuery() throws SQLException, DatabaseException {
+                    if (database instanceof MSSQLDatabase) {
+                        return executeAndExtract(getMSSQLQuery(tableName), database);
+                    }
+                    return selectAutoIncrementColumn();
+                }
+
+                @Override
+                public List<CachedRow> bulkFetchQuery() throws SQLException, DatabaseException {
+                    return executeAndExtract(getMSSQLQuery(null), database);
+                }
+
+                private String getMSSQLQuery(String tableName) throws DatabaseException {
+                    String sql;
+                    if (database.getDatabaseMajorVersion() >= 9) {
+                        sql = "SELECT [o].[name] AS [TABLE_NAME], [c].[name] AS [COLUMN_NAME], " +
+                                "CASE WHEN [c].[is_identity] = 1 THEN 'YES' ELSE 'NO' END AS [IS_AUTOINCREMENT] " +
+                                "FROM " + getMSSQLCatalogPrefix(catalogName, "sys") + "[columns] AS [c] " +
+                                "JOIN " + getMSSQLCatalogPrefix(catalogName, "sys") + "[objects] AS [o] ON [o].[object_id] = [c].[object_id] " +
+                                "JOIN " + getMSSQLCatalogPrefix(catalogName, "sys") + "[schemas] AS [s] ON [s].[schema_id] = [o].[schema_id] " +
+                                "WHERE [s].[name] = " + getMSSQLSchemaCondition(schemaName, "SCHEMA_NAME()");
+                    } else {
+                        sql = "SELECT [o].[name] AS [TABLE_NAME], [c].[name] AS [COLUMN_NAME], " +
+                                "CASE WHEN [c].[status] & 128 = 128 THEN 'YES' ELSE 'NO' END AS [IS_AUTOINCREMENT] " +
+                                "FROM " + getMSSQLCatalogPrefix(catalogName, "dbo") + "[syscolumns] AS [c] " +
+                                "JOIN " + getMSSQLCatalogPrefix(catalogName, "dbo") + "[sysobjects] AS [o] ON [o].[id] = [c].[id] " +
+                                "JOIN " + getMSSQLCatalogPrefix(catalogName, "dbo") + "[sysusers] AS [u] ON [u].[uid] = [o].[uid] " +
+                                "WHERE [u].[name] = " + getMSSQLSchemaCondition(schemaName, "USER_NAME()");
+                    }
+                    if (tableName != null) {
+                        sql += " AND [o].[name] = N'" + database.escapeStringForDatabase(tableName) + "'";
+                    }
+                    return sql;
+                }
+
+                private List<CachedRow> selectAutoIncrementColumn() throws SQLException, DatabaseException {
+                    String selectStatement;
+                    if (database.getDatabaseProductName().startsWith("DB2 UDB for AS/400")) {
+                        selectStatement = "select " + database.escapeColumnName(catalogName, schemaName, tableName, columnName) + " from " + schemaName + "." + tableName + " where 0=1";
+                    } else {
+                        selectStatement = "select " + database.escapeColumnName(catalogName, schemaName, tableName, columnName) + " from " + database.escapeTableName(catalogName, schemaName, tableName) + " where 0=1";
+                    }
+                    LogFactory.getLogger().debug("Checking " + tableName + "." + columnName + " for auto-increment with SQL: '" + selectStatement + "'");
+
+                    List<CachedRow> returnList = new ArrayList<CachedRow>();
+                    Statement statement = null;
+                    ResultSet resultSet = null;
+                    try {
+                        statement = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement();
+                        resultSet = statement.executeQuery(selectStatement);
+                        Map<String, Object> row = new HashMap<String, Object>();
+                        row.put("TABLE_NAME", tableName);
+                        row.put("COLUMN_NAME", columnName);
+                        row.put("IS_AUTOINCREMENT", resultSet.getMetaData().isAutoIncrement(1) ? "YES" : "NO");
+                        returnList.add(new CachedRow(row));
+                    } finally {
+                        JdbcUtils.close(resultSet, statement);
+                    }
+                    return returnList;
+                }
+            });
+        }
+
+        /**
+         * Returns TABLE_NAME, COLUMN_NAME and REMARKS rows for the column descriptions MSSQL stores as MS_Description extended properties,
+         * read for the whole schema at once instead of with one query per column. Other databases return their remarks from {@link #getColumns}.
+         */
+        public List<CachedRow> getColumnRemarks(final String catalogName, final String schemaName, final String tableName, final String columnName) throws SQLException, DatabaseException {
+            return getResultSetCache("getColumnRemarks").get(new ResultSetCache.SingleResultSetExtractor(database) {
+
+                @Override
+                public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
+                    return new ResultSetCache.RowData(catalogName, schemaName, database, row.getString("TABLE_NAME"), row.getString("COLUMN_NAME"));
+                }
+
+                @Override
+                public ResultSetCache.RowData wantedKeyParameters() {
+                    return new ResultSetCache.RowData(catalogName, schemaName, database, tableName, columnName);
+                }
+
+                @Override
+                boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
+                    if (tableName.equalsIgnoreCase(database.getDatabaseChangeLogTableName()) || tableName.equalsIgnoreCase(database.getDatabaseChangeLogLockTableName())) {
+                        return false;
+                    }
+                    return database instanceof MSSQLDatabase;
+                }
+
+                @Override
+                public List<CachedRow> fastFetchQuery() throws SQLException, DatabaseException {
+                    return executeAndExtract(getSql(tableName), database);
+                }
+
+                @Override
+                public List<CachedRow> bulkFetchQuery() throws SQLException, DatabaseException {
+                    return executeAndExtract(getSql(null), database);
+                }
+
+                private String getSql(String tableName) throws DatabaseException {
+                    if (!(database instanceof MSSQLDatabase)) {
+                        return null;
+                    }
+                    String sql;
+                    if (database.getDatabaseMajorVersion() >= 9) {
+                        // SQL Server 2005 or later
+                        // https://technet.microsoft.com/en-us/library/ms177541.aspx
+                        sql = "SELECT [o].[name] AS [TABLE_NAME], [c].[name] AS [COLUMN_NAME], CAST([ep].[value] AS [nvarchar](MAX)) AS [REMARKS] " +
+                                "FROM " + getMSSQLCatalogPrefix(catalogName, "sys") + "[extended_properties] AS [ep] " +
+                                "JOIN " + getMSSQLCatalogPrefix(catalogName, "sys") + "[columns] AS [c] ON [c].[object_id] = [ep].[major_id] AND [c].[column_id] = [ep].[minor_id] " +
+                                "JOIN " + getMSSQLCatalogPrefix(catalogName, "sys") + "[objects] AS [o] ON [o].[object_id] = [c].[object_id] " +
+                                "JOIN " + getMSSQLCatalogPrefix(catalogName, "sys") + "[schemas] AS [s] ON [s].[schema_id] = [o].[schema_id] " +
+                                "WHERE [ep].[class] = 1 " +
+                                "AND [ep].[name] = 'MS_Description' " +
+                                "AND [s].[name] = " + getMSSQLSchemaCondition(schemaName, "SCHEMA_NAME()");
+                    } else {
+                        // SQL Server 2000
+                        // https://technet.microsoft.com/en-us/library/aa224810%28v=sql.80%29.aspx
+                        sql = "SELECT [o].[name] AS [TABLE_NAME], [c].[name] AS [COLUMN_NAME], CAST([p].[value] AS [nvarchar](4000)) AS [REMARKS] " +
+                                "FROM " + getMSSQLCatalogPrefix(catalogName, "dbo") + "[sysproperties] AS [p] " +
+                                "JOIN " + getMSSQLCatalogPrefix(catalogName, "dbo") + "[syscolumns] AS [c] ON [c].[id] = [p].[id] AND [c].[colid] = [p].[smallid] " +
+                                "JOIN " + getMSSQLCatalogPrefix(catalogName, "dbo") + "[sysobjects] AS [o] ON [o].[id] = [p].[id] " +
+                                "JOIN " + getMSSQLCatalogPrefix(catalogName, "dbo") + "[sysusers] AS [u] ON [u].[uid] = [o].[uid] " +
+                                "WHERE [p].[type] = 4 " +
+                                "AND [p].[name] = 'MS_Description' " +
+                                "AND [u].[name] = " + getMSSQLSchemaCondition(schemaName, "USER_NAME()");
+                    }
+                    if (tableName != null) {
+                        sql += " AND [o].[name] = N'" + database.escapeStringForDatabase(tableName) + "'";
+                    }
+                    return sql;
+                }
+            });
+        }
+
+        private String getMSSQLSchemaCondition(String schemaName, String defaultSchemaFunction) {
+            if (schemaName == null) {
+                return defaultSchemaFunction;
+            }
+            return "N'" + database.escapeStringForDatabase(schemaName) + "'";
+        }
+
+        private String getMSSQLCatalogPrefix(String catalogName, String systemSchema) {
+            if (catalogName == null) {
+                return "[" + systemSchema + "].";
+            }
+            return database.escapeObjectName(catalogName, Catalog.class) + ".[" + systemSchema + "].";
+        }
+
         public List<CachedRow> getTables(final String catalogName, final String schemaName, final String table) throws SQLException, DatabaseException {
             return getResultSetCache("getTables").get(new ResultSetCache.SingleResultSetExtractor(database) {
 
@@ -0,0 +1,226 @@
+package liquibase.snapshot;
+
+import liquibase.CatalogAndSchema;
+import liquibase.change.Change;
+import liquibase.database.Database;
+import liquibase.diff.compare.DatabaseObjectComparatorFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.logging.LogFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.*;
+
+import java.util.*;
+
+/**
+ * Caches the schema snapshots used by {@link SnapshotGeneratorFactory#has(DatabaseObject, Database)} while a Liquibase update runs,
+ * so repeated existence checks from preconditions become in-memory lookups instead of new metadata queries.
+ * <p>
+ * The first {@link #LOOKUPS_BEFORE_SNAPSHOT} lookups of a type in a schema are answered one object at a time, the same as without a cache.
+ * Only once a schema and type are looked up that often is the schema snapshotted for the type and kept.
+ * Executed changes do not drop the kept snapshots: the objects they affect are marked as changed, and lookups of those objects are answered one at a time again.
+ * <p>
+ * Instances are managed by {@link SnapshotGeneratorFactory#startMetadataCache(Database)} and {@link SnapshotGeneratorFactory#stopMetadataCache(Database)}.
+ */
+public class MetadataCache {
+
+    public static final int LOOKUPS_BEFORE_SNAPSHOT = 3;
+
+    private final Database database;
+    private final Map<String, CachedSnapshot> snapshots = new HashMap<String, CachedSnapshot>();
+    private final Map<String, Integer> lookups = new HashMap<String, Integer>();
+    private int depth = 0;
+
+    private int hits = 0;
+    private int misses = 0;
+
+    MetadataCache(Database database) {
+        this.database = database;
+    }
+
+    public Database getDatabase() {
+        return database;
+    }
+
+    /**
+     * Returns the number of lookups answered from a kept snapshot.
+     */
+    public synchronized int getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that queried the database, one object at a time or by snapshotting the schema.
+     */
+    public synchronized int getMissCount() {
+        return misses;
+    }
+
+    synchronized void start() {
+        depth++;
+    }
+
+    /**
+     * Returns true if this was the outermost scope and the cache should no longer be used.
+     */
+    synchronized boolean stop() {
+        depth--;
+        if (depth <= 0) {
+            LogFactory.getInstance().getLog().debug("Metadata cache for " + database + " finished with " + hits + " hits and " + misses + " lookups");
+            clear();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if an object matching the example exists in the example's schema.
+     * Objects changed since the schema was snapshotted, and types not yet looked up {@link #LOOKUPS_BEFORE_SNAPSHOT} times in the schema, are looked up on their own.
+     */
+    public synchronized boolean has(DatabaseObject example) throws DatabaseException, InvalidExampleException {
+        CatalogAndSchema catalogAndSchema = getCatalogAndSchema(example);
+        String key = createKey(catalogAndSchema, example.getClass());
+        SnapshotGeneratorFactory factory = SnapshotGeneratorFactory.getInstance();
+
+        CachedSnapshot cached = snapshots.get(key);
+        if (cached == null) {
+            Integer count = lookups.get(key);
+            count = count == null ? 1 : count + 1;
+            lookups.put(key, count);
+            if (count < LOOKUPS_BEFORE_SNAPSHOT) {
+                misses++;
+                return factory.lookup(example, database);
+            }
+
+            Set<Class<? extends DatabaseObject>> types = factory.getContainerTypes(example.getClass(), database);
+            types.add(example.getClass());
+            DatabaseSnapshot snapshot = factory.createSnapshot(catalogAndSchema, database, new SnapshotControl(database, false, types.toArray(new Class[types.size()])));
+            cached = new CachedSnapshot(snapshot);
+            snapshots.put(key, cached);
+            misses++;
+        } else if (isChanged(example, cached)) {
+            misses++;
+            return factory.lookup(example, database);
+        } else {
+            hits++;
+        }
+
+        for (DatabaseObject obj : cached.snapshot.get(example.getClass())) {
+            if (DatabaseObjectComparatorFactory.getInstance().isSameObject(example, obj, database)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks the objects affected by the given change as changed.
+     * Catalogs and schemas are skipped, since every affected object lists its containers. If no other affected objects are known, everything cached is removed.
+     */
+    public synchronized void invalidate(Change change) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        Set<DatabaseObject> affectedObjects;
+        try {
+            affectedObjects = change.getAffectedDatabaseObjects(database);
+        } catch (Exception e) {
+            LogFactory.getInstance().getLog().debug("Cannot determine objects affected by " + change.getSerializedObjectName() + ": " + e.getMessage());
+            affectedObjects = null;
+        }
+        List<DatabaseObject> changedObjects = new ArrayList<DatabaseObject>();
+        if (affectedObjects != null) {
+            for (DatabaseObject affected : affectedObjects) {
+                if (!(affected instanceof Catalog || affected instanceof Schema)) { //only listed as containers of the other objects
+                    changedObjects.add(affected);
+                }
+            }
+        }
+        if (changedObjects.isEmpty()) {
+            clear();
+            return;
+        }
+        for (DatabaseObject changed : changedObjects) {
+            invalidate(changed);
+        }
+    }
+
+    /**
+     * Marks the given object as changed in the kept snapshots, so it is looked up on its own instead.
+     * A changed table or view also marks the objects that belong to it, and a changed column marks its table or view.
+     */
+    public synchronized void invalidate(DatabaseObject affected) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        for (CachedSnapshot cached : snapshots.values()) {
+            cached.changedObjects.add(affected);
+            if (affected instanceof Column && ((Column) affected).getRelation() != null) {
+                cached.changedObjects.add(((Column) affected).getRelation());
+            }
+        }
+    }
+
+    /**
+     * Removes everything cached.
+     */
+    public synchronized void clear() {
+        snapshots.clear();
+        lookups.clear();
+    }
+
+    private boolean isChanged(DatabaseObject example, CachedSnapshot cached) {
+        DatabaseObjectComparatorFactory comparatorFactory = DatabaseObjectComparatorFactory.getInstance();
+        DatabaseObject relation = getRelation(example);
+        for (DatabaseObject changed : cached.changedObjects) {
+            if (!changed.getClass().equals(example.getClass()) && !(relation != null && changed instanceof Relation)) {
+                continue;
+            }
+            if (comparatorFactory.isSameObject(example, changed, database)
+                    || (relation != null && changed instanceof Relation && comparatorFactory.isSameObject(relation, changed, database))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private DatabaseObject getRelation(DatabaseObject object) {
+        if (object instanceof Column) {
+            return ((Column) object).getRelation();
+        } else if (object instanceof PrimaryKey) {
+            return ((PrimaryKey) object).getTable();
+        } else if (object instanceof Index) {
+            return ((Index) object).getTable();
+        } else if (object instanceof UniqueConstraint) {
+            return ((UniqueConstraint) object).getTable();
+        } else if (object instanceof ForeignKey) {
+            return ((ForeignKey) object).getForeignKeyTable();
+        }
+        return null;
+    }
+
+    protected CatalogAndSchema getCatalogAndSchema(DatabaseObject object) {
+        Schema schema = object.getSchema();
+        if (schema == null) {
+            return database.getDefaultSchema();
+        }
+        return schema.toCatalogAndSchema();
+    }
+
+    private String schemaKey(CatalogAndSchema catalogAndSchema) {
+        CatalogAndSchema standardized = catalogAndSchema.standardize(database);
+        return standardized.getCatalogName() + "." + standardized.getSchemaName();
+    }
+
+    private String createKey(CatalogAndSchema catalogAndSchema, Class<? extends DatabaseObject> type) {
+        return schemaKey(catalogAndSchema) + ":" + type.getName();
+    }
+
+    private static class CachedSnapshot {
+        private final DatabaseSnapshot snapshot;
+        private final List<DatabaseObject> changedObjects = new ArrayList<DatabaseObject>();
+
+        private CachedSnapshot(DatabaseSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+}
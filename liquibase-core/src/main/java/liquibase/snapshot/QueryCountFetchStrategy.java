@@ -0,0 +1,22 @@
+package liquibase.snapshot;
+
+/**
+ * Bulk fetches a schema once a given number of fast queries were sent for it. This is the default strategy, with a limit of 3.
+ */
+public class QueryCountFetchStrategy implements ResultSetFetchStrategy {
+
+    private final int singleQueryLimit;
+
+    public QueryCountFetchStrategy(int singleQueryLimit) {
+        this.singleQueryLimit = singleQueryLimit;
+    }
+
+    public int getSingleQueryLimit() {
+        return singleQueryLimit;
+    }
+
+    @Override
+    public boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
+        return resultSetCache.getTimesSingleQueried(schemaKey) >= singleQueryLimit;
+    }
+}
@@ -4,75 +4,127 @@ import liquibase.database.Database;
 import liquibase.database.core.InformixDatabase;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
-import liquibase.executor.jvm.ColumnMapRowMapper;
-import liquibase.executor.jvm.RowMapperResultSetExtractor;
 import liquibase.util.JdbcUtils;
 import liquibase.util.StringUtils;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
 
-class ResultSetCache {
+/**
+ * Caches the rows of one kind of metadata query for a snapshot, by schema.
+ * A lookup is answered from the cache, with a fast query for just the requested object or with a bulk query for the whole schema.
+ * The choice between the last two is made by the {@link ResultSetFetchStrategy} of the snapshot's {@link SnapshotControl}.
+ */
+public class ResultSetCache {
+    private static final ResultSetFetchStrategy DEFAULT_FETCH_STRATEGY = new QueryCountFetchStrategy(3);
+
+    private final String name;
+    private final DatabaseSnapshot snapshot;
+
     private Map<String, Integer> timesSingleQueried = new HashMap<String, Integer>();
-    private Map<String, Boolean> didBulkQuery = new HashMap<String, Boolean>();
+    private Map<String, Integer> bulkRowCount = new HashMap<String, Integer>();
+
+    private int hitCount;
+    private int singleQueryCount;
+    private int bulkQueryCount;
 
-    private Map<String, Map<String, List<CachedRow>>> cacheBySchema = new HashMap<String, Map<String, List<CachedRow>>>();
+    private Map<String, RowIndex> cacheBySchema = new HashMap<String, RowIndex>();
 
     private Map<String, Object> info = new HashMap<String, Object>();
 
-    public List<CachedRow> get(ResultSetExtractor resultSetExtractor) throws DatabaseException {
-        try {
-            String wantedKey = resultSetExtractor.wantedKeyParameters().createParamsKey(resultSetExtractor.database);
+    ResultSetCache() {
+        this(null, null);
+    }
 
-            String schemaKey = resultSetExtractor.wantedKeyParameters().createSchemaKey(resultSetExtractor.database);
+    ResultSetCache(String name, DatabaseSnapshot snapshot) {
+        this.name = name;
+        this.snapshot = snapshot;
+    }
 
-            Map<String, List<CachedRow>> cache = cacheBySchema.get(schemaKey);
-            if (cache == null) {
-                cache = new HashMap<String, List<CachedRow>>();
-                cacheBySchema.put(schemaKey, cache);
-            }
+    public String getName() {
+        return name;
+    }
 
-            if (cache.containsKey(wantedKey)) {
-                return cache.get(wantedKey);
-            }
+    /**
+     * Returns the snapshot this cache belongs to, or null if it was created outside of a snapshot.
+     */
+    public DatabaseSnapshot getSnapshot() {
+        return snapshot;
+    }
 
-            if (didBulkQuery.containsKey(schemaKey) && didBulkQuery.get(schemaKey)) {
-                return new ArrayList<CachedRow>();
+    public ResultSetFetchStrategy getFetchStrategy() {
+        if (snapshot != null && snapshot.getSnapshotControl() != null && snapshot.getSnapshotControl().getFetchStrategy() != null) {
+            return snapshot.getSnapshotControl().getFetchStrategy();
+        }
+        return DEFAULT_FETCH_STRATEGY;
+    }
+
+    /**
+     * Number of lookups answered without a query, either from earlier results or because the schema was already bulk fetched.
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Number of fast queries for a single object.
+     */
+    public int getSingleQueryCount() {
+        return singleQueryCount;
+    }
+
+    /**
+     * Number of bulk queries for a whole schema.
+     */
+    public int getBulkQueryCount() {
+        return bulkQueryCount;
+    }
+
+    /**
+     * Returns the number of rows the bulk query returned for the given schema, or null if the schema was not bulk fetched.
+     */
+    public Integer getBulkRowCount(String schemaKey) {
+        return bulkRowCount.get(schemaKey);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + hitCount + " hits, " + singleQueryCount + " single queries, " + bulkQueryCount + " bulk queries";
+    }
+
+    public List<CachedRow> get(ResultSetExtractor resultSetExtractor) throws DatabaseException {
+        try {
+            RowData wantedKeyParameters = resultSetExtractor.wantedKeyParameters();
+            String schemaKey = wantedKeyParameters.createSchemaKey(resultSetExtractor.database);
+
+            RowIndex cache = cacheBySchema.get(schemaKey);
+            if (cache != null) {
+                hitCount++;
+                return cache.get(wantedKeyParameters, resultSetExtractor);
             }
 
             List<CachedRow> results;
             if (resultSetExtractor.shouldBulkSelect(schemaKey, this)) {
-                cache.clear(); //remove any existing single fetches that may be duplicated
                 results = resultSetExtractor.bulkFetch();
-                didBulkQuery.put(schemaKey, true);
+                cache = new RowIndex(results);
+                cacheBySchema.put(schemaKey, cache);
+                bulkRowCount.put(schemaKey, results.size());
+                bulkQueryCount++;
             } else {
-                cache = new HashMap<String, List<CachedRow>>(); //don't store results in real cache to prevent confusion if later fetching all items.
                 Integer previousCount = timesSingleQueried.get(schemaKey);
                 if (previousCount == null) {
                     previousCount = 0;
                 }
                 timesSingleQueried.put(schemaKey, previousCount + 1);
+                singleQueryCount++;
                 results = resultSetExtractor.fastFetch();
+                cache = new RowIndex(results); //don't store results in real cache to prevent confusion if later fetching all items.
             }
 
-            for (CachedRow row : results) {
-                for (String rowKey : resultSetExtractor.rowKeyParameters(row).getKeyPermutations()) {
-                    if (!cache.containsKey(rowKey)) {
-                        cache.put(rowKey, new ArrayList<CachedRow>());
-                    }
-                    cache.get(rowKey).add(row);
-                }
-            }
-
-            List<CachedRow> returnList = cache.get(wantedKey);
-            if (returnList == null) {
-                returnList = new ArrayList<CachedRow>();
-            }
-            return returnList;
-
-
+            return cache.get(wantedKeyParameters, resultSetExtractor);
         } catch (SQLException e) {
             throw new DatabaseException(e);
         }
@@ -86,6 +138,45 @@ class ResultSetCache {
         info.put(key, value);
     }
 
+    /**
+     * The rows fetched for one schema. Rather than storing every row under each combination of its key parameters,
+     * rows are indexed on first lookup by the parameters the lookup actually sets, and that index is kept for later lookups of the same shape.
+     */
+    private static class RowIndex {
+        private final List<CachedRow> rows;
+        private final Map<Integer, Map<String, List<CachedRow>>> indexesByWildcards = new HashMap<Integer, Map<String, List<CachedRow>>>();
+
+        private RowIndex(List<CachedRow> rows) {
+            this.rows = rows;
+        }
+
+        private List<CachedRow> get(RowData wantedKeyParameters, ResultSetExtractor resultSetExtractor) {
+            Database database = resultSetExtractor.database;
+            int wildcards = wantedKeyParameters.getWildcards();
+
+            Map<String, List<CachedRow>> index = indexesByWildcards.get(wildcards);
+            if (index == null) {
+                index = new HashMap<String, List<CachedRow>>();
+                for (CachedRow row : rows) {
+                    String rowKey = resultSetExtractor.rowKeyParameters(row).createKey(database, wildcards);
+                    List<CachedRow> keyRows = index.get(rowKey);
+                    if (keyRows == null) {
+                        keyRows = new ArrayList<CachedRow>(1);
+                        index.put(rowKey, keyRows);
+                    }
+                    keyRows.add(row);
+                }
+                indexesByWildcards.put(wildcards, index);
+            }
+
+            List<CachedRow> returnList = index.get(wantedKeyParameters.createParamsKey(database));
+            if (returnList == null) {
+                returnList = new ArrayList<CachedRow>();
+            }
+            return returnList;
+        }
+    }
+
     public static class RowData {
         private Database database;
         private String[] parameters;
@@ -102,6 +193,10 @@ class ResultSetCache {
             this.parameters = parameters;
         }
 
+        /**
+         * @deprecated the cache no longer stores rows under every permutation of their key, see {@link #getWildcards()}
+         */
+        @Deprecated
         public String[] getKeyPermutations() {
             if (keyPermutations == null) {
                 this.keyPermutations = permutations(parameters);
@@ -132,6 +227,32 @@ class ResultSetCache {
             }
         }
 
+        /**
+         * Returns a bit mask of the parameters that are null, which match any value when looking up rows.
+         */
+        int getWildcards() {
+            int wildcards = 0;
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i] == null) {
+                    wildcards |= 1 << i;
+                }
+            }
+            return wildcards;
+        }
+
+        /**
+         * Creates the key of these parameters with the parameters in the given {@link #getWildcards()} mask replaced by null.
+         */
+        String createKey(Database database, int wildcards) {
+            String[] params = Arrays.copyOf(parameters, parameters.length);
+            for (int i = 0; i < params.length; i++) {
+                if ((wildcards & 1 << i) != 0) {
+                    params[i] = null;
+                }
+            }
+            return createKey(database, params);
+        }
+
         public String createSchemaKey(Database database) {
             if (!database.supportsCatalogs() && !database.supportsSchemas()) {
                 return "all";
@@ -171,7 +292,7 @@ class ResultSetCache {
         }
 
         boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
-            return resultSetCache.getTimesSingleQueried(schemaKey) >= 3;
+            return resultSetCache.getFetchStrategy().shouldBulkSelect(schemaKey, resultSetCache);
         }
 
         List<CachedRow> executeAndExtract(String sql, Database database) throws DatabaseException, SQLException {
@@ -225,13 +346,20 @@ class ResultSetCache {
 
         protected List<CachedRow> extract(ResultSet resultSet, final boolean informixIndexTrimHint) throws SQLException {
             resultSet.setFetchSize(database.getFetchSize());
-            List<Map> result;
             List<CachedRow> returnList = new ArrayList<CachedRow>();
             try {
-                result = (List<Map>) new RowMapperResultSetExtractor(new ColumnMapRowMapper() {
-                    @Override
-                    protected Object getColumnValue(ResultSet rs, int index) throws SQLException {
-                        Object value = super.getColumnValue(rs, index);
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                String[] columnNames = new String[metaData.getColumnCount()];
+                for (int i = 0; i < columnNames.length; i++) {
+                    columnNames[i] = metaData.getColumnLabel(i + 1).toUpperCase();
+                }
+                CachedRow.Columns columns = new CachedRow.Columns(columnNames);
+
+                Map<String, String> strings = new HashMap<String, String>(); //catalog, schema and table names repeat on most rows, so keep one copy of each
+                while (resultSet.next()) {
+                    Object[] values = new Object[columns.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        Object value = JdbcUtils.getResultSetValue(resultSet, i + 1);
                         if (value != null && value instanceof String) {
 
                             // Don't trim for informix database,
@@ -251,13 +379,16 @@ class ResultSetCache {
                                 }
                             }
 
+                            String existing = strings.get(value);
+                            if (existing == null) {
+                                strings.put((String) value, (String) value);
+                            } else {
+                                value = existing;
+                            }
                         }
-                        return value;
+                        values[i] = value;
                     }
-                }).extractData(resultSet);
-
-                for (Map row : result) {
-                    returnList.add(new CachedRow(row));
+                    returnList.add(new CachedRow(columns, values));
                 }
             } finally {
                 JdbcUtils.closeResultSet(resultSet);
@@ -266,7 +397,10 @@ class ResultSetCache {
         }
     }
 
-    private int getTimesSingleQueried(String schemaKey) {
+    /**
+     * Returns how many fast queries were sent for the given schema.
+     */
+    public int getTimesSingleQueried(String schemaKey) {
         Integer integer = timesSingleQueried.get(schemaKey);
         if (integer == null) {
             return 0;
@@ -0,0 +1,16 @@
+package liquibase.snapshot;
+
+/**
+ * Decides whether a {@link ResultSetCache} answers a lookup it has no rows for with a bulk query for the whole schema
+ * or with a fast query for just the requested object.
+ * Set it with {@link SnapshotControl#setFetchStrategy(ResultSetFetchStrategy)}.
+ * Some metadata queries always or never bulk fetch on some databases and do not consult the strategy.
+ *
+ * @see QueryCountFetchStrategy
+ * @see CostBasedFetchStrategy
+ */
+public interface ResultSetFetchStrategy {
+
+    boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache);
+
+}
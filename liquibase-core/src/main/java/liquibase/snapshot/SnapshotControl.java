@@ -15,6 +15,7 @@ public class SnapshotControl implements LiquibaseSerializable {
 
     private Set<Class<? extends DatabaseObject>> types;
     private SnapshotListener snapshotListener;
+    private ResultSetFetchStrategy fetchStrategy;
 
     public SnapshotControl(Database database) {
         setTypes(DatabaseObjectFactory.getInstance().getStandardTypes(), database);
@@ -48,6 +49,17 @@ public class SnapshotControl implements LiquibaseSerializable {
         this.snapshotListener = snapshotListener;
     }
 
+    public ResultSetFetchStrategy getFetchStrategy() {
+        return fetchStrategy;
+    }
+
+    /**
+     * Sets how metadata is fetched for snapshots using this control. If not set, a {@link QueryCountFetchStrategy} is used.
+     */
+    public void setFetchStrategy(ResultSetFetchStrategy fetchStrategy) {
+        this.fetchStrategy = fetchStrategy;
+    }
+
     @Override
     public String getSerializedObjectName() {
         return "snapshotControl";
@@ -2,13 +2,16 @@ package liquibase.snapshot;
 
 import liquibase.CatalogAndSchema;
 import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
 import liquibase.database.OfflineConnection;
 import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.diff.compare.DatabaseObjectComparatorFactory;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.ExecutorService;
+import liquibase.logging.LogFactory;
 import liquibase.parser.SnapshotParser;
 import liquibase.parser.SnapshotParserFactory;
 import liquibase.resource.FileSystemResourceAccessor;
@@ -17,15 +20,27 @@ import liquibase.statement.core.RawSqlStatement;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Schema;
 import liquibase.structure.core.Table;
+import liquibase.util.DispatchTable;
 
+import javax.sql.DataSource;
 import java.lang.reflect.InvocationTargetException;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 
 public class SnapshotGeneratorFactory {
 
     private static SnapshotGeneratorFactory instance;
 
     private List<SnapshotGenerator> generators = new ArrayList<SnapshotGenerator>();
+    private final DispatchTable<SortedSet<SnapshotGenerator>> generatorsByType = new DispatchTable<SortedSet<SnapshotGenerator>>();
+
+    private final Map<Database, MetadataCache> metadataCaches = Collections.synchronizedMap(new IdentityHashMap<Database, MetadataCache>());
 
     protected SnapshotGeneratorFactory() {
         Class[] classes;
@@ -59,10 +74,12 @@ public class SnapshotGeneratorFactory {
 
     public void register(SnapshotGenerator generator) {
         generators.add(generator);
+        generatorsByType.clear();
     }
 
     public void unregister(SnapshotGenerator generator) {
         generators.remove(generator);
+        generatorsByType.clear();
     }
 
     public void unregister(Class generatorClass) {
@@ -76,7 +93,15 @@ public class SnapshotGeneratorFactory {
         unregister(toRemove);
     }
 
+    /**
+     * Returns the generators for the type on the database, sorted by priority. The returned set is cached and cannot be modified.
+     */
     protected SortedSet<SnapshotGenerator> getGenerators(Class<? extends DatabaseObject> generatorClass, Database database) {
+        SortedSet<SnapshotGenerator> cachedGenerators = generatorsByType.get(generatorClass, database);
+        if (cachedGenerators != null) {
+            return cachedGenerators;
+        }
+
         SortedSet<SnapshotGenerator> validGenerators = new TreeSet<SnapshotGenerator>(new SnapshotGeneratorComparator(generatorClass, database));
 
         for (SnapshotGenerator generator : generators) {
@@ -84,14 +109,11 @@ public class SnapshotGeneratorFactory {
                 validGenerators.add(generator);
             }
         }
-        return validGenerators;
+        return generatorsByType.put(generatorClass, database, Collections.unmodifiableSortedSet(validGenerators));
     }
 
 
     public boolean has(DatabaseObject example, Database database) throws DatabaseException, InvalidExampleException {
-        List<Class<? extends DatabaseObject>> types = new ArrayList<Class<? extends DatabaseObject>>(getContainerTypes(example.getClass(), database));
-        types.add(example.getClass());
-
         //workaround for common check for databasechangelog/lock table to not snapshot the whole database like we have to in order to handle case issues
         if (example instanceof Table && (example.getName().equals(database.getDatabaseChangeLogTableName()) || example.getName().equals(database.getDatabaseChangeLogLockTableName()))) {
             try {
@@ -105,6 +127,20 @@ public class SnapshotGeneratorFactory {
             }
         }
 
+        MetadataCache metadataCache = getMetadataCache(database);
+        if (metadataCache != null && !(database.getConnection() instanceof OfflineConnection)) {
+            return metadataCache.has(example);
+        }
+        return lookup(example, database);
+    }
+
+    /**
+     * Checks if an object matching the example exists by snapshotting the example, without using a {@link MetadataCache}.
+     */
+    boolean lookup(DatabaseObject example, Database database) throws DatabaseException, InvalidExampleException {
+        List<Class<? extends DatabaseObject>> types = new ArrayList<Class<? extends DatabaseObject>>(getContainerTypes(example.getClass(), database));
+        types.add(example.getClass());
+
         if (createSnapshot(example, database, new SnapshotControl(database, false, types.toArray(new Class[types.size()]))) != null) {
             return true;
         }
@@ -123,6 +159,38 @@ public class SnapshotGeneratorFactory {
         return false;
     }
 
+    /**
+     * Starts caching the metadata used by {@link #has(DatabaseObject, Database)} for the given database until {@link #stopMetadataCache(Database)} is called.
+     * Calls may be nested, the cache is only removed when the outermost scope is stopped.
+     */
+    public MetadataCache startMetadataCache(Database database) {
+        synchronized (metadataCaches) {
+            MetadataCache metadataCache = metadataCaches.get(database);
+            if (metadataCache == null) {
+                metadataCache = new MetadataCache(database);
+                metadataCaches.put(database, metadataCache);
+            }
+            metadataCache.start();
+            return metadataCache;
+        }
+    }
+
+    public void stopMetadataCache(Database database) {
+        synchronized (metadataCaches) {
+            MetadataCache metadataCache = metadataCaches.get(database);
+            if (metadataCache != null && metadataCache.stop()) {
+                metadataCaches.remove(database);
+            }
+        }
+    }
+
+    /**
+     * Returns the active metadata cache for the given database, or null if none was started.
+     */
+    public MetadataCache getMetadataCache(Database database) {
+        return metadataCaches.get(database);
+    }
+
     public DatabaseSnapshot createSnapshot(CatalogAndSchema example, Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
         return createSnapshot(new CatalogAndSchema[] {example}, database, snapshotControl);
     }
@@ -139,6 +207,115 @@ public class SnapshotGeneratorFactory {
         return createSnapshot(schemas, database, snapshotControl);
     }
 
+    /**
+     * Creates a snapshot of the given schemas using one connection per worker thread.
+     * Up to <code>threads</code> connections are opened from the dataSource and closed again once the snapshot is complete.
+     * See {@link #createSnapshot(CatalogAndSchema[], Database, SnapshotControl, List)} for how the schemas are snapshotted.
+     */
+    public DatabaseSnapshot createSnapshot(CatalogAndSchema[] examples, Database database, SnapshotControl snapshotControl, DataSource dataSource, int threads) throws DatabaseException, InvalidExampleException {
+        int workerCount = Math.min(threads, examples.length);
+        if (dataSource == null || workerCount < 2) {
+            return createSnapshot(examples, database, snapshotControl);
+        }
+
+        List<Database> workerDatabases = new ArrayList<Database>();
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                Database workerDatabase = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(dataSource.getConnection()));
+                workerDatabase.setDefaultCatalogName(database.getDefaultCatalogName());
+                workerDatabase.setDefaultSchemaName(database.getDefaultSchemaName());
+                workerDatabase.setObjectQuotingStrategy(database.getObjectQuotingStrategy());
+                workerDatabases.add(workerDatabase);
+            }
+            return createSnapshot(examples, database, snapshotControl, workerDatabases);
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        } finally {
+            for (Database workerDatabase : workerDatabases) {
+                ExecutorService.getInstance().clearExecutor(workerDatabase);
+                try {
+                    workerDatabase.close();
+                } catch (DatabaseException e) {
+                    LogFactory.getInstance().getLog().warning("Error closing snapshot connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a snapshot of the given schemas, snapshotting each schema concurrently into its own {@link JdbcDatabaseSnapshot}.
+     * Each worker thread takes one of the workerDatabases, which must be open connections to the same database as the passed database and are not closed.
+     * The executors registered for the workerDatabases are removed once the snapshot is complete.
+     * The per-schema snapshots are merged in the order of the examples into a single snapshot of the passed database.
+     * If fewer than two schemas or worker databases are given, or the database is offline, the snapshot is created serially on the passed database.
+     */
+    public DatabaseSnapshot createSnapshot(CatalogAndSchema[] examples, Database database, SnapshotControl snapshotControl, List<Database> workerDatabases) throws DatabaseException, InvalidExampleException {
+        if (database == null) {
+            return null;
+        }
+        if (workerDatabases == null || workerDatabases.size() < 2 || examples.length < 2 || database.getConnection() instanceof OfflineConnection) {
+            return createSnapshot(examples, database, snapshotControl);
+        }
+
+        final Set<Class<? extends DatabaseObject>> types = snapshotControl.getTypesToInclude();
+        final SnapshotListener snapshotListener = snapshotControl.getSnapshotListener();
+        final ResultSetFetchStrategy fetchStrategy = snapshotControl.getFetchStrategy();
+        final BlockingQueue<Database> availableDatabases = new LinkedBlockingQueue<Database>(workerDatabases);
+        for (Database workerDatabase : workerDatabases) {
+            ExecutorService.getInstance().getExecutor(workerDatabase); //create executors up front rather than concurrently in the workers
+        }
+
+        java.util.concurrent.ExecutorService executor = Executors.newFixedThreadPool(Math.min(workerDatabases.size(), examples.length));
+        try {
+            List<Future<DatabaseSnapshot>> futures = new ArrayList<Future<DatabaseSnapshot>>();
+            List<Schema> schemas = new ArrayList<Schema>();
+            for (CatalogAndSchema example : examples) {
+                CatalogAndSchema catalogAndSchema = example.customize(database);
+                final Schema schema = new Schema(catalogAndSchema.getCatalogName(), catalogAndSchema.getSchemaName());
+                schemas.add(schema);
+                futures.add(executor.submit(new Callable<DatabaseSnapshot>() {
+                    @Override
+                    public DatabaseSnapshot call() throws Exception {
+                        Database workerDatabase = availableDatabases.take();
+                        try {
+                            SnapshotControl workerControl = new SnapshotControl(workerDatabase, false, types.toArray(new Class[types.size()]));
+                            workerControl.setSnapshotListener(snapshotListener);
+                            workerControl.setFetchStrategy(fetchStrategy);
+                            return new JdbcDatabaseSnapshot(new DatabaseObject[]{schema}, workerDatabase, workerControl);
+                        } finally {
+                            availableDatabases.put(workerDatabase);
+                        }
+                    }
+                }));
+            }
+
+            List<DatabaseSnapshot> schemaSnapshots = new ArrayList<DatabaseSnapshot>();
+            for (Future<DatabaseSnapshot> future : futures) {
+                schemaSnapshots.add(future.get());
+            }
+
+            DatabaseSnapshot snapshot = new JdbcDatabaseSnapshot(schemas.toArray(new DatabaseObject[schemas.size()]), database, snapshotControl, false);
+            snapshot.merge(schemaSnapshots);
+            return snapshot;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DatabaseException) {
+                throw (DatabaseException) cause;
+            } else if (cause instanceof InvalidExampleException) {
+                throw (InvalidExampleException) cause;
+            }
+            throw new UnexpectedLiquibaseException(cause);
+        } finally {
+            executor.shutdownNow();
+            for (Database workerDatabase : workerDatabases) {
+                ExecutorService.getInstance().clearExecutor(workerDatabase);
+            }
+        }
+    }
+
     public DatabaseSnapshot createSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
         if (database.getConnection() instanceof OfflineConnection) {
             DatabaseSnapshot snapshot = ((OfflineConnection) database.getConnection()).getSnapshot(examples);
@@ -17,7 +17,7 @@ public class SnapshotIdService {
 
     }
 
-    public String generateId() {
+    public synchronized String generateId() {
         return base+Integer.toString(nextId++);
     }
 }
@@ -45,49 +45,25 @@ public class ColumnSnapshotGenerator extends JdbcSnapshotGenerator {
         try {
 
             Column column = null;
+            JdbcDatabaseSnapshot.CachingDatabaseMetaData databaseMetaData = ((JdbcDatabaseSnapshot) snapshot).getMetaData();
 
             if (example.getAttribute(LIQUIBASE_COMPLETE, false)) {
                 column = (Column) example;
                 example.setAttribute(LIQUIBASE_COMPLETE, null);
             } else {
-                JdbcDatabaseSnapshot.CachingDatabaseMetaData databaseMetaData = ((JdbcDatabaseSnapshot) snapshot).getMetaData();
-
                 columnMetadataRs = databaseMetaData.getColumns(((AbstractJdbcDatabase) database).getJdbcCatalogName(schema), ((AbstractJdbcDatabase) database).getJdbcSchemaName(schema), relation.getName(), example.getName());
 
                 if (columnMetadataRs.size() > 0) {
                     CachedRow data = columnMetadataRs.get(0);
-                    column = readColumn(data, relation, database);
+                    column = readColumn(data, relation, database, databaseMetaData);
                 }
             }
 
             // sys.extended_properties is added to Azure on V12: https://feedback.azure.com/forums/217321-sql-database/suggestions/6549815-add-sys-extended-properties-for-meta-data-support
             if (column != null && database instanceof MSSQLDatabase && ((!((MSSQLDatabase) database).isAzureDb() && database.getDatabaseMajorVersion() >= 8) || database.getDatabaseMajorVersion() >= 12)) {
-                String sql;
-                if (database.getDatabaseMajorVersion() >= 9) {
-                    // SQL Server 2005 or later
-                    // https://technet.microsoft.com/en-us/library/ms177541.aspx
-                    sql =
-                            "SELECT CAST([ep].[value] AS [nvarchar](MAX)) AS [REMARKS] " +
-                                    "FROM [sys].[extended_properties] AS [ep] " +
-                                    "WHERE [ep].[class] = 1 " +
-                                    "AND [ep].[major_id] = OBJECT_ID(N'" + database.escapeStringForDatabase(database.escapeTableName(schema.getCatalogName(), schema.getName(), relation.getName())) + "') " +
-                                    "AND [ep].[minor_id] = COLUMNPROPERTY([ep].[major_id], N'" + database.escapeStringForDatabase(column.getName()) + "', 'ColumnId') " +
-                                    "AND [ep].[name] = 'MS_Description'";
-                } else {
-                    // SQL Server 2000
-                    // https://technet.microsoft.com/en-us/library/aa224810%28v=sql.80%29.aspx
-                    sql =
-                            "SELECT CAST([p].[value] AS [ntext]) AS [REMARKS] " +
-                                    "FROM [dbo].[sysproperties] AS [p] " +
-                                    "WHERE [p].[id] = OBJECT_ID(N'" + database.escapeStringForDatabase(database.escapeTableName(schema.getCatalogName(), schema.getName(), relation.getName())) + "') " +
-                                    "AND [p].[smallid] = COLUMNPROPERTY([p].[id], N'" + database.escapeStringForDatabase(column.getName()) + "', 'ColumnId') " +
-                                    "AND [p].[type] = 4 " +
-                                    "AND [p].[name] = 'MS_Description'";
-                }
-
-                List<String> remarks = ExecutorService.getInstance().getExecutor(snapshot.getDatabase()).queryForList(new RawSqlStatement(sql), String.class);
-                if (remarks != null && remarks.size() > 0) {
-                    column.setRemarks(StringUtils.trimToNull(remarks.iterator().next()));
+                List<CachedRow> remarks = databaseMetaData.getColumnRemarks(((AbstractJdbcDatabase) database).getJdbcCatalogName(schema), ((AbstractJdbcDatabase) database).getJdbcSchemaName(schema), relation.getName(), column.getName());
+                if (remarks.size() > 0) {
+                    column.setRemarks(StringUtils.trimToNull(remarks.get(0).getString("REMARKS")));
                 }
             }
             return column;
@@ -115,7 +91,7 @@ public class ColumnSnapshotGenerator extends JdbcSnapshotGenerator {
                 allColumnsMetadataRs = databaseMetaData.getColumns(((AbstractJdbcDatabase) database).getJdbcCatalogName(schema), ((AbstractJdbcDatabase) database).getJdbcSchemaName(schema), relation.getName(), null);
 
                 for (CachedRow row : allColumnsMetadataRs) {
-                    Column column = readColumn(row, relation, database);
+                    Column column = readColumn(row, relation, database, databaseMetaData);
                     column.setAttribute(LIQUIBASE_COMPLETE, true);
                     relation.getColumns().add(column);
                 }
@@ -127,6 +103,14 @@ public class ColumnSnapshotGenerator extends JdbcSnapshotGenerator {
     }
 
     protected Column readColumn(CachedRow columnMetadataResultSet, Relation table, Database database) throws SQLException, DatabaseException {
+        return readColumn(columnMetadataResultSet, table, database, null);
+    }
+
+    /**
+     * Reads the column described by the given getColumns row. If the driver does not return IS_AUTOINCREMENT and databaseMetaData is given,
+     * auto-increment is looked up through {@link JdbcDatabaseSnapshot.CachingDatabaseMetaData#getAutoIncrementColumns} rather than with a query for this column.
+     */
+    protected Column readColumn(CachedRow columnMetadataResultSet, Relation table, Database database, JdbcDatabaseSnapshot.CachingDatabaseMetaData databaseMetaData) throws SQLException, DatabaseException {
         String rawTableName = (String) columnMetadataResultSet.get("TABLE_NAME");
         String rawColumnName = (String) columnMetadataResultSet.get("COLUMN_NAME");
         String rawSchemaName = StringUtils.trimToNull((String) columnMetadataResultSet.get("TABLE_SCHEM"));
@@ -180,6 +164,14 @@ public class ColumnSnapshotGenerator extends JdbcSnapshotGenerator {
                     } else {
                         throw new UnexpectedLiquibaseException("Unknown is_autoincrement value: '" + isAutoincrement + "'");
                     }
+                } else if (databaseMetaData != null) {
+                    Schema schema = table.getSchema();
+                    List<CachedRow> autoIncrementRows = databaseMetaData.getAutoIncrementColumns(((AbstractJdbcDatabase) database).getJdbcCatalogName(schema), ((AbstractJdbcDatabase) database).getJdbcSchemaName(schema), rawTableName, rawColumnName);
+                    if (autoIncrementRows.size() > 0 && "YES".equals(autoIncrementRows.get(0).getString("IS_AUTOINCREMENT"))) {
+                        column.setAutoIncrementInformation(new Column.AutoIncrementInformation());
+                    } else {
+                        column.setAutoIncrementInformation(null);
+                    }
                 } else {
                     //probably older version of java, need to select from the column to find out if it is auto-increment
                     String selectStatement;
@@ -9,11 +9,14 @@ import liquibase.exception.Warnings;
 import liquibase.servicelocator.ServiceLocator;
 import liquibase.sql.Sql;
 import liquibase.statement.SqlStatement;
+import liquibase.util.DispatchTable;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * SqlGeneratorFactory is a singleton registry of SqlGenerators.
@@ -24,12 +27,12 @@ public class SqlGeneratorFactory {
 
     private static SqlGeneratorFactory instance;
 
-    private List<SqlGenerator> generators = new ArrayList<SqlGenerator>();
+    private List<SqlGenerator> generators = new CopyOnWriteArrayList<SqlGenerator>();
 
     //caches for expensive reflection based calls that slow down Liquibase initialization: CORE-1207
-    private final Map<Class<?>, Type[]> genericInterfacesCache = new HashMap<Class<?>, Type[]>();
-    private final Map<Class<?>, Type> genericSuperClassCache = new HashMap<Class<?>, Type>();
-    private Map<String, SortedSet<SqlGenerator>> generatorsByKey = new HashMap<String, SortedSet<SqlGenerator>>();
+    private final Map<Class<?>, Type[]> genericInterfacesCache = new ConcurrentHashMap<Class<?>, Type[]>();
+    private final Map<Class<?>, Type> genericSuperClassCache = new ConcurrentHashMap<Class<?>, Type>();
+    private final DispatchTable<SortedSet<SqlGenerator>> generatorsByStatementType = new DispatchTable<SortedSet<SqlGenerator>>();
 
     private SqlGeneratorFactory() {
         Class[] classes;
@@ -63,10 +66,12 @@ public class SqlGeneratorFactory {
 
     public void register(SqlGenerator generator) {
         generators.add(generator);
+        generatorsByStatementType.clear();
     }
 
     public void unregister(SqlGenerator generator) {
         generators.remove(generator);
+        generatorsByStatementType.clear();
     }
 
     public void unregister(Class generatorClass) {
@@ -85,25 +90,14 @@ public class SqlGeneratorFactory {
         return generators;
     }
 
+    /**
+     * Returns the generators for the statement on the database, sorted by priority.
+     * The returned set is cached per statement class, database class and major version, and cannot be modified.
+     */
     public SortedSet<SqlGenerator> getGenerators(SqlStatement statement, Database database) {
-        String databaseName = null;
-        if (database == null) {
-            databaseName = "NULL";
-        } else {
-            databaseName = database.getShortName();
-        }
-
-        int version;
-        try {
-            version = database.getDatabaseMajorVersion();
-        } catch (Throwable e) {
-            version = 0;
-        }
-
-        String key = statement.getClass().getName()+":"+ databaseName+":"+ version;
-
-        if (generatorsByKey.containsKey(key)) {
-            return generatorsByKey.get(key);
+        SortedSet<SqlGenerator> cachedGenerators = generatorsByStatementType.get(statement.getClass(), database);
+        if (cachedGenerators != null) {
+            return cachedGenerators;
         }
 
         SortedSet<SqlGenerator> validGenerators = new TreeSet<SqlGenerator>(new SqlGeneratorComparator());
@@ -131,27 +125,26 @@ public class SqlGeneratorFactory {
             }
         }
 
-        generatorsByKey.put(key, validGenerators);
-        return validGenerators;
+        return generatorsByStatementType.put(statement.getClass(), database, Collections.unmodifiableSortedSet(validGenerators));
     }
 
     private Type[] getGenericInterfaces(Class<?> clazz) {
-        if(genericInterfacesCache.containsKey(clazz)) {
-            return genericInterfacesCache.get(clazz);
+        Type[] genericInterfaces = genericInterfacesCache.get(clazz);
+        if (genericInterfaces == null) {
+            genericInterfaces = clazz.getGenericInterfaces();
+            genericInterfacesCache.put(clazz, genericInterfaces);
         }
-
-        Type[] genericInterfaces = clazz.getGenericInterfaces();
-        genericInterfacesCache.put(clazz, genericInterfaces);
         return genericInterfaces;
     }
 
     private Type getGenericSuperclass(Class<?> clazz) {
-        if(genericSuperClassCache.containsKey(clazz)) {
-            return genericSuperClassCache.get(clazz);
+        Type genericSuperclass = genericSuperClassCache.get(clazz);
+        if (genericSuperclass == null) {
+            genericSuperclass = clazz.getGenericSuperclass();
+            if (genericSuperclass != null) { //interfaces and Object have none, and the concurrent map cannot hold null
+                genericSuperClassCache.put(clazz, genericSuperclass);
+            }
         }
-
-        Type genericSuperclass = clazz.getGenericSuperclass();
-        genericSuperClassCache.put(clazz, genericSuperclass);
         return genericSuperclass;
     }
 
@@ -11,7 +11,10 @@ import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.statement.core.SelectFromDatabaseChangeLogStatement;
 import liquibase.util.StringUtils;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 
 public class SelectFromDatabaseChangeLogGenerator extends AbstractSqlGenerator<SelectFromDatabaseChangeLogStatement> {
@@ -45,6 +48,19 @@ public class SelectFromDatabaseChangeLogGenerator extends AbstractSqlGenerator<S
                 sql += " WHERE "+database.escapeColumnName(null, null, null, "TAG")+"='" + ((SelectFromDatabaseChangeLogStatement.ByTag) whereClause).getTagName() + "'";
             } else if (whereClause instanceof SelectFromDatabaseChangeLogStatement.ByNotNullCheckSum) {
                     sql += " WHERE MD5SUM IS NOT NULL";
+            } else if (whereClause instanceof SelectFromDatabaseChangeLogStatement.ByExecutedAfter) {
+                Integer orderExecuted = ((SelectFromDatabaseChangeLogStatement.ByExecutedAfter) whereClause).getOrderExecuted();
+                Date dateExecuted = ((SelectFromDatabaseChangeLogStatement.ByExecutedAfter) whereClause).getDateExecuted();
+                List<String> conditions = new ArrayList<String>();
+                if (orderExecuted != null) {
+                    conditions.add(database.escapeColumnName(null, null, null, "ORDEREXECUTED") + " > " + orderExecuted);
+                }
+                if (dateExecuted != null) {
+                    conditions.add(database.escapeColumnName(null, null, null, "DATEEXECUTED") + " >= " + database.getDateTimeLiteral(new Timestamp(dateExecuted.getTime())));
+                }
+                if (conditions.size() > 0) {
+                    sql += " WHERE (" + StringUtils.join(conditions, " OR ") + ")";
+                }
             } else {
                 throw new UnexpectedLiquibaseException("Unknown where clause type: " + whereClause.getClass().getName());
             }
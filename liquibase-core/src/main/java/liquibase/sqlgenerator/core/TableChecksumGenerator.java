@@ -0,0 +1,99 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.TableChecksumStatement;
+import liquibase.structure.core.DataType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base class for the database specific generators of {@link TableChecksumStatement}, which only differ in how the checksum of a row is computed.
+ * The row checksum is summed per chunk, so it must be a number that is not too large to sum.
+ */
+public abstract class TableChecksumGenerator extends AbstractSqlGenerator<TableChecksumStatement> {
+
+    /**
+     * Returned for null values by generators that concatenate the values of a row.
+     */
+    protected static final String NULL_VALUE = "'<NULL>'";
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    /**
+     * Returns false if the statement has a column of a type that {@link #supportsColumnType(DataType, Database)} rejects,
+     * so callers can compute the checksums from the rows instead.
+     */
+    protected boolean supportsColumnTypes(TableChecksumStatement statement, Database database) {
+        if (statement.getColumnTypes() == null) {
+            return true;
+        }
+        for (DataType columnType : statement.getColumnTypes()) {
+            if (columnType != null && !supportsColumnType(columnType, database)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the row checksum includes the values of columns of this type. Defaults to true.
+     */
+    protected boolean supportsColumnType(DataType columnType, Database database) {
+        return true;
+    }
+
+    @Override
+    public ValidationErrors validate(TableChecksumStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("columnNames", statement.getColumnNames());
+        if (statement.getKeyColumnName() != null && statement.getChunkSize() <= 0) {
+            validationErrors.addError("chunkSize must be greater than 0");
+        }
+        return validationErrors;
+    }
+
+    @Override
+    public Sql[] generateSql(TableChecksumStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        List<String> columns = new ArrayList<String>();
+        List<DataType> columnTypes = new ArrayList<DataType>();
+        for (int i = 0; i < statement.getColumnNames().size(); i++) {
+            columns.add(database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), statement.getColumnNames().get(i)));
+            columnTypes.add(statement.getColumnTypes() == null ? null : statement.getColumnTypes().get(i));
+        }
+
+        String chunk = "0";
+        String keyColumn = null;
+        if (statement.getKeyColumnName() != null) {
+            keyColumn = database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), statement.getKeyColumnName());
+            chunk = "FLOOR((" + keyColumn + " - " + statement.getRangeStart() + ") / " + statement.getChunkSize() + ")";
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(chunk).append(" AS CHUNK, COUNT(*) AS ROW_COUNT, SUM(").append(getRowChecksumSql(columns, columnTypes, database)).append(") AS ROW_CHECKSUM")
+                .append(" FROM ").append(database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()));
+        if (keyColumn != null) {
+            sql.append(" WHERE ").append(keyColumn).append(" >= ").append(statement.getRangeStart())
+                    .append(" AND ").append(keyColumn).append(" <= ").append(statement.getRangeEnd())
+                    .append(" GROUP BY ").append(chunk);
+        }
+
+        return new Sql[]{
+                new UnparsedSql(sql.toString())
+        };
+    }
+
+    /**
+     * Returns the expression for the checksum of one row, computed from the passed escaped column names.
+     * The column types are in the same order, with null entries for unknown types.
+     */
+    protected abstract String getRowChecksumSql(List<String> columns, List<DataType> columnTypes, Database database);
+}
@@ -0,0 +1,29 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.statement.core.TableChecksumStatement;
+import liquibase.structure.core.DataType;
+
+import java.util.List;
+
+public class TableChecksumGeneratorH2 extends TableChecksumGenerator {
+
+    @Override
+    public boolean supports(TableChecksumStatement statement, Database database) {
+        return database instanceof H2Database;
+    }
+
+    @Override
+    protected String getRowChecksumSql(List<String> columns, List<DataType> columnTypes, Database database) {
+        StringBuilder values = new StringBuilder();
+        for (String column : columns) {
+            if (values.length() > 0) {
+                values.append(" || '|' || ");
+            }
+            values.append("COALESCE(CAST(").append(column).append(" AS VARCHAR), ").append(NULL_VALUE).append(")");
+        }
+        //first 4 bytes of the hash as a number
+        return "CAST(CAST(LEFT(HASH('SHA256', STRINGTOUTF8(" + values + "), 1), 8) AS BINARY) AS BIGINT)";
+    }
+}
@@ -0,0 +1,79 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.statement.core.TableChecksumStatement;
+import liquibase.structure.core.DataType;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class TableChecksumGeneratorMSSQL extends TableChecksumGenerator {
+
+    private static final List<String> STRING_TYPES = Arrays.asList("char", "varchar", "nchar", "nvarchar", "binary", "varbinary", "timestamp", "rowversion");
+    private static final List<String> DATE_TYPES = Arrays.asList("date", "time", "datetime", "datetime2", "smalldatetime");
+    private static final List<String> FLOAT_TYPES = Arrays.asList("float", "real", "money", "smallmoney");
+
+    @Override
+    public boolean supports(TableChecksumStatement statement, Database database) {
+        return database instanceof MSSQLDatabase && supportsColumnTypes(statement, database);
+    }
+
+    /**
+     * HASHBYTES does not take the legacy LOB types, xml or CLR types, and before SQL Server 2016 no values over 8000 bytes,
+     * so tables with them are compared with checksums computed from the rows.
+     */
+    @Override
+    protected boolean supportsColumnType(DataType columnType, Database database) {
+        String typeName = getTypeName(columnType);
+        if (STRING_TYPES.contains(typeName)) {
+            Integer columnSize = columnType.getColumnSize();
+            return !columnType.getTypeName().toLowerCase().contains("max") && columnSize != null && columnSize <= (typeName.startsWith("n") ? 4000 : 8000);
+        }
+        return !Arrays.asList("text", "ntext", "image", "xml", "sql_variant", "geometry", "geography", "hierarchyid").contains(typeName);
+    }
+
+    /**
+     * Sums the first 4 bytes of the MD5 of each column, weighted by the column position so values moved between columns change the checksum.
+     * Each hash is a BIGINT before it is weighted so the row sum does not overflow INT, and the row checksum is a DECIMAL so it does not overflow when summed over many rows.
+     * NULL is hashed as the null marker after HASHBYTES, so the marker is not cut to the size of a short column.
+     */
+    @Override
+    protected String getRowChecksumSql(List<String> columns, List<DataType> columnTypes, Database database) {
+        StringBuilder checksum = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (checksum.length() > 0) {
+                checksum.append(" + ");
+            }
+            checksum.append("CAST(CAST(CAST(ISNULL(HASHBYTES('MD5', ").append(getValueSql(columns.get(i), columnTypes.get(i))).append("), HASHBYTES('MD5', ").append(NULL_VALUE)
+                    .append(")) AS BINARY(4)) AS INT) AS BIGINT) * ").append(2 * i + 1);
+        }
+        return "CAST(" + checksum + " AS DECIMAL(38, 0))";
+    }
+
+    /**
+     * Strings and binary values are hashed as they are, other values are converted to text with styles that do not depend on the language settings.
+     */
+    protected String getValueSql(String column, DataType columnType) {
+        String typeName = getTypeName(columnType);
+        if (STRING_TYPES.contains(typeName)) {
+            return column;
+        } else if (DATE_TYPES.contains(typeName)) {
+            return "CONVERT(VARCHAR(40), " + column + ", 121)";
+        } else if (typeName.equals("datetimeoffset")) {
+            return "CONVERT(VARCHAR(40), " + column + ", 127)";
+        } else if (FLOAT_TYPES.contains(typeName)) {
+            return "CONVERT(VARCHAR(40), " + column + ", 2)";
+        } else if (columnType == null) {
+            return "CONVERT(NVARCHAR(4000), " + column + ")";
+        }
+        return "CONVERT(VARCHAR(100), " + column + ")";
+    }
+
+    private String getTypeName(DataType columnType) {
+        if (columnType == null || columnType.getTypeName() == null) {
+            return "";
+        }
+        return columnType.getTypeName().toLowerCase().replaceAll("\\(.*\\)", "").trim();
+    }
+}
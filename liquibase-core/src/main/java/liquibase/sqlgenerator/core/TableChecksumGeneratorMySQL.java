@@ -0,0 +1,25 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.statement.core.TableChecksumStatement;
+import liquibase.structure.core.DataType;
+
+import java.util.List;
+
+public class TableChecksumGeneratorMySQL extends TableChecksumGenerator {
+
+    @Override
+    public boolean supports(TableChecksumStatement statement, Database database) {
+        return database instanceof MySQLDatabase;
+    }
+
+    @Override
+    protected String getRowChecksumSql(List<String> columns, List<DataType> columnTypes, Database database) {
+        StringBuilder values = new StringBuilder();
+        for (String column : columns) {
+            values.append(", COALESCE(CAST(").append(column).append(" AS CHAR), ").append(NULL_VALUE).append(")");
+        }
+        return "CRC32(CONCAT_WS('|'" + values + "))";
+    }
+}
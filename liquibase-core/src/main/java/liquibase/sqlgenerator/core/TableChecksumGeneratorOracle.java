@@ -0,0 +1,67 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.OracleDatabase;
+import liquibase.statement.core.TableChecksumStatement;
+import liquibase.structure.core.DataType;
+
+import java.util.List;
+
+public class TableChecksumGeneratorOracle extends TableChecksumGenerator {
+
+    @Override
+    public boolean supports(TableChecksumStatement statement, Database database) {
+        return database instanceof OracleDatabase && supportsColumnTypes(statement, database);
+    }
+
+    /**
+     * LOBs cannot be converted to text or hashed with ORA_HASH, so tables with them are compared with checksums computed from the rows.
+     */
+    @Override
+    protected boolean supportsColumnType(DataType columnType, Database database) {
+        String typeName = getTypeName(columnType);
+        return !(typeName.endsWith("LOB") || typeName.startsWith("LONG") || typeName.equals("BFILE") || typeName.endsWith("XMLTYPE"));
+    }
+
+    /**
+     * Hashes each column on its own, with its position as seed, so long rows do not go over the VARCHAR2 length limit.
+     */
+    @Override
+    protected String getRowChecksumSql(List<String> columns, List<DataType> columnTypes, Database database) {
+        StringBuilder checksum = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (checksum.length() > 0) {
+                checksum.append(" + ");
+            }
+            checksum.append("ORA_HASH(NVL(").append(getValueSql(columns.get(i), columnTypes.get(i))).append(", ").append(NULL_VALUE).append("), 4294967295, ").append(i).append(")");
+        }
+        return checksum.toString();
+    }
+
+    /**
+     * Converts the value to text with explicit formats, because the defaults depend on the NLS settings of the session
+     * and the default date format drops the time.
+     */
+    protected String getValueSql(String column, DataType columnType) {
+        String typeName = getTypeName(columnType);
+        if (typeName.equals("DATE")) {
+            return "TO_CHAR(" + column + ", 'YYYY-MM-DD HH24:MI:SS')";
+        } else if (typeName.startsWith("TIMESTAMP") && typeName.endsWith("WITH TIME ZONE")) {
+            return "TO_CHAR(" + column + ", 'YYYY-MM-DD HH24:MI:SS.FF9 TZH:TZM')";
+        } else if (typeName.startsWith("TIMESTAMP")) {
+            return "TO_CHAR(" + column + ", 'YYYY-MM-DD HH24:MI:SS.FF9')";
+        } else if (typeName.equals("NUMBER") || typeName.equals("FLOAT") || typeName.startsWith("BINARY_") || typeName.equals("INTEGER")) {
+            return "TO_CHAR(" + column + ", 'TM9', 'NLS_NUMERIC_CHARACTERS=''.,''')";
+        } else if (typeName.equals("RAW")) {
+            return "RAWTOHEX(" + column + ")";
+        }
+        return "TO_CHAR(" + column + ")";
+    }
+
+    private String getTypeName(DataType columnType) {
+        if (columnType == null || columnType.getTypeName() == null) {
+            return "";
+        }
+        return columnType.getTypeName().toUpperCase().replaceAll("\\(\\d+\\)", "");
+    }
+}
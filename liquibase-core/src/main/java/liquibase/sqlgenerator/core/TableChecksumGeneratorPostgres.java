@@ -0,0 +1,29 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.statement.core.TableChecksumStatement;
+import liquibase.structure.core.DataType;
+
+import java.util.List;
+
+public class TableChecksumGeneratorPostgres extends TableChecksumGenerator {
+
+    @Override
+    public boolean supports(TableChecksumStatement statement, Database database) {
+        return database instanceof PostgresDatabase;
+    }
+
+    @Override
+    protected String getRowChecksumSql(List<String> columns, List<DataType> columnTypes, Database database) {
+        StringBuilder values = new StringBuilder();
+        for (String column : columns) {
+            if (values.length() > 0) {
+                values.append(" || '|' || ");
+            }
+            values.append("COALESCE(CAST(").append(column).append(" AS TEXT), ").append(NULL_VALUE).append(")");
+        }
+        //first 4 bytes of the md5 as a number
+        return "('x' || SUBSTR(MD5(" + values + "), 1, 8))::BIT(32)::BIGINT";
+    }
+}
@@ -0,0 +1,159 @@
+package liquibase.statement;
+
+import java.io.Closeable;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import liquibase.change.ColumnConfig;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.logging.LogFactory;
+import liquibase.logging.Logger;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.JdbcUtils;
+import liquibase.util.StreamUtil;
+
+/**
+ * Handles INSERT execution for a stream of rows using a single reused <code>PreparedStatement</code> and JDBC batches.
+ * Rows are pulled from the given Iterable only while executing, so memory use does not depend on the number of rows.
+ * Every row must contain the same columns in the same order.
+ * String values and NULLs of columns with a known JDBC type are bound with that type, so drivers that do not convert strings still accept them.
+ */
+public class BatchedInsertExecutablePreparedStatement extends InsertExecutablePreparedStatement {
+
+    private Logger log = LogFactory.getLogger();
+
+    private final Iterable<List<ColumnConfig>> rows;
+    private final Map<String, Integer> columnTypes;
+    private final int batchSize;
+    private final int commitInterval;
+
+    private List<ColumnConfig> currentColumns = Collections.emptyList();
+
+    /**
+     * @param rows           rows to insert. If the iterator returned is {@link Closeable} it is closed once execution finishes
+     * @param columnTypes    JDBC types of the columns by column name, see {@link java.sql.Types}. Columns without a type are bound as their value's type
+     * @param batchSize      number of rows sent to the database per executeBatch call
+     * @param commitInterval number of rows after which the database is committed. Zero or less means rows are only committed with the changeSet
+     */
+    public BatchedInsertExecutablePreparedStatement(Database database, String catalogName, String schemaName, String tableName, Iterable<List<ColumnConfig>> rows, Map<String, Integer> columnTypes, int batchSize, int commitInterval, ChangeSet changeSet, ResourceAccessor resourceAccessor) {
+        super(database, catalogName, schemaName, tableName, Collections.<ColumnConfig>emptyList(), changeSet, resourceAccessor);
+        this.rows = rows;
+        this.columnTypes = columnTypes == null ? Collections.<String, Integer>emptyMap() : columnTypes;
+        this.batchSize = batchSize < 1 ? 1 : batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+
+    /**
+     * Returns the columns of the row currently being bound.
+     */
+    @Override
+    public List<ColumnConfig> getColumns() {
+        return currentColumns;
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        Iterator<List<ColumnConfig>> iterator = rows.iterator();
+        PreparedStatement stmt = null;
+        try {
+            if (!iterator.hasNext()) {
+                return;
+            }
+            currentColumns = iterator.next();
+
+            List<ColumnConfig> cols = new ArrayList<ColumnConfig>(currentColumns.size());
+            String sql = generateSql(cols);
+            log.info("Prepared batch statement: " + sql);
+
+            //generateSql may skip auto-increment columns, so remember which positions are bound
+            int[] parameterPositions = new int[cols.size()];
+            for (int i = 0; i < cols.size(); i++) {
+                for (int position = 0; position < currentColumns.size(); position++) {
+                    if (currentColumns.get(position) == cols.get(i)) {
+                        parameterPositions[i] = position;
+                        break;
+                    }
+                }
+            }
+
+            stmt = factory.create(sql);
+
+            int rowsInBatch = 0;
+            long rowsSinceCommit = 0;
+            long totalRows = 0;
+            while (true) {
+                for (int i = 0; i < parameterPositions.length; i++) {
+                    applyColumnParameter(stmt, i + 1, currentColumns.get(parameterPositions[i]));
+                }
+                stmt.addBatch();
+                rowsInBatch++;
+                rowsSinceCommit++;
+                totalRows++;
+
+                boolean hasNext = iterator.hasNext();
+                if (rowsInBatch >= batchSize || !hasNext) {
+                    stmt.executeBatch();
+                    closeResources();
+                    rowsInBatch = 0;
+
+                    if (commitInterval > 0 && rowsSinceCommit >= commitInterval && hasNext) {
+                        database.commit();
+                        rowsSinceCommit = 0;
+                    }
+                }
+                if (!hasNext) {
+                    break;
+                }
+                currentColumns = iterator.next();
+            }
+            log.debug("Inserted " + totalRows + " rows into " + getTableName());
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        } finally {
+            closeResources();
+            JdbcUtils.closeStatement(stmt);
+            if (iterator instanceof Closeable) {
+                StreamUtil.closeQuietly((Closeable) iterator);
+            }
+            currentColumns = Collections.emptyList();
+        }
+    }
+
+    @Override
+    protected void applyColumnParameter(PreparedStatement stmt, int i, ColumnConfig col) throws SQLException, DatabaseException {
+        Integer type = col.getName() == null ? null : columnTypes.get(col.getName());
+        if (type != null) {
+            if (col.getValueObject() == null) {
+                stmt.setNull(i, type);
+                return;
+            }
+            if (col.getValue() != null && !isCharacterType(type)) {
+                stmt.setObject(i, col.getValue(), type);
+                return;
+            }
+        }
+        super.applyColumnParameter(stmt, i, col);
+    }
+
+    private boolean isCharacterType(int type) {
+        return type == Types.CHAR || type == Types.VARCHAR || type == Types.LONGVARCHAR || type == Types.NCHAR || type == Types.NVARCHAR
+                || type == Types.LONGNVARCHAR || type == Types.CLOB || type == Types.NCLOB;
+    }
+}
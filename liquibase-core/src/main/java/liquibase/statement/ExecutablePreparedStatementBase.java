@@ -86,16 +86,24 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
 	    } catch(SQLException e) {
 	        throw new DatabaseException(e);
 	    } finally {
-	        for (Closeable closeable : closeables) {
-                StreamUtil.closeQuietly(closeable);
-            }
+	        closeResources();
 	        JdbcUtils.closeStatement(stmt);
 	    }
 	}
 
+	/**
+	 * Closes the LOB streams and readers opened while applying column parameters.
+	 */
+	protected void closeResources() {
+	    for (Closeable closeable : closeables) {
+	        StreamUtil.closeQuietly(closeable);
+	    }
+	    closeables.clear();
+	}
+
 	protected abstract String generateSql(List<ColumnConfig> cols);
 	
-	private void applyColumnParameter(PreparedStatement stmt, int i, ColumnConfig col) throws SQLException, DatabaseException {
+	protected void applyColumnParameter(PreparedStatement stmt, int i, ColumnConfig col) throws SQLException, DatabaseException {
 		if(col.getValue() != null) {
         log.debug("value is string = "+col.getValue());
 		    stmt.setString(i, col.getValue());
@@ -3,6 +3,8 @@ package liquibase.statement.core;
 import liquibase.change.ColumnConfig;
 import liquibase.statement.AbstractSqlStatement;
 
+import java.util.Date;
+
 public class SelectFromDatabaseChangeLogStatement extends AbstractSqlStatement {
 
     private ColumnConfig[] columnsToSelect;
@@ -63,6 +65,29 @@ public class SelectFromDatabaseChangeLogStatement extends AbstractSqlStatement {
 
     }
 
+    /**
+     * Selects the rows with an ORDEREXECUTED above the given value or a DATEEXECUTED at or after the given date, i.e. the rows added or re-run since those values were read.
+     * Either value may be null to not check it.
+     */
+    public static class ByExecutedAfter implements WhereClause {
+
+        private Integer orderExecuted;
+        private Date dateExecuted;
+
+        public ByExecutedAfter(Integer orderExecuted, Date dateExecuted) {
+            this.orderExecuted = orderExecuted;
+            this.dateExecuted = dateExecuted;
+        }
+
+        public Integer getOrderExecuted() {
+            return orderExecuted;
+        }
+
+        public Date getDateExecuted() {
+            return dateExecuted;
+        }
+    }
+
     public static class ByTag implements WhereClause {
 
         private String tagName;
@@ -0,0 +1,88 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+import liquibase.structure.core.DataType;
+
+import java.util.List;
+
+/**
+ * Selects the number of rows and a checksum of the column values of a table, computed by the database.
+ * If a key column is set, only the rows with a key between rangeStart and rangeEnd (inclusive) are read, split into chunks of chunkSize keys.
+ * Each result row has the CHUNK number counted from rangeStart, its ROW_COUNT and ROW_CHECKSUM. Chunks without rows are not returned.
+ * Without a key column the whole table is one chunk, numbered 0.
+ * <p>
+ * Checksums are only comparable between databases of the same type.
+ * The column types, if set, let generators convert each value with a format that does not depend on session settings, and decline
+ * tables with columns they cannot hash.
+ */
+public class TableChecksumStatement extends AbstractSqlStatement {
+
+    private String catalogName;
+    private String schemaName;
+    private String tableName;
+    private List<String> columnNames;
+    private List<DataType> columnTypes;
+    private String keyColumnName;
+    private long rangeStart;
+    private long rangeEnd;
+    private long chunkSize;
+
+    public TableChecksumStatement(String catalogName, String schemaName, String tableName, List<String> columnNames) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.columnNames = columnNames;
+    }
+
+    public TableChecksumStatement(String catalogName, String schemaName, String tableName, List<String> columnNames, String keyColumnName, long rangeStart, long rangeEnd, long chunkSize) {
+        this(catalogName, schemaName, tableName, columnNames);
+        this.keyColumnName = keyColumnName;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.chunkSize = chunkSize;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * The types of the columns, in the order of {@link #getColumnNames()}. The list or single types may be null if they are not known.
+     */
+    public List<DataType> getColumnTypes() {
+        return columnTypes;
+    }
+
+    public TableChecksumStatement setColumnTypes(List<DataType> columnTypes) {
+        this.columnTypes = columnTypes;
+        return this;
+    }
+
+    public String getKeyColumnName() {
+        return keyColumnName;
+    }
+
+    public long getRangeStart() {
+        return rangeStart;
+    }
+
+    public long getRangeEnd() {
+        return rangeEnd;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+}
@@ -102,36 +102,53 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
 
         String[] hashes = DatabaseObjectComparatorFactory.getInstance().hash(example, database);
 
-        SortedSet<Set<DatabaseObject>> objectSets = new TreeSet<Set<DatabaseObject>>(new Comparator<Set<DatabaseObject>>() {
-            @Override
-            public int compare(Set<DatabaseObject> o1, Set<DatabaseObject> o2) {
-                int sizeComparison = Integer.valueOf(o1.size()).compareTo(o2.size());
-                if (sizeComparison == 0) {
-                    return o1.toString().compareTo(o2.toString());
+        //check the smallest (most specific) buckets first. Buckets of the same size are checked in hash order.
+        int lastSize = -1;
+        int lastIndex = -1;
+        while (true) {
+            Set<DatabaseObject> databaseObjects = null;
+            int nextSize = -1;
+            int nextIndex = -1;
+            for (int i = 0; i < hashes.length; i++) {
+                Set<DatabaseObject> bucket = databaseObjectsByHash.get(hashes[i]);
+                if (bucket == null || isDuplicateHash(hashes, i)) {
+                    continue;
+                }
+                int size = bucket.size();
+                boolean afterLast = size > lastSize || (size == lastSize && i > lastIndex);
+                boolean beforeNext = nextIndex < 0 || size < nextSize;
+                if (afterLast && beforeNext) {
+                    databaseObjects = bucket;
+                    nextSize = size;
+                    nextIndex = i;
                 }
-                return sizeComparison;
             }
-        } );
-
-        for (String hash : hashes) {
-            Set<DatabaseObject> databaseObjects = databaseObjectsByHash.get(hash);
-            if (databaseObjects != null) {
-                objectSets.add(databaseObjects);
+            if (databaseObjects == null) {
+                break;
             }
-        }
 
-        for (Set<DatabaseObject> databaseObjects : objectSets) {
             for (DatabaseObject obj : databaseObjects) {
                 if (DatabaseObjectComparatorFactory.getInstance().isSameObject(obj, example, database)) {
                     //noinspection unchecked
                     return (DatabaseObjectType) obj;
                 }
             }
+            lastSize = nextSize;
+            lastIndex = nextIndex;
         }
 
         return null;
     }
 
+    private boolean isDuplicateHash(String[] hashes, int index) {
+        for (int i = 0; i < index; i++) {
+            if (hashes[i].equals(hashes[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns all objects of the given type that are already included in this snapshot.
      */
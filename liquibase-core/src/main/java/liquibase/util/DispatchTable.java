@@ -0,0 +1,97 @@
+package liquibase.util;
+
+import liquibase.database.Database;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches what a factory worked out for a type of object or statement on a type and major version of database, like the generators for it sorted by priority.
+ * Looking up a cached value only reads maps keyed by the classes, without building keys or allocating, so factories can use it for every object or statement they handle.
+ * <p>
+ * The factories {@link #clear()} the table when generators are registered or unregistered. Cached values are shared, so they should not be modified.
+ */
+public class DispatchTable<V> {
+
+    private volatile ConcurrentHashMap<Class<?>, DatabaseEntry<V>> entriesByDatabaseClass = new ConcurrentHashMap<Class<?>, DatabaseEntry<V>>();
+
+    /**
+     * Returns the value cached for the type and database, or null if there is none.
+     */
+    public V get(Class<?> type, Database database) {
+        DatabaseEntry<V> entry = findEntry(entriesByDatabaseClass, getDatabaseClass(database), getMajorVersion(database));
+        if (entry == null) {
+            return null;
+        }
+        return entry.valuesByType.get(type);
+    }
+
+    /**
+     * Caches the value for the type and database. Returns the value that is cached, which is an earlier value if another thread cached one first.
+     */
+    public V put(Class<?> type, Database database, V value) {
+        ConcurrentHashMap<Class<?>, DatabaseEntry<V>> entries = this.entriesByDatabaseClass;
+        Class<?> databaseClass = getDatabaseClass(database);
+        int majorVersion = getMajorVersion(database);
+
+        DatabaseEntry<V> entry = findEntry(entries, databaseClass, majorVersion);
+        if (entry == null) {
+            synchronized (entries) {
+                entry = findEntry(entries, databaseClass, majorVersion);
+                if (entry == null) {
+                    entry = new DatabaseEntry<V>(majorVersion, entries.get(databaseClass));
+                    entries.put(databaseClass, entry);
+                }
+            }
+        }
+
+        V existing = entry.valuesByType.putIfAbsent(type, value);
+        if (existing != null) {
+            return existing;
+        }
+        return value;
+    }
+
+    public void clear() {
+        entriesByDatabaseClass = new ConcurrentHashMap<Class<?>, DatabaseEntry<V>>();
+    }
+
+    private DatabaseEntry<V> findEntry(ConcurrentHashMap<Class<?>, DatabaseEntry<V>> entries, Class<?> databaseClass, int majorVersion) {
+        DatabaseEntry<V> entry = entries.get(databaseClass);
+        while (entry != null && entry.majorVersion != majorVersion) {
+            entry = entry.next;
+        }
+        return entry;
+    }
+
+    private Class<?> getDatabaseClass(Database database) {
+        if (database == null) {
+            return Database.class;
+        }
+        return database.getClass();
+    }
+
+    private int getMajorVersion(Database database) {
+        if (database == null) {
+            return 0;
+        }
+        try {
+            return database.getDatabaseMajorVersion();
+        } catch (Throwable e) {
+            return 0;
+        }
+    }
+
+    /**
+     * The values cached for one major version of a database class. The entries for other versions of the same class are chained through {@link #next}.
+     */
+    private static class DatabaseEntry<V> {
+        private final int majorVersion;
+        private final DatabaseEntry<V> next;
+        private final ConcurrentHashMap<Class<?>, V> valuesByType = new ConcurrentHashMap<Class<?>, V>();
+
+        private DatabaseEntry(int majorVersion, DatabaseEntry<V> next) {
+            this.majorVersion = majorVersion;
+            this.next = next;
+        }
+    }
+}
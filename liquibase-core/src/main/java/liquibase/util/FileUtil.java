@@ -63,4 +63,38 @@ public class FileUtil {
             output.close();
         }
     }
+
+    /**
+     * Returns the position of the last occurrence of the text in the file, or -1 if it is not in the file.
+     * The file is read backwards from the end, so finding text near the end, like a closing tag, does not depend on the size of the file.
+     * The text is compared as ASCII bytes.
+     */
+    public static long lastIndexOf(RandomAccessFile file, String text) throws IOException {
+        byte[] textBytes = text.getBytes("US-ASCII");
+        byte[] buffer = new byte[Math.max(8192, textBytes.length * 2)];
+
+        long end = file.length();
+        while (end >= textBytes.length) {
+            long start = Math.max(0, end - buffer.length);
+            int length = (int) (end - start);
+            file.seek(start);
+            file.readFully(buffer, 0, length);
+
+            for (int i = length - textBytes.length; i >= 0; i--) {
+                int matched = 0;
+                while (matched < textBytes.length && buffer[i + matched] == textBytes[matched]) {
+                    matched++;
+                }
+                if (matched == textBytes.length) {
+                    return start + i;
+                }
+            }
+
+            if (start == 0) {
+                break;
+            }
+            end = start + textBytes.length - 1; //keep enough of this block to find text spanning the blocks
+        }
+        return -1;
+    }
 }
@@ -0,0 +1,165 @@
+package liquibase.util;
+
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.util.grammar.SimpleSqlGrammar;
+import liquibase.util.grammar.SimpleSqlGrammarConstants;
+import liquibase.util.grammar.Token;
+
+import java.io.Closeable;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+
+/**
+ * Splits SQL read from a {@link Reader} into statements the same way as {@link StringUtils#processMutliLineSQL(String, boolean, boolean, String)},
+ * but reads the SQL token by token with {@link SimpleSqlGrammar} and only as far as needed for the next statement.
+ * Only the statement being built is held in memory, so the time and memory used grow linearly with the size of the SQL.
+ * <p>
+ * Closing the splitter closes the reader.
+ */
+public class SqlStatementSplitter implements Iterator<String>, Closeable {
+
+    private final ErrorTrackingReader reader;
+    private final SimpleSqlGrammar grammar;
+    private final boolean stripComments;
+    private final boolean splitStatements;
+    private final Pattern endDelimiterPattern;
+
+    private StringBuilder currentString = new StringBuilder();
+    private String previousPiece = null;
+    private boolean previousDelimiter = false;
+    private boolean finished = false;
+    private String next = null;
+
+    public SqlStatementSplitter(Reader reader, boolean stripComments, boolean splitStatements, String endDelimiter) {
+        this.reader = new ErrorTrackingReader(reader);
+        this.grammar = new SimpleSqlGrammar(this.reader);
+        this.stripComments = stripComments;
+        this.splitStatements = splitStatements;
+        if (endDelimiter == null) {
+            this.endDelimiterPattern = null;
+        } else {
+            this.endDelimiterPattern = Pattern.compile(endDelimiter.replace("\\n", "").replace("\\r", "").toLowerCase());
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            next = readNextStatement();
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String returnString = next;
+        next = null;
+        return returnString;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        currentString = null;
+        reader.close();
+    }
+
+    private String readNextStatement() {
+        while (true) {
+            Token token = grammar.getNextToken();
+            if (token.kind == SimpleSqlGrammarConstants.EOF) {
+                if (reader.error != null) {
+                    throw new UnexpectedLiquibaseException(reader.error);
+                }
+                finished = true;
+                String lastStatement = currentString.toString();
+                currentString = null;
+                if (StringUtils.trimToNull(lastStatement) != null) {
+                    return lastStatement;
+                }
+                return null;
+            }
+
+            String piece;
+            if (token.kind == SimpleSqlGrammarConstants.WHITESPACE) {
+                piece = token.image;
+            } else if (token.kind == SimpleSqlGrammarConstants.LINE_COMMENT || token.kind == SimpleSqlGrammarConstants.MULTI_LINE_COMMENT) {
+                if (stripComments) {
+                    continue;
+                }
+                piece = token.image;
+            } else {
+                piece = token.image.trim();
+            }
+
+            String statement = null;
+            if (splitStatements && isDelimiter(piece)) {
+                statement = StringUtils.trimToNull(currentString.toString());
+                currentString.setLength(0);
+                previousDelimiter = true;
+            } else {
+                boolean blank = StringUtils.trimToNull(piece) == null;
+                if (!previousDelimiter || !blank) { //don't include whitespace after a delimiter
+                    if (currentString.length() > 0 || !blank) { //don't include whitespace before the statement
+                        currentString.append(piece);
+                    }
+                }
+                previousDelimiter = false;
+            }
+            previousPiece = piece;
+
+            if (statement != null) {
+                return statement;
+            }
+        }
+    }
+
+    private boolean isDelimiter(String piece) {
+        if (endDelimiterPattern == null) {
+            return piece.equals(";") || (piece.equalsIgnoreCase("go") && (previousPiece == null || previousPiece.endsWith("\n") || previousPiece.endsWith("\r")));
+        }
+        return endDelimiterPattern.matcher(piece.toLowerCase()).matches();
+    }
+
+    /**
+     * The generated token manager treats any IOException as the end of the input, so read errors are kept here to not silently drop the rest of the SQL.
+     * The token manager closes the reader at the end of the input and may still try to read again after that, which is answered with the end of input instead.
+     */
+    private static class ErrorTrackingReader extends FilterReader {
+        private IOException error;
+        private boolean endOfInput;
+
+        private ErrorTrackingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (endOfInput) {
+                return -1;
+            }
+            try {
+                int read = super.read(cbuf, off, len);
+                if (read < 0) {
+                    endOfInput = true;
+                }
+                return read;
+            } catch (IOException e) {
+                error = e;
+                throw e;
+            }
+        }
+    }
+}
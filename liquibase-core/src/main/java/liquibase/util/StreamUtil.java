@@ -44,6 +44,20 @@ public class StreamUtil {
      */
 	public static String getStreamContents(InputStream ins, String charsetName)
 			throws IOException {
+		return getReaderContents(openReader(ins, charsetName));
+	}
+
+    /**
+     * Creates a reader over the stream that detects a UTF byte order mark, the same way {@link #getStreamContents(InputStream, String)} reads it,
+     * for callers that need to process the contents without reading them into a String first.
+     *
+     * @param ins The InputStream to read.
+     * @param  charsetName The name of a supported {@link java.nio.charset.Charset </code>charset<code>}, or null to use the machines default encoding
+     * @return A reader over the stream
+     * @throws IOException If there is no stream.
+     */
+	public static UtfBomAwareReader openReader(InputStream ins, String charsetName)
+			throws IOException {
 		UtfBomAwareReader reader;
 
         if (ins  == null) {
@@ -67,7 +81,7 @@ public class StreamUtil {
 						+ encoding + "'");
 			}
 		}
-		return getReaderContents(reader);
+		return reader;
 	}
     
     /**
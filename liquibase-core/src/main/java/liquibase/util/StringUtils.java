@@ -1,5 +1,6 @@
 package liquibase.util;
 
+import java.io.StringReader;
 import java.util.*;
 import java.util.regex.Pattern;
 
@@ -33,55 +34,22 @@ public class StringUtils {
     /**
      * Removes any comments from multiple line SQL using {@link #stripComments(String)}
      *  and then extracts each individual statement using {@link #splitSQL(String, String)}.
+     * Use {@link SqlStatementSplitter} directly to read the statements from a stream one at a time.
      * 
      * @param multiLineSQL A String containing all the SQL statements
      * @param stripComments If true then comments will be stripped, if false then they will be left in the code
      */
     public static String[] processMutliLineSQL(String multiLineSQL, boolean stripComments, boolean splitStatements, String endDelimiter) {
 
-        StringClauses parsed = SqlParser.parse(multiLineSQL, true, !stripComments);
-
         List<String> returnArray = new ArrayList<String>();
-
-        String currentString = "";
-        String previousPiece = null;
-        boolean previousDelimiter = false;
-        for (Object piece : parsed.toArray(true)) {
-            if (splitStatements && piece instanceof String && isDelimiter((String) piece, previousPiece, endDelimiter)) {
-                currentString = StringUtils.trimToNull(currentString);
-                if (currentString != null) {
-                    returnArray.add(currentString);
-                }
-                currentString = "";
-                previousDelimiter = true;
-            } else {
-                if (!previousDelimiter || StringUtils.trimToNull((String) piece) != null) { //don't include whitespace after a delimiter
-                    if (!currentString.equals("") || StringUtils.trimToNull((String) piece) != null) { //don't include whitespace before the statement
-                        currentString += piece;
-                    }
-                }
-                previousDelimiter = false;
-            }
-            previousPiece = (String) piece;
-        }
-
-        if (StringUtils.trimToNull(currentString) != null) {
-            returnArray.add(currentString);
+        SqlStatementSplitter splitter = new SqlStatementSplitter(new StringReader(multiLineSQL), stripComments, splitStatements, endDelimiter);
+        while (splitter.hasNext()) {
+            returnArray.add(splitter.next());
         }
 
         return returnArray.toArray(new String[returnArray.size()]);
     }
 
-    protected static boolean isDelimiter(String piece, String previousPiece, String endDelimiter) {
-        if (endDelimiter == null) {
-            return piece.equals(";") || (piece.equalsIgnoreCase("go") && (previousPiece == null || previousPiece.endsWith("\n")));
-        }
-
-        endDelimiter = endDelimiter.replace("\\n", "").replace("\\r", "");
-
-        return piece.toLowerCase().matches(endDelimiter.toLowerCase());
-    }
-
     /**
      * Splits a (possible) multi-line SQL statement along ;'s and "go"'s.
      */
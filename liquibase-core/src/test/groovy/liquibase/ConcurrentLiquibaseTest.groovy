@@ -0,0 +1,147 @@
+package liquibase
+
+import liquibase.change.ChangeFactory
+import liquibase.change.core.CreateTableChange
+import liquibase.changelog.ChangeLogHistoryServiceFactory
+import liquibase.changelog.ChangeSet
+import liquibase.changelog.DatabaseChangeLog
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.executor.ExecutorService
+import liquibase.lockservice.LockServiceFactory
+import liquibase.logging.LogFactory
+import liquibase.logging.core.DefaultLogger
+import liquibase.resource.FileSystemResourceAccessor
+import liquibase.sqlgenerator.SqlGeneratorFactory
+import liquibase.statement.core.CreateTableStatement
+import spock.lang.Specification
+
+import java.sql.DriverManager
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class ConcurrentLiquibaseTest extends Specification {
+
+    def "updates of separate databases can run at the same time"() {
+        when:
+        def directory = File.createTempFile("concurrentliquibase", "")
+        directory.delete()
+        directory.mkdirs()
+        def changeSets = new StringBuilder()
+        for (int i = 0; i < 20; i++) {
+            changeSets.append("""
+    <changeSet id="${i}" author="test">
+        <createTable tableName="table_${i}">
+            <column name="id" type="int"/>
+        </createTable>
+        <insert tableName="table_${i}">
+            <column name="id" valueNumeric="${i}"/>
+        </insert>
+    </changeSet>""")
+        }
+        new File(directory, "changelog.xml").text = """<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+        xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.4.xsd">${changeSets}
+</databaseChangeLog>"""
+        def resourceAccessor = new FileSystemResourceAccessor(directory.absolutePath)
+
+        def connections = (0..<8).collect { DriverManager.getConnection("jdbc:h2:mem:concurrentLiquibase" + it) }
+        def pool = Executors.newFixedThreadPool(connections.size())
+        def start = new CountDownLatch(1)
+        def futures = connections.collect { connection ->
+            pool.submit({
+                start.await()
+                for (int run = 0; run < 2; run++) {
+                    def database = new H2Database()
+                    database.setConnection(new JdbcConnection(connection))
+                    new Liquibase("changelog.xml", resourceAccessor, database).update(new Contexts())
+                }
+                return null
+            } as Callable)
+        }
+        start.countDown()
+        futures*.get(2, TimeUnit.MINUTES)
+        pool.shutdown()
+
+        then:
+        connections.each { connection ->
+            def resultSet = connection.createStatement().executeQuery("select count(*) from DATABASECHANGELOG")
+            resultSet.next()
+            assert resultSet.getInt(1) == 20
+
+            resultSet = connection.createStatement().executeQuery("select count(*) from DATABASECHANGELOGLOCK where LOCKED = true")
+            resultSet.next()
+            assert resultSet.getInt(1) == 0
+
+            resultSet = connection.createStatement().executeQuery("select id from table_19")
+            resultSet.next()
+            assert resultSet.getInt(1) == 19
+        }
+
+        cleanup:
+        connections*.close()
+        new File(directory, "changelog.xml").delete()
+        directory.delete()
+    }
+
+    def "registries return a single instance per key when accessed concurrently"() {
+        when:
+        SqlGeneratorFactory.reset()
+        ChangeFactory.reset()
+        LogFactory.reset()
+        def database = new H2Database()
+        def statement = new CreateTableStatement(null, null, "person")
+
+        def threads = 16
+        def pool = Executors.newFixedThreadPool(threads)
+        def start = new CountDownLatch(1)
+        def futures = (0..<threads).collect {
+            pool.submit({
+                start.await()
+                return [
+                        ExecutorService.getInstance().getExecutor(database),
+                        LockServiceFactory.getInstance().getLockService(database),
+                        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database),
+                        ChangeFactory.getInstance().getChangeMetaData(new CreateTableChange()),
+                        SqlGeneratorFactory.getInstance().getGenerators(statement, database),
+                        LogFactory.getInstance().getLog("concurrentLiquibaseTest")
+                ]
+            } as Callable)
+        }
+        start.countDown()
+        def results = futures*.get(1, TimeUnit.MINUTES)
+        pool.shutdown()
+
+        then:
+        (0..<6).each { index ->
+            assert results.collect { System.identityHashCode(it[index]) }.unique().size() == 1
+        }
+
+        cleanup:
+        ExecutorService.getInstance().clearExecutor(database)
+        LockServiceFactory.getInstance().resetLockService(database)
+        ChangeLogHistoryServiceFactory.getInstance().resetChangeLogService(database)
+    }
+
+    def "logger changelog context is kept per thread"() {
+        when:
+        def logger = new DefaultLogger()
+        def changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+        logger.setChangeLog(changeLog)
+        logger.setChangeSet(new ChangeSet("1", "test", false, false, "com/example/changelog.xml", null, null, changeLog))
+
+        String otherThreadMessage = null
+        def thread = Thread.start { otherThreadMessage = logger.buildMessage("message") }
+        thread.join()
+
+        then:
+        logger.buildMessage("message") == "com/example/changelog.xml: com/example/changelog.xml::1::test: message"
+        otherThreadMessage == "message"
+
+        cleanup:
+        logger.setChangeLog(null)
+        logger.setChangeSet(null)
+    }
+}
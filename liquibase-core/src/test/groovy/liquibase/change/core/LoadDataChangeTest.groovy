@@ -1,13 +1,25 @@
 package liquibase.change.core
 import liquibase.change.ChangeStatus
+import liquibase.change.ColumnConfig
 import liquibase.change.StandardChangeTest
 import liquibase.changelog.ChangeSet
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.core.H2Database
 import liquibase.database.core.MSSQLDatabase
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.MigrationFailedException
+import liquibase.exception.UnexpectedLiquibaseException
+import liquibase.executor.ExecutorService
 import liquibase.parser.core.ParsedNodeException
 import liquibase.resource.ClassLoaderResourceAccessor
+import liquibase.resource.FileSystemResourceAccessor
+import liquibase.sql.visitor.SqlVisitor
+import liquibase.sqlgenerator.SqlGeneratorFactory
 import liquibase.sdk.database.MockDatabase
 import liquibase.snapshot.MockSnapshotGeneratorFactory
 import liquibase.snapshot.SnapshotGeneratorFactory
+import liquibase.statement.BatchedInsertExecutablePreparedStatement
 import liquibase.statement.SqlStatement
 import liquibase.statement.core.InsertSetStatement
 import liquibase.statement.core.InsertStatement
@@ -388,4 +400,265 @@ public class LoadDataChangeTest extends StandardChangeTest {
         then:
         assert md5sum1.equals(md5sum2)
     }
+
+    def "batched loadData streams every row into the table"() {
+        when:
+        def connection = java.sql.DriverManager.getConnection("jdbc:h2:mem:loadDataBatchTest", "sa", "")
+        connection.createStatement().execute("create table table_name (name varchar(50), username varchar(50))")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setLoadDataBatchSize(1)
+
+        LoadDataChange change = new LoadDataChange();
+        change.setTableName("table_name");
+        change.setFile("liquibase/change/core/sample.data1.csv");
+        change.setResourceAccessor(new ClassLoaderResourceAccessor());
+
+        SqlStatement[] statements = change.generateStatements(database)
+
+        then:
+        statements.length == 1
+        statements[0] instanceof BatchedInsertExecutablePreparedStatement
+        ((BatchedInsertExecutablePreparedStatement) statements[0]).batchSize == 1
+
+        when:
+        ExecutorService.getInstance().getExecutor(database).execute(statements[0])
+        def resultSet = connection.createStatement().executeQuery("select name, username from table_name order by username")
+
+        then:
+        resultSet.next()
+        resultSet.getString(1) == "Bob Johnson"
+        resultSet.getString(2) == "bjohnson"
+        resultSet.next()
+        resultSet.getString(1) == "John Doe"
+        resultSet.getString(2) == "jdoe"
+        !resultSet.next()
+
+        cleanup:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setLoadDataBatchSize(0)
+        ExecutorService.getInstance().clearExecutor(database)
+        connection?.close()
+    }
+
+    @Unroll("#featureName: #database.shortName")
+    def "statement iterator generates the same SQL as generateStatements"() {
+        when:
+        def directory = File.createTempFile("loadDataIteratorTest", "")
+        directory.delete()
+        directory.mkdirs()
+        def csv = new StringBuilder("id,name\n")
+        for (int i = 0; i < 120; i++) {
+            csv.append(i).append(",name ").append(i).append("\n")
+        }
+        new File(directory, "data.csv").text = csv.toString()
+
+        LoadDataChange change = new LoadDataChange();
+        change.setTableName("table_name");
+        change.setFile("data.csv");
+        change.setResourceAccessor(new FileSystemResourceAccessor(directory.absolutePath));
+
+        def expectedSql = change.generateStatements(database).collect { SqlGeneratorFactory.getInstance().generateSql(it, database)*.toSql() }.flatten()
+        def iteratedStatements = change.generateStatementIterator(database).collect { it }
+        def iteratedSql = iteratedStatements.collect { SqlGeneratorFactory.getInstance().generateSql(it, database)*.toSql() }.flatten()
+
+        then:
+        iteratedSql == expectedSql
+        iteratedStatements.size() == statementCount
+
+        cleanup:
+        new File(directory, "data.csv").delete()
+        directory.delete()
+
+        where:
+        database            | statementCount
+        new MSSQLDatabase() | 3
+        new H2Database()    | 120
+    }
+
+    def "executing a loadData change reads the file while inserting"() {
+        when:
+        def connection = java.sql.DriverManager.getConnection("jdbc:h2:mem:loadDataIteratorTest", "sa", "")
+        connection.createStatement().execute("create table table_name (name varchar(50), username varchar(50))")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+
+        LoadDataChange change = new LoadDataChange();
+        change.setTableName("table_name");
+        change.setFile("liquibase/change/core/sample.data1.csv");
+        change.setResourceAccessor(new ClassLoaderResourceAccessor());
+        database.executeStatements(change, null, new ArrayList<SqlVisitor>())
+        def resultSet = connection.createStatement().executeQuery("select count(*) from table_name")
+        resultSet.next()
+
+        then:
+        resultSet.getInt(1) == 2
+
+        cleanup:
+        ExecutorService.getInstance().clearExecutor(database)
+        connection?.close()
+    }
+
+    @Unroll("#featureName: batch size #batchSize")
+    def "a missing data file is skipped when failOnError is false"() {
+        when:
+        def connection = java.sql.DriverManager.getConnection("jdbc:h2:mem:loadDataFailOnErrorTest", "sa", "")
+        connection.createStatement().execute("create table table_name (id int, name varchar(50))")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setLoadDataBatchSize(batchSize)
+
+        def changeSet = new ChangeSet("1", "test", false, false, "path", null, null, null)
+        changeSet.setFailOnError(false)
+        LoadDataChange change = new LoadDataChange();
+        change.setTableName("table_name");
+        change.setFile("missing.csv");
+        change.setChangeSet(changeSet)
+        change.setResourceAccessor(new ClassLoaderResourceAccessor());
+        database.executeStatements(change, null, new ArrayList<SqlVisitor>())
+        def resultSet = connection.createStatement().executeQuery("select count(*) from table_name")
+        resultSet.next()
+
+        then:
+        resultSet.getInt(1) == 0
+
+        cleanup:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setLoadDataBatchSize(0)
+        ExecutorService.getInstance().clearExecutor(database)
+        connection?.close()
+
+        where:
+        batchSize << [0, 1]
+    }
+
+    @Unroll("#featureName: batch size #batchSize, failOnError #failOnError")
+    def "a short row fails the change set and the rows already inserted are rolled back"() {
+        when:
+        def directory = File.createTempFile("loadDataShortRowTest", "")
+        directory.delete()
+        directory.mkdirs()
+        new File(directory, "data.csv").text = "id,name\n1,first\n2,second\n3\n4,fourth\n"
+        def connection = java.sql.DriverManager.getConnection("jdbc:h2:mem:loadDataShortRowTest", "sa", "")
+        connection.createStatement().execute("create table table_name (id int, name varchar(50))")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setLoadDataBatchSize(batchSize)
+
+        def changeSet = new ChangeSet("1", "test", false, false, "path", null, null, null)
+        changeSet.setFailOnError(failOnError)
+        LoadDataChange change = new LoadDataChange();
+        change.setTableName("table_name");
+        change.setFile("data.csv");
+        change.setResourceAccessor(new FileSystemResourceAccessor(directory.absolutePath));
+        changeSet.addChange(change)
+
+        def execType = null
+        def exception = null
+        try {
+            execType = changeSet.execute(null, database)
+        } catch (MigrationFailedException e) {
+            exception = e
+        }
+        def resultSet = connection.createStatement().executeQuery("select count(*) from table_name")
+        resultSet.next()
+
+        then:
+        resultSet.getInt(1) == 0
+        failOnError ? exception != null : execType == ChangeSet.ExecType.FAILED
+
+        cleanup:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setLoadDataBatchSize(0)
+        ExecutorService.getInstance().clearExecutor(database)
+        connection?.close()
+        new File(directory, "data.csv").delete()
+        directory.delete()
+
+        where:
+        batchSize | failOnError
+        0         | false
+        1         | false
+        1         | true
+    }
+
+    def "batched rows bind untyped values with the column types of the table"() {
+        setup:
+        def columnTypes = new TreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER)
+        columnTypes.putAll([id: java.sql.Types.INTEGER, name: java.sql.Types.VARCHAR, created: java.sql.Types.DATE])
+        def statement = new BatchedInsertExecutablePreparedStatement(new H2Database(), null, null, "table_name", [], columnTypes, 1, 0, null, null)
+        def preparedStatement = Mock(java.sql.PreparedStatement)
+
+        when:
+        statement.applyColumnParameter(preparedStatement, 1, new ColumnConfig().setName("ID").setValue("1"))
+        statement.applyColumnParameter(preparedStatement, 2, new ColumnConfig().setName("name").setValue("first"))
+        statement.applyColumnParameter(preparedStatement, 3, new ColumnConfig().setName("created").setValue(null))
+        statement.applyColumnParameter(preparedStatement, 4, new ColumnConfig().setName("other").setValue(null))
+
+        then:
+        1 * preparedStatement.setObject(1, "1", java.sql.Types.INTEGER)
+        1 * preparedStatement.setString(2, "first")
+        1 * preparedStatement.setNull(3, java.sql.Types.DATE)
+        1 * preparedStatement.setNull(4, java.sql.Types.NULL)
+    }
+
+    def "batched loadData inserts untyped values into typed columns"() {
+        when:
+        def directory = File.createTempFile("loadDataTypedTest", "")
+        directory.delete()
+        directory.mkdirs()
+        new File(directory, "data.csv").text = "id,name,created\n1,first,2015-06-01\n2,NULL,NULL\n"
+        def connection = java.sql.DriverManager.getConnection("jdbc:h2:mem:loadDataTypedTest", "sa", "")
+        connection.createStatement().execute("create table table_name (id int, name varchar(50), created date)")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setLoadDataBatchSize(10)
+
+        LoadDataChange change = new LoadDataChange();
+        change.setTableName("table_name");
+        change.setFile("data.csv");
+        change.setResourceAccessor(new FileSystemResourceAccessor(directory.absolutePath));
+        def statements = change.generateStatements(database)
+        ExecutorService.getInstance().getExecutor(database).execute(statements[0])
+        def resultSet = connection.createStatement().executeQuery("select id, name, created from table_name order by id")
+
+        then:
+        statements[0] instanceof BatchedInsertExecutablePreparedStatement
+        resultSet.next()
+        resultSet.getInt(1) == 1
+        resultSet.getString(2) == "first"
+        resultSet.getDate(3).toString() == "2015-06-01"
+        resultSet.next()
+        resultSet.getInt(1) == 2
+        resultSet.getString(2) == null
+        resultSet.getDate(3) == null
+        !resultSet.next()
+
+        cleanup:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setLoadDataBatchSize(0)
+        ExecutorService.getInstance().clearExecutor(database)
+        connection?.close()
+        new File(directory, "data.csv").delete()
+        directory.delete()
+    }
+
+    def "loadData is not batched when the column types of the table are unknown"() {
+        when:
+        def connection = java.sql.DriverManager.getConnection("jdbc:h2:mem:loadDataUnknownTypesTest", "sa", "")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setLoadDataBatchSize(1)
+
+        LoadDataChange change = new LoadDataChange();
+        change.setTableName("missing_table");
+        change.setFile("liquibase/change/core/sample.data1.csv");
+        change.setResourceAccessor(new ClassLoaderResourceAccessor());
+        SqlStatement[] statements = change.generateStatements(database)
+
+        then:
+        statements.length > 0
+        !statements.any { it instanceof BatchedInsertExecutablePreparedStatement }
+
+        cleanup:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setLoadDataBatchSize(0)
+        ExecutorService.getInstance().clearExecutor(database)
+        connection?.close()
+    }
 }
@@ -81,6 +81,28 @@ public class SQLFileChangeTest extends StandardChangeTest {
         assertEquals("create prfx_customer (nofx INTEGER NOT NULL, PRIMARY KEY (nofx));", change.getSql());
     }
 
+    def "statements are read from the file one at a time with changelog parameters expanded"() {
+        when:
+        def change = new SQLFileChange()
+        change.path = "com/example/large.sql"
+        change.resourceAccessor = new MockResourceAccessor(["com/example/large.sql": "create table \${prefix}_a (id int);\r\n-- comment\r\ninsert into \${prefix}_a values (1);\r\n\r\n"])
+        def changeLogParameters = new ChangeLogParameters()
+        changeLogParameters.set("prefix", "prfx")
+        def changeSet = new ChangeSet("x", "y", true, true, null, null, null, null)
+        changeSet.setChangeLogParameters(changeLogParameters)
+        change.setChangeSet(changeSet)
+        change.setStripComments(true)
+
+        def iterator = change.generateStatementIterator(new MockDatabase())
+        def first = iterator.next().sql
+
+        then:
+        first == "create table prfx_a (id int)"
+        iterator.next().sql == "insert into prfx_a values (1)"
+        !iterator.hasNext()
+        change.generateStatements(new MockDatabase())*.sql == [first, "insert into prfx_a values (1)"]
+    }
+
     def "checkStatus"() {
         when:
         def database = new MockDatabase()
@@ -78,6 +78,29 @@ public class ChangeSetTest extends Specification {
         assert !md5Sum1.equals(md5Sum2);
     }
 
+    def "generateCheckSum is reused until changes are added"() {
+        when:
+        def changeSet = new ChangeSet("testId", "testAuthor", false, false, null, null, null, null)
+        changeSet.addChange(new CreateTableChange(tableName: "table1"))
+        def first = changeSet.generateCheckSum()
+
+        then:
+        changeSet.generateCheckSum().is(first)
+
+        when:
+        changeSet.addChange(new DropTableChange(tableName: "table2"))
+
+        then:
+        changeSet.generateCheckSum() != first
+
+        when:
+        def withVisitor = changeSet.generateCheckSum()
+        changeSet.addSqlVisitor(new ReplaceSqlVisitor(replace: "a", with: "b"))
+
+        then:
+        changeSet.generateCheckSum() != withVisitor
+    }
+
     def isCheckSumValid_validCheckSum() {
         when:
         def changeSet = new ChangeSet("1", "2", false, false, "/test.xml", null, null, null);
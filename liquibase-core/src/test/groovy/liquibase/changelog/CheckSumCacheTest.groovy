@@ -0,0 +1,101 @@
+package liquibase.changelog
+
+import liquibase.change.CheckSum
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.parser.core.xml.XMLChangeLogSAXParser
+import liquibase.resource.FileSystemResourceAccessor
+import spock.lang.Specification
+
+class CheckSumCacheTest extends Specification {
+
+    File dir
+    File cacheFile
+
+    def setup() {
+        dir = File.createTempFile("checksumcache", "")
+        dir.delete()
+        dir.mkdirs()
+        cacheFile = new File(dir, "checksums.properties")
+        CheckSumCache.reset()
+        LiquibaseConfiguration.instance.getConfiguration(GlobalConfiguration).setCheckSumCacheFile(cacheFile.absolutePath)
+    }
+
+    def cleanup() {
+        LiquibaseConfiguration.instance.getConfiguration(GlobalConfiguration).setCheckSumCacheFile(null)
+        CheckSumCache.reset()
+        dir.deleteDir()
+    }
+
+    def "cached checksum is used until the changelog file changes"() {
+        when:
+        def changeLogFile = writeChangeLog("person")
+        def realCheckSum = parse().changeSets[0].generateCheckSum()
+        CheckSumCache.instance.save()
+
+        then:
+        cacheFile.exists()
+
+        when: "the cache entry is replaced, it is used instead of computing the checksum"
+        def properties = new Properties()
+        cacheFile.withInputStream { properties.load(it) }
+        def key = properties.stringPropertyNames().iterator().next()
+        properties.setProperty(key, properties.getProperty(key).replace(realCheckSum.toString(), "7:cached"))
+        cacheFile.withOutputStream { properties.store(it, null) }
+        CheckSumCache.reset()
+
+        then:
+        parse().changeSets[0].generateCheckSum() == CheckSum.parse("7:cached")
+
+        when: "the changelog file is modified"
+        writeChangeLog("address")
+        changeLogFile.setLastModified(changeLogFile.lastModified() + 2000)
+
+        then:
+        parse().changeSets[0].generateCheckSum() != CheckSum.parse("7:cached")
+    }
+
+    def "changelog parameters used by a changeSet are part of the cache key"() {
+        when:
+        writeChangeLog('${tableName}')
+        def parameters = new ChangeLogParameters()
+        parameters.set("tableName", "person")
+        def personCheckSum = parse(parameters).changeSets[0].generateCheckSum()
+
+        parameters = new ChangeLogParameters()
+        parameters.set("tableName", "address")
+        def addressCheckSum = parse(parameters).changeSets[0].generateCheckSum()
+
+        then:
+        personCheckSum != addressCheckSum
+    }
+
+    def "nothing is cached without a cache file"() {
+        when:
+        LiquibaseConfiguration.instance.getConfiguration(GlobalConfiguration).setCheckSumCacheFile(null)
+        writeChangeLog("person")
+        parse().changeSets[0].generateCheckSum()
+        CheckSumCache.instance.save()
+
+        then:
+        !cacheFile.exists()
+    }
+
+    private File writeChangeLog(String tableName) {
+        def file = new File(dir, "changelog.xml")
+        file.text = """<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+        xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.4.xsd">
+    <changeSet id="1" author="test">
+        <createTable tableName="${tableName}">
+            <column name="id" type="int"/>
+        </createTable>
+    </changeSet>
+</databaseChangeLog>"""
+        return file
+    }
+
+    private DatabaseChangeLog parse(ChangeLogParameters parameters = new ChangeLogParameters()) {
+        return new XMLChangeLogSAXParser().parse("changelog.xml", parameters, new FileSystemResourceAccessor(dir.absolutePath))
+    }
+}
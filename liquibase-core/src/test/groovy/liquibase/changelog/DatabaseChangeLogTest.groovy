@@ -3,7 +3,9 @@ package liquibase.changelog
 import liquibase.ContextExpression;
 import liquibase.change.core.CreateTableChange
 import liquibase.change.core.RawSQLChange
+import liquibase.configuration.LiquibaseConfiguration
 import liquibase.exception.SetupException
+import liquibase.parser.ChangeLogParserCofiguration
 import liquibase.parser.core.ParsedNode
 import liquibase.precondition.core.OrPrecondition
 import liquibase.precondition.core.PreconditionContainer
@@ -88,6 +90,32 @@ create view sql_view as select * from sql_table;'''
         changeLog.getChangeSet(path, "auth", "with-dbms-and-context") == null
     }
 
+    def "getChangeSet ignores case and classpath prefix and sees changeSets added after a lookup"() {
+        def path = "com/example/path.xml"
+        when:
+        def changeLog = new DatabaseChangeLog(path)
+        changeLog.setIgnoreClasspathPrefix(true)
+        changeLog.addChangeSet(new ChangeSet("1", "auth", false, false, "classpath:" + path, null, null, changeLog))
+
+        then:
+        changeLog.getChangeSet(path, "AUTH", "1").id == "1"
+        changeLog.getChangeSet("COM/example/path.xml", "auth", "1").id == "1"
+        changeLog.getChangeSet(path, "auth", "2") == null
+
+        when:
+        changeLog.addChangeSet(new ChangeSet("2", "auth", false, false, path, null, null, changeLog))
+
+        then:
+        changeLog.getChangeSet(path, "auth", "2").id == "2"
+
+        when: "classpath prefix is no longer ignored"
+        changeLog.setIgnoreClasspathPrefix(false)
+
+        then:
+        changeLog.getChangeSet(path, "auth", "1") == null
+        changeLog.getChangeSet("classpath:" + path, "auth", "1").id == "1"
+    }
+
     def "load handles both changes and preconditions"() {
         when:
         def children = [
@@ -210,6 +238,29 @@ create view sql_view as select * from sql_table;'''
                                                              "com/example/children/file3.sql"]
     }
 
+    def "included files read concurrently keep their order and parameters"() {
+        when:
+        LiquibaseConfiguration.instance.getConfiguration(ChangeLogParserCofiguration).setIncludeParseThreads(4)
+        def files = [:]
+        files["com/example/children/file0.xml"] = test1Xml.replace('<preConditions>', '<property name="tableName" value="from_file0"/><preConditions>')
+        (1..9).each { files["com/example/children/file" + it + ".xml"] = test1Xml.replace("person", it == 5 ? '${tableName}' : "person" + it) }
+        def resourceAccessor = new MockResourceAccessor(files)
+
+        def rootChangeLog = new DatabaseChangeLog("com/example/root.xml")
+        rootChangeLog.setChangeLogParameters(new ChangeLogParameters())
+        rootChangeLog.load(new ParsedNode(null, "databaseChangeLog")
+                .addChildren([include: [file: "com/example/children/file9.xml"]])
+                .addChildren([includeAll: [path: "com/example/children"]])
+                , resourceAccessor)
+
+        then:
+        rootChangeLog.changeSets.collect { it.filePath } == ["com/example/children/file9.xml"] + (0..9).collect { "com/example/children/file" + it + ".xml" }
+        rootChangeLog.changeSets.collect { ((CreateTableChange) it.changes[0]).tableName } == ["person9", "person", "person1", "person2", "person3", "person4", "from_file0", "person6", "person7", "person8", "person9"]
+
+        cleanup:
+        LiquibaseConfiguration.instance.getConfiguration(ChangeLogParserCofiguration).setIncludeParseThreads(1)
+    }
+
     @Unroll("#featureName: #changeSets")
     def "addChangeSet works with first/last combinations"() {
         when:
@@ -0,0 +1,172 @@
+package liquibase.changelog
+
+import liquibase.Liquibase
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.resource.FileSystemResourceAccessor
+import liquibase.test.H2Specification
+
+class StandardChangeLogHistoryServiceTest extends H2Specification {
+
+    File dir
+
+    def setup() {
+        dir = File.createTempFile("historybatch", "")
+        dir.delete()
+        dir.mkdirs()
+    }
+
+    def cleanup() {
+        LiquibaseConfiguration.instance.getConfiguration(GlobalConfiguration).setChangeLogHistoryBatchSize(1)
+        ChangeLogHistoryServiceFactory.instance.resetAll()
+        dir.deleteDir()
+    }
+
+    def "queued history is only written once flushed or the batch is full"() {
+        when:
+        LiquibaseConfiguration.instance.getConfiguration(GlobalConfiguration).setChangeLogHistoryBatchSize(3)
+        def service = ChangeLogHistoryServiceFactory.instance.getChangeLogService(database)
+        service.init()
+        service.queueExecType(new ChangeSet("1", "test", false, false, "changelog.xml", null, null, null), ChangeSet.ExecType.EXECUTED)
+        service.queueExecType(new ChangeSet("2", "test", false, false, "changelog.xml", null, null, null), ChangeSet.ExecType.EXECUTED)
+
+        then:
+        historyIds() == []
+        service.getRanChangeSets()*.id == ["1", "2"]
+
+        when:
+        service.flushExecTypes()
+
+        then:
+        historyIds() == ["1", "2"]
+
+        when:
+        (3..5).each { service.queueExecType(new ChangeSet(it.toString(), "test", false, false, "changelog.xml", null, null, null), ChangeSet.ExecType.EXECUTED) }
+
+        then:
+        historyIds() == ["1", "2", "3", "4", "5"]
+    }
+
+    def "changeLogSync writes every row in order with batching enabled"() {
+        when:
+        LiquibaseConfiguration.instance.getConfiguration(GlobalConfiguration).setChangeLogHistoryBatchSize(2)
+        writeChangeLog((1..5).collect { changeSet(it.toString(), true) }.join("\n"))
+        new Liquibase("changelog.xml", new FileSystemResourceAccessor(dir.absolutePath), database).changeLogSync("")
+
+        then:
+        historyIds() == ["1", "2", "3", "4", "5"]
+        tableNames() == []
+    }
+
+    def "update writes the history of every changeSet with batching enabled"() {
+        when:
+        LiquibaseConfiguration.instance.getConfiguration(GlobalConfiguration).setChangeLogHistoryBatchSize(10)
+        writeChangeLog([changeSet("1", false), changeSet("2", false), changeSet("3", true), changeSet("4", false)].join("\n"))
+        new Liquibase("changelog.xml", new FileSystemResourceAccessor(dir.absolutePath), database).update("")
+
+        then:
+        historyIds() == ["1", "2", "3", "4"]
+        tableNames() == ["TABLE_1", "TABLE_2", "TABLE_3", "TABLE_4"]
+    }
+
+    def "ran changeSets are read from the history table"() {
+        when:
+        writeChangeLog((1..3).collect { changeSet(it.toString(), true) }.join("\n"))
+        new Liquibase("changelog.xml", new FileSystemResourceAccessor(dir.absolutePath), database).update("")
+        ChangeLogHistoryServiceFactory.instance.resetAll()
+        def ranChangeSets = ChangeLogHistoryServiceFactory.instance.getChangeLogService(database).getRanChangeSets()
+
+        then:
+        ranChangeSets*.id == ["1", "2", "3"]
+        ranChangeSets*.orderExecuted == [1, 2, 3]
+        ranChangeSets.every { it.changeLog == "changelog.xml" && it.author == "test" && it.execType == ChangeSet.ExecType.EXECUTED }
+        ranChangeSets.every { it.dateExecuted != null && it.lastCheckSum != null && it.description == "createTable tableName=table_" + it.id }
+    }
+
+    def "null checksums are upgraded without reading the history again"() {
+        when:
+        writeChangeLog((1..3).collect { changeSet(it.toString(), true) }.join("\n"))
+        def liquibase = new Liquibase("changelog.xml", new FileSystemResourceAccessor(dir.absolutePath), database)
+        liquibase.update("")
+        connection.createStatement().execute("update databasechangelog set md5sum = null")
+        ChangeLogHistoryServiceFactory.instance.resetAll()
+        def service = ChangeLogHistoryServiceFactory.instance.getChangeLogService(database)
+        service.init()
+        def before = new ArrayList(service.getRanChangeSets())
+        def checkSumsBefore = before*.lastCheckSum
+        service.upgradeChecksums(liquibase.getDatabaseChangeLog(), new liquibase.Contexts(), new liquibase.LabelExpression())
+        def after = service.getRanChangeSets()
+
+        then:
+        checkSumsBefore == [null, null, null]
+        (0..2).every { after[it].is(before[it]) }
+        after.every { it.lastCheckSum != null }
+        checkSums().every { it != null }
+    }
+
+    def "initializing again reads rows added or re-run since the last read"() {
+        when:
+        writeChangeLog((1..3).collect { changeSet(it.toString(), true) }.join("\n"))
+        new Liquibase("changelog.xml", new FileSystemResourceAccessor(dir.absolutePath), database).update("")
+        ChangeLogHistoryServiceFactory.instance.resetAll()
+        def service = ChangeLogHistoryServiceFactory.instance.getChangeLogService(database)
+        service.init()
+        def before = new ArrayList(service.getRanChangeSets())
+
+        connection.createStatement().execute("insert into databasechangelog (id, author, filename, dateexecuted, orderexecuted, exectype) values ('4', 'other', 'changelog.xml', dateadd('SECOND', 10, current_timestamp), 4, 'EXECUTED')")
+        connection.createStatement().execute("update databasechangelog set dateexecuted = dateadd('SECOND', 20, current_timestamp), exectype = 'RERAN' where id = '1'")
+        service.init()
+        def after = service.getRanChangeSets()
+
+        then:
+        before*.id == ["1", "2", "3"]
+        after*.id == ["2", "3", "4", "1"]
+        after[1].orderExecuted == 3
+        after[3].execType == ChangeSet.ExecType.RERAN
+        service.getRanChangeSet(new ChangeSet("4", "OTHER", false, false, "classpath:changelog.xml", null, null, null)).id == "4"
+        service.getNextSequenceValue() == 5
+    }
+
+    private List<String> checkSums() {
+        def resultSet = connection.createStatement().executeQuery("select md5sum from databasechangelog order by orderexecuted")
+        def checkSums = []
+        while (resultSet.next()) {
+            checkSums.add(resultSet.getString(1))
+        }
+        return checkSums
+    }
+
+    private List<String> historyIds() {
+        def resultSet = connection.createStatement().executeQuery("select id from databasechangelog order by orderexecuted")
+        def ids = []
+        while (resultSet.next()) {
+            ids.add(resultSet.getString(1))
+        }
+        return ids
+    }
+
+    private List<String> tableNames() {
+        def resultSet = connection.createStatement().executeQuery("select table_name from information_schema.tables where table_schema = 'PUBLIC' and table_name like 'TABLE%' order by table_name")
+        def names = []
+        while (resultSet.next()) {
+            names.add(resultSet.getString(1))
+        }
+        return names
+    }
+
+    private String changeSet(String id, boolean runInTransaction) {
+        return """    <changeSet id="${id}" author="test" runInTransaction="${runInTransaction}">
+        <createTable tableName="table_${id}">
+            <column name="id" type="int"/>
+        </createTable>
+    </changeSet>"""
+    }
+
+    private void writeChangeLog(String changeSets) {
+        new File(dir, "changelog.xml").text = """<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+        xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.4.xsd">
+${changeSets}
+</databaseChangeLog>"""
+    }
+}
@@ -83,6 +83,85 @@ public class ShouldRunChangeSetFilterTest extends Specification {
         assertFalse(filter.accepts(changeSet).isAccepted());
     }
 
+    public void does_NOT_accept_changeset_with_different_path_case() throws DatabaseException {
+        when:
+        given_a_database_with_two_executed_changesets();
+        ChangeSet changeSet = new ChangeSet("1", "testAuthor", false, false, "PATH/Changelog", null, null, null);
+
+        ShouldRunChangeSetFilter filter = new ShouldRunChangeSetFilter(database, true);
+
+        then:
+        assertFalse(filter.accepts(changeSet).isAccepted());
+    }
+
+    public void accepts_changeset_with_different_author_case() throws DatabaseException {
+        when:
+        given_a_database_with_two_executed_changesets();
+        ChangeSet changeSet = new ChangeSet("1", "TESTAUTHOR", false, false, "path/changelog", null, null, null);
+
+        ShouldRunChangeSetFilter filter = new ShouldRunChangeSetFilter(database, true);
+
+        then:
+        assertTrue(filter.accepts(changeSet).isAccepted());
+    }
+
+    public void accepts_changeset_with_different_id_case() throws DatabaseException {
+        when:
+        RanChangeSet ranChangeSet = new RanChangeSet("path/changelog", "create-table", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null, null, null, null);
+        mock_database([ranChangeSet]);
+        ChangeSet changeSet = new ChangeSet("CREATE-TABLE", "testAuthor", false, false, "path/changelog", null, null, null);
+
+        ShouldRunChangeSetFilter filter = new ShouldRunChangeSetFilter(database, true);
+
+        then:
+        assertTrue(filter.accepts(changeSet).isAccepted());
+        assertFalse(filter.accepts(new ChangeSet("create-table", "testAuthor", false, false, "path/changelog", null, null, null)).isAccepted());
+    }
+
+    public void does_NOT_accept_changeset_with_different_path_case_in_turkish_locale() throws DatabaseException {
+        when:
+        Locale defaultLocale = Locale.getDefault();
+        boolean accepted;
+        try {
+            Locale.setDefault(new Locale("tr", "TR"));
+            RanChangeSet ranChangeSet = new RanChangeSet("db/INIT.xml", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null, null, null, null);
+            mock_database([ranChangeSet]);
+            ShouldRunChangeSetFilter filter = new ShouldRunChangeSetFilter(database, true);
+            accepted = filter.accepts(new ChangeSet("1", "testAuthor", false, false, "db/init.xml", null, null, null)).isAccepted();
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        then:
+        assertFalse(accepted);
+    }
+
+    public void uses_overridden_id_and_author_comparison() throws DatabaseException {
+        when:
+        given_a_database_with_two_executed_changesets();
+
+        ShouldRunChangeSetFilter filter = new ShouldRunChangeSetFilter(database, true) {
+            @Override
+            protected boolean supportsKeyLookup() {
+                return false;
+            }
+
+            @Override
+            protected boolean idsAreEqual(ChangeSet changeSet, RanChangeSet ranChangeSet) {
+                return ranChangeSet.getId().equalsIgnoreCase(changeSet.getId().replaceFirst("^v", ""));
+            }
+
+            @Override
+            protected boolean authorsAreEqual(ChangeSet changeSet, RanChangeSet ranChangeSet) {
+                return ranChangeSet.getAuthor().equalsIgnoreCase(changeSet.getAuthor());
+            }
+        };
+
+        then:
+        assertFalse(filter.accepts(new ChangeSet("v1", "TESTAUTHOR", false, false, "path/changelog", null, null, null)).isAccepted());
+        assertTrue(filter.accepts(new ChangeSet("v3", "TESTAUTHOR", false, false, "path/changelog", null, null, null)).isAccepted());
+    }
+
 //    public void should_decline_not_changed_changeset_when_has_run_on_change() throws DatabaseException {
 //        when:
 //        given_a_database_with_one_twice_executed_changeset();
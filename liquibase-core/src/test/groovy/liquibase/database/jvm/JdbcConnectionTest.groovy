@@ -0,0 +1,106 @@
+package liquibase.database.jvm
+
+import liquibase.database.core.H2Database
+import liquibase.exception.DatabaseException
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DatabaseMetaData
+import java.sql.SQLException
+
+class JdbcConnectionTest extends Specification {
+
+    def "server info is read from the driver once per connection"() {
+        given:
+        def metaData = Mock(DatabaseMetaData)
+        def connection = Mock(Connection)
+        def jdbcConnection = new JdbcConnection(connection)
+
+        when:
+        def database = new H2Database()
+        database.setConnection(jdbcConnection)
+        3.times {
+            assert jdbcConnection.databaseProductName == "H2"
+            assert jdbcConnection.databaseProductVersion == "1.4.190"
+            assert jdbcConnection.databaseMajorVersion == 1
+            assert jdbcConnection.databaseMinorVersion == 4
+            assert jdbcConnection.URL == "jdbc:h2:mem:test"
+            assert jdbcConnection.catalog == "TEST"
+            assert database.caseSensitive
+        }
+
+        then:
+        1 * connection.getMetaData() >> metaData
+        1 * connection.getCatalog() >> "TEST"
+        1 * metaData.getDatabaseProductName() >> "H2"
+        1 * metaData.getDatabaseProductVersion() >> "1.4.190"
+        1 * metaData.getDatabaseMajorVersion() >> 1
+        1 * metaData.getDatabaseMinorVersion() >> 4
+        1 * metaData.getURL() >> "jdbc:h2:mem:test"
+        1 * metaData.getUserName() >> "sa"
+        1 * metaData.getSQLKeywords() >> "LIMIT,minus"
+        1 * metaData.supportsMixedCaseIdentifiers() >> true
+        database.isReservedWord("minus")
+    }
+
+    def "values the driver fails to return do not keep the others from being read"() {
+        given:
+        def metaData = Mock(DatabaseMetaData)
+        def connection = Mock(Connection)
+        connection.getMetaData() >> metaData
+        def jdbcConnection = new JdbcConnection(connection)
+
+        when:
+        jdbcConnection.databaseMajorVersion
+
+        then:
+        1 * metaData.getDatabaseMajorVersion() >> { throw new SQLException("connection reset") }
+        thrown(DatabaseException)
+
+        when: "the value is asked for again"
+        def majorVersion = jdbcConnection.databaseMajorVersion
+
+        then:
+        1 * metaData.getDatabaseMajorVersion() >> 9
+        majorVersion == 9
+
+        when: "the driver does not support the call"
+        jdbcConnection.databaseMinorVersion
+
+        then:
+        1 * metaData.getDatabaseMinorVersion() >> { throw new UnsupportedOperationException() }
+        thrown(UnsupportedOperationException)
+
+        when:
+        jdbcConnection.databaseMinorVersion
+
+        then:
+        0 * metaData.getDatabaseMinorVersion()
+        thrown(UnsupportedOperationException)
+
+        when:
+        def productName = jdbcConnection.databaseProductName
+
+        then:
+        1 * metaData.getDatabaseProductName() >> "H2"
+        productName == "H2"
+    }
+
+    def "setting the catalog reads the server info again"() {
+        given:
+        def metaData = Mock(DatabaseMetaData)
+        def connection = Mock(Connection)
+        connection.getMetaData() >> metaData
+        def jdbcConnection = new JdbcConnection(connection)
+
+        when:
+        def before = jdbcConnection.catalog
+        jdbcConnection.setCatalog("OTHER")
+        def after = jdbcConnection.catalog
+
+        then:
+        2 * connection.getCatalog() >>> ["TEST", "OTHER"]
+        before == "TEST"
+        after == "OTHER"
+    }
+}
@@ -0,0 +1,183 @@
+package liquibase.diff.core
+
+import liquibase.change.core.DeleteDataChange
+import liquibase.change.core.InsertDataChange
+import liquibase.change.core.UpdateDataChange
+import liquibase.database.Database
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.diff.DataDifferences
+import liquibase.diff.DiffGeneratorFactory
+import liquibase.diff.compare.CompareControl
+import liquibase.diff.output.DiffOutputControl
+import liquibase.diff.output.changelog.DiffToChangeLog
+import liquibase.executor.ExecutorService
+import liquibase.snapshot.SnapshotControl
+import liquibase.snapshot.SnapshotGeneratorFactory
+import liquibase.structure.core.Column
+import liquibase.structure.core.Data
+import liquibase.structure.core.ForeignKey
+import liquibase.structure.core.Index
+import liquibase.structure.core.PrimaryKey
+import liquibase.structure.core.Table
+import liquibase.test.H2Specification
+
+class DataComparisonTest extends H2Specification {
+
+    def "only differing key ranges are compared row by row"() {
+        given:
+        def reference = openDatabase("dataComparisonReference")
+        def comparison = openDatabase("dataComparisonComparison")
+        [reference, comparison].each {
+            execute(it, "create table item (id int primary key, name varchar(20), price decimal(10,2))")
+            execute(it, "insert into item select x, 'item ' || x, x / 100.0 from system_range(1, 5000)")
+        }
+        execute(comparison, "delete from item where id = 1234")
+        execute(comparison, "update item set name = 'changed' where id = 4321")
+        execute(comparison, "insert into item values (5001, 'extra', 1)")
+
+        def comparedRanges = []
+        def dataComparison = new DataComparison(reference, comparison, new CompareControl()) {
+            @Override
+            protected void compareRows(DataComparison.TableData referenceData, DataComparison.TableData comparisonData, Long start, Long end, DataDifferences differences) {
+                comparedRanges.add([start, end])
+                super.compareRows(referenceData, comparisonData, start, end, differences)
+            }
+        }.setRowsPerChunk(100)
+
+        when:
+        def differences = dataComparison.compare(snapshotTable(reference, "ITEM"), snapshotTable(comparison, "ITEM"))
+
+        then:
+        differences.keyColumnNames == ["ID"]
+        differences.missingRows*.get("ID") == [1234]
+        differences.unexpectedRows*.get("ID") == [5001]
+        differences.changedRows.size() == 1
+        differences.changedRows[0].key == [ID: 4321]
+        differences.changedRows[0].referenceValues == [NAME: "item 4321"]
+        differences.changedRows[0].comparisonValues == [NAME: "changed"]
+        differences.hasDifferences()
+        comparedRanges.size() == 3
+        comparedRanges.sum { it[1] - it[0] + 1 } < 300
+    }
+
+    def "tables without an integer key and databases of different types are compared by merging the rows ordered by key"() {
+        given:
+        def reference = openDatabase("dataComparisonReference")
+        def comparison = openDatabase("dataComparisonComparison", new H2Database() {})
+        [reference, comparison].each {
+            execute(it, "create table country (code varchar(2) primary key, name varchar(50))")
+            execute(it, "insert into country values ('DE', 'Germany'), ('FR', 'France')")
+        }
+        execute(comparison, "update country set name = 'Frankreich' where code = 'FR'")
+
+        when:
+        def differences = new DataComparison(reference, comparison, new CompareControl()).compare(snapshotTable(reference, "COUNTRY"), snapshotTable(comparison, "COUNTRY"))
+
+        then:
+        differences.missingRows.empty
+        differences.unexpectedRows.empty
+        differences.changedRows*.key == [[CODE: "FR"]]
+
+        when: "the data is the same"
+        execute(comparison, "update country set name = 'France' where code = 'FR'")
+        differences = new DataComparison(reference, comparison, new CompareControl()).compare(snapshotTable(reference, "COUNTRY"), snapshotTable(comparison, "COUNTRY"))
+
+        then:
+        !differences.hasDifferences()
+    }
+
+    def "tables with composite keys are compared by merging the rows ordered by key"() {
+        given:
+        def reference = openDatabase("dataComparisonReference")
+        def comparison = openDatabase("dataComparisonComparison")
+        [reference, comparison].each {
+            execute(it, "create table order_line (order_id int, line int, amount int, primary key (order_id, line))")
+            execute(it, "insert into order_line select x / 10, mod(x, 10), x from system_range(1, 500)")
+        }
+        execute(comparison, "delete from order_line where order_id = 7 and line = 3")
+        execute(comparison, "update order_line set amount = 0 where order_id = 20 and line = 5")
+        execute(comparison, "insert into order_line values (7, 10, 1)")
+
+        when:
+        def differences = new DataComparison(reference, comparison, new CompareControl()).compare(snapshotTable(reference, "ORDER_LINE"), snapshotTable(comparison, "ORDER_LINE"))
+
+        then:
+        differences.keyColumnNames == ["ORDER_ID", "LINE"]
+        differences.missingRows == [[ORDER_ID: 7, LINE: 3, AMOUNT: 73]]
+        differences.unexpectedRows == [[ORDER_ID: 7, LINE: 10, AMOUNT: 1]]
+        differences.changedRows*.key == [[ORDER_ID: 20, LINE: 5]]
+    }
+
+    def "keys the database orders differently are matched in memory"() {
+        given:
+        def reference = openDatabase("dataComparisonReference")
+        def comparison = openDatabase("dataComparisonComparison", new H2Database() {})
+        [reference, comparison].each {
+            execute(it, "create table tag (name varchar_ignorecase(20) primary key, weight int)")
+            execute(it, "insert into tag values ('a', 1), ('B', 2), ('c', 3)")
+        }
+        execute(comparison, "update tag set weight = 20 where name = 'B'")
+        execute(comparison, "delete from tag where name = 'c'")
+
+        when:
+        def differences = new DataComparison(reference, comparison, new CompareControl()).compare(snapshotTable(reference, "TAG"), snapshotTable(comparison, "TAG"))
+
+        then:
+        differences.missingRows*.get("NAME") == ["c"]
+        differences.unexpectedRows.empty
+        differences.changedRows*.key == [[NAME: "B"]]
+    }
+
+    def "row differences are reported as changed data and generate changes that make the data match"() {
+        given:
+        def reference = openDatabase("dataComparisonReference")
+        def comparison = openDatabase("dataComparisonComparison")
+        [reference, comparison].each {
+            execute(it, "create table person (id int primary key, name varchar(50))")
+            execute(it, "insert into person values (1, 'Ann'), (2, 'Bob'), (3, 'Cy')")
+        }
+        execute(comparison, "delete from person where id = 1")
+        execute(comparison, "update person set name = 'Robert' where id = 2")
+        execute(comparison, "insert into person values (4, 'Dee')")
+        Class[] types = [Table, Column, PrimaryKey, ForeignKey, Index, Data]
+        def compareControl = new CompareControl(types as Set)
+
+        when:
+        def diffResult = DiffGeneratorFactory.instance.compare(reference, comparison, new SnapshotControl(reference, types), new SnapshotControl(comparison, types), compareControl)
+        def changedData = diffResult.getChangedObjects(Data)
+
+        then:
+        changedData.size() == 1
+        changedData.values().iterator().next() instanceof DataDifferences
+
+        when:
+        def changes = new DiffToChangeLog(diffResult, new DiffOutputControl(false, false, false)).generateChangeSets()*.changes.flatten()
+
+        then:
+        changes*.class == [DeleteDataChange, UpdateDataChange, InsertDataChange]
+        changes[0].where == "ID = 4"
+        changes[1].where == "ID = 2"
+        changes[1].columns*.name == ["NAME"]
+        changes[1].columns*.value == ["Bob"]
+        changes[2].columns*.name == ["ID", "NAME"]
+
+        when:
+        changes.each { ExecutorService.instance.getExecutor(comparison).execute(it) }
+        comparison.commit()
+
+        then:
+        DiffGeneratorFactory.instance.compare(reference, comparison, new SnapshotControl(reference, types), new SnapshotControl(comparison, types), compareControl).getChangedObjects(Data).isEmpty()
+    }
+
+    private Table snapshotTable(Database database, String name) {
+        return SnapshotGeneratorFactory.instance.createSnapshot(new Table(null, "PUBLIC", name), database, new SnapshotControl(database, Table, Column, PrimaryKey))
+    }
+
+    private void execute(Database database, String sql) {
+        def statement = ((JdbcConnection) database.connection).createStatement()
+        statement.execute(sql)
+        statement.close()
+        database.commit()
+    }
+}
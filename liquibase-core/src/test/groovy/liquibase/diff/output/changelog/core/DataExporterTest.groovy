@@ -0,0 +1,143 @@
+package liquibase.diff.output.changelog.core
+
+import liquibase.database.Database
+import liquibase.structure.core.Column
+import liquibase.structure.core.PrimaryKey
+import liquibase.structure.core.Table
+import liquibase.test.H2Specification
+
+import java.util.zip.GZIPInputStream
+
+class DataExporterTest extends H2Specification {
+
+    File dir
+
+    def setup() {
+        dir = File.createTempFile("dataExporterTest", "")
+        dir.delete()
+        dir.mkdirs()
+    }
+
+    def cleanup() {
+        dir.deleteDir()
+    }
+
+    def "tables are exported with column types read from the metadata"() {
+        given:
+        def statement = connection.createStatement()
+        statement.execute("drop all objects")
+        statement.execute("create table person (id int primary key, name varchar(50), active boolean, born date, balance decimal(10,2))")
+        statement.execute("insert into person values (1, 'Ann, Jr', true, '1980-02-03', 10.50)")
+        statement.execute("insert into person values (2, null, false, null, null)")
+
+        when:
+        def exporter = new DataExporter(database)
+        def file = new File(dir, "person.csv")
+        def columns = exporter.export(new Table(null, "PUBLIC", "PERSON"), file)
+
+        then:
+        columns*.name == ["ID", "NAME", "ACTIVE", "BORN", "BALANCE"]
+        columns*.type == ["NUMERIC", "STRING", "BOOLEAN", "DATE", "NUMERIC"]
+        file.getText("UTF-8").readLines() == [
+                '"ID","NAME","ACTIVE","BORN","BALANCE"',
+                '"1","Ann, Jr","true","1980-02-03","10.50"',
+                '"2","NULL","false","NULL","NULL"'
+        ]
+    }
+
+    def "tables exported in parallel and split into key ranges match a serial export"() {
+        given:
+        def statement = connection.createStatement()
+        statement.execute("drop all objects")
+        statement.execute("create table item (id bigint primary key, name varchar(20))")
+        statement.execute("create table tag (name varchar(20))")
+        for (int i = 1; i <= 95; i++) {
+            statement.execute("insert into item values (" + (i * 3) + ", 'item " + i + "')")
+        }
+        statement.execute("insert into tag values ('red')")
+        def item = new Table(null, "PUBLIC", "ITEM")
+        item.setPrimaryKey(new PrimaryKey().addColumn(0, new Column("ID")).setTable(item))
+        def tag = new Table(null, "PUBLIC", "TAG")
+        connection.commit()
+
+        when:
+        def serialFile = new File(dir, "serial.csv")
+        new DataExporter(database).export(item, serialFile)
+
+        def exporter = new DataExporter(database, [openDatabase(), openDatabase()]).setRowsPerRange(20).setFetchSize(7)
+        def splitFile = new File(dir, "item.csv")
+        def tagFile = new File(dir, "tag.csv")
+        def columns = exporter.export(item, splitFile)
+        exporter.export(tag, tagFile)
+        exporter.close()
+
+        then:
+        columns*.name == ["ID", "NAME"]
+        splitFile.text == serialFile.text
+        splitFile.text.readLines().size() == 96
+        tagFile.text.readLines() == ['"NAME"', '"red"']
+        dir.list().findAll { it.contains(".part") }.empty
+    }
+
+    def "gzip output"() {
+        given:
+        def statement = connection.createStatement()
+        statement.execute("drop all objects")
+        statement.execute("create table item (id int primary key, name varchar(20))")
+        for (int i = 1; i <= 30; i++) {
+            statement.execute("insert into item values (" + i + ", 'item " + i + "')")
+        }
+        def item = new Table(null, "PUBLIC", "ITEM")
+        item.setPrimaryKey(new PrimaryKey().addColumn(0, new Column("ID")).setTable(item))
+        connection.commit()
+
+        when:
+        def exporter = new DataExporter(database, [openDatabase(), openDatabase()]).setGzip(true).setRowsPerRange(10)
+        def file = new File(dir, "item" + exporter.fileExtension)
+        exporter.export(item, file)
+        exporter.close()
+
+        then:
+        file.name == "item.csv.gz"
+        def lines = new GZIPInputStream(new FileInputStream(file)).getText("UTF-8").readLines()
+        lines.size() == 31
+        lines[0] == '"ID","NAME"'
+        lines[30] == '"30","item 30"'
+    }
+
+    def "worker threads are stopped once the exports are written and started again by the next export"() {
+        given:
+        def statement = connection.createStatement()
+        statement.execute("drop all objects")
+        statement.execute("create table item (id int primary key, name varchar(20))")
+        statement.execute("insert into item values (1, 'item 1')")
+        connection.commit()
+        def item = new Table(null, "PUBLIC", "ITEM")
+        def exporter = new DataExporter(database, [openDatabase(), openDatabase()])
+
+        when:
+        exporter.export(item, new File(dir, "first.csv"))
+        def workers = exporter.@executor
+        exporter.awaitExports()
+
+        then:
+        workers.isShutdown()
+        exporter.@executor == null
+        new File(dir, "first.csv").readLines().size() == 2
+
+        when:
+        exporter.export(item, new File(dir, "second.csv"))
+        exporter.awaitExports()
+
+        then:
+        exporter.@executor == null
+        new File(dir, "second.csv").readLines().size() == 2
+    }
+
+    /**
+     * Opens another connection to the database of the feature.
+     */
+    private Database openDatabase() {
+        return openDatabase(getClass().simpleName)
+    }
+}
@@ -0,0 +1,69 @@
+package liquibase.integration.spring
+
+import liquibase.exception.LiquibaseException
+import org.h2.jdbcx.JdbcDataSource
+import org.springframework.core.io.DefaultResourceLoader
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class MultiTenantSpringLiquibaseTest extends Specification {
+
+    def "concurrent schema tenants are all migrated and failures are reported per tenant"() {
+        when:
+        def url = "jdbc:h2:mem:multiTenantSpringLiquibaseTest"
+        Connection keepAlive = DriverManager.getConnection(url)
+        def statement = keepAlive.createStatement()
+        for (schema in ["TENANT1", "TENANT2", "TENANT3", "TENANT4"]) {
+            statement.execute("create schema " + schema)
+        }
+        statement.close()
+
+        def changeLogFile = File.createTempFile("multitenant", ".xml")
+        changeLogFile.deleteOnExit()
+        changeLogFile.text = """<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+        xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.4.xsd">
+    <changeSet id="1" author="test">
+        <createTable tableName="person">
+            <column name="id" type="int"/>
+        </createTable>
+    </changeSet>
+    <changeSet id="2" author="test">
+        <insert tableName="person">
+            <column name="id" valueNumeric="1"/>
+        </insert>
+    </changeSet>
+</databaseChangeLog>"""
+
+        def dataSource = new JdbcDataSource()
+        dataSource.setURL(url)
+
+        def liquibase = new MultiTenantSpringLiquibase()
+        liquibase.setDataSource(dataSource)
+        liquibase.setSchemas(["TENANT1", "TENANT2", "MISSING", "TENANT3", "TENANT4"])
+        liquibase.setChangeLog(changeLogFile.toURI().toString())
+        liquibase.setResourceLoader(new DefaultResourceLoader())
+        liquibase.setThreads(3)
+        liquibase.afterPropertiesSet()
+
+        then:
+        def e = thrown(LiquibaseException)
+        e.message.startsWith("Liquibase failed for 1 of 5 tenants: schema MISSING")
+        e.cause != null
+
+        ["TENANT1", "TENANT2", "TENANT3", "TENANT4"].each {
+            def resultSet = keepAlive.createStatement().executeQuery("select count(*) from " + it + ".DATABASECHANGELOG")
+            resultSet.next()
+            assert resultSet.getInt(1) == 2
+
+            resultSet = keepAlive.createStatement().executeQuery("select count(*) from " + it + ".person")
+            resultSet.next()
+            assert resultSet.getInt(1) == 1
+        }
+
+        cleanup:
+        keepAlive?.close()
+    }
+}
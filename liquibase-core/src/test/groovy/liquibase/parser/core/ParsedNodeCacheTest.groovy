@@ -0,0 +1,95 @@
+package liquibase.parser.core
+
+import liquibase.changelog.ChangeLogParameters
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.parser.ChangeLogParserCofiguration
+import liquibase.parser.core.xml.XMLChangeLogSAXParser
+import liquibase.resource.FileSystemResourceAccessor
+import spock.lang.Specification
+
+class ParsedNodeCacheTest extends Specification {
+
+    File dir
+
+    def setup() {
+        dir = File.createTempFile("parsednodecache", "")
+        dir.delete()
+        dir.mkdirs()
+    }
+
+    def cleanup() {
+        LiquibaseConfiguration.instance.getConfiguration(ChangeLogParserCofiguration).setParsedChangeLogCacheDirectory(null)
+        dir.deleteDir()
+    }
+
+    def "tree is read back as it was written"() {
+        when:
+        def cache = new ParsedNodeCache(new File(dir, "cache"))
+        def node = new ParsedNode(null, "databaseChangeLog")
+        def changeSet = new ParsedNode(null, "changeSet").addChild(null, "id", "1").addChild(null, "author", "tést")
+        changeSet.addChild(new ParsedNode("http://example.com/ns", "sql").setValue("select * from x where y = '€'"))
+        node.addChild(changeSet)
+        cache.put("key", node)
+        def read = cache.get("key")
+
+        then:
+        read.name == "databaseChangeLog"
+        read.namespace == null
+        read.value == null
+        read.children.size() == 1
+        read.children[0].getChildValue(null, "id") == "1"
+        read.children[0].getChildValue(null, "author") == "tést"
+        read.children[0].getChild("http://example.com/ns", "sql").value == "select * from x where y = '€'"
+        cache.get("missing") == null
+    }
+
+    def "unreadable entries are ignored"() {
+        when:
+        def cache = new ParsedNodeCache(dir)
+        new File(dir, "key.bin").bytes = [1, 2, 3] as byte[]
+
+        then:
+        cache.get("key") == null
+    }
+
+    def "XML parser uses the cached tree for unchanged content"() {
+        when:
+        def cacheDirectory = new File(dir, "cache")
+        LiquibaseConfiguration.instance.getConfiguration(ChangeLogParserCofiguration).setParsedChangeLogCacheDirectory(cacheDirectory.absolutePath)
+        def content = """<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+        xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.4.xsd">
+    <changeSet id="1" author="test">
+        <createTable tableName="person">
+            <column name="id" type="int"/>
+        </createTable>
+    </changeSet>
+</databaseChangeLog>"""
+        new File(dir, "changelog.xml").text = content
+        def changeLog = parse()
+
+        then:
+        changeLog.changeSets*.id == ["1"]
+        cacheDirectory.listFiles().length == 1
+
+        when: "the cache entry for the content is replaced"
+        def cache = new ParsedNodeCache(cacheDirectory)
+        def key = cache.createKey(XMLChangeLogSAXParser.name, content.getBytes("UTF-8"))
+        def replacement = new ParsedNode(null, "databaseChangeLog")
+        replacement.addChild(new ParsedNode(null, "changeSet").addChild(null, "id", "cached").addChild(null, "author", "test"))
+        cache.put(key, replacement)
+
+        then:
+        parse().changeSets*.id == ["cached"]
+
+        when: "the file changes"
+        new File(dir, "changelog.xml").text = content.replace('id="1"', 'id="2"')
+
+        then:
+        parse().changeSets*.id == ["2"]
+    }
+
+    private parse() {
+        return new XMLChangeLogSAXParser().parse("changelog.xml", new ChangeLogParameters(), new FileSystemResourceAccessor(dir.absolutePath))
+    }
+}
@@ -0,0 +1,147 @@
+package liquibase.serializer
+
+import liquibase.change.ColumnConfig
+import liquibase.change.core.CreateTableChange
+import liquibase.change.core.CreateViewChange
+import liquibase.changelog.ChangeLogParameters
+import liquibase.changelog.ChangeSet
+import liquibase.parser.ChangeLogParserFactory
+import liquibase.resource.FileSystemResourceAccessor
+import liquibase.serializer.core.formattedsql.FormattedSqlChangeLogSerializer
+import liquibase.serializer.core.json.JsonChangeLogSerializer
+import liquibase.serializer.core.xml.XMLChangeLogSerializer
+import liquibase.serializer.core.yaml.YamlChangeLogSerializer
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class StreamingChangeLogSerializerTest extends Specification {
+
+    File dir
+
+    def setup() {
+        dir = File.createTempFile("streamingchangelog", "")
+        dir.delete()
+        dir.mkdirs()
+    }
+
+    def cleanup() {
+        dir.deleteDir()
+    }
+
+    @Unroll("#featureName: #fileName")
+    def "changeSets written one at a time and appended later parse back in order"() {
+        when:
+        def file = new File(dir, fileName)
+        def out = new FileOutputStream(file)
+        def writer = serializer.createWriter(out)
+        writer.write(createTable("1", fileName, "person"))
+        writer.write(createView("2", fileName))
+        writer.close()
+        out.close()
+
+        writer = serializer.appendTo(file)
+        writer.write(createTable("3", fileName, "address"))
+        writer.close()
+
+        def changeLog = parse(fileName)
+
+        then:
+        changeLog.changeSets*.id == ["1", "2", "3"]
+        !parsesChanges || changeLog.changeSets[1].changes[0].selectQuery == "select * from person where id < 10 & name <> 'x'"
+        !parsesChanges || changeLog.changeSets[2].changes[0].tableName == "address"
+
+        where:
+        fileName           | serializer                              | parsesChanges
+        "changelog.xml"    | new XMLChangeLogSerializer()            | true
+        "changelog.yaml"   | new YamlChangeLogSerializer()           | true
+        "changelog.json"   | new JsonChangeLogSerializer()           | true
+        "changelog.h2.sql" | new FormattedSqlChangeLogSerializer()   | false
+    }
+
+    @Unroll("#featureName: #fileName")
+    def "changeSets can be appended to an empty changelog"() {
+        when:
+        def file = new File(dir, fileName)
+        def out = new FileOutputStream(file)
+        serializer.createWriter(out).close()
+        out.close()
+
+        def writer = serializer.appendTo(file)
+        writer.write(createTable("1", fileName, "person"))
+        writer.close()
+
+        then:
+        parse(fileName).changeSets*.id == ["1"]
+
+        where:
+        fileName         | serializer
+        "changelog.xml"  | new XMLChangeLogSerializer()
+        "changelog.yaml" | new YamlChangeLogSerializer()
+        "changelog.json" | new JsonChangeLogSerializer()
+    }
+
+    @Unroll("#featureName: #fileName")
+    def "the changelog is not changed until the first changeSet is appended"() {
+        when:
+        def file = new File(dir, fileName)
+        def out = new FileOutputStream(file)
+        def writer = serializer.createWriter(out)
+        writer.write(createTable("1", fileName, "person"))
+        writer.close()
+        out.close()
+        def original = file.text
+
+        serializer.appendTo(file).close()
+
+        then:
+        file.text == original
+
+        where:
+        fileName           | serializer
+        "changelog.xml"    | new XMLChangeLogSerializer()
+        "changelog.yaml"   | new YamlChangeLogSerializer()
+        "changelog.json"   | new JsonChangeLogSerializer()
+        "changelog.h2.sql" | new FormattedSqlChangeLogSerializer()
+    }
+
+    @Unroll("#featureName: #fileName")
+    def "appending to a file that is not a changelog fails without changing it"() {
+        when:
+        def file = new File(dir, fileName)
+        file.text = "not a changelog\n"
+        serializer.appendTo(file)
+
+        then:
+        thrown(IOException)
+        file.text == "not a changelog\n"
+
+        where:
+        fileName         | serializer
+        "changelog.xml"  | new XMLChangeLogSerializer()
+        "changelog.yaml" | new YamlChangeLogSerializer()
+        "changelog.json" | new JsonChangeLogSerializer()
+    }
+
+    private parse(String fileName) {
+        def resourceAccessor = new FileSystemResourceAccessor(dir.absolutePath)
+        return ChangeLogParserFactory.instance.getParser(fileName, resourceAccessor).parse(fileName, new ChangeLogParameters(), resourceAccessor)
+    }
+
+    private ChangeSet createTable(String id, String fileName, String tableName) {
+        def change = new CreateTableChange()
+        change.tableName = tableName
+        change.addColumn(new ColumnConfig().setName("id").setType("int"))
+        def changeSet = new ChangeSet(id, "test", false, false, fileName, null, null, null)
+        changeSet.addChange(change)
+        return changeSet
+    }
+
+    private ChangeSet createView(String id, String fileName) {
+        def change = new CreateViewChange()
+        change.viewName = "person_view"
+        change.selectQuery = "select * from person where id < 10 & name <> 'x'"
+        def changeSet = new ChangeSet(id, "test", false, false, fileName, null, null, null)
+        changeSet.addChange(change)
+        return changeSet
+    }
+}
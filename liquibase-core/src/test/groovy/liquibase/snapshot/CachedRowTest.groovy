@@ -0,0 +1,61 @@
+package liquibase.snapshot
+
+import liquibase.structure.DatabaseObject
+import liquibase.test.H2Specification
+
+class CachedRowTest extends H2Specification {
+
+    def "values are read by column name and new columns can be set"() {
+        when:
+        def columns = new CachedRow.Columns(["TABLE_NAME", "COLUMN_SIZE", "NULLABLE"] as String[])
+        def row = new CachedRow(columns, ["person", 10L, 1] as Object[])
+        def otherRow = new CachedRow(columns, ["address", 20L, 0] as Object[])
+        row.set("COLUMN_DEF", "0")
+        row.set("COLUMN_SIZE", null)
+
+        then:
+        row.getString("TABLE_NAME") == "person"
+        row.get("COLUMN_SIZE") == null
+        row.getString("COLUMN_DEF") == "0"
+        row.getBoolean("NULLABLE")
+        row.get("MISSING") == null
+        !row.containsColumn("MISSING")
+
+        otherRow.getInt("COLUMN_SIZE") == 20
+        !otherRow.containsColumn("COLUMN_DEF")
+    }
+
+    def "map based rows behave like extracted rows"() {
+        when:
+        def row = new CachedRow([TABLE_NAME: "person", DATA_TYPE: 4])
+
+        then:
+        row.getString("TABLE_NAME") == "person"
+        row.getShort("DATA_TYPE") == 4 as Short
+        row.containsColumn("DATA_TYPE")
+    }
+
+    def "bulk fetched rows are found by exact and wildcard lookups and share repeated strings"() {
+        when:
+        connection.createStatement().execute("create table person (id int, name varchar(50), address_id int)")
+        connection.createStatement().execute("create table address (id int, street varchar(50))")
+
+        def snapshot = new JdbcDatabaseSnapshot(new DatabaseObject[0], database)
+        def metaData = snapshot.getMetaData()
+        def catalog = database.getDefaultCatalogName()
+        def schema = database.getDefaultSchemaName()
+        def personColumns = metaData.getColumns(catalog, schema, "PERSON", null)
+        def nameColumn = metaData.getColumns(catalog, schema, "PERSON", "NAME")
+        def allColumns = metaData.getColumns(catalog, schema, null, null)
+        def cache = snapshot.getResultSetCache("getColumns")
+
+        then:
+        personColumns*.getString("COLUMN_NAME") == ["ID", "NAME", "ADDRESS_ID"]
+        nameColumn*.getString("COLUMN_NAME") == ["NAME"]
+        allColumns.size() == 5
+        metaData.getColumns(catalog, schema, "ADDRESS", "NAME") == []
+        personColumns[0].getString("TABLE_NAME").is(personColumns[2].getString("TABLE_NAME"))
+        cache.getBulkQueryCount() == 1
+        cache.getHitCount() == 3
+    }
+}
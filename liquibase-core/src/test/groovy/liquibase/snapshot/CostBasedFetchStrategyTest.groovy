@@ -0,0 +1,74 @@
+package liquibase.snapshot
+
+import liquibase.structure.DatabaseObject
+import liquibase.structure.core.Schema
+import liquibase.structure.core.Table
+import liquibase.test.H2Specification
+
+class CostBasedFetchStrategyTest extends H2Specification {
+
+    def setup() {
+        for (int i = 1; i <= 200; i++) {
+            connection.createStatement().execute("create table table_" + i + " (id int primary key, code int unique)")
+        }
+    }
+
+    def "default strategy bulk fetches after three single queries and counts lookups"() {
+        when:
+        def snapshot = new JdbcDatabaseSnapshot(new DatabaseObject[0], database)
+        def metaData = snapshot.getMetaData()
+        (1..5).each {
+            metaData.getUniqueConstraints(catalog(), schema(), "TABLE_" + it)
+        }
+        metaData.getUniqueConstraints(catalog(), schema(), "TABLE_4")
+        def cache = snapshot.getResultSetCache("getUniqueConstraints")
+
+        then:
+        cache.getSingleQueryCount() == 3
+        cache.getBulkQueryCount() == 1
+        cache.getHitCount() == 2
+        cache.getBulkRowCount((catalog() + "." + schema()).toLowerCase()) == 200
+    }
+
+    def "cost based strategy keeps single queries until enough objects were requested for the schema size"() {
+        when:
+        def snapshotControl = new SnapshotControl(database)
+        snapshotControl.setFetchStrategy(new CostBasedFetchStrategy())
+        def snapshot = new JdbcDatabaseSnapshot([new Table(catalog(), schema(), "TABLE_1")] as DatabaseObject[], database, snapshotControl)
+        def metaData = snapshot.getMetaData()
+        def cache = snapshot.getResultSetCache("getUniqueConstraints")
+
+        then: "the first table lookup read the table list"
+        snapshot.getResultSetCache("getTables").getBulkQueryCount() == 1
+        snapshot.getResultSetCache("getTables").getSingleQueryCount() == 0
+
+        when:
+        def table = 1
+        while (cache.getBulkQueryCount() == 0) {
+            metaData.getUniqueConstraints(catalog(), schema(), "TABLE_" + table++)
+        }
+
+        then: "200 tables at 50 tables per round trip cost as much as 5 single queries"
+        cache.getSingleQueryCount() == 4
+    }
+
+    def "cost based strategy bulk fetches right away for schema snapshots"() {
+        when:
+        def snapshotControl = new SnapshotControl(database)
+        snapshotControl.setFetchStrategy(new CostBasedFetchStrategy())
+        def snapshot = new JdbcDatabaseSnapshot([new Schema(catalog(), schema())] as DatabaseObject[], database, snapshotControl)
+
+        then:
+        snapshot.get(Table.class).size() == 200
+        snapshot.getResultSetCache("getTables").getSingleQueryCount() == 0
+        snapshot.getResultSetCache("getTables").getBulkQueryCount() == 1
+    }
+
+    private String catalog() {
+        return database.getDefaultCatalogName()
+    }
+
+    private String schema() {
+        return database.getDefaultSchemaName()
+    }
+}
@@ -0,0 +1,109 @@
+package liquibase.snapshot
+
+import liquibase.CatalogAndSchema
+import liquibase.database.Database
+import liquibase.diff.DiffGeneratorFactory
+import liquibase.diff.compare.CompareControl
+import liquibase.parser.SnapshotParserFactory
+import liquibase.resource.FileSystemResourceAccessor
+import liquibase.serializer.SnapshotSerializerFactory
+import liquibase.structure.core.*
+import liquibase.test.H2Specification
+
+class IncrementalSnapshotTest extends H2Specification {
+
+    def setup() {
+        execute("create table person (id int primary key, name varchar(50))",
+                "create index idx_person_name on person (name)",
+                "create table address (id int primary key, street varchar(50))",
+                "create table orders (id int primary key, person_id int, constraint fk_orders_person foreign key (person_id) references person (id))",
+                "create table city (id int primary key)")
+    }
+
+    def "only changed tables are read again and the result matches a full snapshot"() {
+        when:
+        def schemas = [database.getDefaultSchema()] as CatalogAndSchema[]
+        def previousSnapshot = restore(SnapshotGeneratorFactory.getInstance().createSnapshot(schemas, database, new SnapshotControl(database)))
+
+        execute("alter table address add column zip varchar(10)",
+                "drop table city",
+                "create table country (id int primary key)")
+
+        def before = new Date(previousSnapshot.getCreated().getTime() - 60000)
+        def after = new Date()
+        def readTables = []
+        def snapshotControl = new SnapshotControl(database)
+        snapshotControl.setSnapshotListener(new SnapshotListener() {
+            @Override
+            void willSnapshot(liquibase.structure.DatabaseObject example, Database database) {
+                if (example instanceof Table) {
+                    readTables.add(example.getName())
+                }
+            }
+
+            @Override
+            void finishedSnapshot(liquibase.structure.DatabaseObject example, liquibase.structure.DatabaseObject snapshot, Database database) {
+            }
+        })
+        def snapshot = new IncrementalSnapshot(previousSnapshot) {
+            @Override
+            protected Map<String, Date> getLastDdlTimes(Schema schema, Class<? extends Relation> type, Database database) {
+                if (type == View) {
+                    return [:]
+                }
+                return [PERSON: before, ORDERS: before, ADDRESS: after, COUNTRY: after]
+            }
+        }.createSnapshot(schemas, database, snapshotControl)
+        def fullSnapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(schemas, database, new SnapshotControl(database))
+        def person = snapshot.get(new Table(null, database.getDefaultSchemaName(), "PERSON"))
+        def previousPerson = previousSnapshot.get(new Table(null, database.getDefaultSchemaName(), "PERSON"))
+
+        then:
+        readTables.unique().sort() == ["ADDRESS", "COUNTRY"]
+        snapshot.get(Table)*.getName().sort() == ["ADDRESS", "COUNTRY", "ORDERS", "PERSON"]
+        snapshot.get(new Table(null, database.getDefaultSchemaName(), "ADDRESS")).getColumn("ZIP") != null
+        snapshot.getSnapshotControl().shouldInclude(Table)
+        DiffGeneratorFactory.getInstance().compare(snapshot, fullSnapshot, new CompareControl()).areEqual()
+        !DiffGeneratorFactory.getInstance().compare(previousSnapshot, fullSnapshot, new CompareControl()).areEqual()
+
+        person.getSchema().is(snapshot.get(Schema).iterator().next())
+        snapshot.get(ForeignKey).iterator().next().getPrimaryKeyTable().is(person)
+        snapshot.get(Schema).iterator().next().getDatabaseObjects(Table).size() == 4
+        !snapshot.getCreated().before(after)
+
+        and: "the previous snapshot is left as it was"
+        !person.is(previousPerson)
+        previousPerson.getSchema().is(previousSnapshot.get(Schema).iterator().next())
+        previousPerson.getColumns().every { it.getRelation().is(previousPerson) }
+        previousSnapshot.get(ForeignKey).iterator().next().getPrimaryKeyTable().is(previousPerson)
+        !person.getColumns().any { previousSnapshot.get(Column).any { previous -> previous.is(it) } }
+        person.getColumns().every { it.getRelation().is(person) }
+    }
+
+    def "databases without DDL times get a full snapshot"() {
+        when:
+        def schemas = [database.getDefaultSchema()] as CatalogAndSchema[]
+        def previousSnapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(schemas, database, new SnapshotControl(database))
+        execute("drop table city")
+        def snapshot = new IncrementalSnapshot(previousSnapshot).createSnapshot(schemas, database, new SnapshotControl(database))
+
+        then:
+        snapshot.get(Table)*.getName().sort() == ["ADDRESS", "ORDERS", "PERSON"]
+    }
+
+    private DatabaseSnapshot restore(DatabaseSnapshot snapshot) {
+        def file = File.createTempFile("incrementalSnapshotTest", ".yaml")
+        file.deleteOnExit()
+        file.text = SnapshotSerializerFactory.getInstance().getSerializer("yaml").serialize(snapshot, true)
+        def resourceAccessor = new FileSystemResourceAccessor(file.getParent())
+        def restored = SnapshotParserFactory.getInstance().getParser(file.getName(), resourceAccessor).parse(file.getName(), resourceAccessor)
+        assert Math.abs(restored.getCreated().getTime() - snapshot.getCreated().getTime()) < 1000
+        return restored
+    }
+
+    private void execute(String... sql) {
+        for (String statement : sql) {
+            connection.createStatement().execute(statement)
+        }
+    }
+}
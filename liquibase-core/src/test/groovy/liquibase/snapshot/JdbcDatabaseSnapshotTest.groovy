@@ -0,0 +1,32 @@
+package liquibase.snapshot
+
+import liquibase.structure.DatabaseObject
+import liquibase.test.H2Specification
+
+class JdbcDatabaseSnapshotTest extends H2Specification {
+
+    def "getAutoIncrementColumns checks only the requested column on databases without a catalog query"() {
+        when:
+        for (int i = 1; i <= 5; i++) {
+            connection.createStatement().execute("create table table_" + i + " (id int auto_increment primary key, name varchar(50))")
+        }
+        def metaData = new JdbcDatabaseSnapshot(new DatabaseObject[0], database).getMetaData()
+        def catalog = database.getDefaultCatalogName()
+        def schema = database.getDefaultSchemaName()
+
+        then:
+        (1..5).each {
+            assert metaData.getAutoIncrementColumns(catalog, schema, "TABLE_" + it, "ID")*.getString("IS_AUTOINCREMENT") == ["YES"]
+            assert metaData.getAutoIncrementColumns(catalog, schema, "TABLE_" + it, "NAME")*.getString("IS_AUTOINCREMENT") == ["NO"]
+        }
+    }
+
+    def "getColumnRemarks returns nothing for databases that report remarks through getColumns"() {
+        when:
+        connection.createStatement().execute("create table person (id int)")
+        def metaData = new JdbcDatabaseSnapshot(new DatabaseObject[0], database).getMetaData()
+
+        then:
+        metaData.getColumnRemarks(database.getDefaultCatalogName(), database.getDefaultSchemaName(), "PERSON", "ID") == []
+    }
+}
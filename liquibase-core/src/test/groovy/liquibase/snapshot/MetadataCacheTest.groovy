@@ -0,0 +1,107 @@
+package liquibase.snapshot
+
+import liquibase.change.ColumnConfig
+import liquibase.change.core.CreateTableChange
+import liquibase.structure.core.Column
+import liquibase.structure.core.Table
+import liquibase.test.H2Specification
+
+class MetadataCacheTest extends H2Specification {
+
+    def cleanup() {
+        SnapshotGeneratorFactory.instance.stopMetadataCache(database)
+    }
+
+    def "objects are looked up one at a time until the schema was asked for often enough"() {
+        when:
+        def metadataCache = SnapshotGeneratorFactory.instance.startMetadataCache(database)
+
+        then:
+        !SnapshotGeneratorFactory.instance.has(new Table(null, null, "PERSON"), database)
+
+        when: "the table is created without going through a change"
+        connection.createStatement().execute("create table person (id int, name varchar(50))")
+
+        then: "the schema is not snapshotted yet, so the table is found"
+        SnapshotGeneratorFactory.instance.has(new Table(null, null, "PERSON"), database)
+        metadataCache.getHitCount() == 0
+
+        when: "the third lookup snapshots the schema"
+        def addressFound = SnapshotGeneratorFactory.instance.has(new Table(null, null, "ADDRESS"), database)
+        connection.createStatement().execute("create table address (id int)")
+
+        then:
+        !addressFound
+        !SnapshotGeneratorFactory.instance.has(new Table(null, null, "ADDRESS"), database)
+        SnapshotGeneratorFactory.instance.has(new Table(null, null, "PERSON"), database)
+        metadataCache.getHitCount() == 2
+        metadataCache.getMissCount() == 3
+    }
+
+    def "a change marks only the objects it affects as changed"() {
+        when:
+        def metadataCache = SnapshotGeneratorFactory.instance.startMetadataCache(database)
+        connection.createStatement().execute("create table person (id int)")
+        warmUp(null)
+        connection.createStatement().execute("create table address (id int, street varchar(50))")
+        connection.createStatement().execute("create table city (id int)")
+
+        then:
+        !SnapshotGeneratorFactory.instance.has(new Table(null, null, "ADDRESS"), database)
+
+        when:
+        def change = new CreateTableChange()
+        change.setTableName("address")
+        change.addColumn(new ColumnConfig().setName("id").setType("int"))
+        metadataCache.invalidate(change)
+        def missesBefore = metadataCache.getMissCount()
+
+        then: "the created table is looked up again, the others still come from the snapshot"
+        SnapshotGeneratorFactory.instance.has(new Table(null, null, "ADDRESS"), database)
+        SnapshotGeneratorFactory.instance.has(new Table(null, null, "PERSON"), database)
+        !SnapshotGeneratorFactory.instance.has(new Table(null, null, "CITY"), database)
+        metadataCache.getMissCount() == missesBefore + 1
+
+        and: "columns are looked up on their own"
+        SnapshotGeneratorFactory.instance.has(new Column(Table.class, null, null, "ADDRESS", "STREET"), database)
+        !SnapshotGeneratorFactory.instance.has(new Column(Table.class, null, null, "ADDRESS", "ZIP"), database)
+    }
+
+    def "changed objects only affect their own schema"() {
+        when:
+        connection.createStatement().execute("create schema other")
+        def metadataCache = SnapshotGeneratorFactory.instance.startMetadataCache(database)
+        warmUp("OTHER")
+        warmUp(null)
+
+        connection.createStatement().execute("create table other.address (id int)")
+        connection.createStatement().execute("create table address (id int)")
+        metadataCache.invalidate(new Table(null, "OTHER", "ADDRESS"))
+
+        then:
+        SnapshotGeneratorFactory.instance.has(new Table(null, "OTHER", "ADDRESS"), database)
+        !SnapshotGeneratorFactory.instance.has(new Table(null, null, "ADDRESS"), database)
+    }
+
+    def "cache is removed once the outermost scope stops"() {
+        when:
+        SnapshotGeneratorFactory.instance.startMetadataCache(database)
+        SnapshotGeneratorFactory.instance.startMetadataCache(database)
+        SnapshotGeneratorFactory.instance.stopMetadataCache(database)
+
+        then:
+        SnapshotGeneratorFactory.instance.getMetadataCache(database) != null
+
+        when:
+        SnapshotGeneratorFactory.instance.stopMetadataCache(database)
+
+        then:
+        SnapshotGeneratorFactory.instance.getMetadataCache(database) == null
+    }
+
+    private void warmUp(String schemaName) {
+        MetadataCache.LOOKUPS_BEFORE_SNAPSHOT.times {
+            SnapshotGeneratorFactory.instance.has(new Table(null, schemaName, "MISSING_TABLE"), database)
+        }
+    }
+}
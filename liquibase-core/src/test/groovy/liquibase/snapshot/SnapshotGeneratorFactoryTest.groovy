@@ -0,0 +1,97 @@
+package liquibase.snapshot
+
+import liquibase.CatalogAndSchema
+import liquibase.database.Database
+import liquibase.executor.ExecutorService
+import liquibase.structure.core.ForeignKey
+import liquibase.structure.core.Schema
+import liquibase.structure.core.Table
+import liquibase.test.H2Specification
+import org.h2.jdbcx.JdbcDataSource
+
+class SnapshotGeneratorFactoryTest extends H2Specification {
+
+    def "parallel snapshot of several schemas matches a serial snapshot"() {
+        when:
+        def statement = connection.createStatement()
+        statement.execute("create schema tenant_a")
+        statement.execute("create schema tenant_b")
+        statement.execute("create table tenant_a.person (id int primary key, name varchar(50))")
+        statement.execute("create table tenant_b.person (id int primary key, name varchar(50))")
+        statement.execute("create table tenant_b.address (id int primary key, person_id int, constraint fk_address_person foreign key (person_id) references tenant_a.person(id))")
+
+        def examples = [new CatalogAndSchema(null, "TENANT_A"), new CatalogAndSchema(null, "TENANT_B")] as CatalogAndSchema[]
+        def serial = SnapshotGeneratorFactory.instance.createSnapshot(examples, database, new SnapshotControl(database))
+        def parallel = SnapshotGeneratorFactory.instance.createSnapshot(examples, database, new SnapshotControl(database), [openDatabase(), openDatabase()])
+
+        then:
+        parallel instanceof JdbcDatabaseSnapshot
+        parallel.database == database
+        parallel.get(Schema).collect { it.name }.sort() == serial.get(Schema).collect { it.name }.sort()
+        parallel.get(Table).collect { it.schema.name + "." + it.name }.sort() == ["TENANT_A.PERSON", "TENANT_B.ADDRESS", "TENANT_B.PERSON"]
+        parallel.get(Table).collect { it.schema.name + "." + it.name }.sort() == serial.get(Table).collect { it.schema.name + "." + it.name }.sort()
+
+        when: "a foreign key references a table snapshotted by another worker"
+        def foreignKey = parallel.get(ForeignKey).find { it.name == "FK_ADDRESS_PERSON" }
+        def referencedTable = parallel.get(new Table(null, "TENANT_A", "PERSON"))
+
+        then:
+        foreignKey != null
+        foreignKey.primaryKeyTable.is(referencedTable)
+    }
+
+    def "parallel snapshot uses the fetch strategy of the snapshot control and keeps the requested schemas"() {
+        when:
+        def statement = connection.createStatement()
+        statement.execute("create schema fetch_a")
+        statement.execute("create schema fetch_b")
+        statement.execute("create table fetch_a.person (id int primary key)")
+        statement.execute("create table fetch_b.person (id int primary key)")
+
+        def askedCaches = Collections.synchronizedList([])
+        def snapshotControl = new SnapshotControl(database)
+        snapshotControl.setFetchStrategy({ String schemaKey, ResultSetCache cache ->
+            askedCaches.add(cache.name)
+            return true
+        } as ResultSetFetchStrategy)
+        def examples = [new CatalogAndSchema(null, "FETCH_A"), new CatalogAndSchema(null, "FETCH_B")] as CatalogAndSchema[]
+        def parallel = SnapshotGeneratorFactory.instance.createSnapshot(examples, database, snapshotControl, [openDatabase(), openDatabase()])
+
+        then:
+        askedCaches.contains("getTables")
+        parallel.originalExamples*.name == ["FETCH_A", "FETCH_B"]
+        parallel.get(Table).collect { it.schema.name + "." + it.name }.sort() == ["FETCH_A.PERSON", "FETCH_B.PERSON"]
+    }
+
+    def "parallel snapshot does not leave executors registered for the worker databases"() {
+        when:
+        def statement = connection.createStatement()
+        statement.execute("create schema executor_a")
+        statement.execute("create schema executor_b")
+        def examples = [new CatalogAndSchema(null, "EXECUTOR_A"), new CatalogAndSchema(null, "EXECUTOR_B")] as CatalogAndSchema[]
+        def registeredDatabases = new HashSet(ExecutorService.instance.@executors.keySet())
+
+        def workerDatabases = [openDatabase(), openDatabase()]
+        SnapshotGeneratorFactory.instance.createSnapshot(examples, database, new SnapshotControl(database), workerDatabases)
+
+        then:
+        !ExecutorService.instance.@executors.keySet().any { workerDatabases.contains(it) }
+
+        when:
+        def dataSource = new JdbcDataSource()
+        dataSource.setURL("jdbc:h2:mem:" + getClass().simpleName)
+        dataSource.setUser("sa")
+        dataSource.setPassword("")
+        SnapshotGeneratorFactory.instance.createSnapshot(examples, database, new SnapshotControl(database), dataSource, 2)
+
+        then:
+        ExecutorService.instance.@executors.keySet().findAll { !registeredDatabases.contains(it) && !it.is(database) }.isEmpty()
+    }
+
+    /**
+     * Opens another connection to the database of the feature.
+     */
+    private Database openDatabase() {
+        return openDatabase(getClass().simpleName)
+    }
+}
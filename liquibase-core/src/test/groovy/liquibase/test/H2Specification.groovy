@@ -0,0 +1,43 @@
+package liquibase.test
+
+import liquibase.database.Database
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+/**
+ * Base for specifications that run against in-memory H2 databases.
+ * Each feature gets a <code>database</code> and its <code>connection</code> on a database named after the specification.
+ * More connections can be opened with {@link #openDatabase(java.lang.String)}, and all of them are closed in cleanup,
+ * which drops the in-memory databases.
+ */
+abstract class H2Specification extends Specification {
+
+    Connection connection
+    Database database
+
+    private List<Connection> openConnections = []
+
+    def setup() {
+        database = openDatabase(getClass().simpleName)
+        connection = openConnections[0]
+    }
+
+    def cleanup() {
+        openConnections*.close()
+        openConnections.clear()
+    }
+
+    /**
+     * Opens a new connection to the in-memory database with the given name, which lives until every connection to it is closed.
+     */
+    protected Database openDatabase(String name, Database database = new H2Database()) {
+        def connection = DriverManager.getConnection("jdbc:h2:mem:" + name, "sa", "")
+        openConnections.add(connection)
+        database.setConnection(new JdbcConnection(connection))
+        return database
+    }
+}
@@ -0,0 +1,75 @@
+package liquibase.util
+
+import liquibase.database.Database
+import liquibase.database.core.H2Database
+import liquibase.database.core.MySQLDatabase
+import liquibase.exception.DatabaseException
+import liquibase.sdk.database.MockDatabase
+import liquibase.structure.core.Column
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+class DispatchTableTest extends Specification {
+
+    def "values are cached per type, database class and major version"() {
+        given:
+        def table = new DispatchTable<String>()
+        def h2 = new H2Database()
+        def mysql5 = Mock(MySQLDatabase)
+        mysql5.getDatabaseMajorVersion() >> 5
+        def mysql8 = Mock(MySQLDatabase)
+        mysql8.getDatabaseMajorVersion() >> 8
+
+        when:
+        table.put(Table, h2, "h2 table")
+        table.put(Column, h2, "h2 column")
+        table.put(Table, mysql5, "mysql 5 table")
+        table.put(Table, mysql8, "mysql 8 table")
+        table.put(Table, null, "no database table")
+
+        then:
+        table.get(Table, h2) == "h2 table"
+        table.get(Column, h2) == "h2 column"
+        table.get(Table, new H2Database()) == "h2 table"
+        table.get(Table, mysql5) == "mysql 5 table"
+        table.get(Table, mysql8) == "mysql 8 table"
+        table.get(Column, mysql5) == null
+        table.get(Table, null) == "no database table"
+        table.get(Table, new MockDatabase()) == null
+    }
+
+    def "the first value put is kept"() {
+        given:
+        def table = new DispatchTable<String>()
+
+        expect:
+        table.put(Table, new H2Database(), "first") == "first"
+        table.put(Table, new H2Database(), "second") == "first"
+        table.get(Table, new H2Database()) == "first"
+    }
+
+    def "databases that cannot return a version are cached as version 0"() {
+        given:
+        def table = new DispatchTable<String>()
+        def database = Mock(Database)
+        database.getDatabaseMajorVersion() >> { throw new DatabaseException("no connection") }
+
+        when:
+        table.put(Table, database, "value")
+
+        then:
+        table.get(Table, database) == "value"
+    }
+
+    def "clear removes all values"() {
+        given:
+        def table = new DispatchTable<String>()
+        table.put(Table, new H2Database(), "value")
+
+        when:
+        table.clear()
+
+        then:
+        table.get(Table, new H2Database()) == null
+    }
+}
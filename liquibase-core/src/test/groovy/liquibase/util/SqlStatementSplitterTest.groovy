@@ -0,0 +1,82 @@
+package liquibase.util
+
+import liquibase.exception.UnexpectedLiquibaseException
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class SqlStatementSplitterTest extends Specification {
+
+    @Unroll
+    def "splits the same way as processMutliLineSQL"() {
+        expect:
+        new SqlStatementSplitter(new StringReader(rawString), stripComments, splitStatements, endDelimiter).collect() == expected
+        StringUtils.processMutliLineSQL(rawString, stripComments, splitStatements, endDelimiter) as List == expected
+
+        where:
+        stripComments | splitStatements | endDelimiter | rawString                                                        | expected
+        true          | true            | null         | "statement 1;\nstatement 2;\nGO\n\nstatement 3; statement 4;"   | ["statement 1", "statement 2", "statement 3", "statement 4"]
+        true          | true            | null         | "select 'a;b' from x; -- comment\nselect 1 /* ; */ from y\n"     | ["select 'a;b' from x", "select 1  from y\n"]
+        false         | true            | null         | "select 1; -- comment\nselect 2"                                 | ["select 1", "-- comment\nselect 2"]
+        true          | false           | null         | "select 1;\nselect 2;"                                           | ["select 1;\nselect 2;"]
+        true          | true            | "\\ngo"      | "create procedure x as select 1;\nGO\nselect 2;here\ngo\n"       | ["create procedure x as select 1;", "select 2;here"]
+        true          | true            | null         | " \n\n "                                                         | []
+    }
+
+    def "reads only as far as the next statement"() {
+        when:
+        def sql = new StringBuilder()
+        for (int i = 0; i < 10000; i++) {
+            sql.append("insert into person values (").append(i).append(", 'name ").append(i).append("');\n")
+        }
+        def read = 0
+        def reader = new FilterReader(new StringReader(sql.toString())) {
+            @Override
+            int read(char[] cbuf, int off, int len) throws IOException {
+                int count = super.read(cbuf, off, len)
+                if (count > 0) {
+                    read += count
+                }
+                return count
+            }
+        }
+        def splitter = new SqlStatementSplitter(reader, true, true, null)
+        def first = splitter.next()
+        def readForFirst = read
+        def count = 1
+        while (splitter.hasNext()) {
+            splitter.next()
+            count++
+        }
+
+        then:
+        first == "insert into person values (0, 'name 0')"
+        readForFirst < sql.length() / 10
+        count == 10000
+    }
+
+    def "read errors are not treated as the end of the sql"() {
+        when:
+        def reader = new Reader() {
+            boolean readOnce
+
+            @Override
+            int read(char[] cbuf, int off, int len) throws IOException {
+                if (readOnce) {
+                    throw new IOException("connection reset")
+                }
+                readOnce = true
+                "select 1;".getChars(0, 9, cbuf, off)
+                return 9
+            }
+
+            @Override
+            void close() throws IOException {
+            }
+        }
+        new SqlStatementSplitter(reader, true, true, null).collect()
+
+        then:
+        def e = thrown(UnexpectedLiquibaseException)
+        e.cause.message == "connection reset"
+    }
+}
@@ -146,6 +146,35 @@ public class AbstractSQLChangeTest {
         assertEquals("LINE 3", ((RawSqlStatement) statements[2]).getSql());
     }
 
+    @Test
+    public void generateStatements_crEndingSplitsOnGo() {
+        ExampleAbstractSQLChange change = new ExampleAbstractSQLChange("LINE 1\rgo\rLINE 2\rLINE 3\rGO\rLINE 4");
+
+        change.setSplitStatements(true);
+        change.setStripComments(true);
+        SqlStatement[] statements = change.generateStatements(mock(Database.class));
+        assertEquals(3, statements.length);
+        assertEquals("LINE 1", ((RawSqlStatement) statements[0]).getSql());
+        assertEquals("LINE 2\nLINE 3", ((RawSqlStatement) statements[1]).getSql());
+        assertEquals("LINE 4", ((RawSqlStatement) statements[2]).getSql());
+    }
+
+    @Test
+    public void generateStatements_crlfEndingSplitAcrossReads() {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            sql.append("LINE ").append(i).append("\r\ngo\r\n");
+        }
+        ExampleAbstractSQLChange change = new ExampleAbstractSQLChange(sql.toString());
+
+        change.setSplitStatements(true);
+        SqlStatement[] statements = change.generateStatements(mock(Database.class));
+        assertEquals(3000, statements.length);
+        for (int i = 0; i < 3000; i++) {
+            assertEquals("LINE " + i, ((RawSqlStatement) statements[i]).getSql());
+        }
+    }
+
     @Test
     public void generateStatements_convertsEndingsOnSqlServer() {
         ExampleAbstractSQLChange change = new ExampleAbstractSQLChange("LINE 1;\n--a comment\nLINE 2;\nLINE 3;");
@@ -0,0 +1,59 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.statement.core.TableChecksumStatement;
+import liquibase.structure.core.DataType;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class TableChecksumGeneratorMSSQLTest {
+
+    @Test
+    public void columnsAreHashedWithHashbytes() {
+        MSSQLDatabase database = new MSSQLDatabase();
+        TableChecksumStatement statement = new TableChecksumStatement(null, "dbo", "mytable", Arrays.asList("id", "name", "created"))
+                .setColumnTypes(Arrays.asList(new DataType("int"), varchar(50), new DataType("datetime")));
+
+        String sql = new TableChecksumGeneratorMSSQL().generateSql(statement, database, null)[0].toSql();
+
+        assertTrue(sql.contains("SUM(CAST(CAST(CAST(CAST(ISNULL(HASHBYTES('MD5', CONVERT(VARCHAR(100), [id])), HASHBYTES('MD5', '<NULL>')) AS BINARY(4)) AS INT) AS BIGINT) * 1"
+                + " + CAST(CAST(CAST(ISNULL(HASHBYTES('MD5', [name]), HASHBYTES('MD5', '<NULL>')) AS BINARY(4)) AS INT) AS BIGINT) * 3"
+                + " + CAST(CAST(CAST(ISNULL(HASHBYTES('MD5', CONVERT(VARCHAR(40), [created], 121)), HASHBYTES('MD5', '<NULL>')) AS BINARY(4)) AS INT) AS BIGINT) * 5 AS DECIMAL(38, 0)))"));
+        assertFalse(sql.contains("BINARY_CHECKSUM"));
+    }
+
+    @Test
+    public void nullIsNotHashedAsATruncatedMarker() {
+        TableChecksumStatement statement = new TableChecksumStatement(null, "dbo", "mytable", Arrays.asList("flag"))
+                .setColumnTypes(Arrays.asList(new DataType("char(1)")));
+
+        String sql = new TableChecksumGeneratorMSSQL().generateSql(statement, new MSSQLDatabase(), null)[0].toSql();
+
+        assertTrue(sql.contains("ISNULL(HASHBYTES('MD5', [flag]), HASHBYTES('MD5', '<NULL>'))"));
+        assertFalse(sql.contains("ISNULL([flag]"));
+    }
+
+    @Test
+    public void tablesWithTypesHashbytesCannotTakeAreNotSupported() {
+        MSSQLDatabase database = new MSSQLDatabase();
+        TableChecksumGeneratorMSSQL generator = new TableChecksumGeneratorMSSQL();
+
+        assertTrue(generator.supports(statement(new DataType("int"), varchar(8000)), database));
+        assertFalse(generator.supports(statement(new DataType("int"), new DataType("text")), database));
+        assertFalse(generator.supports(statement(new DataType("int"), new DataType("xml")), database));
+        assertFalse(generator.supports(statement(new DataType("int"), varchar(Integer.MAX_VALUE)), database));
+    }
+
+    private TableChecksumStatement statement(DataType... columnTypes) {
+        return new TableChecksumStatement(null, null, "mytable", Arrays.asList("id", "value")).setColumnTypes(Arrays.asList(columnTypes));
+    }
+
+    private DataType varchar(int size) {
+        DataType type = new DataType("varchar");
+        type.setColumnSize(size);
+        return type;
+    }
+}
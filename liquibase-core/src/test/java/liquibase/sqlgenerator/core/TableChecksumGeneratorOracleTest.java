@@ -0,0 +1,40 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.core.OracleDatabase;
+import liquibase.statement.core.TableChecksumStatement;
+import liquibase.structure.core.DataType;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class TableChecksumGeneratorOracleTest {
+
+    @Test
+    public void valuesAreConvertedWithExplicitFormats() {
+        OracleDatabase database = new OracleDatabase();
+        TableChecksumStatement statement = new TableChecksumStatement(null, "myschema", "mytable", Arrays.asList("id", "created", "updated", "name"))
+                .setColumnTypes(Arrays.asList(new DataType("NUMBER"), new DataType("DATE"), new DataType("TIMESTAMP(6)"), new DataType("VARCHAR2")));
+
+        String sql = new TableChecksumGeneratorOracle().generateSql(statement, database, null)[0].toSql();
+
+        assertTrue(sql.contains("ORA_HASH(NVL(TO_CHAR(id, 'TM9', 'NLS_NUMERIC_CHARACTERS=''.,'''), '<NULL>'), 4294967295, 0)"));
+        assertTrue(sql.contains("ORA_HASH(NVL(TO_CHAR(created, 'YYYY-MM-DD HH24:MI:SS'), '<NULL>'), 4294967295, 1)"));
+        assertTrue(sql.contains("ORA_HASH(NVL(TO_CHAR(updated, 'YYYY-MM-DD HH24:MI:SS.FF9'), '<NULL>'), 4294967295, 2)"));
+        assertTrue(sql.contains("ORA_HASH(NVL(TO_CHAR(name), '<NULL>'), 4294967295, 3)"));
+    }
+
+    @Test
+    public void tablesWithLobsAreNotSupported() {
+        OracleDatabase database = new OracleDatabase();
+        TableChecksumGeneratorOracle generator = new TableChecksumGeneratorOracle();
+
+        assertTrue(generator.supports(new TableChecksumStatement(null, null, "mytable", Arrays.asList("id", "name"))
+                .setColumnTypes(Arrays.asList(new DataType("NUMBER"), new DataType("VARCHAR2"))), database));
+        assertFalse(generator.supports(new TableChecksumStatement(null, null, "mytable", Arrays.asList("id", "data"))
+                .setColumnTypes(Arrays.asList(new DataType("NUMBER"), new DataType("BLOB"))), database));
+        assertFalse(generator.supports(new TableChecksumStatement(null, null, "mytable", Arrays.asList("id", "text"))
+                .setColumnTypes(Arrays.asList(new DataType("NUMBER"), new DataType("CLOB"))), database));
+    }
+}